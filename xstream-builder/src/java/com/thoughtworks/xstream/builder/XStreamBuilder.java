@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2007 XStream Committers.
+ * Copyright (C) 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -20,6 +20,7 @@ import com.thoughtworks.xstream.builder.processor.AliasFieldProcessor;
 import com.thoughtworks.xstream.builder.processor.AliasTypeProcessor;
 import com.thoughtworks.xstream.builder.processor.ConfigProcessor;
 import com.thoughtworks.xstream.builder.processor.ConverterProcessor;
+import com.thoughtworks.xstream.builder.processor.DirectConverterProcessor;
 import com.thoughtworks.xstream.builder.processor.FieldConfigProcessor;
 import com.thoughtworks.xstream.builder.processor.IdReferencesProcessor;
 import com.thoughtworks.xstream.builder.processor.IgnoreFieldProcessor;
@@ -100,6 +101,16 @@ public class XStreamBuilder {
     	return new ConverterProcessor(converter);
     }
 
+    /**
+     * Marshal the type with a dedicated converter that accesses the fields directly with the aliases known at build
+     * time.
+     * @return the processor registering the converter
+     * @since upcoming
+     */
+    protected TypeConfigProcessor directConverter() {
+    	return new DirectConverterProcessor();
+    }
+
     protected TypeConfigProcessor annotated() {
     	return new AnnotatedTypeProcessor();
     }
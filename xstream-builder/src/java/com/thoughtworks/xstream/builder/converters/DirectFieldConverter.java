@@ -0,0 +1,343 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.builder.converters;
+
+import java.io.Externalizable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ConverterLookup;
+import com.thoughtworks.xstream.converters.MarshallingContext;
+import com.thoughtworks.xstream.converters.UnmarshallingContext;
+import com.thoughtworks.xstream.converters.reflection.AbstractReflectionConverter;
+import com.thoughtworks.xstream.converters.reflection.ObjectAccessException;
+import com.thoughtworks.xstream.converters.reflection.ReflectionConverter;
+import com.thoughtworks.xstream.converters.reflection.ReflectionProvider;
+import com.thoughtworks.xstream.core.util.HierarchicalStreams;
+import com.thoughtworks.xstream.core.util.Primitives;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.mapper.Mapper;
+
+/**
+ * A converter dedicated to a single type configured in the builder.
+ * <p>
+ * The converter binds the serializable fields of the type once and keeps for each field its serialized name, its
+ * default implementation and a method handle to read and write it. Marshalling and unmarshalling of an object access
+ * the fields with these handles and look up the converter of a final field type only once, the mapper is consulted
+ * only for values of a different type than declared. The produced format is the same as the one of the
+ * {@link ReflectionConverter}.
+ * </p>
+ * <p>
+ * The fields are bound with the first processed object, i.e. after the complete configuration has been applied. If the
+ * configuration of the type requires implicit collections, fields written as attributes or local converters, the
+ * converter delegates to a {@link ReflectionConverter}. Types with own serialization methods or shadowed fields are
+ * not supported at all, see {@link #isSupported(Class)}.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class DirectFieldConverter implements Converter {
+
+	private final Class type;
+	private final Mapper mapper;
+	private final ReflectionProvider reflectionProvider;
+	private final ConverterLookup converterLookup;
+	private volatile Bindings bindings;
+
+	/**
+	 * Construct a DirectFieldConverter.
+	 *
+	 * @param type the handled type
+	 * @param mapper the mapper of the XStream instance
+	 * @param reflectionProvider the reflection provider of the XStream instance
+	 * @param converterLookup the converter lookup of the XStream instance
+	 * @throws IllegalArgumentException if the type is not supported
+	 * @since upcoming
+	 */
+	public DirectFieldConverter(Class type, Mapper mapper, ReflectionProvider reflectionProvider,
+			ConverterLookup converterLookup) {
+		if (!isSupported(type)) {
+			throw new IllegalArgumentException("Type " + type.getName() + " cannot be handled by a "
+					+ DirectFieldConverter.class.getName());
+		}
+		this.type = type;
+		this.mapper = mapper;
+		this.reflectionProvider = reflectionProvider;
+		this.converterLookup = converterLookup;
+	}
+
+	/**
+	 * Check whether a type can be handled by this converter.
+	 * <p>
+	 * Supported are concrete classes without serialization methods (readObject, writeObject, readResolve and
+	 * writeReplace), that are not {@link Externalizable} and that do not declare a field with the same name as one of
+	 * their super classes.
+	 * </p>
+	 *
+	 * @param type the type to check
+	 * @return <code>true</code> if the type can be handled
+	 * @since upcoming
+	 */
+	public static boolean isSupported(Class type) {
+		if (type.isInterface() || type.isArray() || type.isPrimitive() || type.isEnum()
+				|| Modifier.isAbstract(type.getModifiers()) || Externalizable.class.isAssignableFrom(type)) {
+			return false;
+		}
+		Set names = new HashSet();
+		for (Class cls = type; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+			if (hasMethod(cls, "readObject") || hasMethod(cls, "writeObject") || hasMethod(cls, "readResolve")
+					|| hasMethod(cls, "writeReplace")) {
+				return false;
+			}
+			Field[] fields = cls.getDeclaredFields();
+			for (int i = 0; i < fields.length; i++) {
+				int modifiers = fields[i].getModifiers();
+				if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)
+						&& !names.add(fields[i].getName())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean hasMethod(Class type, String name) {
+		java.lang.reflect.Method[] methods = type.getDeclaredMethods();
+		for (int i = 0; i < methods.length; i++) {
+			if (methods[i].getName().equals(name) && !Modifier.isStatic(methods[i].getModifiers())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public boolean canConvert(Class type) {
+		return type == this.type;
+	}
+
+	public void marshal(Object source, HierarchicalStreamWriter writer, MarshallingContext context) {
+		Bindings bindings = bindingsFor(source);
+		if (bindings.fallback != null) {
+			bindings.fallback.marshal(source, writer, context);
+			return;
+		}
+		FieldBinding[] fields = bindings.fields;
+		for (int i = 0; i < fields.length; i++) {
+			FieldBinding field = fields[i];
+			Object value = field.get(source);
+			if (value == null) {
+				continue;
+			}
+			Class actualType = value.getClass();
+			writer.startNode(field.serializedName, actualType);
+			if (actualType != field.defaultImplementation) {
+				String serializedClassName = mapper.serializedClass(actualType);
+				if (!serializedClassName.equals(field.serializedDefaultImplementation)
+						&& bindings.classAttributeName != null) {
+					writer.addAttribute(bindings.classAttributeName, serializedClassName);
+				}
+			}
+			if (field.converter != null && actualType == field.valueType) {
+				context.convertAnother(value, field.converter);
+			} else {
+				context.convertAnother(value);
+			}
+			writer.endNode();
+		}
+	}
+
+	public Object unmarshal(HierarchicalStreamReader reader, UnmarshallingContext context) {
+		Object result = context.currentObject();
+		if (result == null) {
+			result = reflectionProvider.newInstance(type);
+		}
+		Bindings bindings = bindingsFor(result);
+		if (bindings.fallback != null) {
+			return bindings.fallback.doUnmarshal(result, reader, context);
+		}
+		while (reader.hasMoreChildren()) {
+			reader.moveDown();
+			String name = reader.getNodeName();
+			FieldBinding field = (FieldBinding)bindings.fieldsByName.get(name);
+			if (field == null) {
+				if (!mapper.isIgnoredElement(name)) {
+					throw new AbstractReflectionConverter.UnknownFieldException(type.getName(), name);
+				}
+			} else {
+				String classAttribute = HierarchicalStreams.readClassAttribute(reader, mapper);
+				Class valueType = classAttribute == null ? field.defaultImplementation : mapper.realClass(
+						classAttribute);
+				Object value;
+				if (field.converter != null && valueType == field.defaultImplementation) {
+					value = context.convertAnother(result, valueType, field.converter);
+				} else {
+					value = context.convertAnother(result, valueType);
+				}
+				if (value != null && !field.valueType.isInstance(value)) {
+					ConversionException exception = new ConversionException("Cannot convert type");
+					exception.add("source-type", value.getClass().getName());
+					exception.add("target-type", field.valueType.getName());
+					throw exception;
+				}
+				field.set(result, value);
+			}
+			reader.moveUp();
+		}
+		return result;
+	}
+
+	private Bindings bindingsFor(Object item) {
+		Bindings result = bindings;
+		if (result == null) {
+			// racy, but the bindings are always equivalent
+			result = bind(item);
+			bindings = result;
+		}
+		return result;
+	}
+
+	private Bindings bind(Object item) {
+		final List names = new ArrayList();
+		final List declaringTypes = new ArrayList();
+		reflectionProvider.visitSerializableFields(item, new ReflectionProvider.Visitor() {
+			public void visit(String fieldName, Class fieldType, Class definedIn, Object value) {
+				names.add(fieldName);
+				declaringTypes.add(definedIn);
+			}
+		});
+
+		List fields = new ArrayList();
+		Map fieldsByName = new HashMap();
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			for (int i = 0; i < names.size(); i++) {
+				String fieldName = (String)names.get(i);
+				Class definedIn = (Class)declaringTypes.get(i);
+				if (!mapper.shouldSerializeMember(definedIn, fieldName)) {
+					continue;
+				}
+				Field field = reflectionProvider.getField(definedIn, fieldName);
+				if (mapper.getImplicitCollectionDefForFieldName(type, fieldName) != null
+						|| mapper.getConverterFromItemType(fieldName, field.getType(), definedIn) != null
+						|| mapper.getLocalConverter(definedIn, fieldName) != null) {
+					return new Bindings(new ReflectionConverter(mapper, reflectionProvider, type));
+				}
+				field.setAccessible(true);
+				FieldBinding binding = new FieldBinding(field, mapper.serializedMember(type, fieldName), lookup);
+				binding.defaultImplementation = mapper.defaultImplementationOf(field.getType());
+				binding.serializedDefaultImplementation = mapper.serializedClass(binding.defaultImplementation);
+				if (field.getType().isPrimitive() || Modifier.isFinal(field.getType().getModifiers())) {
+					binding.converter = converterLookup.lookupConverterForType(binding.defaultImplementation);
+				}
+				fields.add(binding);
+				fieldsByName.put(binding.serializedName, binding);
+			}
+		} catch (IllegalAccessException e) {
+			return new Bindings(new ReflectionConverter(mapper, reflectionProvider, type));
+		} catch (SecurityException e) {
+			return new Bindings(new ReflectionConverter(mapper, reflectionProvider, type));
+		} catch (RuntimeException e) {
+			// InaccessibleObjectException of Java 9 and later
+			if (e.getClass().getName().equals("java.lang.reflect.InaccessibleObjectException")) {
+				return new Bindings(new ReflectionConverter(mapper, reflectionProvider, type));
+			}
+			throw e;
+		}
+		return new Bindings((FieldBinding[])fields.toArray(new FieldBinding[fields.size()]), fieldsByName, mapper
+				.aliasForSystemAttribute("class"));
+	}
+
+	private static class Bindings {
+		final FieldBinding[] fields;
+		final Map fieldsByName;
+		final String classAttributeName;
+		final ReflectionConverter fallback;
+
+		Bindings(FieldBinding[] fields, Map fieldsByName, String classAttributeName) {
+			this.fields = fields;
+			this.fieldsByName = fieldsByName;
+			this.classAttributeName = classAttributeName;
+			this.fallback = null;
+		}
+
+		Bindings(ReflectionConverter fallback) {
+			this.fields = null;
+			this.fieldsByName = null;
+			this.classAttributeName = null;
+			this.fallback = fallback;
+		}
+	}
+
+	private static class FieldBinding {
+		private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+		private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+		final Field field;
+		final String serializedName;
+		final Class valueType;
+		final MethodHandle getter;
+		final MethodHandle setter;
+		Class defaultImplementation;
+		String serializedDefaultImplementation;
+		Converter converter;
+
+		FieldBinding(Field field, String serializedName, MethodHandles.Lookup lookup) throws IllegalAccessException {
+			this.field = field;
+			this.serializedName = serializedName;
+			this.valueType = field.getType().isPrimitive() ? Primitives.box(field.getType()) : field.getType();
+			this.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+			this.setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+		}
+
+		Object get(Object object) {
+			try {
+				return (Object)getter.invokeExact(object);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				ObjectAccessException exception = new ObjectAccessException("Cannot access field", e);
+				exception.add("field", field.getDeclaringClass().getName() + "." + field.getName());
+				throw exception;
+			}
+		}
+
+		void set(Object object, Object value) {
+			if (value == null && field.getType().isPrimitive()) {
+				return;
+			}
+			try {
+				setter.invokeExact(object, value);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				ObjectAccessException exception = new ObjectAccessException("Cannot access field", e);
+				exception.add("field", field.getDeclaringClass().getName() + "." + field.getName());
+				throw exception;
+			}
+		}
+	}
+}
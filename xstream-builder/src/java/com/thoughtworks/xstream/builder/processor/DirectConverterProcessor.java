@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.builder.processor;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.builder.converters.DirectFieldConverter;
+
+/**
+ * A processor which registers a dedicated {@link DirectFieldConverter} for the type. Types that are not supported by
+ * the converter keep their default converter.
+ *
+ * @since upcoming
+ */
+public class DirectConverterProcessor implements TypeConfigProcessor {
+
+	public void process(XStream instance, Class type) {
+		if (DirectFieldConverter.isSupported(type)) {
+			instance.registerConverter(new DirectFieldConverter(type, instance.getMapper(), instance
+					.getReflectionProvider(), instance.getConverterLookup()), XStream.PRIORITY_VERY_HIGH);
+		}
+	}
+
+}
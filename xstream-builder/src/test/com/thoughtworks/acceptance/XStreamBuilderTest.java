@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2007 XStream Committers.
+ * Copyright (C) 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -15,8 +15,11 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 
+import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.builder.XStreamBuilder;
+import com.thoughtworks.xstream.builder.processor.ConfigProcessor;
 import com.thoughtworks.xstream.builder.processor.TypeConfigProcessor;
+import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.MarshallingContext;
 import com.thoughtworks.xstream.converters.UnmarshallingContext;
@@ -206,4 +209,122 @@ public class XStreamBuilderTest extends AbstractBuilderAcceptanceTest {
 
     }
     
+    public static class Employee {
+        private String name;
+        private int age;
+        private Object note;
+        private Office office;
+        private transient String cache;
+    }
+
+    static class PermittingXStreamBuilder extends XStreamBuilder {
+        protected XStream createBasicInstance() {
+            XStream xstream = super.createBasicInstance();
+            xstream.allowTypesByWildcard(new String[]{"com.thoughtworks.acceptance.**"});
+            return xstream;
+        }
+    }
+
+    private Employee createEmployee() {
+        Employee employee = new Employee();
+        employee.name = "Joe";
+        employee.age = 42;
+        employee.note = new StringBuffer("new");
+        employee.office = new Office("Rua Vergueiro");
+        employee.cache = "cached";
+        return employee;
+    }
+
+    public void testHandleCorrectlyDirectConverter() {
+
+        XStreamBuilder builder = new PermittingXStreamBuilder() {
+            {
+                handle(Office.class).with(new TypeConfigProcessor[]{alias("office"), directConverter()});
+                handle(Employee.class).with(new TypeConfigProcessor[]{
+                                                alias("employee"),
+                                                directConverter(),
+                                                field("name").with(as("fullName")),
+                                                ignores("age")
+                                            });
+            }
+        };
+
+        String expected = ""
+            + "<employee>\n"
+            + "  <fullName>Joe</fullName>\n"
+            + "  <note class=\"string-buffer\">new</note>\n"
+            + "  <office>\n"
+            + "    <address>Rua Vergueiro</address>\n"
+            + "  </office>\n"
+            + "</employee>";
+
+        Employee employee = (Employee)assertBothWays(builder.buildXStream(), createEmployee(), expected);
+        assertEquals("Joe", employee.name);
+        assertEquals(0, employee.age);
+        assertEquals("new", employee.note.toString());
+        assertNull(employee.cache);
+    }
+
+    public void testDirectConverterWritesSameFormatAsReflection() {
+
+        XStreamBuilder reflectionBuilder = new PermittingXStreamBuilder() {
+            {
+            	with(idReferences());
+                handle(Employee.class).with(alias("employee"));
+            }
+        };
+        XStreamBuilder directBuilder = new PermittingXStreamBuilder() {
+            {
+            	with(idReferences());
+                handle(Employee.class).with(new TypeConfigProcessor[]{alias("employee"), directConverter()});
+            }
+        };
+
+        Employee employee = createEmployee();
+        employee.note = employee.office;
+        List root = new ArrayList();
+        root.add(employee);
+        root.add(employee.office);
+        root.add(employee);
+
+        assertBothWays(directBuilder.buildXStream(), root, reflectionBuilder.buildXStream().toXML(root));
+    }
+
+    public void testDirectConverterDelegatesToReflectionForAttributes() {
+
+        XStreamBuilder builder = new PermittingXStreamBuilder() {
+            {
+                handle(Employee.class).with(new TypeConfigProcessor[]{alias("employee"), directConverter()});
+                with(new ConfigProcessor() {
+                    public void process(XStream instance) {
+                        instance.useAttributeFor(Employee.class, "age");
+                    }
+                });
+            }
+        };
+
+        Employee employee = createEmployee();
+        employee.note = null;
+        employee.office = null;
+        String expected = "<employee age=\"42\">\n  <name>Joe</name>\n</employee>";
+
+        assertBothWays(builder.buildXStream(), employee, expected);
+    }
+
+    public void testDirectConverterRejectsUnknownElements() {
+
+        XStreamBuilder builder = new PermittingXStreamBuilder() {
+            {
+                handle(Office.class).with(new TypeConfigProcessor[]{alias("office"), directConverter()});
+            }
+        };
+
+        try {
+            builder.buildXStream().fromXML("<office><street>Rua Vergueiro</street></office>");
+            fail("Thrown " + ConversionException.class.getName() + " expected");
+        } catch (final ConversionException e) {
+            assertEquals("street", e.get("field"));
+        }
+    }
+
 }
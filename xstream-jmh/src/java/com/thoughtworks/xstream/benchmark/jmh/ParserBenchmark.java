@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2015, 2017, 2021 XStream Committers.
+ * Copyright (C) 2015, 2017, 2021, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -37,7 +37,9 @@ import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.io.HierarchicalStreamDriver;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import com.thoughtworks.xstream.io.binary.BinaryStreamDriver;
+import com.thoughtworks.xstream.io.json.AbstractJsonWriter;
 import com.thoughtworks.xstream.io.json.JettisonMappedXmlDriver;
+import com.thoughtworks.xstream.io.json.JsonHierarchicalStreamDriver;
 import com.thoughtworks.xstream.io.xml.BEAStaxDriver;
 import com.thoughtworks.xstream.io.xml.Dom4JDriver;
 import com.thoughtworks.xstream.io.xml.DomDriver;
@@ -159,7 +161,13 @@ public class ParserBenchmark {
          *
          * @since 1.4.9
          */
-        Jettison(new JettisonMappedXmlDriver());
+        Jettison(new JettisonMappedXmlDriver()), //
+        /**
+         * Factory for the {@link JsonHierarchicalStreamDriver} in explicit mode.
+         *
+         * @since upcoming
+         */
+        Json(new JsonHierarchicalStreamDriver(AbstractJsonWriter.EXPLICIT_MODE));
 
         private final HierarchicalStreamDriver driver;
 
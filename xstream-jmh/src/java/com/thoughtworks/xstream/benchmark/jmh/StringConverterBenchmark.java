@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2015, 2017, 2021 XStream Committers.
+ * Copyright (C) 2015, 2017, 2021, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -35,6 +35,8 @@ import org.openjdk.jmh.infra.BenchmarkParams;
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.converters.SingleValueConverter;
 import com.thoughtworks.xstream.converters.basic.AbstractSingleValueConverter;
+import com.thoughtworks.xstream.converters.basic.StringConverter;
+import com.thoughtworks.xstream.core.util.StringDeduplicationCache;
 import com.thoughtworks.xstream.core.util.WeakCache;
 import com.thoughtworks.xstream.io.xml.CompactWriter;
 import com.thoughtworks.xstream.io.xml.MXParserDriver;
@@ -260,6 +262,9 @@ public class StringConverterBenchmark {
         case "limitedConcurrentMap":
             converter = new SynchronizedWeakCacheStringConverter(UUID.randomUUID().toString().length());
             break;
+        case "limitedDeduplicationCache":
+            converter = new StringConverter(new StringDeduplicationCache(), UUID.randomUUID().toString().length());
+            break;
         default:
             throw new IllegalStateException("Unsupported benchmark type: " + benchmark);
         }
@@ -330,6 +335,16 @@ public class StringConverterBenchmark {
         run();
     }
 
+    /**
+     * Strings of 38 characters or less are cached in a bounded deduplication cache.
+     *
+     * @since upcoming
+     */
+    @Benchmark
+    public void limitedDeduplicationCache() {
+        run();
+    }
+
     private void run() {
         final String[] array = xstream.fromXML(xml);
         assert array.length == 10000 : "array length is " + array.length;
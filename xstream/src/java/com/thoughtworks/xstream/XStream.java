@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2012, 2013, 2014, 2015, 2016, 2017, 2018, 2019, 2020, 2021 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2012, 2013, 2014, 2015, 2016, 2017, 2018, 2019, 2020, 2021, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -33,6 +33,9 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -73,6 +76,7 @@ import java.time.temporal.ChronoUnit;
 import java.time.temporal.IsoFields;
 import java.time.temporal.ValueRange;
 import java.time.temporal.WeekFields;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -81,12 +85,14 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Currency;
 import java.util.Date;
+import java.util.Deque;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
@@ -96,13 +102,22 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TimeZone;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.UUID;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
@@ -190,11 +205,13 @@ import com.thoughtworks.xstream.converters.time.YearConverter;
 import com.thoughtworks.xstream.converters.time.YearMonthConverter;
 import com.thoughtworks.xstream.converters.time.ZoneIdConverter;
 import com.thoughtworks.xstream.converters.time.ZonedDateTimeConverter;
+import com.thoughtworks.xstream.core.Caching;
 import com.thoughtworks.xstream.core.ClassLoaderReference;
 import com.thoughtworks.xstream.core.DefaultConverterLookup;
 import com.thoughtworks.xstream.core.JVM;
 import com.thoughtworks.xstream.core.MapBackedDataHolder;
 import com.thoughtworks.xstream.core.ReferenceByIdMarshallingStrategy;
+import com.thoughtworks.xstream.core.ReferenceBySequenceMarshallingStrategy;
 import com.thoughtworks.xstream.core.ReferenceByXPathMarshallingStrategy;
 import com.thoughtworks.xstream.core.TreeMarshallingStrategy;
 import com.thoughtworks.xstream.core.util.CompositeClassLoader;
@@ -206,6 +223,12 @@ import com.thoughtworks.xstream.io.HierarchicalStreamDriver;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import com.thoughtworks.xstream.io.StatefulWriter;
+import com.thoughtworks.xstream.io.copy.HierarchicalStreamCopier;
+import com.thoughtworks.xstream.io.copy.RecordingWriter;
+import com.thoughtworks.xstream.io.naming.NoNameCoder;
+import com.thoughtworks.xstream.io.xml.XppDomReader;
+import com.thoughtworks.xstream.io.xml.XppDomWriter;
+import com.thoughtworks.xstream.io.xml.xppdom.XppDom;
 import com.thoughtworks.xstream.mapper.AnnotationMapper;
 import com.thoughtworks.xstream.mapper.ArrayMapper;
 import com.thoughtworks.xstream.mapper.AttributeAliasingMapper;
@@ -348,6 +371,12 @@ import com.thoughtworks.xstream.security.WildcardTypePermission;
  * is easier to work with.</td>
  * </tr>
  * <tr>
+ * <td><code>xstream.setMode(XStream.SEQUENCE_REFERENCES);</code></td>
+ * <td>Uses a sequence of integers as IDs to signify duplicate references. The format is the same as with ID references,
+ * but neither the marshaller nor the unmarshaller has to track paths or use maps with string keys. This is the fastest
+ * mode supporting object graphs.</td>
+ * </tr>
+ * <tr>
  * <td><code>xstream.setMode(XStream.NO_REFERENCES);</code></td>
  * <td>This disables object graph support and treats the object structure like a tree. Duplicate references are treated
  * as two separate objects and circular references cause an exception. This is slightly faster and uses less memory than
@@ -396,6 +425,8 @@ public class XStream {
     private LocalConversionMapper localConversionMapper;
     private SecurityMapper securityMapper;
     private AnnotationMapper annotationMapper;
+    private CachingMapper cachingMapper;
+    private boolean initialized;
 
     public static final int NO_REFERENCES = 1001;
     public static final int ID_REFERENCES = 1002;
@@ -403,6 +434,10 @@ public class XStream {
     public static final int XPATH_ABSOLUTE_REFERENCES = 1004;
     public static final int SINGLE_NODE_XPATH_RELATIVE_REFERENCES = 1005;
     public static final int SINGLE_NODE_XPATH_ABSOLUTE_REFERENCES = 1006;
+    /**
+     * @since upcoming
+     */
+    public static final int SEQUENCE_REFERENCES = 1007;
 
     public static final int PRIORITY_VERY_HIGH = 10000;
     public static final int PRIORITY_NORMAL = 0;
@@ -537,17 +572,13 @@ public class XStream {
             final ReflectionProvider reflectionProvider, final HierarchicalStreamDriver driver,
             final ClassLoaderReference classLoader, final Mapper mapper,
             final DefaultConverterLookup defaultConverterLookup) {
-        this(reflectionProvider, driver, classLoader, mapper, new ConverterLookup() {
-            @Override
-            public Converter lookupConverterForType(final Class<?> type) {
-                return defaultConverterLookup.lookupConverterForType(type);
-            }
-        }, new ConverterRegistry() {
-            @Override
-            public void registerConverter(final Converter converter, final int priority) {
-                defaultConverterLookup.registerConverter(converter, priority);
-            }
-        });
+        this(reflectionProvider, driver, classLoader, mapper, new CachingConverterLookup(defaultConverterLookup),
+            new ConverterRegistry() {
+                @Override
+                public void registerConverter(final Converter converter, final int priority) {
+                    defaultConverterLookup.registerConverter(converter, priority);
+                }
+            });
     }
 
     /**
@@ -616,6 +647,8 @@ public class XStream {
         setupConverters();
         setupImmutableTypes();
         setMode(XPATH_RELATIVE_REFERENCES);
+        initialized = true;
+        flushCaches();
     }
 
     private Mapper buildMapper() {
@@ -688,6 +721,38 @@ public class XStream {
         localConversionMapper = mapper.lookupMapperOfType(LocalConversionMapper.class);
         securityMapper = mapper.lookupMapperOfType(SecurityMapper.class);
         annotationMapper = mapper.lookupMapperOfType(AnnotationMapper.class);
+        cachingMapper = mapper.lookupMapperOfType(CachingMapper.class);
+    }
+
+    /**
+     * Flushes the caches that depend on the configuration of the mapper chain.
+     * <p>
+     * The configuration methods of XStream call this method automatically. A mapper of the chain that is configured
+     * directly, e.g. with
+     * <code>xstream.getMapper().lookupMapperOfType(FieldAliasingMapper.class).addFieldAlias(...)</code>, requires
+     * an explicit call after the modification, otherwise the cached lookups and the marshalling plans of the
+     * converters may still reflect the previous configuration.
+     * </p>
+     * <p>
+     * The converters resolved by XStream's own converter lookup are kept, they are revalidated with a new
+     * registration anyway. Any other {@link Caching} converter lookup is flushed completely. Nothing is flushed while
+     * the constructor sets up the instance, the caches are flushed once at its end.
+     * </p>
+     *
+     * @since upcoming
+     */
+    public void flushCaches() {
+        if (!initialized) {
+            return;
+        }
+        if (cachingMapper != null) {
+            cachingMapper.flushCache();
+        }
+        if (converterLookup instanceof CachingConverterLookup) {
+            ((CachingConverterLookup)converterLookup).flushConverterCaches();
+        } else if (converterLookup instanceof Caching) {
+            ((Caching)converterLookup).flushCache();
+        }
     }
 
     protected void setupSecurity() {
@@ -950,7 +1015,7 @@ public class XStream {
         registerConverter(new BigDecimalConverter(), PRIORITY_NORMAL);
         registerConverter(new PathConverter(), PRIORITY_NORMAL);
 
-        registerConverter(new ArrayConverter(mapper), PRIORITY_NORMAL);
+        registerConverter(new ArrayConverter(mapper, converterLookup), PRIORITY_NORMAL);
         registerConverter(new CharArrayConverter(), PRIORITY_NORMAL);
         registerConverter(new CollectionConverter(mapper), PRIORITY_NORMAL);
         registerConverter(new MapConverter(mapper), PRIORITY_NORMAL);
@@ -1178,6 +1243,23 @@ public class XStream {
         }
     }
 
+    /**
+     * Serialize an object to the given channel as pretty-printed XML. All data is written to the channel afterwards and
+     * in case of an exception, but the channel is not closed.
+     *
+     * @throws XStreamException if the object cannot be serialized
+     * @since upcoming
+     */
+    public void toXML(final Object obj, final WritableByteChannel out) {
+        @SuppressWarnings("resource")
+        final HierarchicalStreamWriter writer = hierarchicalStreamDriver.createWriter(out);
+        try {
+            marshal(obj, writer);
+        } finally {
+            writer.flush();
+        }
+    }
+
     /**
      * Serialize and object to a hierarchical data structure (such as XML).
      *
@@ -1227,6 +1309,29 @@ public class XStream {
         return unmarshal(hierarchicalStreamDriver.createReader(input), null);
     }
 
+    /**
+     * Deserialize an object from a channel.
+     *
+     * @throws XStreamException if the object cannot be deserialized
+     * @since upcoming
+     */
+    @SuppressWarnings("resource")
+    public <T> T fromXML(final ReadableByteChannel input) {
+        return unmarshal(hierarchicalStreamDriver.createReader(input), null);
+    }
+
+    /**
+     * Deserialize an object from the remaining bytes of a buffer, e.g. a memory-mapped file. The position of the buffer
+     * is not modified.
+     *
+     * @throws XStreamException if the object cannot be deserialized
+     * @since upcoming
+     */
+    @SuppressWarnings("resource")
+    public <T> T fromXML(final ByteBuffer input) {
+        return unmarshal(hierarchicalStreamDriver.createReader(input), null);
+    }
+
     /**
      * Deserialize an object from a URL. Depending on the parser implementation, some might take the file path as
      * SystemId to resolve additional references.
@@ -1314,6 +1419,33 @@ public class XStream {
         return unmarshal(hierarchicalStreamDriver.createReader(input), root);
     }
 
+    /**
+     * Deserialize an object from a channel, populating the fields of the given root object instead of instantiating a
+     * new one. Note, that this is a special use case! With the ReflectionConverter XStream will write directly into the
+     * raw memory area of the existing object. Use with care!
+     *
+     * @throws XStreamException if the object cannot be deserialized
+     * @since upcoming
+     */
+    @SuppressWarnings("resource")
+    public <T> T fromXML(final ReadableByteChannel input, final T root) {
+        return unmarshal(hierarchicalStreamDriver.createReader(input), root);
+    }
+
+    /**
+     * Deserialize an object from the remaining bytes of a buffer, populating the fields of the given root object instead
+     * of instantiating a new one. Note, that this is a special use case! With the ReflectionConverter XStream will write
+     * directly into the raw memory area of the existing object. Use with care! The position of the buffer is not
+     * modified.
+     *
+     * @throws XStreamException if the object cannot be deserialized
+     * @since upcoming
+     */
+    @SuppressWarnings("resource")
+    public <T> T fromXML(final ByteBuffer input, final T root) {
+        return unmarshal(hierarchicalStreamDriver.createReader(input), root);
+    }
+
     /**
      * Deserialize an object from a hierarchical data structure (such as XML).
      *
@@ -1370,6 +1502,7 @@ public class XStream {
             throw new InitializationException("No " + ClassAliasingMapper.class.getName() + " available");
         }
         classAliasingMapper.addClassAlias(name, type);
+        flushCaches();
     }
 
     /**
@@ -1386,6 +1519,7 @@ public class XStream {
             throw new InitializationException("No " + ClassAliasingMapper.class.getName() + " available");
         }
         classAliasingMapper.addTypeAlias(name, type);
+        flushCaches();
     }
 
     /**
@@ -1416,6 +1550,7 @@ public class XStream {
             throw new InitializationException("No " + PackageAliasingMapper.class.getName() + " available");
         }
         packageAliasingMapper.addPackageAlias(name, pkgName);
+        flushCaches();
     }
 
     /**
@@ -1431,6 +1566,7 @@ public class XStream {
             throw new InitializationException("No " + FieldAliasingMapper.class.getName() + " available");
         }
         fieldAliasingMapper.addFieldAlias(alias, definedIn, fieldName);
+        flushCaches();
     }
 
     /**
@@ -1445,6 +1581,7 @@ public class XStream {
             throw new InitializationException("No " + AttributeAliasingMapper.class.getName() + " available");
         }
         attributeAliasingMapper.addAliasFor(attributeName, alias);
+        flushCaches();
     }
 
     /**
@@ -1462,6 +1599,7 @@ public class XStream {
             throw new InitializationException("No " + SystemAttributeAliasingMapper.class.getName() + " available");
         }
         systemAttributeAliasingMapper.addAliasFor(systemAttributeName, alias);
+        flushCaches();
     }
 
     /**
@@ -1491,6 +1629,7 @@ public class XStream {
             throw new InitializationException("No " + AttributeMapper.class.getName() + " available");
         }
         attributeMapper.addAttributeFor(fieldName, type);
+        flushCaches();
     }
 
     /**
@@ -1506,6 +1645,7 @@ public class XStream {
             throw new InitializationException("No " + AttributeMapper.class.getName() + " available");
         }
         attributeMapper.addAttributeFor(definedIn, fieldName);
+        flushCaches();
     }
 
     /**
@@ -1520,6 +1660,7 @@ public class XStream {
             throw new InitializationException("No " + AttributeMapper.class.getName() + " available");
         }
         attributeMapper.addAttributeFor(type);
+        flushCaches();
     }
 
     /**
@@ -1536,6 +1677,7 @@ public class XStream {
             throw new InitializationException("No " + DefaultImplementationsMapper.class.getName() + " available");
         }
         defaultImplementationsMapper.addDefaultImplementation(defaultImplementation, ofType);
+        flushCaches();
     }
 
     /**
@@ -1572,6 +1714,7 @@ public class XStream {
                 + " available");
         }
         immutableTypesMapper.addImmutableType(type, isReferenceable);
+        flushCaches();
     }
 
     /**
@@ -1592,6 +1735,7 @@ public class XStream {
     public void registerConverter(final Converter converter, final int priority) {
         if (converterRegistry != null) {
             converterRegistry.registerConverter(converter, priority);
+            flushCaches();
         }
     }
 
@@ -1613,6 +1757,7 @@ public class XStream {
     public void registerConverter(final SingleValueConverter converter, final int priority) {
         if (converterRegistry != null) {
             converterRegistry.registerConverter(new SingleValueConverterWrapper(converter), priority);
+            flushCaches();
         }
     }
 
@@ -1629,6 +1774,7 @@ public class XStream {
             throw new InitializationException("No " + LocalConversionMapper.class.getName() + " available");
         }
         localConversionMapper.registerLocalConverter(definedIn, fieldName, converter);
+        flushCaches();
     }
 
     /**
@@ -1671,14 +1817,15 @@ public class XStream {
 
     /**
      * Change mode for dealing with duplicate references. Valid values are <code>XPATH_ABSOLUTE_REFERENCES</code>,
-     * <code>XPATH_RELATIVE_REFERENCES</code>, <code>XStream.ID_REFERENCES</code> and <code>XStream.NO_REFERENCES</code>
-     * .
+     * <code>XPATH_RELATIVE_REFERENCES</code>, <code>XStream.ID_REFERENCES</code>,
+     * <code>XStream.SEQUENCE_REFERENCES</code> and <code>XStream.NO_REFERENCES</code>.
      *
      * @throws IllegalArgumentException if the mode is not one of the declared types
      * @see #setMarshallingStrategy(MarshallingStrategy)
      * @see #XPATH_ABSOLUTE_REFERENCES
      * @see #XPATH_RELATIVE_REFERENCES
      * @see #ID_REFERENCES
+     * @see #SEQUENCE_REFERENCES
      * @see #NO_REFERENCES
      */
     public void setMode(final int mode) {
@@ -1689,6 +1836,9 @@ public class XStream {
         case ID_REFERENCES:
             setMarshallingStrategy(new ReferenceByIdMarshallingStrategy());
             break;
+        case SEQUENCE_REFERENCES:
+            setMarshallingStrategy(new ReferenceBySequenceMarshallingStrategy());
+            break;
         case XPATH_RELATIVE_REFERENCES:
             setMarshallingStrategy(new ReferenceByXPathMarshallingStrategy(
                 ReferenceByXPathMarshallingStrategy.RELATIVE));
@@ -1819,6 +1969,7 @@ public class XStream {
             throw new InitializationException("No " + ImplicitCollectionMapper.class.getName() + " available");
         }
         implicitCollectionMapper.add(ownerType, fieldName, itemName, itemType, keyFieldName);
+        flushCaches();
     }
 
     /**
@@ -2070,6 +2221,354 @@ public class XStream {
         }, classLoaderReference);
     }
 
+    /**
+     * Serialize the elements of an iterator one by one as pretty-printed XML into a Writer. The Writer will be flushed
+     * afterwards and in case of an exception.
+     *
+     * @param items the elements to serialize
+     * @param out the target
+     * @param rootNodeName the name of the root node enclosing the elements
+     * @see #marshalStream(Iterator, HierarchicalStreamWriter, String, DataHolder)
+     * @since upcoming
+     */
+    public void toXMLStream(final Iterator<?> items, final Writer out, final String rootNodeName) {
+        @SuppressWarnings("resource")
+        final HierarchicalStreamWriter writer = hierarchicalStreamDriver.createWriter(out);
+        try {
+            marshalStream(items, writer, rootNodeName, null);
+        } finally {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Serialize the elements of a stream one by one as pretty-printed XML into a Writer. The Writer will be flushed
+     * afterwards and in case of an exception.
+     *
+     * @param items the elements to serialize
+     * @param out the target
+     * @param rootNodeName the name of the root node enclosing the elements
+     * @see #marshalStream(Iterator, HierarchicalStreamWriter, String, DataHolder)
+     * @since upcoming
+     */
+    public void toXMLStream(final Stream<?> items, final Writer out, final String rootNodeName) {
+        toXMLStream(items.iterator(), out, rootNodeName);
+    }
+
+    /**
+     * Serialize the elements of an iterator one by one as pretty-printed XML into an OutputStream. The OutputStream
+     * will be flushed afterwards and in case of an exception.
+     *
+     * @param items the elements to serialize
+     * @param out the target
+     * @param rootNodeName the name of the root node enclosing the elements
+     * @see #marshalStream(Iterator, HierarchicalStreamWriter, String, DataHolder)
+     * @since upcoming
+     */
+    public void toXMLStream(final Iterator<?> items, final OutputStream out, final String rootNodeName) {
+        @SuppressWarnings("resource")
+        final HierarchicalStreamWriter writer = hierarchicalStreamDriver.createWriter(out);
+        try {
+            marshalStream(items, writer, rootNodeName, null);
+        } finally {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Serialize the elements of an iterator one by one into a writer.
+     * <p>
+     * The elements are written as children of a root node, one element is requested from the iterator only after the
+     * previous one has been written. Each element is marshalled on its own, references are therefore only created
+     * within an element and no state is kept for elements that have already been written. The result can be read with
+     * {@link #unmarshalStream(HierarchicalStreamReader, DataHolder)} or an ObjectInputStream created by this XStream
+     * instance.
+     * </p>
+     *
+     * @param items the elements to serialize
+     * @param writer the target
+     * @param rootNodeName the name of the root node enclosing the elements
+     * @param dataHolder the DataHolder passed to the converters of each element, may be <code>null</code>
+     * @throws XStreamException if the elements cannot be serialized
+     * @since upcoming
+     */
+    public void marshalStream(final Iterator<?> items, final HierarchicalStreamWriter writer,
+            final String rootNodeName, final DataHolder dataHolder) {
+        final DataHolder context = dataHolder != null ? dataHolder : new MapBackedDataHolder();
+        writer.startNode(rootNodeName);
+        while (items.hasNext()) {
+            marshal(items.next(), writer, context);
+        }
+        writer.endNode();
+    }
+
+    /**
+     * Deserialize the elements of an XML document one by one from a Reader.
+     * <p>
+     * The returned stream has to be closed to close the Reader.
+     * </p>
+     *
+     * @param reader the source
+     * @return the stream of the deserialized elements
+     * @see #unmarshalStream(HierarchicalStreamReader, DataHolder)
+     * @since upcoming
+     */
+    public <T> Stream<T> fromXMLStream(final Reader reader) {
+        return unmarshalStream(hierarchicalStreamDriver.createReader(reader), null);
+    }
+
+    /**
+     * Deserialize the elements of an XML document one by one from an InputStream.
+     * <p>
+     * The returned stream has to be closed to close the InputStream.
+     * </p>
+     *
+     * @param input the source
+     * @return the stream of the deserialized elements
+     * @see #unmarshalStream(HierarchicalStreamReader, DataHolder)
+     * @since upcoming
+     */
+    public <T> Stream<T> fromXMLStream(final InputStream input) {
+        return unmarshalStream(hierarchicalStreamDriver.createReader(input), null);
+    }
+
+    /**
+     * Deserialize the children of the current node of a reader one by one.
+     * <p>
+     * The returned sequential stream unmarshals the next child only when the next element is requested, each child is
+     * unmarshalled on its own. Elements written with {@link #marshalStream(Iterator, HierarchicalStreamWriter, String,
+     * DataHolder)} or an ObjectOutputStream created by an XStream instance can be read. Closing the stream will close
+     * the reader.
+     * </p>
+     *
+     * @param reader the source positioned at the root node enclosing the elements
+     * @param dataHolder the DataHolder passed to the converters of each element, may be <code>null</code>
+     * @return the stream of the deserialized elements
+     * @throws XStreamException if an element cannot be deserialized while the stream is consumed
+     * @since upcoming
+     */
+    public <T> Stream<T> unmarshalStream(final HierarchicalStreamReader reader, final DataHolder dataHolder) {
+        final DataHolder context = dataHolder != null ? dataHolder : new MapBackedDataHolder();
+        final Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+            Spliterator.ORDERED) {
+
+            @Override
+            public boolean tryAdvance(final Consumer<? super T> action) {
+                if (!reader.hasMoreChildren()) {
+                    return false;
+                }
+                reader.moveDown();
+                final T result = unmarshal(reader, null, context);
+                reader.moveUp();
+                action.accept(result);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(reader::close);
+    }
+
+    /**
+     * Serialize the elements of an iterator in parallel as pretty-printed XML into a Writer. The Writer will be flushed
+     * afterwards and in case of an exception.
+     *
+     * @param items the elements to serialize
+     * @param out the target
+     * @param rootNodeName the name of the root node enclosing the elements
+     * @param pool the pool executing the marshalling
+     * @param chunkSize the number of elements marshalled in one task
+     * @see #marshalParallel(Iterator, HierarchicalStreamWriter, String, DataHolder, ForkJoinPool, int)
+     * @since upcoming
+     */
+    public void toXMLParallel(final Iterator<?> items, final Writer out, final String rootNodeName,
+            final ForkJoinPool pool, final int chunkSize) {
+        @SuppressWarnings("resource")
+        final HierarchicalStreamWriter writer = hierarchicalStreamDriver.createWriter(out);
+        try {
+            marshalParallel(items, writer, rootNodeName, null, pool, chunkSize);
+        } finally {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Serialize the elements of an iterator in parallel into a writer.
+     * <p>
+     * The method produces the same result as {@link #marshalStream(Iterator, HierarchicalStreamWriter, String,
+     * DataHolder)}. The elements are collected in chunks and each chunk is marshalled by a task of the pool into a
+     * buffer. The buffers are written in the original order into the writer. Since every element is marshalled on its
+     * own, any reference mode can be used, but the number of references is scoped to a single element anyway. At most
+     * twice as many chunks as the parallelism of the pool are kept in memory.
+     * </p>
+     * <p>
+     * The converters of the elements run concurrently, they have to be thread-safe as any converter used by XStream.
+     * A provided DataHolder is shared by all tasks, without one each chunk gets an own instance.
+     * </p>
+     *
+     * @param items the elements to serialize
+     * @param writer the target
+     * @param rootNodeName the name of the root node enclosing the elements
+     * @param dataHolder the DataHolder passed to the converters of each element, may be <code>null</code>
+     * @param pool the pool executing the marshalling
+     * @param chunkSize the number of elements marshalled in one task
+     * @throws XStreamException if the elements cannot be serialized
+     * @since upcoming
+     */
+    public void marshalParallel(final Iterator<?> items, final HierarchicalStreamWriter writer,
+            final String rootNodeName, final DataHolder dataHolder, final ForkJoinPool pool, final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        final int maxTasks = pool.getParallelism() * 2;
+        final Deque<CompletableFuture<RecordingWriter>> tasks = new ArrayDeque<>(maxTasks);
+        writer.startNode(rootNodeName);
+        try {
+            while (items.hasNext()) {
+                final List<Object> chunk = new ArrayList<>(chunkSize);
+                do {
+                    chunk.add(items.next());
+                } while (chunk.size() < chunkSize && items.hasNext());
+                tasks.add(CompletableFuture.supplyAsync(new Supplier<RecordingWriter>() {
+                    @Override
+                    public RecordingWriter get() {
+                        final RecordingWriter recorder = new RecordingWriter(writer);
+                        final DataHolder context = dataHolder != null ? dataHolder : new MapBackedDataHolder();
+                        for (final Object item : chunk) {
+                            marshal(item, recorder, context);
+                        }
+                        return recorder;
+                    }
+                }, pool));
+                if (tasks.size() == maxTasks) {
+                    join(tasks.removeFirst()).replay(writer);
+                }
+            }
+            while (!tasks.isEmpty()) {
+                join(tasks.removeFirst()).replay(writer);
+            }
+        } finally {
+            for (final CompletableFuture<?> task : tasks) {
+                task.cancel(false);
+            }
+        }
+        writer.endNode();
+    }
+
+    /**
+     * Deserialize the elements of an XML document in parallel from a Reader.
+     * <p>
+     * The returned stream has to be closed to close the Reader.
+     * </p>
+     *
+     * @param reader the source
+     * @param pool the pool executing the unmarshalling
+     * @param chunkSize the number of elements unmarshalled in one task
+     * @return the stream of the deserialized elements
+     * @see #unmarshalParallel(HierarchicalStreamReader, DataHolder, ForkJoinPool, int)
+     * @since upcoming
+     */
+    public <T> Stream<T> fromXMLParallel(final Reader reader, final ForkJoinPool pool, final int chunkSize) {
+        return unmarshalParallel(hierarchicalStreamDriver.createReader(reader), null, pool, chunkSize);
+    }
+
+    /**
+     * Deserialize the children of the current node of a reader in parallel.
+     * <p>
+     * The method returns the same elements as {@link #unmarshalStream(HierarchicalStreamReader, DataHolder)} in the
+     * same order. The children are read sequentially in chunks into an in-memory tree and each chunk is unmarshalled by
+     * a task of the pool. At most twice as many chunks as the parallelism of the pool are read ahead. Relative XPath
+     * references are resolved with the decoded node names of the in-memory tree, therefore they must not address nodes
+     * with names that have to be encoded in the source.
+     * </p>
+     * <p>
+     * The converters of the elements run concurrently, they have to be thread-safe as any converter used by XStream.
+     * A provided DataHolder is shared by all tasks, without one each chunk gets an own instance.
+     * </p>
+     *
+     * @param reader the source positioned at the root node enclosing the elements
+     * @param dataHolder the DataHolder passed to the converters of each element, may be <code>null</code>
+     * @param pool the pool executing the unmarshalling
+     * @param chunkSize the number of elements unmarshalled in one task
+     * @return the stream of the deserialized elements
+     * @throws XStreamException if an element cannot be deserialized while the stream is consumed
+     * @since upcoming
+     */
+    public <T> Stream<T> unmarshalParallel(final HierarchicalStreamReader reader, final DataHolder dataHolder,
+            final ForkJoinPool pool, final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        final int maxTasks = pool.getParallelism() * 2;
+        final Deque<CompletableFuture<List<T>>> tasks = new ArrayDeque<>(maxTasks);
+        final HierarchicalStreamCopier copier = new HierarchicalStreamCopier();
+        final Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+            Spliterator.ORDERED) {
+            private Iterator<T> current = Collections.emptyIterator();
+
+            @Override
+            public boolean tryAdvance(final Consumer<? super T> action) {
+                while (!current.hasNext()) {
+                    while (tasks.size() < maxTasks && reader.hasMoreChildren()) {
+                        final XppDom chunk = new XppDom(reader.getNodeName());
+                        final XppDomWriter chunkWriter = new XppDomWriter(chunk, new NoNameCoder());
+                        for (int i = 0; i < chunkSize && reader.hasMoreChildren(); ++i) {
+                            reader.moveDown();
+                            copier.copy(reader, chunkWriter);
+                            reader.moveUp();
+                        }
+                        tasks.add(CompletableFuture.supplyAsync(new Supplier<List<T>>() {
+                            @Override
+                            public List<T> get() {
+                                final HierarchicalStreamReader chunkReader = new XppDomReader(chunk,
+                                    new NoNameCoder());
+                                final DataHolder context = dataHolder != null
+                                    ? dataHolder
+                                    : new MapBackedDataHolder();
+                                final List<T> results = new ArrayList<>(chunk.getChildCount());
+                                while (chunkReader.hasMoreChildren()) {
+                                    chunkReader.moveDown();
+                                    results.add(XStream.this.<T>unmarshal(chunkReader, null, context));
+                                    chunkReader.moveUp();
+                                }
+                                return results;
+                            }
+                        }, pool));
+                    }
+                    if (tasks.isEmpty()) {
+                        return false;
+                    }
+                    current = join(tasks.removeFirst()).iterator();
+                }
+                action.accept(current.next());
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+            @Override
+            public void run() {
+                for (final CompletableFuture<?> task : tasks) {
+                    task.cancel(false);
+                }
+                tasks.clear();
+                reader.close();
+            }
+        });
+    }
+
+    private static <T> T join(final CompletableFuture<T> task) {
+        try {
+            return task.join();
+        } catch (final CompletionException e) {
+            // rethrow the original exception of the task
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            } else if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Change the ClassLoader XStream uses to load classes. Creating an XStream instance it will register for all kind
      * of classes and types of the current JDK, but not for any 3rd party type. To ensure that all other types are
@@ -2114,6 +2613,7 @@ public class XStream {
             throw new InitializationException("No " + ElementIgnoringMapper.class.getName() + " available");
         }
         elementIgnoringMapper.omitField(definedIn, fieldName);
+        flushCaches();
     }
 
     /**
@@ -2146,6 +2646,7 @@ public class XStream {
             throw new InitializationException("No " + ElementIgnoringMapper.class.getName() + " available");
         }
         elementIgnoringMapper.addElementsToIgnore(pattern);
+        flushCaches();
     }
 
     /**
@@ -2159,6 +2660,7 @@ public class XStream {
             throw new InitializationException("No " + AnnotationMapper.class.getName() + " available");
         }
         annotationMapper.processAnnotations(types);
+        flushCaches();
     }
 
     /**
@@ -2172,6 +2674,7 @@ public class XStream {
     public void autodetectAnnotations(final boolean mode) {
         if (annotationMapper != null) {
             annotationMapper.autodetectAnnotations(mode);
+            flushCaches();
         }
     }
 
@@ -2188,6 +2691,7 @@ public class XStream {
     public void addPermission(final TypePermission permission) {
         if (securityMapper != null) {
             securityMapper.addPermission(permission);
+            flushCaches();
         }
     }
 
@@ -2340,4 +2844,34 @@ public class XStream {
     public void denyTypesByWildcard(final String... patterns) {
         denyPermission(new WildcardTypePermission(patterns));
     }
+
+    private static class CachingConverterLookup implements ConverterLookup, Caching {
+        private final DefaultConverterLookup defaultConverterLookup;
+        private volatile boolean used;
+
+        CachingConverterLookup(final DefaultConverterLookup defaultConverterLookup) {
+            this.defaultConverterLookup = defaultConverterLookup;
+        }
+
+        @Override
+        public Converter lookupConverterForType(final Class<?> type) {
+            if (!used) {
+                // any converter is looked up before it can fill its caches
+                used = true;
+            }
+            return defaultConverterLookup.lookupConverterForType(type);
+        }
+
+        void flushConverterCaches() {
+            if (used) {
+                used = false;
+                defaultConverterLookup.flushConverterCaches();
+            }
+        }
+
+        @Override
+        public void flushCache() {
+            defaultConverterLookup.flushCache();
+        }
+    }
 }
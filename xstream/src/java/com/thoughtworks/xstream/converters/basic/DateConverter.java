@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2012, 2013, 2014, 2015, 2016, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2012, 2013, 2014, 2015, 2016, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -14,7 +14,7 @@ package com.thoughtworks.xstream.converters.basic;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -49,51 +49,16 @@ import com.thoughtworks.xstream.core.util.ThreadSafeSimpleDateFormat;
  */
 public class DateConverter extends AbstractSingleValueConverter implements ErrorReporter {
 
-    private static final String[] DEFAULT_ACCEPTABLE_FORMATS;
-    private static final String DEFAULT_PATTERN;
-    private static final String DEFAULT_ERA_PATTERN;
-    private static final TimeZone UTC;
-    private static final long ERA_START;
-
-    static {
-        UTC = TimeZone.getTimeZone("UTC");
-
-        final String defaultPattern = "yyyy-MM-dd HH:mm:ss.S z";
-        final String defaultEraPattern = "yyyy-MM-dd G HH:mm:ss.S z";
-        final List<String> acceptablePatterns = new ArrayList<>();
-        final boolean utcSupported = JVM.canParseUTCDateFormat();
-        DEFAULT_PATTERN = utcSupported ? defaultPattern : "yyyy-MM-dd HH:mm:ss.S 'UTC'";
-        DEFAULT_ERA_PATTERN = utcSupported ? defaultEraPattern : "yyyy-MM-dd G HH:mm:ss.S 'UTC'";
-        acceptablePatterns.add("yyyy-MM-dd HH:mm:ss.S z");
-        if (!utcSupported) {
-            acceptablePatterns.add(defaultPattern);
-        }
-        acceptablePatterns.add("yyyy-MM-dd HH:mm:ss.S a");
-        // TODO: JDK 1.3 needs both versions
-        acceptablePatterns.add("yyyy-MM-dd HH:mm:ssz");
-        acceptablePatterns.add("yyyy-MM-dd HH:mm:ss z");
-        if (!utcSupported) {
-            acceptablePatterns.add("yyyy-MM-dd HH:mm:ss 'UTC'");
-        }
-        if (JVM.canParseISO8601TimeZoneInDateFormat()) {
-            acceptablePatterns.add("yyyy-MM-dd'T'HH:mm:ss.SX");
-            acceptablePatterns.add("yyyy-MM-dd'T'HH:mm:ssX");
-            acceptablePatterns.add("yyyy-MM-dd'T'HH:mmX");
-        }
-        // backwards compatibility
-        acceptablePatterns.add("yyyy-MM-dd HH:mm:ssa");
-        DEFAULT_ACCEPTABLE_FORMATS = acceptablePatterns.toArray(new String[acceptablePatterns.size()]);
-
-        final Calendar cal = Calendar.getInstance();
-        cal.setTimeZone(UTC);
-        cal.clear();
-        cal.set(1, Calendar.JANUARY, 1);
-        ERA_START = cal.getTimeInMillis();
-    }
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    // 0001-01-01 00:00:00.0 UTC in the Julian calendar, a Calendar instance is expensive to initialize
+    private static final long ERA_START = -62135769600000L;
 
-    private final ThreadSafeSimpleDateFormat defaultFormat;
-    private final ThreadSafeSimpleDateFormat defaultEraFormat;
-    private final ThreadSafeSimpleDateFormat[] acceptableFormats;
+    private final String defaultPattern;
+    private final String[] acceptablePatterns;
+    private final Locale locale;
+    private final TimeZone timeZone;
+    private final boolean lenient;
+    private volatile Formats formats;
 
     /**
      * Construct a DateConverter with standard formats and lenient set off.
@@ -109,7 +74,7 @@ public class DateConverter extends AbstractSingleValueConverter implements Error
      * @since 1.4
      */
     public DateConverter(final TimeZone timeZone) {
-        this(DEFAULT_PATTERN, DEFAULT_ACCEPTABLE_FORMATS, timeZone);
+        this(null, null, null, Locale.ENGLISH, timeZone, false, true);
     }
 
     /**
@@ -119,7 +84,7 @@ public class DateConverter extends AbstractSingleValueConverter implements Error
      * @since 1.3
      */
     public DateConverter(final boolean lenient) {
-        this(DEFAULT_PATTERN, DEFAULT_ACCEPTABLE_FORMATS, lenient);
+        this(null, null, null, Locale.ENGLISH, UTC, lenient, true);
     }
 
     /**
@@ -167,7 +132,7 @@ public class DateConverter extends AbstractSingleValueConverter implements Error
     public DateConverter(
             final String defaultFormat, final String[] acceptableFormats, final TimeZone timeZone,
             final boolean lenient) {
-        this(DEFAULT_ERA_PATTERN, defaultFormat, acceptableFormats, Locale.ENGLISH, timeZone, lenient);
+        this(null, defaultFormat, acceptableFormats, Locale.ENGLISH, timeZone, lenient, true);
     }
 
     /**
@@ -185,21 +150,51 @@ public class DateConverter extends AbstractSingleValueConverter implements Error
     public DateConverter(
             final String defaultEraFormat, final String defaultFormat, final String[] acceptableFormats,
             final Locale locale, final TimeZone timeZone, final boolean lenient) {
-        if (defaultEraFormat != null) {
-            this.defaultEraFormat = new ThreadSafeSimpleDateFormat(defaultEraFormat, timeZone, locale, 4, 20, lenient);
-        } else {
-            this.defaultEraFormat = null;
+        this(defaultEraFormat, defaultFormat, acceptableFormats, locale, timeZone, lenient, false);
+    }
+
+    private DateConverter(
+            final String defaultEraFormat, final String defaultFormat, final String[] acceptableFormats,
+            final Locale locale, final TimeZone timeZone, final boolean lenient, final boolean defaultPatterns) {
+        defaultPattern = defaultFormat;
+        acceptablePatterns = acceptableFormats;
+        this.locale = locale;
+        this.timeZone = timeZone;
+        this.lenient = lenient;
+        if (defaultFormat != null) {
+            // the date formats are created at first usage, but invalid patterns are reported at construction
+            if (defaultEraFormat != null) {
+                checkPattern(defaultEraFormat, locale);
+            }
+            checkPattern(defaultFormat, locale);
+            if (acceptableFormats != null) {
+                for (final String acceptableFormat : acceptableFormats) {
+                    checkPattern(acceptableFormat, locale);
+                }
+            }
         }
-        this.defaultFormat = new ThreadSafeSimpleDateFormat(defaultFormat, timeZone, locale, 4, 20, lenient);
-        this.acceptableFormats = acceptableFormats != null
-            ? new ThreadSafeSimpleDateFormat[acceptableFormats.length]
-            : new ThreadSafeSimpleDateFormat[0];
-        for (int i = 0; i < this.acceptableFormats.length; i++) {
-            this.acceptableFormats[i] = new ThreadSafeSimpleDateFormat(acceptableFormats[i], timeZone, locale, 1, 20,
-                lenient);
+        if (!defaultPatterns) {
+            formats = new Formats(defaultEraFormat, defaultFormat, acceptableFormats, locale, timeZone, lenient);
         }
     }
 
+    private static void checkPattern(final String pattern, final Locale locale) {
+        new SimpleDateFormat(pattern, locale);
+    }
+
+    private Formats getFormats() {
+        Formats result = formats;
+        if (result == null) {
+            // racy, but the formats are always equivalent
+            result = defaultPattern != null
+                ? new Formats(Defaults.ERA_PATTERN, defaultPattern, acceptablePatterns, locale, timeZone, lenient)
+                : new Formats(Defaults.ERA_PATTERN, Defaults.PATTERN, Defaults.ACCEPTABLE_FORMATS, locale, timeZone,
+                    lenient);
+            formats = result;
+        }
+        return result;
+    }
+
     @Override
     public boolean canConvert(final Class<?> type) {
         return type == Date.class;
@@ -207,25 +202,23 @@ public class DateConverter extends AbstractSingleValueConverter implements Error
 
     @Override
     public Object fromString(final String str) {
-        if (defaultEraFormat != null) {
-            try {
-                return defaultEraFormat.parse(str);
-            } catch (final ParseException e) {
-                // try next ...
+        final Formats formats = getFormats();
+        if (formats.utcDefaultFormat) {
+            final long time = UtcDefaultFormat.parse(str);
+            if (time != UtcDefaultFormat.INVALID) {
+                return new Date(time);
             }
         }
-        if (defaultEraFormat != defaultFormat) {
-            try {
-                return defaultFormat.parse(str);
-            } catch (final ParseException e) {
-                // try next ...
-            }
-        }
-        for (final ThreadSafeSimpleDateFormat acceptableFormat : acceptableFormats) {
-            try {
-                return acceptableFormat.parse(str);
-            } catch (final ParseException e3) {
-                // no worries, let's try the next format.
+        final ThreadSafeSimpleDateFormat[] parsers = formats.parsers;
+        for (int i = 0; i < parsers.length; ++i) {
+            // a format cannot match if the string does not contain its literal characters, so skip it without
+            // the expense of a ParseException
+            if (containsInOrder(str, formats.literals[i])) {
+                try {
+                    return parsers[i].parse(str);
+                } catch (final ParseException e) {
+                    // no worries, let's try the next format.
+                }
             }
         }
         // no dateFormats left to try
@@ -237,21 +230,281 @@ public class DateConverter extends AbstractSingleValueConverter implements Error
     @Override
     public String toString(final Object obj) {
         final Date date = (Date)obj;
-        if (date.getTime() < ERA_START && defaultEraFormat != null) {
-            return defaultEraFormat.format(date);
+        final Formats formats = getFormats();
+        final long time = date.getTime();
+        if (time < ERA_START && formats.defaultEraFormat != null) {
+            return formats.defaultEraFormat.format(date);
+        } else if (formats.utcDefaultFormat && UtcDefaultFormat.canFormat(time)) {
+            return UtcDefaultFormat.format(time);
         } else {
-            return defaultFormat.format(date);
+            return formats.defaultFormat.format(date);
         }
     }
 
     @Override
     public void appendErrors(final ErrorWriter errorWriter) {
-        errorWriter.add("Default date pattern", defaultFormat.toString());
-        if (defaultEraFormat != null) {
-            errorWriter.add("Default era date pattern", defaultEraFormat.toString());
+        final Formats formats = getFormats();
+        errorWriter.add("Default date pattern", formats.defaultFormat.toString());
+        if (formats.defaultEraFormat != null) {
+            errorWriter.add("Default era date pattern", formats.defaultEraFormat.toString());
         }
-        for (final ThreadSafeSimpleDateFormat acceptableFormat : acceptableFormats) {
+        for (final ThreadSafeSimpleDateFormat acceptableFormat : formats.acceptableFormats) {
             errorWriter.add("Alternative date pattern", acceptableFormat.toString());
         }
     }
+
+    private static class Formats {
+        private final ThreadSafeSimpleDateFormat defaultEraFormat;
+        private final ThreadSafeSimpleDateFormat defaultFormat;
+        private final ThreadSafeSimpleDateFormat[] acceptableFormats;
+        private final ThreadSafeSimpleDateFormat[] parsers;
+        private final char[][] literals;
+        private final boolean utcDefaultFormat;
+
+        Formats(
+                final String defaultEraPattern, final String defaultPattern, final String[] acceptablePatterns,
+                final Locale locale, final TimeZone timeZone, final boolean lenient) {
+            if (defaultEraPattern != null) {
+                defaultEraFormat = new ThreadSafeSimpleDateFormat(defaultEraPattern, timeZone, locale, 4, 20,
+                    lenient);
+            } else {
+                defaultEraFormat = null;
+            }
+            defaultFormat = new ThreadSafeSimpleDateFormat(defaultPattern, timeZone, locale, 4, 20, lenient);
+            acceptableFormats = acceptablePatterns != null
+                ? new ThreadSafeSimpleDateFormat[acceptablePatterns.length]
+                : new ThreadSafeSimpleDateFormat[0];
+            for (int i = 0; i < acceptableFormats.length; i++) {
+                acceptableFormats[i] = new ThreadSafeSimpleDateFormat(acceptablePatterns[i], timeZone, locale, 1, 20,
+                    lenient);
+            }
+            final List<ThreadSafeSimpleDateFormat> formats = new ArrayList<>();
+            if (defaultEraFormat != null) {
+                formats.add(defaultEraFormat);
+            }
+            formats.add(defaultFormat);
+            formats.addAll(Arrays.asList(acceptableFormats));
+            parsers = formats.toArray(new ThreadSafeSimpleDateFormat[formats.size()]);
+            literals = new char[parsers.length][];
+            for (int i = 0; i < parsers.length; i++) {
+                literals[i] = literalsOf(parsers[i].toString());
+            }
+            utcDefaultFormat = UtcDefaultFormat.isEquivalent(defaultPattern, locale, timeZone, lenient);
+        }
+    }
+
+    private static char[] literalsOf(final String pattern) {
+        final StringBuilder literals = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            final char c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                    literals.append(c);
+                    ++i;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (quoted || !(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z')) {
+                literals.append(c);
+            }
+        }
+        return literals.toString().toCharArray();
+    }
+
+    private static boolean containsInOrder(final String str, final char[] literals) {
+        int idx = 0;
+        for (final char literal : literals) {
+            idx = str.indexOf(literal, idx);
+            if (idx < 0) {
+                return false;
+            }
+            ++idx;
+        }
+        return true;
+    }
+
+    /**
+     * Hand-written implementation of the default pattern in UTC. It is used for dates of the Gregorian calendar with a
+     * year of four digits, any other date is processed by the {@link SimpleDateFormat}.
+     */
+    private static class UtcDefaultFormat {
+        private static final long INVALID = Long.MIN_VALUE;
+        private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
+        private static final int FIRST_YEAR = 1583;
+        private static final long START = daysFromCivil(FIRST_YEAR, 1, 1) * MILLIS_PER_DAY;
+        private static final long END = daysFromCivil(10000, 1, 1) * MILLIS_PER_DAY;
+        private static final int[] DAYS_OF_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+        static boolean isEquivalent(
+                final String pattern, final Locale locale, final TimeZone timeZone, final boolean lenient) {
+            if (timeZone == null
+                || !"UTC".equals(timeZone.getID())
+                || !("yyyy-MM-dd HH:mm:ss.S z".equals(pattern) || "yyyy-MM-dd HH:mm:ss.S 'UTC'".equals(pattern))) {
+                return false;
+            }
+            // the name of the time zone and the digits depend on the locale
+            final SimpleDateFormat format = new SimpleDateFormat(pattern, locale);
+            format.setTimeZone(timeZone);
+            format.setLenient(lenient);
+            final long probe = 1234567890123L;
+            final String formatted = format(probe);
+            try {
+                return formatted.equals(format.format(new Date(probe))) && format.parse(formatted).getTime() == probe;
+            } catch (final ParseException e) {
+                return false;
+            }
+        }
+
+        static boolean canFormat(final long time) {
+            return time >= START && time < END;
+        }
+
+        static String format(final long time) {
+            final long days = Math.floorDiv(time, MILLIS_PER_DAY);
+            int millis = (int)Math.floorMod(time, MILLIS_PER_DAY);
+
+            // civil date from days since epoch, see http://howardhinnant.github.io/date_algorithms.html
+            final long z = days + 719468;
+            final long era = z / 146097;
+            final int doe = (int)(z - era * 146097);
+            final int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+            final int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+            final int mp = (5 * doy + 2) / 153;
+            final int day = doy - (153 * mp + 2) / 5 + 1;
+            final int month = mp < 10 ? mp + 3 : mp - 9;
+            final int year = (int)(yoe + era * 400) + (month <= 2 ? 1 : 0);
+
+            final char[] buffer = new char[27];
+            digits(buffer, 0, 4, year);
+            buffer[4] = '-';
+            digits(buffer, 5, 2, month);
+            buffer[7] = '-';
+            digits(buffer, 8, 2, day);
+            buffer[10] = ' ';
+            digits(buffer, 11, 2, millis / 3600000);
+            millis %= 3600000;
+            buffer[13] = ':';
+            digits(buffer, 14, 2, millis / 60000);
+            millis %= 60000;
+            buffer[16] = ':';
+            digits(buffer, 17, 2, millis / 1000);
+            millis %= 1000;
+            buffer[19] = '.';
+            final int length = millis < 10 ? 1 : millis < 100 ? 2 : 3;
+            digits(buffer, 20, length, millis);
+            " UTC".getChars(0, 4, buffer, 20 + length);
+            return new String(buffer, 0, 24 + length);
+        }
+
+        static long parse(final String str) {
+            final int length = str.length();
+            if (length < 25
+                || length > 27
+                || str.charAt(4) != '-'
+                || str.charAt(7) != '-'
+                || str.charAt(10) != ' '
+                || str.charAt(13) != ':'
+                || str.charAt(16) != ':'
+                || str.charAt(19) != '.'
+                || !str.endsWith(" UTC")) {
+                return INVALID;
+            }
+            final int year = digits(str, 0, 4);
+            final int month = digits(str, 5, 7);
+            final int day = digits(str, 8, 10);
+            final int hour = digits(str, 11, 13);
+            final int minute = digits(str, 14, 16);
+            final int second = digits(str, 17, 19);
+            final int millis = digits(str, 20, length - 4);
+            if (year < FIRST_YEAR
+                || month < 1
+                || month > 12
+                || day < 1
+                || day > lengthOfMonth(year, month)
+                || hour < 0
+                || hour > 23
+                || minute < 0
+                || minute > 59
+                || second < 0
+                || second > 59
+                || millis < 0) {
+                return INVALID;
+            }
+            return (((daysFromCivil(year, month, day) * 24 + hour) * 60 + minute) * 60 + second) * 1000 + millis;
+        }
+
+        private static long daysFromCivil(final int year, final int month, final int day) {
+            final int y = month <= 2 ? year - 1 : year;
+            final int era = y / 400;
+            final int yoe = y - era * 400;
+            final int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+            final int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+            return era * 146097L + doe - 719468;
+        }
+
+        private static int lengthOfMonth(final int year, final int month) {
+            if (month == 2 && year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) {
+                return 29;
+            }
+            return DAYS_OF_MONTH[month - 1];
+        }
+
+        private static void digits(final char[] buffer, final int offset, final int length, int value) {
+            for (int i = offset + length; i-- > offset;) {
+                buffer[i] = (char)('0' + value % 10);
+                value /= 10;
+            }
+        }
+
+        private static int digits(final String str, final int start, final int end) {
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                final char c = str.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                value = value * 10 + c - '0';
+            }
+            return value;
+        }
+    }
+
+    /**
+     * The default patterns, initialized at first usage, since they depend on the capabilities of the date formats of
+     * the runtime that are expensive to probe.
+     */
+    private static class Defaults {
+        private static final String[] ACCEPTABLE_FORMATS;
+        private static final String PATTERN;
+        private static final String ERA_PATTERN;
+
+        static {
+            final String defaultPattern = "yyyy-MM-dd HH:mm:ss.S z";
+            final String defaultEraPattern = "yyyy-MM-dd G HH:mm:ss.S z";
+            final List<String> acceptablePatterns = new ArrayList<>();
+            final boolean utcSupported = JVM.canParseUTCDateFormat();
+            PATTERN = utcSupported ? defaultPattern : "yyyy-MM-dd HH:mm:ss.S 'UTC'";
+            ERA_PATTERN = utcSupported ? defaultEraPattern : "yyyy-MM-dd G HH:mm:ss.S 'UTC'";
+            acceptablePatterns.add("yyyy-MM-dd HH:mm:ss.S z");
+            if (!utcSupported) {
+                acceptablePatterns.add(defaultPattern);
+            }
+            acceptablePatterns.add("yyyy-MM-dd HH:mm:ss.S a");
+            // TODO: JDK 1.3 needs both versions
+            acceptablePatterns.add("yyyy-MM-dd HH:mm:ssz");
+            acceptablePatterns.add("yyyy-MM-dd HH:mm:ss z");
+            if (!utcSupported) {
+                acceptablePatterns.add("yyyy-MM-dd HH:mm:ss 'UTC'");
+            }
+            if (JVM.canParseISO8601TimeZoneInDateFormat()) {
+                acceptablePatterns.add("yyyy-MM-dd'T'HH:mm:ss.SX");
+                acceptablePatterns.add("yyyy-MM-dd'T'HH:mm:ssX");
+                acceptablePatterns.add("yyyy-MM-dd'T'HH:mmX");
+            }
+            // backwards compatibility
+            acceptablePatterns.add("yyyy-MM-dd HH:mm:ssa");
+            ACCEPTABLE_FORMATS = acceptablePatterns.toArray(new String[acceptablePatterns.size()]);
+        }
+    }
 }
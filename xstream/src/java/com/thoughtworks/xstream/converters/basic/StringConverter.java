@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2011, 2014, 2015, 2018, 2020 XStream Committers.
+ * Copyright (C) 2006, 2007, 2011, 2014, 2015, 2018, 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -24,6 +24,11 @@ import com.thoughtworks.xstream.core.util.WeakCache;
  * reuse instances of strings that do not exceed a length limit. This limit is by default 38 characters to cache typical
  * strings containing UUIDs. Only shorter strings are typically repeated more often in XML values.
  * </p>
+ * <p>
+ * The default map is synchronized. If many threads deserialize concurrently, use a
+ * {@link com.thoughtworks.xstream.core.util.StringDeduplicationCache} instead, a bounded cache without locks that
+ * reports its hit rate.
+ * </p>
  * 
  * @author Joe Walnes
  * @author Rene Schwietzke
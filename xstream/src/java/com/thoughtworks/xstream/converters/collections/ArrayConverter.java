@@ -1,22 +1,39 @@
 /*
  * Copyright (C) 2003, 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2014, 2015, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2014, 2015, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
  * style license a copy of which has been included with this distribution in
  * the LICENSE.txt file.
- * 
+ *
  * Created on 03. October 2003 by Joe Walnes
  */
 package com.thoughtworks.xstream.converters.collections;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ConverterLookup;
 import com.thoughtworks.xstream.converters.MarshallingContext;
+import com.thoughtworks.xstream.converters.SingleValueConverter;
+import com.thoughtworks.xstream.converters.SingleValueConverterWrapper;
 import com.thoughtworks.xstream.converters.UnmarshallingContext;
+import com.thoughtworks.xstream.converters.basic.BooleanConverter;
+import com.thoughtworks.xstream.converters.basic.ByteConverter;
+import com.thoughtworks.xstream.converters.basic.CharConverter;
+import com.thoughtworks.xstream.converters.basic.DoubleConverter;
+import com.thoughtworks.xstream.converters.basic.FloatConverter;
+import com.thoughtworks.xstream.converters.basic.IntConverter;
+import com.thoughtworks.xstream.converters.basic.LongConverter;
+import com.thoughtworks.xstream.converters.basic.ShortConverter;
+import com.thoughtworks.xstream.core.util.HierarchicalStreams;
+import com.thoughtworks.xstream.core.util.Primitives;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import com.thoughtworks.xstream.mapper.Mapper;
@@ -24,14 +41,271 @@ import com.thoughtworks.xstream.mapper.Mapper;
 
 /**
  * Converts an array of objects or primitives, using a nested child element for each item.
- * 
+ * <p>
+ * If the converter has access to the {@link ConverterLookup}, arrays of primitives are processed directly with the
+ * {@link SingleValueConverter} of the element type instead of delegating each element to the marshalling context. If
+ * this is the default converter of XStream for the type, the elements are written and read without boxing. Such an
+ * array can optionally be written in a compact form, where numeric values are written with their Java representation
+ * as space-separated list into the value of a single node. Compact arrays are always accepted when reading.
+ * </p>
+ *
  * @author Joe Walnes
  * @see com.thoughtworks.xstream.converters.extended.NamedArrayConverter
  */
 public class ArrayConverter extends AbstractCollectionConverter {
 
+    private static final Map<Class<?>, PrimitiveType> PRIMITIVE_TYPES = new HashMap<>();
+    static {
+        for (final PrimitiveType type : new PrimitiveType[]{
+            new PrimitiveType(boolean.class, BooleanConverter.class, false) {
+                @Override
+                Object get(final Object array, final int index) {
+                    return Boolean.valueOf(((boolean[])array)[index]);
+                }
+
+                @Override
+                void set(final Object array, final int index, final Object value) {
+                    ((boolean[])array)[index] = ((Boolean)value).booleanValue();
+                }
+
+                @Override
+                void append(final StringBuilder buffer, final Object array, final int index) {
+                    buffer.append(((boolean[])array)[index]);
+                }
+
+                @Override
+                boolean parse(final String token, final Object array, final int index) {
+                    // any BooleanConverter writing "true" and "false" reads these two values in the same way
+                    if (token.equals("true")) {
+                        ((boolean[])array)[index] = true;
+                    } else if (token.equals("false")) {
+                        ((boolean[])array)[index] = false;
+                    } else {
+                        return false;
+                    }
+                    return true;
+                }
+
+                @Override
+                boolean isDefault(final SingleValueConverter converter) {
+                    return super.isDefault(converter)
+                        && "true".equals(converter.toString(Boolean.TRUE))
+                        && "false".equals(converter.toString(Boolean.FALSE));
+                }
+            }, new PrimitiveType(char.class, CharConverter.class, false) {
+                @Override
+                Object get(final Object array, final int index) {
+                    return Character.valueOf(((char[])array)[index]);
+                }
+
+                @Override
+                void set(final Object array, final int index, final Object value) {
+                    ((char[])array)[index] = ((Character)value).charValue();
+                }
+
+                @Override
+                void append(final StringBuilder buffer, final Object array, final int index) {
+                    final char c = ((char[])array)[index];
+                    if (c != '\0') {
+                        buffer.append(c);
+                    }
+                }
+
+                @Override
+                boolean parse(final String token, final Object array, final int index) {
+                    if (token.length() > 1) {
+                        return false;
+                    }
+                    ((char[])array)[index] = token.length() == 0 ? '\0' : token.charAt(0);
+                    return true;
+                }
+            }, new PrimitiveType(byte.class, ByteConverter.class, true) {
+                @Override
+                Object get(final Object array, final int index) {
+                    return Byte.valueOf(((byte[])array)[index]);
+                }
+
+                @Override
+                void set(final Object array, final int index, final Object value) {
+                    ((byte[])array)[index] = ((Byte)value).byteValue();
+                }
+
+                @Override
+                void append(final StringBuilder buffer, final Object array, final int index) {
+                    buffer.append(((byte[])array)[index]);
+                }
+
+                @Override
+                boolean parse(final String token, final Object array, final int index) {
+                    if (!Primitives.isDecimal(token, 3)) {
+                        return false;
+                    }
+                    final int value = Integer.parseInt(token);
+                    if (value < Byte.MIN_VALUE || value > 0xFF) {
+                        return false;
+                    }
+                    ((byte[])array)[index] = (byte)value;
+                    return true;
+                }
+            }, new PrimitiveType(short.class, ShortConverter.class, true) {
+                @Override
+                Object get(final Object array, final int index) {
+                    return Short.valueOf(((short[])array)[index]);
+                }
+
+                @Override
+                void set(final Object array, final int index, final Object value) {
+                    ((short[])array)[index] = ((Short)value).shortValue();
+                }
+
+                @Override
+                void append(final StringBuilder buffer, final Object array, final int index) {
+                    buffer.append(((short[])array)[index]);
+                }
+
+                @Override
+                boolean parse(final String token, final Object array, final int index) {
+                    if (!Primitives.isDecimal(token, 5)) {
+                        return false;
+                    }
+                    final int value = Integer.parseInt(token);
+                    if (value < Short.MIN_VALUE || value > 0xFFFF) {
+                        return false;
+                    }
+                    ((short[])array)[index] = (short)value;
+                    return true;
+                }
+            }, new PrimitiveType(int.class, IntConverter.class, true) {
+                @Override
+                Object get(final Object array, final int index) {
+                    return Integer.valueOf(((int[])array)[index]);
+                }
+
+                @Override
+                void set(final Object array, final int index, final Object value) {
+                    ((int[])array)[index] = ((Integer)value).intValue();
+                }
+
+                @Override
+                void append(final StringBuilder buffer, final Object array, final int index) {
+                    buffer.append(((int[])array)[index]);
+                }
+
+                @Override
+                boolean parse(final String token, final Object array, final int index) {
+                    if (!Primitives.isDecimal(token, 10)) {
+                        return false;
+                    }
+                    final long value = Long.parseLong(token);
+                    if (value < Integer.MIN_VALUE || value > 0xFFFFFFFFL) {
+                        return false;
+                    }
+                    ((int[])array)[index] = (int)value;
+                    return true;
+                }
+            }, new PrimitiveType(long.class, LongConverter.class, true) {
+                @Override
+                Object get(final Object array, final int index) {
+                    return Long.valueOf(((long[])array)[index]);
+                }
+
+                @Override
+                void set(final Object array, final int index, final Object value) {
+                    ((long[])array)[index] = ((Long)value).longValue();
+                }
+
+                @Override
+                void append(final StringBuilder buffer, final Object array, final int index) {
+                    buffer.append(((long[])array)[index]);
+                }
+
+                @Override
+                boolean parse(final String token, final Object array, final int index) {
+                    if (!Primitives.isDecimal(token, 18)) {
+                        return false;
+                    }
+                    ((long[])array)[index] = Long.parseLong(token);
+                    return true;
+                }
+            }, new PrimitiveType(float.class, FloatConverter.class, true) {
+                @Override
+                Object get(final Object array, final int index) {
+                    return Float.valueOf(((float[])array)[index]);
+                }
+
+                @Override
+                void set(final Object array, final int index, final Object value) {
+                    ((float[])array)[index] = ((Float)value).floatValue();
+                }
+
+                @Override
+                void append(final StringBuilder buffer, final Object array, final int index) {
+                    buffer.append(((float[])array)[index]);
+                }
+
+                @Override
+                boolean parse(final String token, final Object array, final int index) {
+                    ((float[])array)[index] = Float.parseFloat(token);
+                    return true;
+                }
+            }, new PrimitiveType(double.class, DoubleConverter.class, true) {
+                @Override
+                Object get(final Object array, final int index) {
+                    return Double.valueOf(((double[])array)[index]);
+                }
+
+                @Override
+                void set(final Object array, final int index, final Object value) {
+                    ((double[])array)[index] = ((Double)value).doubleValue();
+                }
+
+                @Override
+                void append(final StringBuilder buffer, final Object array, final int index) {
+                    buffer.append(((double[])array)[index]);
+                }
+
+                @Override
+                boolean parse(final String token, final Object array, final int index) {
+                    ((double[])array)[index] = Double.parseDouble(token);
+                    return true;
+                }
+            }}) {
+            PRIMITIVE_TYPES.put(type.primitive, type);
+        }
+    }
+
+    private final ConverterLookup converterLookup;
+    private final boolean compactPrimitives;
+
     public ArrayConverter(final Mapper mapper) {
+        this(mapper, null, false);
+    }
+
+    /**
+     * Construct an ArrayConverter with a fast path for arrays of primitives.
+     *
+     * @param mapper the mapper
+     * @param converterLookup the lookup for the converters of the primitive element types
+     * @since upcoming
+     */
+    public ArrayConverter(final Mapper mapper, final ConverterLookup converterLookup) {
+        this(mapper, converterLookup, false);
+    }
+
+    /**
+     * Construct an ArrayConverter with a fast path for arrays of primitives, that may write numeric arrays in compact
+     * form.
+     *
+     * @param mapper the mapper
+     * @param converterLookup the lookup for the converters of the primitive element types
+     * @param compactPrimitives <code>true</code> to write arrays of numeric primitives as space-separated values of a
+     *            single node
+     * @since upcoming
+     */
+    public ArrayConverter(final Mapper mapper, final ConverterLookup converterLookup, final boolean compactPrimitives) {
         super(mapper);
+        this.converterLookup = converterLookup;
+        this.compactPrimitives = compactPrimitives;
     }
 
     @Override
@@ -41,6 +315,34 @@ public class ArrayConverter extends AbstractCollectionConverter {
 
     @Override
     public void marshal(final Object source, final HierarchicalStreamWriter writer, final MarshallingContext context) {
+        final PrimitiveType primitiveType = primitiveTypeOf(source.getClass().getComponentType());
+        if (primitiveType != null) {
+            if (compactPrimitives && primitiveType.numeric) {
+                writer.setValue(primitiveType.toCompactString(source));
+                return;
+            }
+            final SingleValueConverterWrapper converter = singleValueConverterFor(primitiveType.boxed);
+            if (converter != null) {
+                final String name = mapper().serializedClass(primitiveType.boxed);
+                final StringBuilder buffer = primitiveType.isDefault(converter.getWrapped())
+                    ? new StringBuilder(24)
+                    : null;
+                final int length = Array.getLength(source);
+                for (int i = 0; i < length; i++) {
+                    writer.startNode(name, primitiveType.boxed);
+                    if (buffer != null) {
+                        buffer.setLength(0);
+                        primitiveType.append(buffer, source, i);
+                        writer.setValue(buffer.toString());
+                    } else {
+                        writer.setValue(converter.toString(primitiveType.get(source, i)));
+                    }
+                    writer.endNode();
+                }
+                return;
+            }
+        }
+
         final int length = Array.getLength(source);
         for (int i = 0; i < length; i++) {
             final Object item = Array.get(source, i);
@@ -51,6 +353,11 @@ public class ArrayConverter extends AbstractCollectionConverter {
 
     @Override
     public Object unmarshal(final HierarchicalStreamReader reader, final UnmarshallingContext context) {
+        final PrimitiveType primitiveType = primitiveTypeOf(context.getRequiredType().getComponentType());
+        if (primitiveType != null) {
+            return unmarshalPrimitives(primitiveType, reader, context);
+        }
+
         // read the items from xml into a list (the array size is not known until all items have been read)
         final List<Object> items = new ArrayList<>();
         while (reader.hasMoreChildren()) {
@@ -65,4 +372,184 @@ public class ArrayConverter extends AbstractCollectionConverter {
         }
         return array;
     }
+
+    private Object unmarshalPrimitives(final PrimitiveType primitiveType, final HierarchicalStreamReader reader,
+            final UnmarshallingContext context) {
+        final SingleValueConverterWrapper boxedConverter = singleValueConverterFor(primitiveType.boxed);
+        if (!reader.hasMoreChildren()) {
+            final String value = reader.getValue();
+            return primitiveType.fromCompactString(value == null ? "" : value, boxedConverter);
+        }
+
+        final SingleValueConverterWrapper primitiveConverter = singleValueConverterFor(primitiveType.primitive);
+        final boolean primitiveDefault = primitiveConverter != null
+            && primitiveType.isDefault(primitiveConverter.getWrapped());
+        final boolean boxedDefault = boxedConverter != null && primitiveType.isDefault(boxedConverter.getWrapped());
+        Object array = primitiveType.newArray(16);
+        int capacity = 16;
+        int size = 0;
+        while (reader.hasMoreChildren()) {
+            reader.moveDown();
+            final Class<?> type = HierarchicalStreams.readClassType(reader, mapper());
+            if (size == capacity) {
+                capacity *= 2;
+                array = primitiveType.copyOf(array, capacity);
+            }
+            if (type == primitiveType.primitive && primitiveConverter != null) {
+                primitiveType.setValue(array, size, reader.getValue(), primitiveConverter, primitiveDefault);
+            } else if (type == primitiveType.boxed && boxedConverter != null) {
+                primitiveType.setValue(array, size, reader.getValue(), boxedConverter, boxedDefault);
+            } else {
+                primitiveType.setChecked(array, size, context.convertAnother(null, type));
+            }
+            ++size;
+            reader.moveUp();
+        }
+        return size == capacity ? array : primitiveType.copyOf(array, size);
+    }
+
+    private PrimitiveType primitiveTypeOf(final Class<?> componentType) {
+        if (converterLookup == null || !componentType.isPrimitive()) {
+            return null;
+        }
+        final PrimitiveType primitiveType = PRIMITIVE_TYPES.get(componentType);
+        return primitiveType != null && mapper().isImmutableValueType(primitiveType.boxed) ? primitiveType : null;
+    }
+
+    private SingleValueConverterWrapper singleValueConverterFor(final Class<?> type) {
+        try {
+            final Converter converter = converterLookup.lookupConverterForType(type);
+            // the wrapper processes the value in the same way when called by the marshalling context
+            return converter instanceof SingleValueConverterWrapper ? (SingleValueConverterWrapper)converter : null;
+        } catch (final ConversionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Access to the elements of an array of a primitive type without reflection.
+     */
+    private static abstract class PrimitiveType {
+        final Class<?> primitive;
+        final Class<?> boxed;
+        final Class<?> converterType;
+        final boolean numeric;
+
+        PrimitiveType(final Class<?> primitive, final Class<?> converterType, final boolean numeric) {
+            this.primitive = primitive;
+            this.converterType = converterType;
+            this.numeric = numeric;
+            boxed = Primitives.box(primitive);
+        }
+
+        abstract Object get(Object array, int index);
+
+        abstract void set(Object array, int index, Object value);
+
+        /**
+         * Append the element in the representation of XStream's default converter for the type.
+         */
+        abstract void append(StringBuilder buffer, Object array, int index);
+
+        /**
+         * Parse the element in the representation written by {@link #append(StringBuilder, Object, int)}.
+         *
+         * @return <code>false</code> if the token has a different form and must be parsed by the converter
+         */
+        abstract boolean parse(String token, Object array, int index);
+
+        /**
+         * Check whether the converter is XStream's default converter for the type, i.e. it writes the elements in the
+         * same way as {@link #append(StringBuilder, Object, int)} and reads their values in the same way as
+         * {@link #parse(String, Object, int)}.
+         */
+        boolean isDefault(final SingleValueConverter converter) {
+            return converter != null && converter.getClass() == converterType;
+        }
+
+        void setValue(
+                final Object array, final int index, final String value, final SingleValueConverter converter,
+                final boolean defaultConverter) {
+            if (!defaultConverter || !parse(value, array, index)) {
+                setChecked(array, index, converter.fromString(value));
+            }
+        }
+
+        void setChecked(final Object array, final int index, final Object value) {
+            if (!boxed.isInstance(value)) {
+                final ConversionException exception = new ConversionException(
+                    "Cannot store element in array of primitives");
+                exception.add("component-type", primitive.getName());
+                exception.add("element-type", value == null ? "null" : value.getClass().getName());
+                throw exception;
+            }
+            set(array, index, value);
+        }
+
+        Object newArray(final int length) {
+            return Array.newInstance(primitive, length);
+        }
+
+        Object copyOf(final Object array, final int length) {
+            final Object copy = newArray(length);
+            System.arraycopy(array, 0, copy, 0, Math.min(length, Array.getLength(array)));
+            return copy;
+        }
+
+        String toCompactString(final Object array) {
+            final int length = Array.getLength(array);
+            final StringBuilder buffer = new StringBuilder(length * 4);
+            for (int i = 0; i < length; i++) {
+                if (i > 0) {
+                    buffer.append(' ');
+                }
+                append(buffer, array, i);
+            }
+            return buffer.toString();
+        }
+
+        Object fromCompactString(final String value, final SingleValueConverter converter) {
+            if (!numeric && !value.trim().isEmpty()) {
+                final ConversionException exception = new ConversionException(
+                    "Compact form is only supported for arrays of numeric primitives");
+                exception.add("component-type", primitive.getName());
+                throw exception;
+            }
+            final int length = value.length();
+            int size = 0;
+            for (int i = 0; i < length; ++i) {
+                if (!Character.isWhitespace(value.charAt(i))
+                    && (i == 0 || Character.isWhitespace(value.charAt(i - 1)))) {
+                    ++size;
+                }
+            }
+            final Object array = newArray(size);
+            int index = 0;
+            int i = 0;
+            while (i < length) {
+                while (i < length && Character.isWhitespace(value.charAt(i))) {
+                    ++i;
+                }
+                final int start = i;
+                while (i < length && !Character.isWhitespace(value.charAt(i))) {
+                    ++i;
+                }
+                if (start < i) {
+                    final String token = value.substring(start, i);
+                    if (!parse(token, array, index)) {
+                        if (converter == null) {
+                            final ConversionException exception = new ConversionException(
+                                "Invalid value in compact array");
+                            exception.add("component-type", primitive.getName());
+                            exception.add("value", token);
+                            throw exception;
+                        }
+                        setChecked(array, index, converter.fromString(token));
+                    }
+                    ++index;
+                }
+            }
+            return array;
+        }
+    }
 }
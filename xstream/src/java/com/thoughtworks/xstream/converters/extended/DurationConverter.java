@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2007, 2008, 2011, 2014, 2018 XStream Committers.
+ * Copyright (C) 2007, 2008, 2011, 2014, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -32,30 +32,46 @@ import com.thoughtworks.xstream.converters.basic.AbstractSingleValueConverter;
  */
 public class DurationConverter extends AbstractSingleValueConverter {
     private final DatatypeFactory factory;
+    private final boolean defaultFactory;
 
+    /**
+     * Constructs a DurationConverter using the internal factory. The factory is looked up at first usage.
+     */
     public DurationConverter() {
-        this(new Object() {
-            DatatypeFactory getFactory() {
-                try {
-                    return DatatypeFactory.newInstance();
-                } catch (final DatatypeConfigurationException e) {
-                    return null;
-                }
-            }
-        }.getFactory());
+        factory = null;
+        defaultFactory = true;
     }
 
     public DurationConverter(final DatatypeFactory factory) {
         this.factory = factory;
+        defaultFactory = false;
     }
 
     @Override
     public boolean canConvert(final Class<?> type) {
-        return factory != null && type != null && Duration.class.isAssignableFrom(type);
+        return type != null && Duration.class.isAssignableFrom(type) && getFactory() != null;
     }
 
     @Override
     public Object fromString(final String str) {
-        return factory.newDuration(str);
+        return getFactory().newDuration(str);
+    }
+
+    private DatatypeFactory getFactory() {
+        return defaultFactory ? DefaultFactory.INSTANCE : factory;
+    }
+
+    private static class DefaultFactory {
+        private static final DatatypeFactory INSTANCE;
+
+        static {
+            DatatypeFactory factory;
+            try {
+                factory = DatatypeFactory.newInstance();
+            } catch (final DatatypeConfigurationException e) {
+                factory = null;
+            }
+            INSTANCE = factory;
+        }
     }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2020, 2021 XStream committers.
+ * Copyright (C) 2020, 2021, 2026 XStream committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -33,56 +33,67 @@ import static java.lang.invoke.MethodType.methodType;
  * @author <a href="mailto:chris.hegarty@oracle.com">Chris Hegarty</a>
  */
 public final class RecordConverter implements Converter {
-    private static final MethodHandle MH_IS_RECORD;
-    private static final MethodHandle MH_GET_RECORD_COMPONENTS;
-    private static final MethodHandle MH_GET_NAME;
-    private static final MethodHandle MH_GET_TYPE;
-    private static final MethodHandles.Lookup LOOKUP;
-
     protected final Mapper mapper;
 
     public RecordConverter(Mapper mapper) {
         this.mapper = mapper;
     }
 
-    static {
-        MethodHandle MH_isRecord;
-        MethodHandle MH_getRecordComponents;
-        MethodHandle MH_getName;
-        MethodHandle MH_getType;
-        LOOKUP = MethodHandles.lookup();
+    /**
+     * The reflective machinery, initialized at first usage, since it is expensive to set up while an XStream instance
+     * is created.
+     */
+    private static final class Handles {
+        private static final MethodHandle MH_IS_RECORD;
+        private static final MethodHandle MH_GET_RECORD_COMPONENTS;
+        private static final MethodHandle MH_GET_NAME;
+        private static final MethodHandle MH_GET_TYPE;
+        private static final MethodHandles.Lookup LOOKUP;
 
-        try {
-            // reflective machinery required to access the record components
-            // without a static dependency on Java SE 16 APIs or Java SE 14 or 15 API with preview enabled
-            Class<?> c = Class.forName("java.lang.reflect.RecordComponent");
-            MH_isRecord = LOOKUP.findVirtual(Class.class, "isRecord", methodType(boolean.class));
-            MH_getRecordComponents = LOOKUP.findVirtual(Class.class, "getRecordComponents", methodType(Array
-                .newInstance(c, 0).getClass())).asType(methodType(Object[].class, Class.class));
-            MH_getName = LOOKUP.findVirtual(c, "getName", methodType(String.class)).asType(methodType(String.class,
-                Object.class));
-            MH_getType = LOOKUP.findVirtual(c, "getType", methodType(Class.class)).asType(methodType(Class.class,
-                Object.class));
-        } catch (ClassNotFoundException | NoSuchMethodException e) {
-            // pre-Java-14
-            MH_isRecord = null;
-            MH_getRecordComponents = null;
-            MH_getName = null;
-            MH_getType = null;
-        } catch (IllegalAccessException unexpected) {
-            throw new AssertionError(unexpected);
-        }
+        static {
+            MethodHandle MH_isRecord;
+            MethodHandle MH_getRecordComponents;
+            MethodHandle MH_getName;
+            MethodHandle MH_getType;
+            LOOKUP = MethodHandles.lookup();
 
-        MH_IS_RECORD = MH_isRecord;
-        MH_GET_RECORD_COMPONENTS = MH_getRecordComponents;
-        MH_GET_NAME = MH_getName;
-        MH_GET_TYPE = MH_getType;
+            try {
+                // reflective machinery required to access the record components
+                // without a static dependency on Java SE 16 APIs or Java SE 14 or 15 API with preview enabled
+                Class<?> c = Class.forName("java.lang.reflect.RecordComponent");
+                MH_isRecord = LOOKUP.findVirtual(Class.class, "isRecord", methodType(boolean.class));
+                MH_getRecordComponents = LOOKUP.findVirtual(Class.class, "getRecordComponents", methodType(Array
+                    .newInstance(c, 0).getClass())).asType(methodType(Object[].class, Class.class));
+                MH_getName = LOOKUP.findVirtual(c, "getName", methodType(String.class)).asType(methodType(
+                    String.class, Object.class));
+                MH_getType = LOOKUP.findVirtual(c, "getType", methodType(Class.class)).asType(methodType(Class.class,
+                    Object.class));
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                // pre-Java-14
+                MH_isRecord = null;
+                MH_getRecordComponents = null;
+                MH_getName = null;
+                MH_getType = null;
+            } catch (IllegalAccessException unexpected) {
+                throw new AssertionError(unexpected);
+            }
+
+            MH_IS_RECORD = MH_isRecord;
+            MH_GET_RECORD_COMPONENTS = MH_getRecordComponents;
+            MH_GET_NAME = MH_getName;
+            MH_GET_TYPE = MH_getType;
+        }
     }
 
     /** Returns true if, and only if, the given class is a record class. */
     private static boolean isRecord(Class<?> aClass) {
+        // a record class extends java.lang.Record directly, reject any other class without the reflective machinery
+        if (aClass != null
+            && (aClass.getSuperclass() == null || !"java.lang.Record".equals(aClass.getSuperclass().getName()))) {
+            return false;
+        }
         try {
-            return (boolean)MH_IS_RECORD.invokeExact(aClass);
+            return (boolean)Handles.MH_IS_RECORD.invokeExact(aClass);
         } catch (Throwable t) {
             throw new ConversionException(t);
         }
@@ -182,12 +193,12 @@ public final class RecordConverter implements Converter {
      */
     private static RecordComponent[] recordComponents(Class<?> cls) {
         try {
-            Object[] rawComponents = (Object[])MH_GET_RECORD_COMPONENTS.invokeExact(cls);
+            Object[] rawComponents = (Object[])Handles.MH_GET_RECORD_COMPONENTS.invokeExact(cls);
             RecordComponent[] recordComponents = new RecordComponent[rawComponents.length];
             for (int i = 0; i < rawComponents.length; i++) {
                 final Object comp = rawComponents[i];
-                recordComponents[i] = new RecordComponent((String)MH_GET_NAME.invokeExact(comp), (Class<?>)MH_GET_TYPE
-                    .invokeExact(comp));
+                recordComponents[i] = new RecordComponent((String)Handles.MH_GET_NAME.invokeExact(comp),
+                    (Class<?>)Handles.MH_GET_TYPE.invokeExact(comp));
             }
             return recordComponents;
         } catch (Throwable t) {
@@ -198,8 +209,8 @@ public final class RecordConverter implements Converter {
     /** Retrieves the value of the record component for the given record object. */
     private static Object componentValue(Object recordObject, RecordComponent recordComponent) {
         try {
-            MethodHandle MH_get = LOOKUP.findVirtual(recordObject.getClass(), recordComponent.name(), methodType(
-                recordComponent.type()));
+            MethodHandle MH_get = Handles.LOOKUP.findVirtual(recordObject.getClass(), recordComponent.name(),
+                methodType(recordComponent.type()));
             return MH_get.invoke(recordObject);
         } catch (Throwable t) {
             throw new ConversionException("cannot retrieve record components", t);
@@ -238,7 +249,7 @@ public final class RecordConverter implements Converter {
             Object[] args) {
         try {
             Class<?>[] paramTypes = Arrays.stream(recordComponents).map(RecordComponent::type).toArray(Class<?>[]::new);
-            MethodHandle MH_canonicalConstructor = LOOKUP.findConstructor(recordClass, methodType(void.class,
+            MethodHandle MH_canonicalConstructor = Handles.LOOKUP.findConstructor(recordClass, methodType(void.class,
                 paramTypes)).asType(methodType(Object.class, paramTypes));
             return MH_canonicalConstructor.invokeWithArguments(args);
         } catch (Throwable t) {
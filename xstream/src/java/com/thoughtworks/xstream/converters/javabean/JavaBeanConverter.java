@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2012, 2013, 2014, 2015, 2016, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2012, 2013, 2014, 2015, 2016, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,15 +11,30 @@
  */
 package com.thoughtworks.xstream.converters.javabean;
 
+import java.beans.PropertyDescriptor;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ConverterLookup;
 import com.thoughtworks.xstream.converters.MarshallingContext;
+import com.thoughtworks.xstream.converters.SingleValueConverter;
+import com.thoughtworks.xstream.converters.SingleValueConverterWrapper;
 import com.thoughtworks.xstream.converters.UnmarshallingContext;
+import com.thoughtworks.xstream.converters.basic.BooleanConverter;
+import com.thoughtworks.xstream.converters.basic.ByteConverter;
+import com.thoughtworks.xstream.converters.basic.DoubleConverter;
+import com.thoughtworks.xstream.converters.basic.FloatConverter;
+import com.thoughtworks.xstream.converters.basic.IntConverter;
+import com.thoughtworks.xstream.converters.basic.LongConverter;
+import com.thoughtworks.xstream.converters.basic.ShortConverter;
+import com.thoughtworks.xstream.converters.javabean.MethodHandleBeanProvider.PropertyAccessor;
 import com.thoughtworks.xstream.converters.reflection.MissingFieldException;
 import com.thoughtworks.xstream.core.util.FastField;
+import com.thoughtworks.xstream.core.util.Primitives;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import com.thoughtworks.xstream.mapper.Mapper;
@@ -28,14 +43,31 @@ import com.thoughtworks.xstream.mapper.Mapper;
 /**
  * Can convert any bean with a public default constructor. The {@link BeanProvider} used as default is based on
  * {@link java.beans.BeanInfo}. Indexed properties are currently not supported.
+ * <p>
+ * If the converter has access to the {@link ConverterLookup} and uses a {@link MethodHandleBeanProvider}, primitive
+ * properties are read and written with the typed methods of the property accessor without boxing, as long as XStream's
+ * default converter is registered for the type of the property.
+ * </p>
  */
 public class JavaBeanConverter implements Converter {
 
+    private static final Map<Class<?>, Class<?>> DEFAULT_CONVERTERS = new HashMap<>();
+    static {
+        DEFAULT_CONVERTERS.put(boolean.class, BooleanConverter.class);
+        DEFAULT_CONVERTERS.put(byte.class, ByteConverter.class);
+        DEFAULT_CONVERTERS.put(short.class, ShortConverter.class);
+        DEFAULT_CONVERTERS.put(int.class, IntConverter.class);
+        DEFAULT_CONVERTERS.put(long.class, LongConverter.class);
+        DEFAULT_CONVERTERS.put(float.class, FloatConverter.class);
+        DEFAULT_CONVERTERS.put(double.class, DoubleConverter.class);
+    }
+
     /* TODO: - support indexed properties - support attributes (XSTR-620) - support local converters (XSTR-601) Problem:
      * Mappers take definitions based on reflection, they don't know about bean info */
     protected final Mapper mapper;
     protected final JavaBeanProvider beanProvider;
     private final Class<?> type;
+    private final ConverterLookup converterLookup;
 
     public JavaBeanConverter(final Mapper mapper) {
         this(mapper, (Class<?>)null);
@@ -50,9 +82,25 @@ public class JavaBeanConverter implements Converter {
     }
 
     public JavaBeanConverter(final Mapper mapper, final JavaBeanProvider beanProvider, final Class<?> type) {
+        this(mapper, beanProvider, type, null);
+    }
+
+    /**
+     * Construct a JavaBeanConverter with a fast path for primitive properties.
+     *
+     * @param mapper the mapper
+     * @param beanProvider the provider of the bean properties
+     * @param type the converted bean type or <code>null</code> for any bean
+     * @param converterLookup the lookup for the converters of the primitive property types
+     * @since upcoming
+     */
+    public JavaBeanConverter(
+            final Mapper mapper, final JavaBeanProvider beanProvider, final Class<?> type,
+            final ConverterLookup converterLookup) {
         this.mapper = mapper;
         this.beanProvider = beanProvider;
         this.type = type;
+        this.converterLookup = converterLookup;
     }
 
     /**
@@ -66,6 +114,36 @@ public class JavaBeanConverter implements Converter {
     @Override
     public void marshal(final Object source, final HierarchicalStreamWriter writer, final MarshallingContext context) {
         final String classAttributeName = mapper.aliasForSystemAttribute("class");
+        final MethodHandleBeanProvider accessorProvider = getAccessorProvider();
+        if (accessorProvider != null) {
+            for (final PropertyAccessor accessor : accessorProvider.serializablePropertiesFor(source)) {
+                final PropertyDescriptor descriptor = accessor.getPropertyDescriptor();
+                final String propertyName = descriptor.getName();
+                if (!mapper.shouldSerializeMember(accessor.getDefinedIn(), propertyName)) {
+                    continue;
+                }
+                final Class<?> propertyType = descriptor.getPropertyType();
+                final Class<?> boxedType = propertyType.isPrimitive() ? Primitives.box(propertyType) : null;
+                if (boxedType != null
+                    && accessor.hasTypedAccess()
+                    && defaultConverterFor(propertyType, boxedType) != null) {
+                    writer.startNode(mapper.serializedMember(source.getClass(), propertyName), boxedType);
+                    if (!boxedType.equals(mapper.defaultImplementationOf(propertyType)) && classAttributeName != null) {
+                        writer.addAttribute(classAttributeName, mapper.serializedClass(boxedType));
+                    }
+                    writer.setValue(readPrimitive(accessor, source, propertyType));
+                    writer.endNode();
+                } else {
+                    final Object value = accessor.get(source);
+                    if (value != null) {
+                        writeField(source, propertyName, propertyType, value, writer, context, classAttributeName);
+                    } else {
+                        writeNullField(source, propertyName, writer, classAttributeName);
+                    }
+                }
+            }
+            return;
+        }
         beanProvider.visitSerializableProperties(source, new JavaBeanProvider.Visitor() {
             @Override
             public boolean shouldVisit(final String name, final Class<?> definedIn) {
@@ -76,32 +154,35 @@ public class JavaBeanConverter implements Converter {
             public void visit(final String propertyName, final Class<?> fieldType, final Class<?> definedIn,
                     final Object newObj) {
                 if (newObj != null) {
-                    writeField(propertyName, fieldType, newObj);
+                    writeField(source, propertyName, fieldType, newObj, writer, context, classAttributeName);
                 } else {
-                    writeNullField(propertyName);
+                    writeNullField(source, propertyName, writer, classAttributeName);
                 }
             }
+        });
+    }
 
-            private void writeField(final String propertyName, final Class<?> fieldType, final Object newObj) {
-                final Class<?> actualType = newObj.getClass();
-                final Class<?> defaultType = mapper.defaultImplementationOf(fieldType);
-                final String serializedMember = mapper.serializedMember(source.getClass(), propertyName);
-                writer.startNode(serializedMember, actualType);
-                if (!actualType.equals(defaultType) && classAttributeName != null) {
-                    writer.addAttribute(classAttributeName, mapper.serializedClass(actualType));
-                }
-                context.convertAnother(newObj);
+    private void writeField(final Object source, final String propertyName, final Class<?> fieldType,
+            final Object newObj, final HierarchicalStreamWriter writer, final MarshallingContext context,
+            final String classAttributeName) {
+        final Class<?> actualType = newObj.getClass();
+        final Class<?> defaultType = mapper.defaultImplementationOf(fieldType);
+        final String serializedMember = mapper.serializedMember(source.getClass(), propertyName);
+        writer.startNode(serializedMember, actualType);
+        if (!actualType.equals(defaultType) && classAttributeName != null) {
+            writer.addAttribute(classAttributeName, mapper.serializedClass(actualType));
+        }
+        context.convertAnother(newObj);
 
-                writer.endNode();
-            }
+        writer.endNode();
+    }
 
-            private void writeNullField(final String propertyName) {
-                final String serializedMember = mapper.serializedMember(source.getClass(), propertyName);
-                writer.startNode(serializedMember, Mapper.Null.class);
-                writer.addAttribute(classAttributeName, mapper.serializedClass(Mapper.Null.class));
-                writer.endNode();
-            }
-        });
+    private void writeNullField(final Object source, final String propertyName, final HierarchicalStreamWriter writer,
+            final String classAttributeName) {
+        final String serializedMember = mapper.serializedMember(source.getClass(), propertyName);
+        writer.startNode(serializedMember, Mapper.Null.class);
+        writer.addAttribute(classAttributeName, mapper.serializedClass(Mapper.Null.class));
+        writer.endNode();
     }
 
     @Override
@@ -119,6 +200,7 @@ public class JavaBeanConverter implements Converter {
         };
 
         final Class<?> resultType = result.getClass();
+        final MethodHandleBeanProvider accessorProvider = getAccessorProvider();
         while (reader.hasMoreChildren()) {
             reader.moveDown();
 
@@ -129,8 +211,28 @@ public class JavaBeanConverter implements Converter {
 
                 if (propertyExistsInClass) {
                     final Class<?> type = determineType(reader, result, propertyName);
-                    final Object value = context.convertAnother(result, type);
-                    beanProvider.writeProperty(result, propertyName, value);
+                    final PropertyAccessor accessor = accessorProvider != null
+                        ? accessorProvider.getPropertyAccessor(resultType, propertyName)
+                        : null;
+                    final Class<?> propertyType = accessor != null
+                        ? accessor.getPropertyDescriptor().getPropertyType()
+                        : null;
+                    final SingleValueConverter converter = accessor != null
+                        && propertyType.isPrimitive()
+                        && accessor.hasTypedAccess()
+                        && (type == propertyType || type == Primitives.box(propertyType))
+                            ? defaultConverterFor(propertyType, type)
+                            : null;
+                    if (converter != null) {
+                        final String str = reader.getValue();
+                        if (!writePrimitive(accessor, result, propertyType, str)) {
+                            // the wrapper processes the value in the same way when called by the context
+                            beanProvider.writeProperty(result, propertyName, converter.fromString(str));
+                        }
+                    } else {
+                        final Object value = context.convertAnother(result, type);
+                        beanProvider.writeProperty(result, propertyName, value);
+                    }
                     seenProperties.add(new FastField(resultType, propertyName));
                 } else if (!mapper.isIgnoredElement(propertyName)) {
                     throw new MissingFieldException(resultType.getName(), propertyName);
@@ -142,6 +244,112 @@ public class JavaBeanConverter implements Converter {
         return result;
     }
 
+    private MethodHandleBeanProvider getAccessorProvider() {
+        return converterLookup != null && beanProvider instanceof MethodHandleBeanProvider
+            ? (MethodHandleBeanProvider)beanProvider
+            : null;
+    }
+
+    /**
+     * Retrieve XStream's default converter for the values of a primitive property, i.e. the converter writes a value
+     * in the same way as {@link #readPrimitive(PropertyAccessor, Object, Class)} and reads it in the same way as
+     * {@link #writePrimitive(PropertyAccessor, Object, Class, String)}.
+     *
+     * @return the converter or <code>null</code> if another converter is registered for the type of the value
+     */
+    private SingleValueConverter defaultConverterFor(final Class<?> propertyType, final Class<?> valueType) {
+        final Class<?> converterType = DEFAULT_CONVERTERS.get(propertyType);
+        if (converterType == null || !mapper.isImmutableValueType(Primitives.box(propertyType))) {
+            return null;
+        }
+        final Converter converter;
+        try {
+            converter = converterLookup.lookupConverterForType(valueType);
+        } catch (final ConversionException e) {
+            return null;
+        }
+        if (!(converter instanceof SingleValueConverterWrapper)) {
+            return null;
+        }
+        final SingleValueConverter wrapped = ((SingleValueConverterWrapper)converter).getWrapped();
+        if (wrapped == null || wrapped.getClass() != converterType) {
+            return null;
+        }
+        if (propertyType == boolean.class
+            && !("true".equals(wrapped.toString(Boolean.TRUE)) && "false".equals(wrapped.toString(Boolean.FALSE)))) {
+            return null;
+        }
+        return wrapped;
+    }
+
+    private static String readPrimitive(final PropertyAccessor accessor, final Object bean, final Class<?> type) {
+        if (type == int.class) {
+            return Integer.toString(accessor.getInt(bean));
+        } else if (type == long.class) {
+            return Long.toString(accessor.getLong(bean));
+        } else if (type == double.class) {
+            return Double.toString(accessor.getDouble(bean));
+        } else if (type == boolean.class) {
+            return Boolean.toString(accessor.getBoolean(bean));
+        } else if (type == float.class) {
+            return Float.toString(accessor.getFloat(bean));
+        } else if (type == short.class) {
+            return Short.toString(accessor.getShort(bean));
+        } else {
+            return Byte.toString(accessor.getByte(bean));
+        }
+    }
+
+    /**
+     * Write a primitive property in the representation of XStream's default converter for the type.
+     *
+     * @return <code>false</code> if the value has a different form and must be read by the converter
+     */
+    private static boolean writePrimitive(final PropertyAccessor accessor, final Object bean, final Class<?> type,
+            final String value) {
+        if (type == boolean.class) {
+            // any BooleanConverter writing "true" and "false" reads these two values in the same way
+            if (value.equals("true") || value.equals("false")) {
+                accessor.setBoolean(bean, value.equals("true"));
+                return true;
+            }
+        } else if (type == double.class || type == float.class) {
+            try {
+                if (type == double.class) {
+                    accessor.setDouble(bean, Double.parseDouble(value));
+                } else {
+                    accessor.setFloat(bean, Float.parseFloat(value));
+                }
+            } catch (final NumberFormatException e) {
+                // let the converter report the invalid value
+                return false;
+            }
+            return true;
+        } else if (Primitives.isDecimal(value, type == long.class ? 18 : 10)) {
+            final long l = Long.parseLong(value);
+            if (type == long.class) {
+                accessor.setLong(bean, l);
+            } else if (type == int.class) {
+                if (l < Integer.MIN_VALUE || l > 0xFFFFFFFFL) {
+                    return false;
+                }
+                accessor.setInt(bean, (int)l);
+            } else if (type == short.class) {
+                if (l < Short.MIN_VALUE || l > 0xFFFF) {
+                    return false;
+                }
+                accessor.setShort(bean, (short)l);
+            } else {
+                if (l < Byte.MIN_VALUE || l > 0xFF) {
+                    return false;
+                }
+                accessor.setByte(bean, (byte)l);
+            }
+            return true;
+        }
+        return false;
+    }
+
     private Object instantiateNewInstance(final UnmarshallingContext context) {
         Object result = context.currentObject();
         if (result == null) {
@@ -0,0 +1,426 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.converters.javabean;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.ErrorWritingException;
+import com.thoughtworks.xstream.converters.reflection.ObjectAccessException;
+import com.thoughtworks.xstream.core.Caching;
+
+
+/**
+ * A {@link BeanProvider} that calls the getters and setters of the properties with method handles.
+ * <p>
+ * The provider creates once per type an accessor for each property. The accessor keeps the getter and setter adapted
+ * to the type of the property, i.e. primitive values can be read and written without boxing with the typed methods
+ * of the {@link PropertyAccessor}. The accessors are kept in concurrent maps, no lock is involved once a type is
+ * known. If no method handle can be created for a method, the accessor falls back to standard reflection.
+ * </p>
+ * <p>
+ * A {@link JavaBeanConverter} constructed with the {@link com.thoughtworks.xstream.converters.ConverterLookup} uses the
+ * typed methods for the primitive properties.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class MethodHandleBeanProvider extends BeanProvider implements Caching {
+
+    private static final PropertyAccessor[] NO_ACCESSORS = new PropertyAccessor[0];
+
+    private final ConcurrentMap<Class<?>, Map<String, PropertyAccessor>> propertyAccessorCache =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, PropertyAccessor[]> serializablePropertiesCache = new ConcurrentHashMap<>();
+
+    /**
+     * Construct a MethodHandleBeanProvider that will process the bean properties in their natural order.
+     *
+     * @since upcoming
+     */
+    public MethodHandleBeanProvider() {
+        super();
+    }
+
+    /**
+     * Construct a MethodHandleBeanProvider with a comparator to sort the bean properties by name in the dictionary.
+     *
+     * @param propertyNameComparator the comparator
+     * @since upcoming
+     */
+    public MethodHandleBeanProvider(final Comparator<String> propertyNameComparator) {
+        super(propertyNameComparator);
+    }
+
+    /**
+     * Construct a MethodHandleBeanProvider with a provided property dictionary.
+     *
+     * @param propertyDictionary the property dictionary to use
+     * @since upcoming
+     */
+    public MethodHandleBeanProvider(final PropertyDictionary propertyDictionary) {
+        super(propertyDictionary);
+    }
+
+    @Override
+    public void visitSerializableProperties(final Object object, final JavaBeanProvider.Visitor visitor) {
+        for (final PropertyAccessor accessor : serializablePropertiesFor(object)) {
+            final String name = accessor.descriptor.getName();
+            if (visitor.shouldVisit(name, accessor.definedIn)) {
+                visitor.visit(name, accessor.descriptor.getPropertyType(), accessor.definedIn, accessor.get(object));
+            }
+        }
+    }
+
+    @Override
+    public void writeProperty(final Object object, final String propertyName, final Object value) {
+        getPropertyAccessor(object.getClass(), propertyName).set(object, value);
+    }
+
+    /**
+     * Retrieve the accessor of a property.
+     *
+     * @param type the bean type
+     * @param name the name of the property
+     * @return the accessor
+     * @throws com.thoughtworks.xstream.converters.reflection.MissingFieldException if the property does not exist
+     * @since upcoming
+     */
+    public PropertyAccessor getPropertyAccessor(final Class<?> type, final String name) {
+        final PropertyAccessor accessor = propertyAccessorsFor(type).get(name);
+        if (accessor == null) {
+            // throws for the missing property
+            getProperty(name, type);
+        }
+        return accessor;
+    }
+
+    private Map<String, PropertyAccessor> propertyAccessorsFor(final Class<?> type) {
+        Map<String, PropertyAccessor> accessors = propertyAccessorCache.get(type);
+        if (accessors == null) {
+            accessors = new HashMap<>();
+            for (final Iterator<PropertyDescriptor> iter = propertyDictionary.propertiesFor(type); iter.hasNext();) {
+                final PropertyDescriptor descriptor = iter.next();
+                accessors.put(descriptor.getName(), new PropertyAccessor(descriptor));
+            }
+            propertyAccessorCache.putIfAbsent(type, accessors);
+            accessors = propertyAccessorCache.get(type);
+        }
+        return accessors;
+    }
+
+    PropertyAccessor[] serializablePropertiesFor(final Object object) {
+        final Class<?> type = object.getClass();
+        PropertyAccessor[] accessors = serializablePropertiesCache.get(type);
+        if (accessors == null) {
+            final PropertyDescriptor[] descriptors = getSerializableProperties(object);
+            if (descriptors.length == 0) {
+                accessors = NO_ACCESSORS;
+            } else {
+                final Map<String, PropertyAccessor> propertyAccessors = propertyAccessorsFor(type);
+                accessors = new PropertyAccessor[descriptors.length];
+                for (int i = 0; i < descriptors.length; ++i) {
+                    accessors[i] = propertyAccessors.get(descriptors[i].getName());
+                }
+            }
+            serializablePropertiesCache.putIfAbsent(type, accessors);
+            accessors = serializablePropertiesCache.get(type);
+        }
+        return accessors;
+    }
+
+    @Override
+    public void flushCache() {
+        propertyDictionary.flushCache();
+        propertyAccessorCache.clear();
+        serializablePropertiesCache.clear();
+    }
+
+    /**
+     * Accessor for a single property of a bean.
+     * <p>
+     * The typed getters and setters will throw an {@link ObjectAccessException} if the type of the property does not
+     * match.
+     * </p>
+     *
+     * @since upcoming
+     */
+    public static class PropertyAccessor {
+        private final PropertyDescriptor descriptor;
+        private final Class<?> definedIn;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final MethodHandle typedGetter;
+        private final MethodHandle typedSetter;
+
+        PropertyAccessor(final PropertyDescriptor descriptor) {
+            this.descriptor = descriptor;
+            final Method readMethod = descriptor.getReadMethod();
+            final Method writeMethod = descriptor.getWriteMethod();
+            definedIn = readMethod != null
+                ? readMethod.getDeclaringClass()
+                : writeMethod != null ? writeMethod.getDeclaringClass() : null;
+            final Class<?> propertyType = descriptor.getPropertyType();
+            final MethodHandle get = unreflect(readMethod);
+            final MethodHandle set = unreflect(writeMethod);
+            if (get != null) {
+                getter = get.asType(MethodType.methodType(Object.class, Object.class));
+                typedGetter = get.asType(MethodType.methodType(propertyType, Object.class));
+            } else {
+                getter = typedGetter = null;
+            }
+            if (set != null) {
+                setter = set.asType(MethodType.methodType(void.class, Object.class, Object.class));
+                typedSetter = set.asType(MethodType.methodType(void.class, Object.class, propertyType));
+            } else {
+                setter = typedSetter = null;
+            }
+        }
+
+        private static MethodHandle unreflect(final Method method) {
+            if (method != null) {
+                try {
+                    return MethodHandles.lookup().unreflect(method);
+                } catch (final IllegalAccessException | RuntimeException e) {
+                    // fall back to reflection, which reports the problem on access
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Retrieve the descriptor of the accessed property.
+         *
+         * @return the property descriptor
+         * @since upcoming
+         */
+        public PropertyDescriptor getPropertyDescriptor() {
+            return descriptor;
+        }
+
+        Class<?> getDefinedIn() {
+            return definedIn;
+        }
+
+        boolean hasTypedAccess() {
+            return typedGetter != null && typedSetter != null;
+        }
+
+        public Object get(final Object object) {
+            if (getter == null) {
+                return invoke(descriptor.getReadMethod(), object, "Cannot get property");
+            }
+            try {
+                return getter.invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot get property", e, object);
+            }
+        }
+
+        public void set(final Object object, final Object value) {
+            if (setter == null) {
+                invoke(descriptor.getWriteMethod(), object, "Cannot set property", value);
+                return;
+            }
+            try {
+                setter.invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot set property", e, object);
+            }
+        }
+
+        public boolean getBoolean(final Object object) {
+            try {
+                return (boolean)typedGetter(boolean.class, object).invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot get property", e, object);
+            }
+        }
+
+        public void setBoolean(final Object object, final boolean value) {
+            try {
+                typedSetter(boolean.class, object).invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot set property", e, object);
+            }
+        }
+
+        public byte getByte(final Object object) {
+            try {
+                return (byte)typedGetter(byte.class, object).invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot get property", e, object);
+            }
+        }
+
+        public void setByte(final Object object, final byte value) {
+            try {
+                typedSetter(byte.class, object).invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot set property", e, object);
+            }
+        }
+
+        public char getChar(final Object object) {
+            try {
+                return (char)typedGetter(char.class, object).invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot get property", e, object);
+            }
+        }
+
+        public void setChar(final Object object, final char value) {
+            try {
+                typedSetter(char.class, object).invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot set property", e, object);
+            }
+        }
+
+        public short getShort(final Object object) {
+            try {
+                return (short)typedGetter(short.class, object).invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot get property", e, object);
+            }
+        }
+
+        public void setShort(final Object object, final short value) {
+            try {
+                typedSetter(short.class, object).invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot set property", e, object);
+            }
+        }
+
+        public int getInt(final Object object) {
+            try {
+                return (int)typedGetter(int.class, object).invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot get property", e, object);
+            }
+        }
+
+        public void setInt(final Object object, final int value) {
+            try {
+                typedSetter(int.class, object).invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot set property", e, object);
+            }
+        }
+
+        public long getLong(final Object object) {
+            try {
+                return (long)typedGetter(long.class, object).invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot get property", e, object);
+            }
+        }
+
+        public void setLong(final Object object, final long value) {
+            try {
+                typedSetter(long.class, object).invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot set property", e, object);
+            }
+        }
+
+        public float getFloat(final Object object) {
+            try {
+                return (float)typedGetter(float.class, object).invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot get property", e, object);
+            }
+        }
+
+        public void setFloat(final Object object, final float value) {
+            try {
+                typedSetter(float.class, object).invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot set property", e, object);
+            }
+        }
+
+        public double getDouble(final Object object) {
+            try {
+                return (double)typedGetter(double.class, object).invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot get property", e, object);
+            }
+        }
+
+        public void setDouble(final Object object, final double value) {
+            try {
+                typedSetter(double.class, object).invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot set property", e, object);
+            }
+        }
+
+        private MethodHandle typedGetter(final Class<?> type, final Object object) {
+            if (typedGetter == null || descriptor.getPropertyType() != type) {
+                throw wrap("Cannot get property", new ObjectAccessException("Cannot get property as " + type), object);
+            }
+            return typedGetter;
+        }
+
+        private MethodHandle typedSetter(final Class<?> type, final Object object) {
+            if (typedSetter == null || descriptor.getPropertyType() != type) {
+                throw wrap("Cannot set property", new ObjectAccessException("Cannot set property as " + type), object);
+            }
+            return typedSetter;
+        }
+
+        private Object invoke(final Method method, final Object object, final String message, final Object... args) {
+            ErrorWritingException ex;
+            if (method == null) {
+                ex = new ObjectAccessException(message);
+            } else {
+                try {
+                    return method.invoke(object, args);
+                } catch (final IllegalArgumentException e) {
+                    ex = new ConversionException(message, e);
+                } catch (final IllegalAccessException e) {
+                    ex = new ObjectAccessException("Cannot access property", e);
+                } catch (final InvocationTargetException e) {
+                    ex = new ConversionException(message, e.getTargetException());
+                }
+            }
+            ex.add("property", object.getClass() + "." + descriptor.getName());
+            throw ex;
+        }
+
+        private ErrorWritingException wrap(final String message, final Throwable cause, final Object object) {
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            if (cause instanceof ErrorWritingException && ((ErrorWritingException)cause).get("property") != null) {
+                return (ErrorWritingException)cause;
+            }
+            final ErrorWritingException exception = cause instanceof ObjectAccessException
+                ? (ObjectAccessException)cause
+                : new ConversionException(message, cause);
+            exception.add("property", object.getClass() + "." + descriptor.getName());
+            return exception;
+        }
+    }
+}
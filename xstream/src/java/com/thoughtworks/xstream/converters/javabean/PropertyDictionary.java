@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2014, 2015, 2016, 2017 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2014, 2015, 2016, 2017, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -17,11 +17,11 @@ import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.thoughtworks.xstream.converters.reflection.MissingFieldException;
 import com.thoughtworks.xstream.converters.reflection.ObjectAccessException;
@@ -35,8 +35,7 @@ import com.thoughtworks.xstream.core.Caching;
  * @author J&ouml;rg Schaible
  */
 public class PropertyDictionary implements Caching {
-    private transient Map<Class<?>, Map<String, PropertyDescriptor>> propertyNameCache = Collections.synchronizedMap(
-        new HashMap<Class<?>, Map<String, PropertyDescriptor>>());
+    private transient Map<Class<?>, Map<String, PropertyDescriptor>> propertyNameCache = new ConcurrentHashMap<>();
     private final PropertySorter sorter;
 
     public PropertyDictionary() {
@@ -130,6 +129,7 @@ public class PropertyDictionary implements Caching {
                 nameMap.put(descriptor.getName(), descriptor);
             }
             nameMap = sorter.sort(type, nameMap);
+            // racy, but the property descriptors of a type are always equivalent
             propertyNameCache.put(type, nameMap);
         }
         return nameMap;
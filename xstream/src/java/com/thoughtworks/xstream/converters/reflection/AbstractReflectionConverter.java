@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2012, 2013, 2014, 2015, 2016, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2010, 2011, 2012, 2013, 2014, 2015, 2016, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -16,6 +16,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -24,6 +25,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
@@ -40,6 +44,9 @@ import com.thoughtworks.xstream.core.util.Primitives;
 import com.thoughtworks.xstream.core.util.SerializationMembers;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.NameTokenWriter;
+import com.thoughtworks.xstream.io.naming.NameToken;
+import com.thoughtworks.xstream.io.naming.NameTokens;
 import com.thoughtworks.xstream.mapper.CannotResolveClassException;
 import com.thoughtworks.xstream.mapper.Mapper;
 
@@ -55,6 +62,10 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
     protected transient SerializationMethodInvoker serializationMethodInvoker;
     protected transient SerializationMembers serializationMembers;
     private transient ReflectionProvider pureJavaReflectionProvider;
+    private transient ConcurrentMap<Class<?>, MarshallingPlan> marshallingPlans;
+    private transient ConcurrentMap<Class<?>, UnmarshallingPlan> unmarshallingPlans;
+    private transient boolean fieldUnmarshallingOverridden;
+    private transient boolean writesResolvedFields;
 
     @SuppressWarnings("deprecation")
     public AbstractReflectionConverter(final Mapper mapper, final ReflectionProvider reflectionProvider) {
@@ -62,6 +73,10 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
         this.reflectionProvider = reflectionProvider;
         serializationMethodInvoker = new SerializationMethodInvoker();
         serializationMembers = serializationMethodInvoker.serializationMembers;
+        marshallingPlans = new ConcurrentHashMap<>();
+        unmarshallingPlans = new ConcurrentHashMap<>();
+        fieldUnmarshallingOverridden = isFieldUnmarshallingOverridden();
+        writesResolvedFields = ReflectionProviderWrapper.writesResolvedFields(reflectionProvider);
     }
 
     protected boolean canAccess(final Class<?> type) {
@@ -95,144 +110,91 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
 
     protected void doMarshal(final Object source, final HierarchicalStreamWriter writer,
             final MarshallingContext context) {
-        final List<FieldInfo> fields = new ArrayList<>();
-        final Map<String, Field> defaultFieldDefinition = new HashMap<>();
         final Class<?> sourceType = source.getClass();
-
-        // Attributes might be preferred to child elements ...
-        reflectionProvider.visitSerializableFields(source, new ReflectionProvider.Visitor() {
-            final Set<String> writtenAttributes = new HashSet<>();
-
-            @Override
-            public void visit(final String fieldName, final Class<?> type, final Class<?> definedIn,
-                    final Object value) {
-                if (!mapper.shouldSerializeMember(definedIn, fieldName)) {
-                    return;
-                }
-                if (!defaultFieldDefinition.containsKey(fieldName)) {
-                    Class<?> lookupType = sourceType;
-                    // See XSTR-457 and OmitFieldsTest
-                    if (definedIn != sourceType && !mapper.shouldSerializeMember(lookupType, fieldName)) {
-                        lookupType = definedIn;
-                    }
-                    defaultFieldDefinition.put(fieldName, reflectionProvider.getField(lookupType, fieldName));
-                }
-
-                final SingleValueConverter converter = mapper.getConverterFromItemType(fieldName, type, definedIn);
-                if (converter != null) {
-                    final String attribute = mapper.aliasForAttribute(mapper.serializedMember(definedIn, fieldName));
-                    if (value != null) {
-                        if (writtenAttributes.contains(fieldName)) {
-                            final ConversionException exception = new ConversionException(
-                                "Cannot write field as attribute for object, attribute name already in use");
-                            exception.add("field-name", fieldName);
-                            exception.add("object-type", sourceType.getName());
-                            throw exception;
-                        }
-                        final String str = converter.toString(value);
-                        if (str != null) {
-                            writer.addAttribute(attribute, str);
-                        }
-                    }
-                    writtenAttributes.add(fieldName);
-                } else {
-                    fields.add(new FieldInfo(fieldName, type, definedIn, value));
-                }
+        MarshallingPlan plan = marshallingPlans.get(sourceType);
+        if (plan == null) {
+            plan = createMarshallingPlan(source);
+            final MarshallingPlan cached = marshallingPlans.putIfAbsent(sourceType, plan);
+            if (cached != null) {
+                plan = cached;
             }
-        });
+        }
+        Object[] values = plan.readValues(source, reflectionProvider);
+        if (values == null) {
+            // the reflection provider reported a field unknown to the cached plan
+            plan = createMarshallingPlan(source);
+            values = plan.readValues(source, reflectionProvider);
+        }
 
-        final FieldMarshaller fieldMarshaller = new FieldMarshaller() {
-            @Override
-            public void writeField(final String fieldName, final String aliasName, final Class<?> fieldType,
-                    final Class<?> definedIn, final Object newObj) {
-                final Class<?> actualType = newObj != null ? newObj.getClass() : fieldType;
-                writer.startNode(aliasName != null ? aliasName : mapper.serializedMember(sourceType, fieldName),
-                    actualType);
-
-                if (newObj != null) {
-                    final Class<?> defaultType = mapper.defaultImplementationOf(fieldType);
-                    if (!actualType.equals(defaultType)) {
-                        final String serializedClassName = mapper.serializedClass(actualType);
-                        if (!serializedClassName.equals(mapper.serializedClass(defaultType))) {
-                            final String attributeName = mapper.aliasForSystemAttribute("class");
-                            if (attributeName != null) {
-                                writer.addAttribute(attributeName, serializedClassName);
-                            }
-                        }
-                    }
+        final NameTokens nameTokens = writer instanceof NameTokenWriter
+            ? ((NameTokenWriter)writer).getNameTokens()
+            : null;
 
-                    final Field defaultField = defaultFieldDefinition.get(fieldName);
-                    if (defaultField.getDeclaringClass() != definedIn) {
-                        final String attributeName = mapper.aliasForSystemAttribute("defined-in");
-                        if (attributeName != null) {
-                            writer.addAttribute(attributeName, mapper.serializedClass(definedIn));
-                        }
+        // Attributes might be preferred to child elements ...
+        final MemberPlan[] members = plan.members;
+        for (final int i : plan.attributes) {
+            final MemberPlan member = members[i];
+            final Object value = values[i];
+            if (value != null) {
+                if (member.duplicateAttribute) {
+                    final ConversionException exception = new ConversionException(
+                        "Cannot write field as attribute for object, attribute name already in use");
+                    exception.add("field-name", member.fieldName);
+                    exception.add("object-type", sourceType.getName());
+                    throw exception;
+                }
+                final String str = member.converter.toString(value);
+                if (str != null) {
+                    if (nameTokens != null) {
+                        ((NameTokenWriter)writer).addAttribute(member.nameToken(nameTokens, true), str);
+                    } else {
+                        writer.addAttribute(member.serializedName, str);
                     }
-
-                    final Field field = reflectionProvider.getField(definedIn, fieldName);
-                    marshallField(context, newObj, field);
                 }
-                writer.endNode();
             }
+        }
 
-            @Override
-            public void writeItem(final Object item) {
-                if (item == null) {
-                    final String name = mapper.serializedClass(null);
-                    writer.startNode(name, Mapper.Null.class);
-                    writer.endNode();
-                } else {
-                    final String name = mapper.serializedClass(item.getClass());
-                    writer.startNode(name, item.getClass());
-                    context.convertAnother(item);
-                    writer.endNode();
-                }
-            }
-        };
-
-        final Map<String, Set<Mapper.ImplicitCollectionMapping>> hiddenMappers =
-                new HashMap<String, Set<Mapper.ImplicitCollectionMapping>>();
-        for (final FieldInfo info : fields) {
-            if (info.value != null) {
-                final boolean isCollection = info.value instanceof Collection;
-                final boolean isMap = info.value instanceof Map;
-                final boolean isArray = info.value.getClass().isArray();
-                final Field defaultField = defaultFieldDefinition.get(info.fieldName);
+        boolean[] implicitMappingsInUse = null;
+        for (final int i : plan.elements) {
+            final MemberPlan member = members[i];
+            final Object value = values[i];
+            if (value != null) {
+                final boolean isCollection = value instanceof Collection;
+                final boolean isMap = value instanceof Map;
+                final boolean isArray = value.getClass().isArray();
                 Mapper.ImplicitCollectionMapping mapping = isCollection || isMap || isArray
-                    ? mapper.getImplicitCollectionDefForFieldName(defaultField.getDeclaringClass() == info.definedIn
-                        ? sourceType
-                        : info.definedIn, info.fieldName)
+                    ? member.implicitCollectionMapping
                     : null;
-                if (mapping != null) {
-                    Set<Mapper.ImplicitCollectionMapping> mappings = hiddenMappers.get(info.fieldName);
-                    if (mappings == null) {
-                        mappings = new HashSet<>();
-                        mappings.add(mapping);
-                        hiddenMappers.put(info.fieldName, mappings);
-                    } else {
-                        if (!mappings.add(mapping)) {
+                if (mapping != null && member.hiddenMappings != null) {
+                    if (implicitMappingsInUse == null) {
+                        implicitMappingsInUse = new boolean[members.length];
+                    }
+                    implicitMappingsInUse[i] = true;
+                    for (final int hidden : member.hiddenMappings) {
+                        if (implicitMappingsInUse[hidden]) {
                             mapping = null;
+                            break;
                         }
                     }
                 }
                 if (mapping != null) {
                     if (context instanceof ReferencingMarshallingContext) {
-                        if (info.value != Collections.EMPTY_LIST
-                            && info.value != Collections.EMPTY_SET
-                            && info.value != Collections.EMPTY_MAP) {
+                        if (value != Collections.EMPTY_LIST
+                            && value != Collections.EMPTY_SET
+                            && value != Collections.EMPTY_MAP) {
                             final ReferencingMarshallingContext<?> refContext =
                                     (ReferencingMarshallingContext<?>)context;
-                            refContext.registerImplicit(info.value);
+                            refContext.registerImplicit(value);
                         }
                     }
                     final boolean isEntry = isMap && mapping.getKeyFieldName() == null;
                     for (final Iterator<?> iter = isArray
-                        ? new ArrayIterator(info.value)
+                        ? new ArrayIterator(value)
                         : isCollection
-                            ? ((Collection<?>)info.value).iterator()
+                            ? ((Collection<?>)value).iterator()
                             : isEntry
-                                ? ((Map<?, ?>)info.value).entrySet().iterator()
-                                : ((Map<?, ?>)info.value).values().iterator(); iter.hasNext();) {
+                                ? ((Map<?, ?>)value).entrySet().iterator()
+                                : ((Map<?, ?>)value).values().iterator(); iter.hasNext();) {
                         final Object obj = iter.next();
                         final String itemName;
                         final Class<?> itemType;
@@ -245,8 +207,8 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
                                 : mapper.serializedClass(Map.Entry.class);
                             final Map.Entry<?, ?> entry = (Map.Entry<?, ?>)obj;
                             writer.startNode(entryName, entry.getClass());
-                            fieldMarshaller.writeItem(entry.getKey());
-                            fieldMarshaller.writeItem(entry.getValue());
+                            writeItem(entry.getKey(), writer, context);
+                            writeItem(entry.getValue(), writer, context);
                             writer.endNode();
                             continue;
                         } else if (mapping.getItemFieldName() != null) {
@@ -256,15 +218,169 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
                             itemType = obj.getClass();
                             itemName = mapper.serializedClass(itemType);
                         }
-                        fieldMarshaller.writeField(info.fieldName, itemName, itemType, info.definedIn, obj);
+                        writeField(member, itemName, nameTokens != null ? nameTokens.node(itemName) : null, itemType,
+                            obj, plan, writer, nameTokens, context);
                     }
                 } else {
-                    fieldMarshaller.writeField(info.fieldName, null, info.type, info.definedIn, info.value);
+                    writeField(member, member.serializedName, nameTokens != null
+                        ? member.nameToken(nameTokens, false)
+                        : null, member.type, value, plan, writer, nameTokens, context);
                 }
             }
         }
     }
 
+    private void writeField(final MemberPlan member, final String name, final NameToken token,
+            final Class<?> fieldType, final Object newObj, final MarshallingPlan plan,
+            final HierarchicalStreamWriter writer, final NameTokens nameTokens, final MarshallingContext context) {
+        final Class<?> actualType = newObj != null ? newObj.getClass() : fieldType;
+        if (token != null) {
+            ((NameTokenWriter)writer).startNode(token, actualType);
+        } else {
+            writer.startNode(name, actualType);
+        }
+
+        if (newObj != null) {
+            final Class<?> defaultType = fieldType == member.type
+                ? member.defaultImplementation
+                : mapper.defaultImplementationOf(fieldType);
+            if (!actualType.equals(defaultType)) {
+                final String serializedClassName = mapper.serializedClass(actualType);
+                final String serializedDefaultType;
+                if (fieldType == member.type) {
+                    if (member.serializedDefaultImplementation == null) {
+                        // racy, but the mapper returns always the same value
+                        member.serializedDefaultImplementation = mapper.serializedClass(defaultType);
+                    }
+                    serializedDefaultType = member.serializedDefaultImplementation;
+                } else {
+                    serializedDefaultType = mapper.serializedClass(defaultType);
+                }
+                if (!serializedClassName.equals(serializedDefaultType)) {
+                    if (plan.classAttributeName != null) {
+                        addAttribute(writer, nameTokens, plan.classAttributeName, serializedClassName);
+                    }
+                }
+            }
+
+            if (member.serializedDefinedIn != null) {
+                addAttribute(writer, nameTokens, plan.definedInAttributeName, member.serializedDefinedIn);
+            }
+
+            marshallField(context, newObj, member.field);
+        }
+        writer.endNode();
+    }
+
+    private static void addAttribute(final HierarchicalStreamWriter writer, final NameTokens nameTokens,
+            final String name, final String value) {
+        if (nameTokens != null) {
+            ((NameTokenWriter)writer).addAttribute(nameTokens.attribute(name), value);
+        } else {
+            writer.addAttribute(name, value);
+        }
+    }
+
+    private void writeItem(final Object item, final HierarchicalStreamWriter writer,
+            final MarshallingContext context) {
+        if (item == null) {
+            final String name = mapper.serializedClass(null);
+            writer.startNode(name, Mapper.Null.class);
+            writer.endNode();
+        } else {
+            final String name = mapper.serializedClass(item.getClass());
+            writer.startNode(name, item.getClass());
+            context.convertAnother(item);
+            writer.endNode();
+        }
+    }
+
+    /**
+     * Creates the plan to marshal the fields of the type of the provided object. The plan contains all the information
+     * that depends on the type and the configuration of the mapper only.
+     */
+    private MarshallingPlan createMarshallingPlan(final Object source) {
+        final Class<?> sourceType = source.getClass();
+        final List<MemberPlan> members = new ArrayList<>();
+        reflectionProvider.visitSerializableFields(source, new ReflectionProvider.Visitor() {
+            @Override
+            public void visit(final String fieldName, final Class<?> type, final Class<?> definedIn,
+                    final Object value) {
+                members.add(new MemberPlan(fieldName, type, definedIn));
+            }
+        });
+
+        final String definedInAttributeName = mapper.aliasForSystemAttribute("defined-in");
+        final Map<String, Field> defaultFieldDefinition = new HashMap<>();
+        final Set<String> attributeNames = new HashSet<>();
+        final List<Integer> attributes = new ArrayList<>();
+        final List<Integer> elements = new ArrayList<>();
+        for (int i = 0; i < members.size(); ++i) {
+            final MemberPlan member = members.get(i);
+            final String fieldName = member.fieldName;
+            final Class<?> definedIn = member.definedIn;
+            if (!mapper.shouldSerializeMember(definedIn, fieldName)) {
+                continue;
+            }
+            Field defaultField = defaultFieldDefinition.get(fieldName);
+            if (defaultField == null) {
+                Class<?> lookupType = sourceType;
+                // See XSTR-457 and OmitFieldsTest
+                if (definedIn != sourceType && !mapper.shouldSerializeMember(lookupType, fieldName)) {
+                    lookupType = definedIn;
+                }
+                defaultField = reflectionProvider.getField(lookupType, fieldName);
+                defaultFieldDefinition.put(fieldName, defaultField);
+            }
+
+            member.converter = mapper.getConverterFromItemType(fieldName, member.type, definedIn);
+            if (member.converter != null) {
+                member.serializedName = mapper.aliasForAttribute(mapper.serializedMember(definedIn, fieldName));
+                member.duplicateAttribute = !attributeNames.add(fieldName);
+                attributes.add(i);
+            } else {
+                member.serializedName = mapper.serializedMember(sourceType, fieldName);
+                member.field = reflectionProvider.getField(definedIn, fieldName);
+                member.defaultImplementation = mapper.defaultImplementationOf(member.type);
+                if (defaultField.getDeclaringClass() != definedIn && definedInAttributeName != null) {
+                    member.serializedDefinedIn = mapper.serializedClass(definedIn);
+                }
+                member.implicitCollectionMapping = mapper.getImplicitCollectionDefForFieldName(defaultField
+                    .getDeclaringClass() == definedIn ? sourceType : definedIn, fieldName);
+                if (member.implicitCollectionMapping != null) {
+                    final List<Integer> hiddenMappings = new ArrayList<>();
+                    for (final int j : elements) {
+                        final MemberPlan other = members.get(j);
+                        if (other.fieldName.equals(fieldName)
+                            && member.implicitCollectionMapping.equals(other.implicitCollectionMapping)) {
+                            hiddenMappings.add(j);
+                        }
+                    }
+                    if (!hiddenMappings.isEmpty()) {
+                        member.hiddenMappings = toArray(hiddenMappings);
+                        for (final int j : hiddenMappings) {
+                            if (members.get(j).hiddenMappings == null) {
+                                members.get(j).hiddenMappings = new int[0];
+                            }
+                        }
+                    }
+                }
+                elements.add(i);
+            }
+        }
+
+        return new MarshallingPlan(members.toArray(new MemberPlan[members.size()]), toArray(attributes),
+            toArray(elements), mapper.aliasForSystemAttribute("class"), definedInAttributeName);
+    }
+
+    private static int[] toArray(final List<Integer> list) {
+        final int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = list.get(i).intValue();
+        }
+        return array;
+    }
+
     protected void marshallField(final MarshallingContext context, final Object newObj, final Field field) {
         context.convertAnother(newObj, mapper.getLocalConverter(field.getDeclaringClass(), field.getName()));
     }
@@ -279,48 +395,40 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
     public Object doUnmarshal(final Object result, final HierarchicalStreamReader reader,
             final UnmarshallingContext context) {
         final Class<?> resultType = result.getClass();
-        @SuppressWarnings("serial")
-        final Set<FastField> seenFields = new HashSet<FastField>() {
-            @Override
-            public boolean add(final FastField e) {
-                if (!super.add(e)) {
-                    throw new DuplicateFieldException(e.getName());
-                }
-                return true;
+        UnmarshallingPlan plan = unmarshallingPlans.get(resultType);
+        if (plan == null) {
+            plan = new UnmarshallingPlan(mapper.aliasForSystemAttribute("defined-in"));
+            final UnmarshallingPlan cached = unmarshallingPlans.putIfAbsent(resultType, plan);
+            if (cached != null) {
+                plan = cached;
             }
-        };
+        }
+        final BitSet seenFields = new BitSet();
 
         // process attributes before recursing into child elements.
         final Iterator<String> it = reader.getAttributeNames();
         while (it.hasNext()) {
             final String attrAlias = it.next();
-            // TODO: realMember should return FastField
-            final String attrName = mapper.realMember(resultType, mapper.attributeForAlias(attrAlias));
-            final Field field = reflectionProvider.getFieldOrNull(resultType, attrName);
-            if (field != null && shouldUnmarshalField(field)) {
-                final Class<?> classDefiningField = field.getDeclaringClass();
-                if (!mapper.shouldSerializeMember(classDefiningField, attrName)) {
-                    continue;
+            AttributeSlot slot = plan.attributes.get(attrAlias);
+            if (slot == null) {
+                slot = createAttributeSlot(resultType, attrAlias, plan);
+                // the names of unknown attributes are chosen by the input, keep only a few of them
+                if (slot != AttributeSlot.NONE
+                    || plan.unresolvedAttributes.get() < UnmarshallingPlan.MAX_UNRESOLVED_ATTRIBUTES
+                        && plan.unresolvedAttributes.getAndIncrement() < UnmarshallingPlan.MAX_UNRESOLVED_ATTRIBUTES) {
+                    plan.attributes.putIfAbsent(attrAlias, slot);
                 }
-
-                // we need a converter that produces a string representation only
-                Class<?> type = field.getType();
-                final SingleValueConverter converter = mapper.getConverterFromAttribute(classDefiningField, attrName,
-                    type);
-                if (converter != null) {
-                    final Object value = converter.fromString(reader.getAttribute(attrAlias));
-                    if (type.isPrimitive()) {
-                        type = Primitives.box(type);
-                    }
-                    if (value != null && !type.isAssignableFrom(value.getClass())) {
-                        final ConversionException exception = new ConversionException("Cannot convert type");
-                        exception.add("source-type", value.getClass().getName());
-                        exception.add("target-type", type.getName());
-                        throw exception;
-                    }
-                    seenFields.add(new FastField(classDefiningField, attrName));
-                    reflectionProvider.writeField(result, attrName, value, classDefiningField);
+            }
+            if (slot.converter != null) {
+                final Object value = slot.converter.fromString(reader.getAttribute(attrAlias));
+                if (value != null && !slot.type.isAssignableFrom(value.getClass())) {
+                    final ConversionException exception = new ConversionException("Cannot convert type");
+                    exception.add("source-type", value.getClass().getName());
+                    exception.add("target-type", slot.type.getName());
+                    throw exception;
                 }
+                markSeen(seenFields, slot.index, slot.fieldName);
+                writeField(result, slot.field, value);
             }
         }
 
@@ -329,7 +437,32 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
             reader.moveDown();
 
             final String originalNodeName = reader.getNodeName();
-            final Class<?> explicitDeclaringClass = readDeclaringClass(reader);
+            final String definedIn = plan.definedInAttributeName == null
+                ? null
+                : reader.getAttribute(plan.definedInAttributeName);
+            final ElementSlot slot = definedIn == null ? plan.elements.get(originalNodeName) : null;
+            if (slot != null) {
+                // resolved with an earlier element of the same name
+                final String classAttribute = HierarchicalStreams.readClassAttribute(reader, mapper);
+                final Class<?> type = classAttribute != null
+                    ? mapper.realClass(classAttribute)
+                    : slot.defaultImplementation;
+                final Object value = fieldUnmarshallingOverridden
+                    ? unmarshallField(context, result, type, slot.field)
+                    : context.convertAnother(result, type, slot.converter);
+                final Class<?> checkedType = slot.definedType.isPrimitive() ? type : slot.definedType;
+                if (value != null && !checkedType.isAssignableFrom(value.getClass())) {
+                    throw new ConversionException("Cannot convert type "
+                        + value.getClass().getName()
+                        + " to type "
+                        + checkedType.getName());
+                }
+                writeField(result, slot.field, value);
+                markSeen(seenFields, slot.index, slot.fieldName);
+                reader.moveUp();
+                continue;
+            }
+            final Class<?> explicitDeclaringClass = definedIn == null ? null : mapper.realClass(definedIn);
             final Class<?> fieldDeclaringClass = explicitDeclaringClass == null ? resultType : explicitDeclaringClass;
             final String fieldName = mapper.realMember(fieldDeclaringClass, originalNodeName);
             final Mapper.ImplicitCollectionMapping implicitCollectionMapping = mapper
@@ -410,10 +543,16 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
                                 && mapper.shouldSerializeMember(field.getDeclaringClass(), fieldName))) {
 
                         final String classAttribute = HierarchicalStreams.readClassAttribute(reader, mapper);
+                        final Class<?> defaultImplementation = mapper.defaultImplementationOf(field.getType());
                         if (classAttribute != null) {
                             type = mapper.realClass(classAttribute);
                         } else {
-                            type = mapper.defaultImplementationOf(field.getType());
+                            type = defaultImplementation;
+                        }
+                        if (explicitDeclaringClass == null) {
+                            plan.elements.putIfAbsent(originalNodeName, new ElementSlot(field, defaultImplementation,
+                                mapper.getLocalConverter(field.getDeclaringClass(), fieldName), plan.indexOf(field
+                                    .getDeclaringClass(), fieldName)));
                         }
                         // TODO the reflection provider should already return the proper field
                         value = unmarshallField(context, result, type, field);
@@ -444,8 +583,8 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
             }
 
             if (field != null) {
-                reflectionProvider.writeField(result, fieldName, value, field.getDeclaringClass());
-                seenFields.add(new FastField(field.getDeclaringClass(), fieldName));
+                writeField(result, field, value);
+                markSeen(seenFields, plan.indexOf(field.getDeclaringClass(), fieldName), fieldName);
             } else if (type != null) {
                 if (implicitFieldName == null) {
                     // look for implicit field
@@ -488,6 +627,15 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
             .getName()));
     }
 
+    private void writeField(final Object result, final Field field, final Object value) {
+        if (writesResolvedFields) {
+            reflectionProvider.writeField(result, field, value);
+        } else {
+            // a derived provider may customize the write access by name
+            reflectionProvider.writeField(result, field.getName(), value, field.getDeclaringClass());
+        }
+    }
+
     protected boolean shouldUnmarshalTransientFields() {
         return false;
     }
@@ -552,10 +700,32 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
         collection.add(value);
     }
 
-    private Class<?> readDeclaringClass(final HierarchicalStreamReader reader) {
-        final String attributeName = mapper.aliasForSystemAttribute("defined-in");
-        final String definedIn = attributeName == null ? null : reader.getAttribute(attributeName);
-        return definedIn == null ? null : mapper.realClass(definedIn);
+    private AttributeSlot createAttributeSlot(final Class<?> resultType, final String attrAlias,
+            final UnmarshallingPlan plan) {
+        // TODO: realMember should return FastField
+        final String attrName = mapper.realMember(resultType, mapper.attributeForAlias(attrAlias));
+        final Field field = reflectionProvider.getFieldOrNull(resultType, attrName);
+        if (field != null && shouldUnmarshalField(field)) {
+            final Class<?> classDefiningField = field.getDeclaringClass();
+            if (mapper.shouldSerializeMember(classDefiningField, attrName)) {
+                // we need a converter that produces a string representation only
+                final Class<?> type = field.getType();
+                final SingleValueConverter converter = mapper.getConverterFromAttribute(classDefiningField, attrName,
+                    type);
+                if (converter != null) {
+                    return new AttributeSlot(field, type.isPrimitive() ? Primitives.box(type) : type, converter, plan
+                        .indexOf(classDefiningField, attrName));
+                }
+            }
+        }
+        return AttributeSlot.NONE;
+    }
+
+    private static void markSeen(final BitSet seenFields, final int index, final String fieldName) {
+        if (seenFields.get(index)) {
+            throw new DuplicateFieldException(fieldName);
+        }
+        seenFields.set(index);
     }
 
     protected Object instantiateNewInstance(final HierarchicalStreamReader reader, final UnmarshallingContext context) {
@@ -571,19 +741,52 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The marshalling and unmarshalling plans are derived from the configuration of the mapper. The configuration
+     * methods of XStream flush them, a mapper of the chain that is configured directly requires a call of
+     * {@link com.thoughtworks.xstream.XStream#flushCaches()} after the modification.
+     * </p>
+     */
     @SuppressWarnings("deprecation")
     @Override
     public void flushCache() {
         serializationMethodInvoker.flushCache();
+        marshallingPlans.clear();
+        unmarshallingPlans.clear();
     }
 
     @SuppressWarnings("deprecation")
     protected Object readResolve() {
         serializationMethodInvoker = new SerializationMethodInvoker();
         serializationMembers = serializationMethodInvoker.serializationMembers;
+        marshallingPlans = new ConcurrentHashMap<>();
+        unmarshallingPlans = new ConcurrentHashMap<>();
+        fieldUnmarshallingOverridden = isFieldUnmarshallingOverridden();
+        writesResolvedFields = ReflectionProviderWrapper.writesResolvedFields(reflectionProvider);
         return this;
     }
 
+    /**
+     * Checks whether a derived converter customizes the unmarshalling of a field. Otherwise the local converter of a
+     * field in the unmarshalling plan is used directly.
+     */
+    private boolean isFieldUnmarshallingOverridden() {
+        for (Class<?> type = getClass(); type != AbstractReflectionConverter.class; type = type.getSuperclass()) {
+            try {
+                type.getDeclaredMethod("unmarshallField", UnmarshallingContext.class, Object.class, Class.class,
+                    Field.class);
+                return true;
+            } catch (final NoSuchMethodException e) {
+                // continue with super class
+            } catch (final SecurityException e) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static class DuplicateFieldException extends ConversionException {
         private static final long serialVersionUID = 20150926L;
 
@@ -646,22 +849,161 @@ public abstract class AbstractReflectionConverter implements Converter, Caching
         }
     }
 
-    private static class FieldInfo extends FieldLocation {
-        final Class<?> type;
-        final Object value;
+    /**
+     * Immutable marshalling information of a type for the current configuration of the mapper. The members are kept in
+     * the sequence the reflection provider visits the fields, attributes and elements are indices into the members.
+     */
+    private static class MarshallingPlan {
+        final MemberPlan[] members;
+        final int[] attributes;
+        final int[] elements;
+        final String classAttributeName;
+        final String definedInAttributeName;
+
+        MarshallingPlan(
+                final MemberPlan[] members, final int[] attributes, final int[] elements,
+                final String classAttributeName, final String definedInAttributeName) {
+            this.members = members;
+            this.attributes = attributes;
+            this.elements = elements;
+            this.classAttributeName = classAttributeName;
+            this.definedInAttributeName = definedInAttributeName;
+        }
+
+        /**
+         * Reads the values of the members. Returns <code>null</code> if the reflection provider visits a field that is
+         * not part of the plan.
+         */
+        Object[] readValues(final Object source, final ReflectionProvider reflectionProvider) {
+            final Object[] values = new Object[members.length];
+            final boolean[] unknown = new boolean[1];
+            reflectionProvider.visitSerializableFields(source, new ReflectionProvider.Visitor() {
+                int next;
+
+                @Override
+                public void visit(final String fieldName, final Class<?> type, final Class<?> definedIn,
+                        final Object value) {
+                    int idx = next < members.length && members[next].isMember(fieldName, definedIn) ? next : -1;
+                    for (int i = 0; idx < 0 && i < members.length; ++i) {
+                        if (members[i].isMember(fieldName, definedIn)) {
+                            idx = i;
+                        }
+                    }
+                    if (idx < 0) {
+                        unknown[0] = true;
+                    } else {
+                        values[idx] = value;
+                        next = idx + 1;
+                    }
+                }
+            });
+            return unknown[0] ? null : values;
+        }
+    }
 
-        FieldInfo(final String fieldName, final Class<?> type, final Class<?> definedIn, final Object value) {
-            super(fieldName, definedIn);
+    private static class MemberPlan {
+        final String fieldName;
+        final Class<?> type;
+        final Class<?> definedIn;
+        String serializedName;
+        SingleValueConverter converter;
+        boolean duplicateAttribute;
+        Field field;
+        Class<?> defaultImplementation;
+        String serializedDefaultImplementation;
+        String serializedDefinedIn;
+        Mapper.ImplicitCollectionMapping implicitCollectionMapping;
+        int[] hiddenMappings;
+        NameToken nameToken;
+
+        MemberPlan(final String fieldName, final Class<?> type, final Class<?> definedIn) {
+            this.fieldName = fieldName;
             this.type = type;
-            this.value = value;
+            this.definedIn = definedIn;
+        }
+
+        boolean isMember(final String fieldName, final Class<?> definedIn) {
+            return this.definedIn == definedIn && this.fieldName.equals(fieldName);
+        }
+
+        NameToken nameToken(final NameTokens nameTokens, final boolean attribute) {
+            final NameToken token = attribute
+                ? nameTokens.attribute(serializedName, nameToken)
+                : nameTokens.node(serializedName, nameToken);
+            // racy, but the tokens of the same name are always equivalent
+            nameToken = token;
+            return token;
         }
     }
 
-    private interface FieldMarshaller {
-        void writeItem(final Object item);
+    /**
+     * Unmarshalling information of a type for the current configuration of the mapper. The slots are resolved with the
+     * first occurrence of an attribute or element name, every field has a unique index for the detection of
+     * duplicates. Only a few attribute names without a field are kept, since these names are taken from the input.
+     */
+    private static class UnmarshallingPlan {
+        static final int MAX_UNRESOLVED_ATTRIBUTES = 16;
+
+        final String definedInAttributeName;
+        final ConcurrentMap<String, AttributeSlot> attributes = new ConcurrentHashMap<>();
+        final ConcurrentMap<String, ElementSlot> elements = new ConcurrentHashMap<>();
+        final ConcurrentMap<FastField, Integer> indices = new ConcurrentHashMap<>();
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final AtomicInteger unresolvedAttributes = new AtomicInteger();
+
+        UnmarshallingPlan(final String definedInAttributeName) {
+            this.definedInAttributeName = definedInAttributeName;
+        }
+
+        int indexOf(final Class<?> definedIn, final String fieldName) {
+            final FastField key = new FastField(definedIn, fieldName);
+            Integer index = indices.get(key);
+            if (index == null) {
+                final Integer newIndex = Integer.valueOf(nextIndex.getAndIncrement());
+                index = indices.putIfAbsent(key, newIndex);
+                if (index == null) {
+                    index = newIndex;
+                }
+            }
+            return index.intValue();
+        }
+    }
 
-        void writeField(final String fieldName, final String aliasName, final Class<?> fieldType,
-                final Class<?> definedIn, final Object newObj);
+    private static class AttributeSlot {
+        static final AttributeSlot NONE = new AttributeSlot(null, null, null, -1);
+
+        final Field field;
+        final String fieldName;
+        final Class<?> type;
+        final SingleValueConverter converter;
+        final int index;
+
+        AttributeSlot(final Field field, final Class<?> type, final SingleValueConverter converter, final int index) {
+            this.field = field;
+            fieldName = field == null ? null : field.getName();
+            this.type = type;
+            this.converter = converter;
+            this.index = index;
+        }
+    }
+
+    private static class ElementSlot {
+        final Field field;
+        final String fieldName;
+        final Class<?> definedType;
+        final Class<?> defaultImplementation;
+        final Converter converter;
+        final int index;
+
+        ElementSlot(
+                final Field field, final Class<?> defaultImplementation, final Converter converter, final int index) {
+            this.field = field;
+            fieldName = field.getName();
+            definedType = field.getType();
+            this.defaultImplementation = defaultImplementation;
+            this.converter = converter;
+            this.index = index;
+        }
     }
 
     private static class ArraysList extends ArrayList<Object> {
@@ -0,0 +1,365 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.converters.reflection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.thoughtworks.xstream.core.util.Fields;
+
+
+/**
+ * Instantiates a new object bypassing the constructor using undocumented internal JDK features, but accesses the
+ * fields with method handles.
+ * <p>
+ * The provider creates once per type an accessor for each field. The accessor keeps a getter and setter adapted to
+ * the type of the field, i.e. primitive values can be read and written without boxing with the typed methods of the
+ * {@link FieldAccessor}. Only the instantiation of new objects depends on sun.misc.Unsafe, the fields are accessed
+ * with the public API of the Java runtime. If no method handle can be created for a field, the accessor falls back to
+ * standard reflection.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class MethodHandleReflectionProvider extends SunLimitedUnsafeReflectionProvider {
+
+    private static final FieldAccessor[] NO_ACCESSORS = new FieldAccessor[0];
+
+    // references to the Field key are kept in the FieldDictionary
+    private transient ConcurrentMap<Field, FieldAccessor> fieldAccessorCache;
+    private transient ConcurrentMap<Class<?>, FieldAccessor[]> serializableFieldsCache;
+
+    /**
+     * @since upcoming
+     */
+    public MethodHandleReflectionProvider() {
+        super();
+    }
+
+    /**
+     * @since upcoming
+     */
+    public MethodHandleReflectionProvider(final FieldDictionary dic) {
+        super(dic);
+    }
+
+    @Override
+    public void visitSerializableFields(final Object object, final ReflectionProvider.Visitor visitor) {
+        for (final FieldAccessor accessor : serializableFieldsFor(object.getClass())) {
+            final Field field = accessor.field;
+            visitor.visit(field.getName(), field.getType(), field.getDeclaringClass(), accessor.get(object));
+        }
+    }
+
+    @Override
+    public void writeField(final Object object, final String fieldName, final Object value, final Class<?> definedIn) {
+        getFieldAccessor(fieldDictionary.field(object.getClass(), fieldName, definedIn)).set(object, value);
+    }
+
+    @Override
+    public void writeField(final Object object, final Field field, final Object value) {
+        getFieldAccessor(field).set(object, value);
+    }
+
+    /**
+     * Retrieve the accessor of a field.
+     *
+     * @param type the type containing the field
+     * @param fieldName the name of the field
+     * @param definedIn the type declaring the field or <code>null</code>
+     * @return the accessor
+     * @throws ObjectAccessException if no field can be found
+     * @since upcoming
+     */
+    public FieldAccessor getFieldAccessor(final Class<?> type, final String fieldName, final Class<?> definedIn) {
+        return getFieldAccessor(fieldDictionary.field(type, fieldName, definedIn));
+    }
+
+    private FieldAccessor getFieldAccessor(final Field field) {
+        FieldAccessor accessor = fieldAccessorCache.get(field);
+        if (accessor == null) {
+            fieldAccessorCache.putIfAbsent(field, new FieldAccessor(field));
+            accessor = fieldAccessorCache.get(field);
+        }
+        return accessor;
+    }
+
+    private FieldAccessor[] serializableFieldsFor(final Class<?> type) {
+        FieldAccessor[] accessors = serializableFieldsCache.get(type);
+        if (accessors == null) {
+            final List<FieldAccessor> list = new ArrayList<>();
+            for (final Iterator<Field> iterator = fieldDictionary.fieldsFor(type); iterator.hasNext();) {
+                final Field field = iterator.next();
+                if (fieldModifiersSupported(field)) {
+                    list.add(getFieldAccessor(field));
+                }
+            }
+            serializableFieldsCache.putIfAbsent(type, list.isEmpty()
+                ? NO_ACCESSORS
+                : list.toArray(new FieldAccessor[list.size()]));
+            accessors = serializableFieldsCache.get(type);
+        }
+        return accessors;
+    }
+
+    private Object readResolve() {
+        init();
+        return this;
+    }
+
+    @Override
+    protected void init() {
+        super.init();
+        fieldAccessorCache = new ConcurrentHashMap<>();
+        serializableFieldsCache = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Accessor for a single field of an object.
+     * <p>
+     * The typed getters and setters will throw an {@link ObjectAccessException} if the type of the field does not
+     * match.
+     * </p>
+     *
+     * @since upcoming
+     */
+    public static class FieldAccessor {
+        private final Field field;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final MethodHandle typedGetter;
+        private final MethodHandle typedSetter;
+
+        FieldAccessor(final Field field) {
+            this.field = field;
+            MethodHandle get = null;
+            MethodHandle set = null;
+            if (!Modifier.isStatic(field.getModifiers())) {
+                try {
+                    if (!field.isAccessible()) {
+                        field.setAccessible(true);
+                    }
+                    final MethodHandles.Lookup lookup = MethodHandles.lookup();
+                    get = lookup.unreflectGetter(field);
+                    set = lookup.unreflectSetter(field);
+                } catch (final IllegalAccessException | RuntimeException e) {
+                    // fall back to reflection, e.g. for final fields of records or inaccessible modules
+                    get = set = null;
+                }
+            }
+            if (get != null && set != null) {
+                final Class<?> fieldType = field.getType();
+                typedGetter = get.asType(MethodType.methodType(fieldType, Object.class));
+                typedSetter = set.asType(MethodType.methodType(void.class, Object.class, fieldType));
+                getter = get.asType(MethodType.methodType(Object.class, Object.class));
+                setter = set.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            } else {
+                typedGetter = typedSetter = getter = setter = null;
+            }
+        }
+
+        /**
+         * Retrieve the accessed field.
+         *
+         * @return the field
+         * @since upcoming
+         */
+        public Field getField() {
+            return field;
+        }
+
+        public Object get(final Object object) {
+            if (getter == null) {
+                return Fields.read(field, object);
+            }
+            try {
+                return getter.invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot read field", e);
+            }
+        }
+
+        public void set(final Object object, final Object value) {
+            if (setter == null) {
+                Fields.write(field, object, value);
+                return;
+            }
+            try {
+                setter.invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot write field", e);
+            }
+        }
+
+        public boolean getBoolean(final Object object) {
+            try {
+                return (boolean)typedGetter().invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot read field", e);
+            }
+        }
+
+        public void setBoolean(final Object object, final boolean value) {
+            try {
+                typedSetter().invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot write field", e);
+            }
+        }
+
+        public byte getByte(final Object object) {
+            try {
+                return (byte)typedGetter().invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot read field", e);
+            }
+        }
+
+        public void setByte(final Object object, final byte value) {
+            try {
+                typedSetter().invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot write field", e);
+            }
+        }
+
+        public char getChar(final Object object) {
+            try {
+                return (char)typedGetter().invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot read field", e);
+            }
+        }
+
+        public void setChar(final Object object, final char value) {
+            try {
+                typedSetter().invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot write field", e);
+            }
+        }
+
+        public short getShort(final Object object) {
+            try {
+                return (short)typedGetter().invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot read field", e);
+            }
+        }
+
+        public void setShort(final Object object, final short value) {
+            try {
+                typedSetter().invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot write field", e);
+            }
+        }
+
+        public int getInt(final Object object) {
+            try {
+                return (int)typedGetter().invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot read field", e);
+            }
+        }
+
+        public void setInt(final Object object, final int value) {
+            try {
+                typedSetter().invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot write field", e);
+            }
+        }
+
+        public long getLong(final Object object) {
+            try {
+                return (long)typedGetter().invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot read field", e);
+            }
+        }
+
+        public void setLong(final Object object, final long value) {
+            try {
+                typedSetter().invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot write field", e);
+            }
+        }
+
+        public float getFloat(final Object object) {
+            try {
+                return (float)typedGetter().invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot read field", e);
+            }
+        }
+
+        public void setFloat(final Object object, final float value) {
+            try {
+                typedSetter().invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot write field", e);
+            }
+        }
+
+        public double getDouble(final Object object) {
+            try {
+                return (double)typedGetter().invokeExact(object);
+            } catch (final Throwable e) {
+                throw wrap("Cannot read field", e);
+            }
+        }
+
+        public void setDouble(final Object object, final double value) {
+            try {
+                typedSetter().invokeExact(object, value);
+            } catch (final Throwable e) {
+                throw wrap("Cannot write field", e);
+            }
+        }
+
+        private MethodHandle typedGetter() {
+            if (typedGetter == null) {
+                throw wrap("Cannot read field", null);
+            }
+            return typedGetter;
+        }
+
+        private MethodHandle typedSetter() {
+            if (typedSetter == null) {
+                throw wrap("Cannot write field", null);
+            }
+            return typedSetter;
+        }
+
+        private ObjectAccessException wrap(final String message, final Throwable cause) {
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            if (cause instanceof ObjectAccessException) {
+                return (ObjectAccessException)cause;
+            }
+            final ObjectAccessException exception = new ObjectAccessException(message, cause);
+            exception.add("field", field.getDeclaringClass().getName() + "." + field.getName());
+            exception.add("field-type", field.getType().getName());
+            return exception;
+        }
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2011, 2013, 2014, 2015, 2016, 2020 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2011, 2013, 2014, 2015, 2016, 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -167,6 +167,12 @@ public class PureJavaReflectionProvider implements ReflectionProvider {
         Fields.write(field, object, value);
     }
 
+    @Override
+    public void writeField(final Object object, final Field field, final Object value) {
+        validateFieldAccess(field);
+        Fields.write(field, object, value);
+    }
+
     @Override
     public Class<?> getFieldType(final Object object, final String fieldName, final Class<?> definedIn) {
         return fieldDictionary.field(object.getClass(), fieldName, definedIn).getType();
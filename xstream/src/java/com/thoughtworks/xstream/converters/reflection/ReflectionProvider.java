@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2013, 2014 XStream Committers.
+ * Copyright (C) 2006, 2007, 2013, 2014, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -34,6 +34,22 @@ public interface ReflectionProvider {
 
     void writeField(Object object, String fieldName, Object value, Class<?> definedIn);
 
+    /**
+     * Writes a field that has already been resolved.
+     * <p>
+     * The default implementation looks up the field again by its name and declaring class, an implementation should
+     * overwrite this method to access the field directly.
+     * </p>
+     * 
+     * @param object the object containing the field
+     * @param field the field to write
+     * @param value the new value of the field
+     * @since upcoming
+     */
+    default void writeField(final Object object, final Field field, final Object value) {
+        writeField(object, field.getName(), value, field.getDeclaringClass());
+    }
+
     Class<?> getFieldType(Object object, String fieldName, Class<?> definedIn);
 
     /**
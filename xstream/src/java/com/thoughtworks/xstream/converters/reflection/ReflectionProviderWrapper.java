@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2006, 2007, 2013, 2014 XStream Committers.
+ * Copyright (C) 2006, 2007, 2013, 2014, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,6 +11,7 @@
 package com.thoughtworks.xstream.converters.reflection;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 
 
 /**
@@ -22,9 +23,11 @@ import java.lang.reflect.Field;
 public class ReflectionProviderWrapper implements ReflectionProvider {
 
     final protected ReflectionProvider wrapped;
+    private final boolean wrappedWritesResolvedFields;
 
     public ReflectionProviderWrapper(final ReflectionProvider wrapper) {
         wrapped = wrapper;
+        wrappedWritesResolvedFields = writesResolvedFields(wrapper);
     }
 
     /**
@@ -66,4 +69,29 @@ public class ReflectionProviderWrapper implements ReflectionProvider {
         wrapped.writeField(object, fieldName, value, definedIn);
     }
 
+    @Override
+    public void writeField(final Object object, final Field field, final Object value) {
+        if (wrappedWritesResolvedFields) {
+            wrapped.writeField(object, field, value);
+        } else {
+            wrapped.writeField(object, field.getName(), value, field.getDeclaringClass());
+        }
+    }
+
+    /**
+     * Checks whether a provider writes a resolved field in the same way as a field given by name. A derived provider
+     * that overwrites only {@link ReflectionProvider#writeField(Object, String, Object, Class)} has to be called with
+     * the name of the field.
+     */
+    static boolean writesResolvedFields(final ReflectionProvider provider) {
+        try {
+            final Class<?> type = provider.getClass();
+            final Method byName = type.getMethod("writeField", Object.class, String.class, Object.class, Class.class);
+            final Method byField = type.getMethod("writeField", Object.class, Field.class, Object.class);
+            return byName.getDeclaringClass() == byField.getDeclaringClass();
+        } catch (final NoSuchMethodException | SecurityException e) {
+            return false;
+        }
+    }
+
 }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2011, 2013, 2014, 2015, 2016 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2011, 2013, 2014, 2015, 2016, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -57,6 +57,11 @@ public class SunUnsafeReflectionProvider extends SunLimitedUnsafeReflectionProvi
         write(fieldDictionary.field(object.getClass(), fieldName, definedIn), object, value);
     }
 
+    @Override
+    public void writeField(final Object object, final Field field, final Object value) {
+        write(field, object, value);
+    }
+
     private void write(final Field field, final Object object, final Object value) {
         if (exception != null) {
             final ObjectAccessException ex = new ObjectAccessException("Cannot set field", exception);
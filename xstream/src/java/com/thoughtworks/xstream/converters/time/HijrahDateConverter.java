@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2017 XStream Committers.
+ * Copyright (C) 2017, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -27,19 +27,10 @@ import java.util.Set;
  */
 public class HijrahDateConverter extends AbstractChronoLocalDateConverter<HijrahEra> {
 
-    private final Set<Chronology> hijrahChronologies;
-
     /**
      * Constructs a HijrahDateConverter instance.
      */
     public HijrahDateConverter() {
-        hijrahChronologies = new HashSet<>();
-        final Set<Chronology> chronologies = Chronology.getAvailableChronologies();
-        for (final Chronology chronology : chronologies) {
-            if (chronology instanceof HijrahChronology) {
-                hijrahChronologies.add(chronology);
-            }
-        }
     }
 
     @Override
@@ -49,7 +40,7 @@ public class HijrahDateConverter extends AbstractChronoLocalDateConverter<Hijrah
 
     @Override
     public Object fromString(final String str) {
-        return parseChronoLocalDate(str, "Hijrah", hijrahChronologies);
+        return parseChronoLocalDate(str, "Hijrah", HijrahChronologies.CHRONOLOGIES);
     }
 
     @Override
@@ -63,4 +54,20 @@ public class HijrahDateConverter extends AbstractChronoLocalDateConverter<Hijrah
         return HijrahEra.valueOf(id);
     }
 
+    /**
+     * The available Hijrah chronologies, collected at first usage, since the runtime loads all chronologies.
+     */
+    private static class HijrahChronologies {
+        private static final Set<Chronology> CHRONOLOGIES;
+
+        static {
+            final Set<Chronology> hijrahChronologies = new HashSet<>();
+            for (final Chronology chronology : Chronology.getAvailableChronologies()) {
+                if (chronology instanceof HijrahChronology) {
+                    hijrahChronologies.add(chronology);
+                }
+            }
+            CHRONOLOGIES = hijrahChronologies;
+        }
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2006, 2007, 2008, 2011, 2014, 2015, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2011, 2014, 2015, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -41,6 +41,13 @@ public abstract class AbstractReferenceUnmarshaller<R> extends TreeUnmarshaller
         super(root, reader, converterLookup, mapper);
     }
 
+    @Override
+    protected void reset(final Object root, final HierarchicalStreamReader reader) {
+        super.reset(root, reader);
+        values.clear();
+        parentStack.clear();
+    }
+
     @Override
     protected Object convert(final Object parent, final Class<?> type, final Converter converter) {
         if (parentStack.size() > 0) { // handles circular references
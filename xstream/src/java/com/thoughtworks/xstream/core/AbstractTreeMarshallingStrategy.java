@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2006, 2007, 2008, 2009, 2014 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2014, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -10,6 +10,8 @@
  */
 package com.thoughtworks.xstream.core;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import com.thoughtworks.xstream.MarshallingStrategy;
 import com.thoughtworks.xstream.converters.ConverterLookup;
 import com.thoughtworks.xstream.converters.DataHolder;
@@ -20,6 +22,14 @@ import com.thoughtworks.xstream.mapper.Mapper;
 
 /**
  * Basic functionality of a tree based marshalling strategy.
+ * <p>
+ * A derived strategy may reuse its marshalling and unmarshalling contexts. Such a strategy keeps a bounded number of
+ * contexts, each thread takes the context from a slot selected by its id and returns it after the call. A call that
+ * finds the slot empty, e.g. for a nested call or a second thread using the same slot, simply creates a new context.
+ * Therefore the pool never blocks and its size does not depend on the number of threads, which keeps it suitable for
+ * virtual threads. The contexts are reset before and after each use, see {@link TreeMarshaller#reset} and
+ * {@link TreeUnmarshaller#reset}.
+ * </p>
  * 
  * @author Joe Walnes
  * @author J&ouml;rg Schaible
@@ -27,18 +37,72 @@ import com.thoughtworks.xstream.mapper.Mapper;
  */
 public abstract class AbstractTreeMarshallingStrategy implements MarshallingStrategy {
 
+    private final ContextPool<TreeMarshaller> marshallers;
+    private final ContextPool<TreeUnmarshaller> unmarshallers;
+
+    public AbstractTreeMarshallingStrategy() {
+        this(0);
+    }
+
+    /**
+     * Construct an AbstractTreeMarshallingStrategy that reuses its contexts.
+     *
+     * @param poolSize the maximum number of pooled contexts of each kind, 0 to create new contexts for every call
+     * @since upcoming
+     */
+    protected AbstractTreeMarshallingStrategy(final int poolSize) {
+        if (poolSize < 0) {
+            throw new IllegalArgumentException("Negative pool size");
+        }
+        marshallers = poolSize > 0 ? new ContextPool<TreeMarshaller>(poolSize) : null;
+        unmarshallers = poolSize > 0 ? new ContextPool<TreeUnmarshaller>(poolSize) : null;
+    }
+
     @Override
     public Object unmarshal(final Object root, final HierarchicalStreamReader reader, final DataHolder dataHolder,
             final ConverterLookup converterLookup, final Mapper mapper) {
-        final TreeUnmarshaller context = createUnmarshallingContext(root, reader, converterLookup, mapper);
-        return context.start(dataHolder);
+        if (unmarshallers == null) {
+            final TreeUnmarshaller context = createUnmarshallingContext(root, reader, converterLookup, mapper);
+            return context.start(dataHolder);
+        }
+        final int slot = unmarshallers.slot();
+        PooledContext<TreeUnmarshaller> pooled = unmarshallers.fetch(slot, converterLookup, mapper);
+        if (pooled == null) {
+            pooled = new PooledContext<>(createUnmarshallingContext(root, reader, converterLookup, mapper),
+                converterLookup, mapper);
+        } else {
+            pooled.context.reset(root, reader);
+        }
+        try {
+            return pooled.context.start(dataHolder);
+        } finally {
+            pooled.context.reset(null, null);
+            unmarshallers.release(slot, pooled);
+        }
     }
 
     @Override
     public void marshal(final HierarchicalStreamWriter writer, final Object obj, final ConverterLookup converterLookup,
             final Mapper mapper, final DataHolder dataHolder) {
-        final TreeMarshaller context = createMarshallingContext(writer, converterLookup, mapper);
-        context.start(obj, dataHolder);
+        if (marshallers == null) {
+            final TreeMarshaller context = createMarshallingContext(writer, converterLookup, mapper);
+            context.start(obj, dataHolder);
+            return;
+        }
+        final int slot = marshallers.slot();
+        PooledContext<TreeMarshaller> pooled = marshallers.fetch(slot, converterLookup, mapper);
+        if (pooled == null) {
+            pooled = new PooledContext<>(createMarshallingContext(writer, converterLookup, mapper), converterLookup,
+                mapper);
+        } else {
+            pooled.context.reset(writer);
+        }
+        try {
+            pooled.context.start(obj, dataHolder);
+        } finally {
+            pooled.context.reset(null);
+            marshallers.release(slot, pooled);
+        }
     }
 
     protected abstract TreeUnmarshaller createUnmarshallingContext(Object root, HierarchicalStreamReader reader,
@@ -46,4 +110,40 @@ public abstract class AbstractTreeMarshallingStrategy implements MarshallingStra
 
     protected abstract TreeMarshaller createMarshallingContext(HierarchicalStreamWriter writer,
             ConverterLookup converterLookup, Mapper mapper);
+
+    private static class PooledContext<T> {
+        private final T context;
+        // a context is bound to the lookup and mapper it has been created with
+        private final ConverterLookup converterLookup;
+        private final Mapper mapper;
+
+        PooledContext(final T context, final ConverterLookup converterLookup, final Mapper mapper) {
+            this.context = context;
+            this.converterLookup = converterLookup;
+            this.mapper = mapper;
+        }
+    }
+
+    private static class ContextPool<T> {
+        private final AtomicReferenceArray<PooledContext<T>> contexts;
+
+        ContextPool(final int size) {
+            contexts = new AtomicReferenceArray<>(size);
+        }
+
+        int slot() {
+            return (int)(Thread.currentThread().getId() % contexts.length());
+        }
+
+        PooledContext<T> fetch(final int slot, final ConverterLookup converterLookup, final Mapper mapper) {
+            final PooledContext<T> pooled = contexts.getAndSet(slot, null);
+            return pooled != null && pooled.converterLookup == converterLookup && pooled.mapper == mapper
+                ? pooled
+                : null;
+        }
+
+        void release(final int slot, final PooledContext<T> pooled) {
+            contexts.compareAndSet(slot, null, pooled);
+        }
+    }
 }
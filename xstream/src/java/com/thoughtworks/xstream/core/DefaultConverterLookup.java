@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2014, 2015, 2016, 2017, 2019 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2014, 2015, 2016, 2017, 2019, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,20 +11,25 @@
  */
 package com.thoughtworks.xstream.core;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.ConverterLookup;
 import com.thoughtworks.xstream.converters.ConverterRegistry;
-import com.thoughtworks.xstream.core.util.Cloneables;
 import com.thoughtworks.xstream.core.util.PrioritizedList;
 
 
 /**
  * The default implementation of converters lookup.
+ * <p>
+ * The resolved converter of a type is kept in a lock-free cache keyed by the type itself. The registration of a new
+ * converter does not drop the cached entries, an entry is revalidated lazily against the converters that have been
+ * registered after it was resolved.
+ * </p>
  *
  * @author Joe Walnes
  * @author J&ouml;rg Schaible
@@ -32,12 +37,16 @@ import com.thoughtworks.xstream.core.util.PrioritizedList;
  */
 public class DefaultConverterLookup implements ConverterLookup, ConverterRegistry, Caching {
 
+    private static final Registration[] NO_REGISTRATIONS = new Registration[0];
+
     private final PrioritizedList<Converter> converters = new PrioritizedList<>();
-    private transient Map<String, Converter> typeToConverterMap;
-    private Map<String, Converter> serializationMap = null;
+    private volatile Registration[] registrations = NO_REGISTRATIONS;
+    private transient volatile ConverterCache typeToConverterCache;
+    private transient LongAdder cacheHits;
+    private transient LongAdder cacheMisses;
 
     public DefaultConverterLookup() {
-        this(new HashMap<String, Converter>());
+        readResolve();
     }
 
     /**
@@ -46,26 +55,48 @@ public class DefaultConverterLookup implements ConverterLookup, ConverterRegistr
      * @param map the map to use
      * @throws NullPointerException if map is null
      * @since 1.4.11
+     * @deprecated As of upcoming, the lookup maintains its own class-keyed cache and the map is no longer used
      */
+    @Deprecated
     public DefaultConverterLookup(final Map<String, Converter> map) {
-        typeToConverterMap = map;
-        typeToConverterMap.clear();
+        this();
+        map.clear();
     }
 
     @Override
     public Converter lookupConverterForType(final Class<?> type) {
-        final Converter cachedConverter = type != null ? typeToConverterMap.get(type.getName()) : null;
-        if (cachedConverter != null) {
-            return cachedConverter;
+        if (type == null) {
+            return findConverter(null);
+        }
+
+        final Slot slot = typeToConverterCache.get(type);
+        final Resolution resolution = slot.resolution;
+        final Registration[] registrations = this.registrations;
+        if (resolution != null && resolution.generation == registrations.length) {
+            cacheHits.increment();
+            return registrations[resolution.index].converter;
+        }
+
+        cacheMisses.increment();
+        if (resolution != null) {
+            final int index = revalidate(type, resolution, registrations);
+            slot.resolution = new Resolution(index, registrations.length);
+            return registrations[index].converter;
+        }
+
+        final Converter converter = findConverter(type);
+        final int index = indexOf(converter, registrations);
+        if (index >= 0) {
+            slot.resolution = new Resolution(index, registrations.length);
         }
+        return converter;
+    }
 
+    private Converter findConverter(final Class<?> type) {
         final Map<String, String> errors = new LinkedHashMap<>();
         for (final Converter converter : converters) {
             try {
                 if (converter.canConvert(type)) {
-                    if (type != null) {
-                        typeToConverterMap.put(type.getName(), converter);
-                    }
                     return converter;
                 }
             } catch (final RuntimeException | LinkageError e) {
@@ -84,31 +115,128 @@ public class DefaultConverterLookup implements ConverterLookup, ConverterRegistr
         throw exception;
     }
 
+    /**
+     * Checks the converters registered after a resolution for a better match. A later registered converter takes
+     * precedence if it has at least the same priority as the resolved one, since it is iterated first in that case.
+     */
+    private int revalidate(final Class<?> type, final Resolution resolution, final Registration[] registrations) {
+        int index = resolution.index;
+        int priority = registrations[index].priority;
+        for (int i = resolution.generation; i < registrations.length; ++i) {
+            final Registration registration = registrations[i];
+            if (registration.priority >= priority) {
+                try {
+                    if (registration.converter.canConvert(type)) {
+                        index = i;
+                        priority = registration.priority;
+                    }
+                } catch (final RuntimeException | LinkageError e) {
+                    // ignore, same as in a full lookup if another converter matches
+                }
+            }
+        }
+        return index;
+    }
+
+    private static int indexOf(final Converter converter, final Registration[] registrations) {
+        int index = -1;
+        for (int i = registrations.length; i-- > 0;) {
+            if (registrations[i].converter == converter
+                && (index < 0 || registrations[i].priority > registrations[index].priority)) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
     @Override
-    public void registerConverter(final Converter converter, final int priority) {
-        typeToConverterMap.clear();
+    public synchronized void registerConverter(final Converter converter, final int priority) {
         converters.add(converter, priority);
+        final Registration[] registrations = Arrays.copyOf(this.registrations, this.registrations.length + 1);
+        registrations[registrations.length - 1] = new Registration(converter, priority);
+        this.registrations = registrations;
+    }
+
+    /**
+     * Retrieve the number of lookups that have been answered from the cache.
+     *
+     * @return the number of cache hits
+     * @since upcoming
+     */
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Retrieve the number of lookups that had to resolve or revalidate the converter.
+     *
+     * @return the number of cache misses
+     * @since upcoming
+     */
+    public long getCacheMisses() {
+        return cacheMisses.sum();
     }
 
     @Override
     public void flushCache() {
-        typeToConverterMap.clear();
-        for (final Converter converter : converters) {
-            if (converter instanceof Caching) {
-                ((Caching)converter).flushCache();
+        typeToConverterCache = new ConverterCache();
+        flushConverterCaches();
+    }
+
+    /**
+     * Flush the caches of the registered converters only. The converters resolved for the types are kept, they do not
+     * depend on the configuration of the mapper.
+     *
+     * @since upcoming
+     */
+    public void flushConverterCaches() {
+        // the array of the registrations is iterated much faster than the prioritized list
+        for (final Registration registration : registrations) {
+            if (registration.converter instanceof Caching) {
+                ((Caching)registration.converter).flushCache();
             }
         }
     }
 
-    private Object writeReplace() {
-        serializationMap = Cloneables.cloneIfPossible(typeToConverterMap);
-        serializationMap.clear();
+    private Object readResolve() {
+        typeToConverterCache = new ConverterCache();
+        cacheHits = new LongAdder();
+        cacheMisses = new LongAdder();
         return this;
     }
 
-    private Object readResolve() {
-        typeToConverterMap = serializationMap == null ? new HashMap<String, Converter>() : serializationMap;
-        serializationMap = null;
-        return this;
+    private static class Registration {
+        final Converter converter;
+        final int priority;
+
+        Registration(final Converter converter, final int priority) {
+            this.converter = converter;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Resolved converter as index into the registrations and the number of registrations known at that time. The
+     * resolution does not reference the converter itself to keep the cached value from retaining this lookup.
+     */
+    private static class Resolution {
+        final int index;
+        final int generation;
+
+        Resolution(final int index, final int generation) {
+            this.index = index;
+            this.generation = generation;
+        }
+    }
+
+    private static class Slot {
+        volatile Resolution resolution;
+    }
+
+    private static class ConverterCache extends ClassValue<Slot> {
+        @Override
+        protected Slot computeValue(final Class<?> type) {
+            return new Slot();
+        }
     }
 }
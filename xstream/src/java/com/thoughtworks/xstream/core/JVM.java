@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2010, 2011, 2012, 2013, 2014, 2015, 2016, 2017, 2018, 2019, 2020, 2021 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2010, 2011, 2012, 2013, 2014, 2015, 2016, 2017, 2018, 2019, 2020, 2021, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -49,8 +49,6 @@ public class JVM implements Caching {
     private static final boolean canWriteWithUnsafe;
     private static final boolean optimizedTreeSetAddAll;
     private static final boolean optimizedTreeMapPutAll;
-    private static final boolean canParseUTCDateFormat;
-    private static final boolean canParseISO8601TimeZoneInDateFormat;
     private static final boolean canCreateDerivedObjectOutputStream;
 
     private static final String vendor = System.getProperty("java.vm.vendor");
@@ -113,25 +111,15 @@ public class JVM implements Caching {
                 "com.thoughtworks.xstream.converters.reflection.SunUnsafeReflectionProvider");
             if (cls != null) {
                 try {
-                    final ReflectionProvider provider = DependencyInjectionFactory.newInstance(cls);
-                    final Test t = (Test)provider.newInstance(Test.class);
-                    try {
-                        provider.writeField(t, "o", "object", Test.class);
-                        provider.writeField(t, "c", Character.valueOf('c'), Test.class);
-                        provider.writeField(t, "b", Byte.valueOf((byte)1), Test.class);
-                        provider.writeField(t, "s", Short.valueOf((short)1), Test.class);
-                        provider.writeField(t, "i", Integer.valueOf(1), Test.class);
-                        provider.writeField(t, "l", Long.valueOf(1), Test.class);
-                        provider.writeField(t, "f", Float.valueOf(1), Test.class);
-                        provider.writeField(t, "d", Double.valueOf(1), Test.class);
-                        provider.writeField(t, "bool", Boolean.TRUE, Test.class);
+                    if (canWriteFields(cls)) {
                         test = true;
-                    } catch (final IncompatibleClassChangeError | ObjectAccessException e) {
-                        cls = null;
-                    }
-                    if (cls == null) {
+                    } else {
                         cls = loadClassForName(
-                            "com.thoughtworks.xstream.converters.reflection.SunLimitedUnsafeReflectionProvider");
+                            "com.thoughtworks.xstream.converters.reflection.MethodHandleReflectionProvider");
+                        if (cls == null || !canWriteFields(cls)) {
+                            cls = loadClassForName(
+                                "com.thoughtworks.xstream.converters.reflection.SunLimitedUnsafeReflectionProvider");
+                        }
                     }
                     type = cls;
                 } catch (final ObjectAccessException e) {
@@ -165,20 +153,6 @@ public class JVM implements Caching {
             test = false;
         }
         optimizedTreeSetAddAll = test;
-        try {
-            new SimpleDateFormat("z").parse("UTC");
-            test = true;
-        } catch (final ParseException e) {
-            test = false;
-        }
-        canParseUTCDateFormat = test;
-        try {
-            new SimpleDateFormat("X").parse("Z");
-            test = true;
-        } catch (final ParseException | IllegalArgumentException e) {
-            test = false;
-        }
-        canParseISO8601TimeZoneInDateFormat = test;
         try {
             @SuppressWarnings("resource")
             final CustomObjectOutputStream stream = new CustomObjectOutputStream(null, null);
@@ -193,6 +167,25 @@ public class JVM implements Caching {
         isSQLAvailable = loadClassForName("java.sql.Date") != null;
     }
 
+    private static boolean canWriteFields(final Class<? extends ReflectionProvider> cls) {
+        final ReflectionProvider provider = DependencyInjectionFactory.newInstance(cls);
+        final Test t = (Test)provider.newInstance(Test.class);
+        try {
+            provider.writeField(t, "o", "object", Test.class);
+            provider.writeField(t, "c", Character.valueOf('c'), Test.class);
+            provider.writeField(t, "b", Byte.valueOf((byte)1), Test.class);
+            provider.writeField(t, "s", Short.valueOf((short)1), Test.class);
+            provider.writeField(t, "i", Integer.valueOf(1), Test.class);
+            provider.writeField(t, "l", Long.valueOf(1), Test.class);
+            provider.writeField(t, "f", Float.valueOf(1), Test.class);
+            provider.writeField(t, "d", Double.valueOf(1), Test.class);
+            provider.writeField(t, "bool", Boolean.TRUE, Test.class);
+            return true;
+        } catch (final IncompatibleClassChangeError | ObjectAccessException e) {
+            return false;
+        }
+    }
+
     /**
      * @deprecated As of 1.4.5 use the static methods of JVM.
      */
@@ -352,6 +345,11 @@ public class JVM implements Caching {
 
     /**
      * Create the best matching ReflectionProvider.
+     * <p>
+     * The {@link com.thoughtworks.xstream.converters.reflection.SunUnsafeReflectionProvider} is preferred. If the Java
+     * runtime does not allow to write fields with sun.misc.Unsafe, the
+     * {@link com.thoughtworks.xstream.converters.reflection.MethodHandleReflectionProvider} is used instead.
+     * </p>
      *
      * @return a new instance
      * @since 1.4.5
@@ -541,14 +539,14 @@ public class JVM implements Caching {
     }
 
     public static boolean canParseUTCDateFormat() {
-        return canParseUTCDateFormat;
+        return DateFormatSupport.canParseUTCDateFormat;
     }
 
     /**
      * @since 1.4.8
      */
     public static boolean canParseISO8601TimeZoneInDateFormat() {
-        return canParseISO8601TimeZoneInDateFormat;
+        return DateFormatSupport.canParseISO8601TimeZoneInDateFormat;
     }
 
     /**
@@ -626,4 +624,30 @@ public class JVM implements Caching {
         System.out.println("Reverse field order detected (only if JVM class itself has been compiled): "
             + reverseLocal);
     }
+
+    /**
+     * Probes of the date formats, initialized at first usage, since parsing a time zone loads the names of all zones.
+     */
+    private static class DateFormatSupport {
+        private static final boolean canParseUTCDateFormat;
+        private static final boolean canParseISO8601TimeZoneInDateFormat;
+
+        static {
+            boolean test;
+            try {
+                new SimpleDateFormat("z").parse("UTC");
+                test = true;
+            } catch (final ParseException e) {
+                test = false;
+            }
+            canParseUTCDateFormat = test;
+            try {
+                new SimpleDateFormat("X").parse("Z");
+                test = true;
+            } catch (final ParseException | IllegalArgumentException e) {
+                test = false;
+            }
+            canParseISO8601TimeZoneInDateFormat = test;
+        }
+    }
 }
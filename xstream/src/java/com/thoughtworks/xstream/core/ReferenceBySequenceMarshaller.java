@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ConverterLookup;
+import com.thoughtworks.xstream.core.AbstractReferenceMarshaller.ReferencedImplicitElementException;
+import com.thoughtworks.xstream.core.util.ObjectIdMap;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.WriterWrapper;
+import com.thoughtworks.xstream.io.path.Path;
+import com.thoughtworks.xstream.mapper.Mapper;
+
+
+/**
+ * A TreeMarshaller that references objects by a sequence of integers.
+ * <p>
+ * Every referenceable object gets the next number of the sequence starting at 1 as id. The marshaller does not track
+ * the path of the written nodes, it simply numbers them in the order they are started. Therefore the path reported by
+ * the deprecated {@link ReferencingMarshallingContext#currentPath()} contains the names of the open nodes only, without
+ * an index for siblings of the same name.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class ReferenceBySequenceMarshaller extends TreeMarshaller {
+
+    private final ObjectIdMap<Id> references = new ObjectIdMap<>();
+    private final ObjectIdMap<Object> implicitElements = new ObjectIdMap<>();
+    private final NodeCountingWriter nodeCounter;
+    private int sequence;
+    private int lastNode;
+
+    public ReferenceBySequenceMarshaller(
+            final HierarchicalStreamWriter writer, final ConverterLookup converterLookup, final Mapper mapper) {
+        super(writer, converterLookup, mapper);
+        nodeCounter = new NodeCountingWriter(writer);
+        this.writer = nodeCounter;
+    }
+
+    @Override
+    public void convert(final Object item, final Converter converter) {
+        if (getMapper().isImmutableValueType(item.getClass())) {
+            // strings, ints, dates, etc... don't bother using references.
+            converter.marshal(item, writer, this);
+        } else {
+            final int currentNode = nodeCounter.currentNode();
+            final Id existingReference = references.lookupId(item);
+            if (existingReference != null && existingReference.node != currentNode) {
+                final String attributeName = getMapper().aliasForSystemAttribute("reference");
+                if (attributeName != null) {
+                    writer.addAttribute(attributeName, Integer.toString(existingReference.id));
+                }
+            } else {
+                final int newReferenceKey = existingReference == null ? ++sequence : existingReference.id;
+                // nodes are numbered in the sequence they are started, the current node is still open and therefore
+                // an ancestor of any node with a higher number
+                if (lastNode < currentNode) {
+                    final String attributeName = getMapper().aliasForSystemAttribute("id");
+                    if (attributeName != null) {
+                        writer.addAttribute(attributeName, Integer.toString(newReferenceKey));
+                    }
+                    lastNode = currentNode;
+                    references.associateId(item, new Id(newReferenceKey, currentNode));
+                }
+                converter.marshal(item, writer, new ReferencingMarshallingContext<Integer>() {
+
+                    @Override
+                    public void put(final Object key, final Object value) {
+                        ReferenceBySequenceMarshaller.this.put(key, value);
+                    }
+
+                    @Override
+                    public Iterator<Object> keys() {
+                        return ReferenceBySequenceMarshaller.this.keys();
+                    }
+
+                    @Override
+                    public Object get(final Object key) {
+                        return ReferenceBySequenceMarshaller.this.get(key);
+                    }
+
+                    @Override
+                    public void convertAnother(final Object nextItem, final Converter converter) {
+                        ReferenceBySequenceMarshaller.this.convertAnother(nextItem, converter);
+                    }
+
+                    @Override
+                    public void convertAnother(final Object nextItem) {
+                        ReferenceBySequenceMarshaller.this.convertAnother(nextItem);
+                    }
+
+                    @Override
+                    public void replace(final Object original, final Object replacement) {
+                        references.associateId(replacement, new Id(newReferenceKey, currentNode));
+                    }
+
+                    @Override
+                    public Integer lookupReference(final Object item) {
+                        final Id id = references.lookupId(item);
+                        return Integer.valueOf(id.id);
+                    }
+
+                    /**
+                     * @deprecated As of 1.4.2
+                     */
+                    @Deprecated
+                    @Override
+                    public Path currentPath() {
+                        return nodeCounter.currentPath();
+                    }
+
+                    @Override
+                    public void registerImplicit(final Object item) {
+                        if (implicitElements.containsId(item)) {
+                            throw new ReferencedImplicitElementException(item, "id " + newReferenceKey);
+                        }
+                        implicitElements.associateId(item, Integer.valueOf(newReferenceKey));
+                    }
+                });
+            }
+        }
+    }
+
+    private static class Id {
+        private final int id;
+        private final int node;
+
+        Id(final int id, final int node) {
+            this.id = id;
+            this.node = node;
+        }
+    }
+
+    private static class NodeCountingWriter extends WriterWrapper {
+        private int[] openNodes = new int[16];
+        private String[] names = new String[16];
+        private int depth;
+        private int count;
+
+        NodeCountingWriter(final HierarchicalStreamWriter writer) {
+            super(writer);
+        }
+
+        @Override
+        public void startNode(final String name) {
+            pushNode(name);
+            super.startNode(name);
+        }
+
+        @Override
+        public void startNode(final String name, final Class<?> clazz) {
+            pushNode(name);
+            super.startNode(name, clazz);
+        }
+
+        @Override
+        public void endNode() {
+            super.endNode();
+            names[--depth] = null;
+        }
+
+        private void pushNode(final String name) {
+            if (depth == openNodes.length) {
+                openNodes = Arrays.copyOf(openNodes, depth * 2);
+                names = Arrays.copyOf(names, depth * 2);
+            }
+            names[depth] = name;
+            openNodes[depth++] = ++count;
+        }
+
+        Path currentPath() {
+            final String[] chunks = new String[depth + 1];
+            chunks[0] = "";
+            System.arraycopy(names, 0, chunks, 1, depth);
+            return new Path(chunks);
+        }
+
+        int currentNode() {
+            return depth == 0 ? 0 : openNodes[depth - 1];
+        }
+    }
+}
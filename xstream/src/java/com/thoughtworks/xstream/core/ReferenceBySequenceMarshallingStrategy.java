@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core;
+
+import com.thoughtworks.xstream.converters.ConverterLookup;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.mapper.Mapper;
+
+
+/**
+ * A MarshallingStrategy that references objects by a sequence of integers.
+ * <p>
+ * The format is compatible to the one of the {@link ReferenceByIdMarshallingStrategy} with its default id generator.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class ReferenceBySequenceMarshallingStrategy extends AbstractTreeMarshallingStrategy {
+
+    @Override
+    protected TreeUnmarshaller createUnmarshallingContext(final Object root, final HierarchicalStreamReader reader,
+            final ConverterLookup converterLookup, final Mapper mapper) {
+        return new ReferenceBySequenceUnmarshaller(root, reader, converterLookup, mapper);
+    }
+
+    @Override
+    protected TreeMarshaller createMarshallingContext(final HierarchicalStreamWriter writer,
+            final ConverterLookup converterLookup, final Mapper mapper) {
+        return new ReferenceBySequenceMarshaller(writer, converterLookup, mapper);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.ConverterLookup;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.mapper.Mapper;
+
+
+/**
+ * A TreeUnmarshaller that resolves references given as positive integers.
+ * <p>
+ * The unmarshalled objects are kept in an array indexed by their id, as long as the ids form a dense sequence as
+ * written by the {@link ReferenceBySequenceMarshaller}. The array grows only with the number of ids that have been
+ * read, objects with an id far beyond are kept in a map.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class ReferenceBySequenceUnmarshaller extends TreeUnmarshaller {
+
+    private static final Object NULL = new Object();
+    private Object[] values = new Object[64];
+    private Map<Integer, Object> sparseValues;
+    private int idCount;
+    private int[] parentStack = new int[16];
+    private int depth;
+
+    public ReferenceBySequenceUnmarshaller(
+            final Object root, final HierarchicalStreamReader reader, final ConverterLookup converterLookup,
+            final Mapper mapper) {
+        super(root, reader, converterLookup, mapper);
+    }
+
+    @Override
+    protected Object convert(final Object parent, final Class<?> type, final Converter converter) {
+        if (depth > 0) { // handles circular references
+            final int parentReferenceKey = parentStack[depth - 1];
+            if (parentReferenceKey > 0) {
+                // see AbstractCircularReferenceTest.testWeirdCircularReference()
+                if (lookup(parentReferenceKey) == null) {
+                    register(parentReferenceKey, parent);
+                }
+            }
+        }
+        final Object result;
+        final String attributeName = getMapper().aliasForSystemAttribute("reference");
+        final String reference = attributeName == null ? null : reader.getAttribute(attributeName);
+        final boolean isReferenceable = getMapper().isReferenceable(type);
+        if (reference != null) {
+            final int key = isReferenceable ? parseReference(reference) : 0;
+            final Object cache = key > 0 ? lookup(key) : null;
+            if (cache == null) {
+                final ConversionException ex = new ConversionException("Invalid reference");
+                ex.add("reference", reference);
+                ex.add("referenced-type", type.getName());
+                ex.add("referenceable", Boolean.toString(isReferenceable));
+                throw ex;
+            }
+            result = cache == NULL ? null : cache;
+        } else if (!isReferenceable) {
+            result = super.convert(parent, type, converter);
+        } else {
+            final int currentReferenceKey = getCurrentReferenceKey();
+            if (depth == parentStack.length) {
+                parentStack = Arrays.copyOf(parentStack, depth * 2);
+            }
+            parentStack[depth++] = currentReferenceKey;
+            Object localResult = null;
+            try {
+                localResult = super.convert(parent, type, converter);
+            } finally {
+                result = localResult;
+                if (currentReferenceKey > 0) {
+                    register(currentReferenceKey, result == null ? NULL : result);
+                }
+                --depth;
+            }
+        }
+        return result;
+    }
+
+    private int getCurrentReferenceKey() {
+        final String attributeName = getMapper().aliasForSystemAttribute("id");
+        final String id = attributeName == null ? null : reader.getAttribute(attributeName);
+        if (id == null) {
+            return 0;
+        }
+        final int key = parseReference(id);
+        if (key <= 0) {
+            final ConversionException ex = new ConversionException("Invalid id, expected a positive integer");
+            ex.add("id", id);
+            throw ex;
+        }
+        return key;
+    }
+
+    private Object lookup(final int key) {
+        final Object value = key < values.length ? values[key] : null;
+        // the array may have grown beyond an id that has been kept in the map before
+        return value != null || sparseValues == null ? value : sparseValues.get(Integer.valueOf(key));
+    }
+
+    private void register(final int key, final Object value) {
+        if (key >= values.length && key < 2 * idCount + 64) {
+            // the id is not far beyond the number of ids read so far, the ids are dense
+            values = Arrays.copyOf(values, Math.max(key + 1, Math.min(values.length * 2, 2 * idCount + 64)));
+        }
+        if (key < values.length) {
+            if (values[key] == null) {
+                ++idCount;
+            }
+            values[key] = value;
+        } else {
+            if (sparseValues == null) {
+                sparseValues = new HashMap<>();
+            }
+            if (sparseValues.put(Integer.valueOf(key), value) == null) {
+                ++idCount;
+            }
+        }
+    }
+
+    private static int parseReference(final String reference) {
+        try {
+            return Integer.parseInt(reference);
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+}
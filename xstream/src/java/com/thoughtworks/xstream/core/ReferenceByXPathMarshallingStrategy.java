@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2014 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2014, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -25,6 +25,18 @@ public class ReferenceByXPathMarshallingStrategy extends AbstractTreeMarshalling
     private final int mode;
 
     public ReferenceByXPathMarshallingStrategy(final int mode) {
+        this(mode, 0);
+    }
+
+    /**
+     * Construct a ReferenceByXPathMarshallingStrategy that reuses its contexts.
+     *
+     * @param mode the XPath mode
+     * @param poolSize the maximum number of pooled contexts of each kind, 0 to create new contexts for every call
+     * @since upcoming
+     */
+    public ReferenceByXPathMarshallingStrategy(final int mode, final int poolSize) {
+        super(poolSize);
         this.mode = mode;
     }
 
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2011, 2014, 2015, 2018
+ * Copyright (C) 2006, 2007, 2009, 2011, 2014, 2015, 2018, 2026
  *  XStream Committers.
  * All rights reserved.
  *
@@ -19,7 +19,7 @@ import com.thoughtworks.xstream.converters.Converter;
 import com.thoughtworks.xstream.converters.ConverterLookup;
 import com.thoughtworks.xstream.converters.DataHolder;
 import com.thoughtworks.xstream.converters.MarshallingContext;
-import com.thoughtworks.xstream.core.util.ObjectIdDictionary;
+import com.thoughtworks.xstream.core.util.ObjectIdMap;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import com.thoughtworks.xstream.mapper.Mapper;
 
@@ -29,7 +29,7 @@ public class TreeMarshaller implements MarshallingContext {
     protected HierarchicalStreamWriter writer;
     protected ConverterLookup converterLookup;
     private final Mapper mapper;
-    private final ObjectIdDictionary<Object> parentObjects = new ObjectIdDictionary<>();
+    private final ObjectIdMap<Object> parentObjects = new ObjectIdMap<>();
     private DataHolder dataHolder;
 
     public TreeMarshaller(
@@ -71,6 +71,22 @@ public class TreeMarshaller implements MarshallingContext {
         parentObjects.removeId(item);
     }
 
+    /**
+     * Reset the marshaller for reuse.
+     * <p>
+     * A pooled marshaller is reset with the writer for the next call and with <code>null</code> after it has been used
+     * to release any references. Derived classes with own state have to override this method.
+     * </p>
+     *
+     * @param writer the writer for the next call or <code>null</code>
+     * @since upcoming
+     */
+    protected void reset(final HierarchicalStreamWriter writer) {
+        this.writer = writer;
+        parentObjects.clear();
+        dataHolder = null;
+    }
+
     public void start(final Object item, final DataHolder dataHolder) {
         this.dataHolder = dataHolder;
         if (item == null) {
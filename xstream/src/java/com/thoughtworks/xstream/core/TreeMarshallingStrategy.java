@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2014 XStream Committers.
+ * Copyright (C) 2006, 2007, 2014, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -19,6 +19,20 @@ import com.thoughtworks.xstream.mapper.Mapper;
 
 public class TreeMarshallingStrategy extends AbstractTreeMarshallingStrategy {
 
+    public TreeMarshallingStrategy() {
+        super();
+    }
+
+    /**
+     * Construct a TreeMarshallingStrategy that reuses its contexts.
+     *
+     * @param poolSize the maximum number of pooled contexts of each kind, 0 to create new contexts for every call
+     * @since upcoming
+     */
+    public TreeMarshallingStrategy(final int poolSize) {
+        super(poolSize);
+    }
+
     @Override
     protected TreeUnmarshaller createUnmarshallingContext(final Object root, final HierarchicalStreamReader reader,
             final ConverterLookup converterLookup, final Mapper mapper) {
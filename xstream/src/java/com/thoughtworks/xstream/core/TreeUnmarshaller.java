@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2014, 2015, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2014, 2015, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -29,7 +29,7 @@ import com.thoughtworks.xstream.mapper.Mapper;
 
 public class TreeUnmarshaller implements UnmarshallingContext {
 
-    private final Object root;
+    private Object root;
     protected HierarchicalStreamReader reader;
     private final ConverterLookup converterLookup;
     private final Mapper mapper;
@@ -136,6 +136,25 @@ public class TreeUnmarshaller implements UnmarshallingContext {
         }
     }
 
+    /**
+     * Reset the unmarshaller for reuse.
+     * <p>
+     * A pooled unmarshaller is reset with the root and reader for the next call and with <code>null</code> values after
+     * it has been used to release any references. Derived classes with own state have to override this method.
+     * </p>
+     *
+     * @param root the root object for the next call or <code>null</code>
+     * @param reader the reader for the next call or <code>null</code>
+     * @since upcoming
+     */
+    protected void reset(final Object root, final HierarchicalStreamReader reader) {
+        this.root = root;
+        this.reader = reader;
+        types.clear();
+        validationList.clear();
+        dataHolder = null;
+    }
+
     public Object start(final DataHolder dataHolder) {
         this.dataHolder = dataHolder;
         final Class<?> type = HierarchicalStreams.readClassType(reader, mapper);
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+
+
+/**
+ * An InputStream reading from a {@link ByteBuffer} or a blocking {@link ReadableByteChannel}.
+ * <p>
+ * A given buffer is read directly, its position and limit are not modified. A channel is read in chunks into a
+ * direct buffer.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class ByteBufferInputStream extends InputStream {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final ByteBuffer buffer;
+    private final ReadableByteChannel channel;
+
+    /**
+     * Constructs an InputStream for the remaining bytes of a buffer.
+     *
+     * @param buffer the buffer with the data
+     * @since upcoming
+     */
+    public ByteBufferInputStream(final ByteBuffer buffer) {
+        this.buffer = buffer.duplicate();
+        channel = null;
+    }
+
+    /**
+     * Constructs an InputStream for a blocking channel.
+     *
+     * @param channel the channel with the data
+     * @throws IllegalArgumentException if the channel is in non-blocking mode
+     * @since upcoming
+     */
+    public ByteBufferInputStream(final ReadableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs an InputStream for a blocking channel with a dedicated size of the buffer.
+     *
+     * @param channel the channel with the data
+     * @param bufferSize the size of the buffer
+     * @throws IllegalArgumentException if the channel is in non-blocking mode
+     * @since upcoming
+     */
+    public ByteBufferInputStream(final ReadableByteChannel channel, final int bufferSize) {
+        if (channel instanceof SelectableChannel && !((SelectableChannel)channel).isBlocking()) {
+            throw new IllegalArgumentException("Channel is in non-blocking mode");
+        }
+        buffer = ByteBuffer.allocateDirect(bufferSize);
+        buffer.flip();
+        this.channel = channel;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return fill() ? buffer.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        final int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && fill()) {
+            final int step = (int)Math.min(n - skipped, buffer.remaining());
+            buffer.position(buffer.position() + step);
+            skipped += step;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (buffer.hasRemaining()) {
+            return true;
+        }
+        if (channel == null) {
+            return false;
+        }
+        buffer.clear();
+        final int n = channel.read(buffer);
+        buffer.flip();
+        if (n == 0) {
+            // a blocking channel reads at least one byte into a buffer with free space
+            throw new IOException("Channel returned no data, non-blocking channels are not supported");
+        }
+        return n > 0;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+
+
+/**
+ * An OutputStream writing into a blocking {@link WritableByteChannel}.
+ * <p>
+ * The data is collected in a direct {@link ByteBuffer} and written to the channel, when the buffer is full or the
+ * stream is flushed. Large arrays are written to the channel without copying them into the buffer.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class ByteBufferOutputStream extends OutputStream {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * Constructs an OutputStream for a channel.
+     *
+     * @param channel the target channel
+     * @throws IllegalArgumentException if the channel is in non-blocking mode
+     * @since upcoming
+     */
+    public ByteBufferOutputStream(final WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs an OutputStream for a channel with a dedicated size of the buffer.
+     *
+     * @param channel the target channel
+     * @param bufferSize the size of the buffer
+     * @throws IllegalArgumentException if the channel is in non-blocking mode
+     * @since upcoming
+     */
+    public ByteBufferOutputStream(final WritableByteChannel channel, final int bufferSize) {
+        if (channel instanceof SelectableChannel && !((SelectableChannel)channel).isBlocking()) {
+            throw new IllegalArgumentException("Channel is in non-blocking mode");
+        }
+        this.channel = channel;
+        buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put((byte)b);
+    }
+
+    @Override
+    public void write(final byte[] b, int off, int len) throws IOException {
+        if (len >= buffer.capacity()) {
+            drain();
+            writeFully(ByteBuffer.wrap(b, off, len));
+            return;
+        }
+        while (len > 0) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            final int n = Math.min(len, buffer.remaining());
+            buffer.put(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(final ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            if (channel.write(data) == 0) {
+                // a blocking channel writes at least one byte
+                throw new IOException("Channel accepted no data, non-blocking channels are not supported");
+            }
+        }
+    }
+}
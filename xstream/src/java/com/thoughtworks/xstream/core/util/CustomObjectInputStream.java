@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2010, 2011, 2013, 2014, 2015, 2016, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2010, 2011, 2013, 2014, 2015, 2016, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -18,6 +18,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectInputValidation;
 import java.io.ObjectStreamClass;
 import java.io.StreamCorruptedException;
+import java.util.EmptyStackException;
 import java.util.Map;
 
 import com.thoughtworks.xstream.converters.DataHolder;
@@ -28,7 +29,10 @@ import com.thoughtworks.xstream.io.StreamException;
 
 public class CustomObjectInputStream extends ObjectInputStream {
 
-    private final FastStack<StreamCallback> callbacks = new FastStack<>(1);
+    private StreamCallback callback;
+    private FastStack<StreamCallback> outerCallbacks;
+    private int depth;
+    private final Thread owner = Thread.currentThread();
     private final ClassLoaderReference classLoaderReference;
 
     private static final String DATA_HOLDER_KEY = CustomObjectInputStream.class.getName();
@@ -59,18 +63,32 @@ public class CustomObjectInputStream extends ObjectInputStream {
      * @deprecated As of 1.4.5 use {@link #getInstance(DataHolder, StreamCallback, ClassLoaderReference)}
      */
     @Deprecated
-    public static synchronized CustomObjectInputStream getInstance(final DataHolder whereFrom,
+    public static CustomObjectInputStream getInstance(final DataHolder whereFrom,
             final CustomObjectInputStream.StreamCallback callback, final ClassLoader classLoader) {
         return getInstance(whereFrom, callback, new ClassLoaderReference(classLoader));
     }
 
-    public static synchronized CustomObjectInputStream getInstance(final DataHolder whereFrom,
+    /**
+     * Retrieve the stream of the current unmarshalling context or create a new one.
+     * <p>
+     * The stream is kept in the DataHolder and reused with the given callback pushed on top. A stream is only reused by
+     * the thread that created it, a DataHolder shared by concurrent calls gets a separate stream for the other threads.
+     * </p>
+     *
+     * @param whereFrom the unmarshalling context
+     * @param callback the callback for the current object
+     * @param classLoaderReference the reference to the class loader
+     * @return the stream, the caller has to pop the callback again
+     */
+    public static CustomObjectInputStream getInstance(final DataHolder whereFrom,
             final CustomObjectInputStream.StreamCallback callback, final ClassLoaderReference classLoaderReference) {
         try {
             CustomObjectInputStream result = (CustomObjectInputStream)whereFrom.get(DATA_HOLDER_KEY);
             if (result == null) {
                 result = new CustomObjectInputStream(callback, classLoaderReference);
                 whereFrom.put(DATA_HOLDER_KEY, result);
+            } else if (result.owner != Thread.currentThread()) {
+                result = new CustomObjectInputStream(callback, classLoaderReference);
             } else {
                 result.pushCallback(callback);
             }
@@ -91,7 +109,7 @@ public class CustomObjectInputStream extends ObjectInputStream {
     public CustomObjectInputStream(final StreamCallback callback, final ClassLoaderReference classLoaderReference)
             throws IOException, SecurityException {
         super();
-        callbacks.push(callback);
+        pushCallback(callback);
         this.classLoaderReference = classLoaderReference;
     }
 
@@ -108,15 +126,27 @@ public class CustomObjectInputStream extends ObjectInputStream {
      * Allows the CustomObjectInputStream (which is expensive to create) to be reused.
      */
     public void pushCallback(final StreamCallback callback) {
-        callbacks.push(callback);
+        if (depth++ > 0) {
+            // only nested callbacks need a stack, the common case keeps a single callback
+            if (outerCallbacks == null) {
+                outerCallbacks = new FastStack<>(4);
+            }
+            outerCallbacks.push(this.callback);
+        }
+        this.callback = callback;
     }
 
     public StreamCallback popCallback() {
-        return callbacks.pop();
+        if (depth == 0) {
+            throw new EmptyStackException();
+        }
+        final StreamCallback result = callback;
+        callback = --depth > 0 ? outerCallbacks.pop() : null;
+        return result;
     }
 
     public StreamCallback peekCallback() {
-        return callbacks.peek();
+        return callback;
     }
 
     @Override
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2014, 2016, 2020 XStream Committers.
+ * Copyright (C) 2006, 2007, 2014, 2016, 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -14,6 +14,7 @@ package com.thoughtworks.xstream.core.util;
 import java.io.IOException;
 import java.io.ObjectOutput;
 import java.io.ObjectOutputStream;
+import java.util.EmptyStackException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -24,17 +25,33 @@ import com.thoughtworks.xstream.io.StreamException;
 
 public class CustomObjectOutputStream extends ObjectOutputStream {
 
-    private final FastStack<StreamCallback> callbacks = new FastStack<>(1);
-    private final FastStack<CustomPutField> customFields = new FastStack<>(1);
+    private StreamCallback callback;
+    private FastStack<StreamCallback> outerCallbacks;
+    private int depth;
+    private final Thread owner = Thread.currentThread();
+    private FastStack<CustomPutField> customFields;
 
     private static final String DATA_HOLDER_KEY = CustomObjectOutputStream.class.getName();
 
-    public static synchronized CustomObjectOutputStream getInstance(final DataHolder whereFrom,
+    /**
+     * Retrieve the stream of the current marshalling context or create a new one.
+     * <p>
+     * The stream is kept in the DataHolder and reused with the given callback pushed on top. A stream is only reused by
+     * the thread that created it, a DataHolder shared by concurrent calls gets a separate stream for the other threads.
+     * </p>
+     *
+     * @param whereFrom the marshalling context
+     * @param callback the callback for the current object
+     * @return the stream, the caller has to pop the callback again
+     */
+    public static CustomObjectOutputStream getInstance(final DataHolder whereFrom,
             final StreamCallback callback) {
         try {
             CustomObjectOutputStream result = (CustomObjectOutputStream)whereFrom.get(DATA_HOLDER_KEY);
             if (result == null) {
                 result = new CustomObjectOutputStream(whereFrom, callback);
+            } else if (result.owner != Thread.currentThread()) {
+                result = new CustomObjectOutputStream(null, callback);
             } else {
                 result.pushCallback(callback);
             }
@@ -67,7 +84,7 @@ public class CustomObjectOutputStream extends ObjectOutputStream {
      */
     public CustomObjectOutputStream(final DataHolder dataHolder, final StreamCallback callback)
             throws IOException, SecurityException {
-        callbacks.push(callback);
+        pushCallback(callback);
         if (dataHolder != null) {
             dataHolder.put(DATA_HOLDER_KEY, this);
         }
@@ -77,15 +94,27 @@ public class CustomObjectOutputStream extends ObjectOutputStream {
      * Allows the CustomObjectOutputStream (which is expensive to create) to be reused.
      */
     public void pushCallback(final StreamCallback callback) {
-        callbacks.push(callback);
+        if (depth++ > 0) {
+            // only nested callbacks need a stack, the common case keeps a single callback
+            if (outerCallbacks == null) {
+                outerCallbacks = new FastStack<>(4);
+            }
+            outerCallbacks.push(this.callback);
+        }
+        this.callback = callback;
     }
 
     public StreamCallback popCallback() {
-        return callbacks.pop();
+        if (depth == 0) {
+            throw new EmptyStackException();
+        }
+        final StreamCallback result = callback;
+        callback = --depth > 0 ? outerCallbacks.pop() : null;
+        return result;
     }
 
     public StreamCallback peekCallback() {
-        return callbacks.peek();
+        return callback;
     }
 
     /*** Methods to delegate to callback ***/
@@ -180,6 +209,9 @@ public class CustomObjectOutputStream extends ObjectOutputStream {
     @Override
     public PutField putFields() {
         final CustomPutField result = new CustomPutField();
+        if (customFields == null) {
+            customFields = new FastStack<>(4);
+        }
         customFields.push(result);
         return result;
     }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2014, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2014, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -67,6 +67,16 @@ public final class FastStack<T> {
         stack[pointer - 1] = value;
     }
 
+    /**
+     * Remove all elements, but keep the allocated stack for reuse.
+     *
+     * @since upcoming
+     */
+    public void clear() {
+        Arrays.fill(stack, 0, pointer, null);
+        pointer = 0;
+    }
+
     public int size() {
         return pointer;
     }
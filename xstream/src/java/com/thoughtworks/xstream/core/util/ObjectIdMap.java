@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.util.Arrays;
+
+
+/**
+ * Store IDs against given object references for the duration of a single operation.
+ * <p>
+ * In contrast to {@link ObjectIdDictionary} the implementation keeps strong references to the objects and does not
+ * wrap them. It is an open-addressing hash table with linear probing over the identity hash code of the objects. The
+ * table can be {@link #clear() cleared} and reused without reallocation. Use it as scratch table while processing an
+ * object graph, that is strongly reachable anyway. The implementation is not thread-safe.
+ * </p>
+ *
+ * @since upcoming
+ */
+public final class ObjectIdMap<E> {
+
+    private static final int DEFAULT_CAPACITY = 32;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final Object NULL_KEY = new Object();
+
+    private Object[] keys;
+    private Object[] values;
+    private int mask;
+    private int shift;
+    private int threshold;
+    private int size;
+
+    public ObjectIdMap() {
+        this(DEFAULT_CAPACITY / 2);
+    }
+
+    /**
+     * Construct an ObjectIdMap for an expected number of entries.
+     *
+     * @param expectedSize the number of entries that can be stored without resizing the table
+     * @since upcoming
+     */
+    public ObjectIdMap(final int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < MAXIMUM_CAPACITY && capacity / 2 < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    public void associateId(final Object obj, final E id) {
+        final Object key = obj == null ? NULL_KEY : obj;
+        int i = indexFor(key);
+        for (Object k; (k = keys[i]) != null; i = i + 1 & mask) {
+            if (k == key) {
+                values[i] = id;
+                return;
+            }
+        }
+        keys[i] = key;
+        values[i] = id;
+        if (++size > threshold) {
+            resize();
+        }
+    }
+
+    public E lookupId(final Object obj) {
+        final int i = find(obj);
+        if (i < 0) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        final E id = (E)values[i];
+        return id;
+    }
+
+    public boolean containsId(final Object item) {
+        return find(item) >= 0;
+    }
+
+    public void removeId(final Object item) {
+        int i = find(item);
+        if (i < 0) {
+            return;
+        }
+        --size;
+        // backward shift deletion keeps the probe sequences intact without tombstones
+        for (int j = i + 1 & mask;; j = j + 1 & mask) {
+            final Object k = keys[j];
+            if (k == null) {
+                break;
+            }
+            final int home = indexFor(k);
+            if ((j - home & mask) >= (j - i & mask)) {
+                keys[i] = k;
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = null;
+        values[i] = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove all entries, but keep the allocated table for reuse.
+     *
+     * @since upcoming
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, null);
+            Arrays.fill(values, null);
+            size = 0;
+        }
+    }
+
+    private int find(final Object obj) {
+        final Object key = obj == null ? NULL_KEY : obj;
+        for (int i = indexFor(key);; i = i + 1 & mask) {
+            final Object k = keys[i];
+            if (k == key) {
+                return i;
+            }
+            if (k == null) {
+                return -1;
+            }
+        }
+    }
+
+    private int indexFor(final Object key) {
+        // Fibonacci hashing spreads the identity hash codes over the upper bits
+        return System.identityHashCode(key) * 0x9E3779B9 >>> shift;
+    }
+
+    private void allocate(final int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        threshold = capacity < MAXIMUM_CAPACITY ? capacity / 2 : capacity - 1;
+    }
+
+    private void resize() {
+        if (keys.length == MAXIMUM_CAPACITY) {
+            if (size < keys.length) {
+                return;
+            }
+            throw new IllegalStateException("Capacity of ObjectIdMap exhausted");
+        }
+        final Object[] oldKeys = keys;
+        final Object[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int j = 0; j < oldKeys.length; ++j) {
+            final Object key = oldKeys[j];
+            if (key != null) {
+                int i = indexFor(key);
+                while (keys[i] != null) {
+                    i = i + 1 & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2006, 2007, 2011, 2014, 2015, 2020 XStream Committers.
+ * Copyright (c) 2006, 2007, 2011, 2014, 2015, 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -97,4 +97,29 @@ public final class Primitives {
         final Character ch = REPRESENTING_CHAR.get(type);
         return ch == null ? 0 : ch.charValue();
     }
+
+    /**
+     * Check for a plain decimal number as written by Java. Such a number is parsed by the default converters of
+     * XStream in the same way as by Java itself.
+     * 
+     * @param token the string to check
+     * @param maxDigits the maximum number of digits
+     * @return <code>true</code> if the token is a plain decimal number with at most the given number of digits
+     * @since upcoming
+     */
+    static public boolean isDecimal(final String token, final int maxDigits) {
+        final int length = token.length();
+        int i = length > 0 && token.charAt(0) == '-' ? 1 : 0;
+        final int digits = length - i;
+        if (digits < 1 || digits > maxDigits || digits > 1 && token.charAt(i) == '0') {
+            return false;
+        }
+        for (; i < length; ++i) {
+            final char c = token.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
 }
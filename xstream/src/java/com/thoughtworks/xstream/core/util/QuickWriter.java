@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2014 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2014, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -13,16 +13,27 @@ package com.thoughtworks.xstream.core.util;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 
 import com.thoughtworks.xstream.io.StreamException;
 
 
+/**
+ * A buffered writer for characters.
+ * <p>
+ * The writer either passes the characters to a {@link Writer} or encodes them directly as UTF-8 into a reused byte
+ * buffer that is written to an {@link OutputStream}.
+ * </p>
+ */
 public class QuickWriter implements Closeable {
 
     private final Writer writer;
     private final char[] buffer;
+    private final OutputStream out;
+    private final byte[] bytes;
     private int pointer;
+    private char highSurrogate;
 
     public QuickWriter(final Writer writer) {
         this(writer, 1024);
@@ -31,9 +42,39 @@ public class QuickWriter implements Closeable {
     public QuickWriter(final Writer writer, final int bufferSize) {
         this.writer = writer;
         buffer = new char[bufferSize];
+        out = null;
+        bytes = null;
+    }
+
+    /**
+     * Construct a QuickWriter that encodes the characters as UTF-8 into the given stream.
+     *
+     * @param out the target stream
+     * @since upcoming
+     */
+    public QuickWriter(final OutputStream out) {
+        this(out, 8192);
+    }
+
+    /**
+     * Construct a QuickWriter that encodes the characters as UTF-8 into the given stream.
+     *
+     * @param out the target stream
+     * @param bufferSize the size of the byte buffer
+     * @since upcoming
+     */
+    public QuickWriter(final OutputStream out, final int bufferSize) {
+        this.out = out;
+        bytes = new byte[Math.max(bufferSize, 16)];
+        writer = null;
+        buffer = null;
     }
 
     public void write(final String str) {
+        if (bytes != null) {
+            encode(str, 0, str.length());
+            return;
+        }
         final int len = str.length();
         if (pointer + len >= buffer.length) {
             flush();
@@ -46,7 +87,36 @@ public class QuickWriter implements Closeable {
         pointer += len;
     }
 
+    /**
+     * Write a part of a string.
+     *
+     * @param str the string
+     * @param start the index of the first character to write
+     * @param end the index after the last character to write
+     * @since upcoming
+     */
+    public void write(final String str, final int start, final int end) {
+        if (bytes != null) {
+            encode(str, start, end);
+            return;
+        }
+        final int len = end - start;
+        if (pointer + len >= buffer.length) {
+            flush();
+            if (len > buffer.length) {
+                raw(str, start, len);
+                return;
+            }
+        }
+        str.getChars(start, end, buffer, pointer);
+        pointer += len;
+    }
+
     public void write(final char c) {
+        if (bytes != null) {
+            encode(c);
+            return;
+        }
         if (pointer + 1 >= buffer.length) {
             flush();
             if (buffer.length == 0) {
@@ -58,6 +128,12 @@ public class QuickWriter implements Closeable {
     }
 
     public void write(final char[] c) {
+        if (bytes != null) {
+            for (final char ch : c) {
+                encode(ch);
+            }
+            return;
+        }
         final int len = c.length;
         if (pointer + len >= buffer.length) {
             flush();
@@ -70,7 +146,45 @@ public class QuickWriter implements Closeable {
         pointer += len;
     }
 
+    /**
+     * Write characters that have already been encoded as UTF-8.
+     *
+     * @param c the characters
+     * @param utf8 the UTF-8 bytes of the same characters
+     * @since upcoming
+     */
+    public void write(final char[] c, final byte[] utf8) {
+        if (bytes == null || highSurrogate != 0) {
+            write(c);
+            return;
+        }
+        final int len = utf8.length;
+        if (pointer + len > bytes.length) {
+            drain();
+            if (len > bytes.length) {
+                try {
+                    out.write(utf8);
+                } catch (final IOException e) {
+                    throw new StreamException(e);
+                }
+                return;
+            }
+        }
+        System.arraycopy(utf8, 0, bytes, pointer, len);
+        pointer += len;
+    }
+
     public void flush() {
+        if (bytes != null) {
+            try {
+                out.write(bytes, 0, pointer);
+                pointer = 0;
+                out.flush();
+            } catch (final IOException e) {
+                throw new StreamException(e);
+            }
+            return;
+        }
         try {
             writer.write(buffer, 0, pointer);
             pointer = 0;
@@ -82,6 +196,20 @@ public class QuickWriter implements Closeable {
 
     @Override
     public void close() {
+        if (bytes != null) {
+            if (highSurrogate != 0) {
+                highSurrogate = 0;
+                encode('?');
+            }
+            try {
+                out.write(bytes, 0, pointer);
+                pointer = 0;
+                out.close();
+            } catch (final IOException e) {
+                throw new StreamException(e);
+            }
+            return;
+        }
         try {
             writer.write(buffer, 0, pointer);
             pointer = 0;
@@ -108,4 +236,81 @@ public class QuickWriter implements Closeable {
             throw new StreamException(e);
         }
     }
+
+    private void raw(final String str, final int start, final int len) {
+        try {
+            writer.write(str, start, len);
+            writer.flush();
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    private void encode(final String str, int start, final int end) {
+        while (start < end) {
+            if (highSurrogate != 0) {
+                encode(str.charAt(start++));
+                continue;
+            }
+            int room = bytes.length - pointer;
+            if (room < 4) {
+                drain();
+                room = bytes.length;
+            }
+            // copy runs of ASCII characters without further checks
+            final int limit = Math.min(end, start + room);
+            char c = 0;
+            while (start < limit && (c = str.charAt(start)) < 0x80) {
+                bytes[pointer++] = (byte)c;
+                ++start;
+            }
+            if (start < limit) {
+                encode(c);
+                ++start;
+            }
+        }
+    }
+
+    private void encode(final char c) {
+        if (bytes.length - pointer < 4) {
+            drain();
+        }
+        if (highSurrogate != 0) {
+            final char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                final int codePoint = Character.toCodePoint(high, c);
+                bytes[pointer++] = (byte)(0xf0 | codePoint >> 18);
+                bytes[pointer++] = (byte)(0x80 | codePoint >> 12 & 0x3f);
+                bytes[pointer++] = (byte)(0x80 | codePoint >> 6 & 0x3f);
+                bytes[pointer++] = (byte)(0x80 | codePoint & 0x3f);
+                return;
+            }
+            // unpaired high surrogate, replaced like the JDK encoder does
+            bytes[pointer++] = '?';
+        }
+        if (c < 0x80) {
+            bytes[pointer++] = (byte)c;
+        } else if (c < 0x800) {
+            bytes[pointer++] = (byte)(0xc0 | c >> 6);
+            bytes[pointer++] = (byte)(0x80 | c & 0x3f);
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            bytes[pointer++] = '?';
+        } else {
+            bytes[pointer++] = (byte)(0xe0 | c >> 12);
+            bytes[pointer++] = (byte)(0x80 | c >> 6 & 0x3f);
+            bytes[pointer++] = (byte)(0x80 | c & 0x3f);
+        }
+    }
+
+    private void drain() {
+        try {
+            out.write(bytes, 0, pointer);
+            pointer = 0;
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
 }
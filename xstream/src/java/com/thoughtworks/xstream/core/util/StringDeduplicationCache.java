@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A bounded, lock-free cache to deduplicate strings.
+ * <p>
+ * The cache is a fixed table of slots where each string has two possible slots determined by its hash code. A new
+ * string evicts the older of the two strings, if both slots are occupied. Since no slot is ever locked, concurrent
+ * threads may evict each other's strings or store the same value twice, the cache is therefore lossy, but it never
+ * returns a string that is not equal to the requested one. Keys and values of the cache are always the same instance.
+ * </p>
+ * <p>
+ * The map is intended for the {@link com.thoughtworks.xstream.converters.basic.StringConverter}, operations of the
+ * {@link Map} interface that do not address a single key iterate all slots.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class StringDeduplicationCache extends AbstractMap<String, String> {
+
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Construct a StringDeduplicationCache with 4096 slots.
+     *
+     * @since upcoming
+     */
+    public StringDeduplicationCache() {
+        this(4096);
+    }
+
+    /**
+     * Construct a StringDeduplicationCache.
+     *
+     * @param capacity the maximum number of cached strings, rounded up to a power of two
+     * @since upcoming
+     */
+    public StringDeduplicationCache(final int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        final int size = Integer.highestOneBit(capacity - 1) << 1;
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * Return the cached instance of a string and cache the string if it has not been cached yet.
+     *
+     * @param key the string
+     * @param value the same string
+     * @return the already cached instance or <code>null</code> if the string has been added to the cache
+     */
+    @Override
+    public String putIfAbsent(final String key, final String value) {
+        final int first = indexFor(key);
+        final int second = first ^ 1;
+        final String s1 = slots.get(first);
+        if (key.equals(s1)) {
+            hits.increment();
+            return s1;
+        }
+        final String s2 = slots.get(second);
+        if (key.equals(s2)) {
+            hits.increment();
+            return s2;
+        }
+        misses.increment();
+        // the most recent string is kept in the first slot, the older one is moved or evicted
+        if (s1 != null) {
+            slots.lazySet(second, s1);
+        }
+        slots.lazySet(first, value);
+        return null;
+    }
+
+    @Override
+    public String get(final Object key) {
+        if (key instanceof String) {
+            final int first = indexFor((String)key);
+            final String s1 = slots.get(first);
+            if (key.equals(s1)) {
+                return s1;
+            }
+            final String s2 = slots.get(first ^ 1);
+            if (key.equals(s2)) {
+                return s2;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public String put(final String key, final String value) {
+        if (!key.equals(value)) {
+            throw new IllegalArgumentException("Key and value of a deduplication cache must be equal");
+        }
+        final String old = remove(key);
+        putIfAbsent(key, value);
+        return old;
+    }
+
+    @Override
+    public String remove(final Object key) {
+        if (key instanceof String) {
+            final int first = indexFor((String)key);
+            for (int i = first; i <= (first | 1); ++i) {
+                final String s = slots.get(i);
+                if (key.equals(s) && slots.compareAndSet(i, s, null)) {
+                    return s;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = slots.length(); i-- > 0;) {
+            slots.set(i, null);
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (int i = slots.length(); i-- > 0;) {
+            if (slots.get(i) != null) {
+                ++size;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Retrieve a snapshot of the cached strings.
+     *
+     * @return the entries of a map that is no longer connected to the cache
+     */
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        final Map<String, String> snapshot = new HashMap<>();
+        for (int i = slots.length(); i-- > 0;) {
+            final String s = slots.get(i);
+            if (s != null) {
+                snapshot.put(s, s);
+            }
+        }
+        return snapshot.entrySet();
+    }
+
+    /**
+     * Retrieve the number of strings that have been found in the cache.
+     *
+     * @return the number of hits
+     * @since upcoming
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Retrieve the number of strings that have not been found in the cache.
+     *
+     * @return the number of misses
+     * @since upcoming
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Retrieve the ratio of the hits compared to all lookups.
+     *
+     * @return the hit rate between 0 and 1, 0 if the cache has not been used yet
+     * @since upcoming
+     */
+    public double getHitRate() {
+        final long hitCount = hits.sum();
+        final long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double)hitCount / total;
+    }
+
+    private int indexFor(final String key) {
+        final int h = key.hashCode();
+        return (h ^ h >>> 16) & mask;
+    }
+}
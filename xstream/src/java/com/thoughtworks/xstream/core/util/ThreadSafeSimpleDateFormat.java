@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2011, 2012, 2014 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2011, 2012, 2014, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -17,6 +17,7 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 
 /**
@@ -24,11 +25,11 @@ import java.util.TimeZone;
  * <p>
  * SimpleDateFormat has a high overhead in creating and is not thread safe. To make best use of resources, the
  * ThreadSafeSimpleDateFormat provides a dynamically sizing pool of instances, each of which will only be called by a
- * single thread at a time.
+ * single thread at a time. The instances are taken from the pool and returned without locking.
  * </p>
  * <p>
  * The pool has a maximum capacity, to limit overhead. If all instances in the pool are in use and another is required,
- * it shall block until one becomes available.
+ * a copy of the format is created and dropped afterwards if the pool is full.
  * </p>
  * 
  * @author Joe Walnes
@@ -37,7 +38,11 @@ import java.util.TimeZone;
 public class ThreadSafeSimpleDateFormat {
 
     private final String formatString;
-    private final Pool<DateFormat> pool;
+    private final Locale locale;
+    private final boolean lenient;
+    private final int initialPoolSize;
+    private volatile SimpleDateFormat prototype;
+    private final AtomicReferenceArray<DateFormat> pool;
     private final TimeZone timeZone;
 
     public ThreadSafeSimpleDateFormat(
@@ -51,15 +56,25 @@ public class ThreadSafeSimpleDateFormat {
             final int maxPoolSize, final boolean lenient) {
         formatString = format;
         this.timeZone = timeZone;
-        pool = new Pool<DateFormat>(initialPoolSize, maxPoolSize, new Pool.Factory<DateFormat>() {
-            @Override
-            public SimpleDateFormat newInstance() {
-                final SimpleDateFormat dateFormat = new SimpleDateFormat(formatString, locale);
-                dateFormat.setLenient(lenient);
-                return dateFormat;
-            }
+        this.locale = locale;
+        this.lenient = lenient;
+        this.initialPoolSize = initialPoolSize;
+        pool = new AtomicReferenceArray<>(Math.max(maxPoolSize, 1));
+    }
 
-        });
+    private SimpleDateFormat getPrototype() {
+        SimpleDateFormat result = prototype;
+        if (result == null) {
+            // racy, but the prototypes are always equivalent; created at first usage, since the first SimpleDateFormat
+            // initializes the expensive calendar and locale data
+            result = new SimpleDateFormat(formatString, locale);
+            result.setLenient(lenient);
+            for (int i = Math.min(initialPoolSize, pool.length()); i-- > 0;) {
+                pool.compareAndSet(i, null, (DateFormat)result.clone());
+            }
+            prototype = result;
+        }
+        return result;
     }
 
     public String format(final Date date) {
@@ -67,7 +82,7 @@ public class ThreadSafeSimpleDateFormat {
         try {
             return format.format(date);
         } finally {
-            pool.putInPool(format);
+            putInPool(format);
         }
     }
 
@@ -76,12 +91,25 @@ public class ThreadSafeSimpleDateFormat {
         try {
             return format.parse(date);
         } finally {
-            pool.putInPool(format);
+            putInPool(format);
         }
     }
 
     private DateFormat fetchFromPool() {
-        final DateFormat format = pool.fetchFromPool();
+        DateFormat format = null;
+        final int length = pool.length();
+        final int start = (int)(Thread.currentThread().getId() % length);
+        for (int i = 0; format == null && i < length; ++i) {
+            final int idx = (start + i) % length;
+            final DateFormat pooled = pool.get(idx);
+            if (pooled != null && pool.compareAndSet(idx, pooled, null)) {
+                format = pooled;
+            }
+        }
+        if (format == null) {
+            // the prototype is never used itself, therefore it is safe to clone it concurrently
+            format = (DateFormat)getPrototype().clone();
+        }
         final TimeZone tz = timeZone != null ? timeZone : TimeZone.getDefault();
         if (!tz.equals(format.getTimeZone())) {
             format.setTimeZone(tz);
@@ -89,6 +117,16 @@ public class ThreadSafeSimpleDateFormat {
         return format;
     }
 
+    private void putInPool(final DateFormat format) {
+        final int length = pool.length();
+        final int start = (int)(Thread.currentThread().getId() % length);
+        for (int i = 0; i < length; ++i) {
+            if (pool.compareAndSet((start + i) % length, null, format)) {
+                return;
+            }
+        }
+    }
+
     @Override
     public String toString() {
         return formatString;
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2011 XStream Committers.
+ * Copyright (C) 2006, 2007, 2011, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -17,6 +17,12 @@ import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import com.thoughtworks.xstream.core.util.ByteBufferInputStream;
+import com.thoughtworks.xstream.core.util.ByteBufferOutputStream;
 
 /**
  * Provides implementation of stream parsers and writers to XStream.
@@ -66,6 +72,38 @@ public interface HierarchicalStreamDriver {
      */
     HierarchicalStreamReader createReader(File in);
 
+    /**
+     * Create the HierarchicalStreamReader with the stream parser reading from a channel.
+     * <p>
+     * The default implementation reads the channel with an {@link InputStream}.
+     * </p>
+     * 
+     * @param in the blocking {@link ReadableByteChannel} with the data to parse
+     * @return the HierarchicalStreamReader
+     * @throws IllegalArgumentException if the channel is in non-blocking mode
+     * @since upcoming
+     */
+    @SuppressWarnings("resource")
+    default HierarchicalStreamReader createReader(final ReadableByteChannel in) {
+        return createReader(new ByteBufferInputStream(in));
+    }
+
+    /**
+     * Create the HierarchicalStreamReader with the stream parser reading the remaining bytes of a buffer.
+     * <p>
+     * The position of the buffer is not modified. The default implementation reads the buffer with an
+     * {@link InputStream}.
+     * </p>
+     * 
+     * @param in the {@link ByteBuffer} with the data to parse
+     * @return the HierarchicalStreamReader
+     * @since upcoming
+     */
+    @SuppressWarnings("resource")
+    default HierarchicalStreamReader createReader(final ByteBuffer in) {
+        return createReader(new ByteBufferInputStream(in));
+    }
+
     /**
      * Create the HierarchicalStreamWriter with the formatted writer.
      * 
@@ -82,4 +120,21 @@ public interface HierarchicalStreamDriver {
      */
     HierarchicalStreamWriter createWriter(OutputStream out);
 
+    /**
+     * Create the HierarchicalStreamWriter with the formatted writer.
+     * <p>
+     * The data is written to the channel when the writer is flushed. The default implementation writes to the channel
+     * with an {@link OutputStream}.
+     * </p>
+     * 
+     * @param out the blocking {@link WritableByteChannel} to receive the formatted data
+     * @return the HierarchicalStreamWriter
+     * @throws IllegalArgumentException if the channel is in non-blocking mode
+     * @since upcoming
+     */
+    @SuppressWarnings("resource")
+    default HierarchicalStreamWriter createWriter(final WritableByteChannel out) {
+        return createWriter(new ByteBufferOutputStream(out));
+    }
+
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io;
+
+import com.thoughtworks.xstream.io.naming.NameToken;
+import com.thoughtworks.xstream.io.naming.NameTokens;
+
+
+/**
+ * A HierarchicalStreamWriter that accepts names that have already been encoded.
+ * <p>
+ * A caller retrieves the tokens of the names from {@link #getNameTokens()} and may keep them to avoid the encoding of
+ * the same names in later calls. If the writer returns no tokens, the caller has to use the methods with plain
+ * strings.
+ * </p>
+ *
+ * @since upcoming
+ */
+public interface NameTokenWriter extends HierarchicalStreamWriter {
+
+    /**
+     * Retrieve the tokens matching the name encoding of this writer.
+     *
+     * @return the tokens or <code>null</code> if the writer cannot use them
+     * @since upcoming
+     */
+    NameTokens getNameTokens();
+
+    /**
+     * Start a node with a pre-encoded name.
+     *
+     * @param name the token from the {@link NameTokens} of this writer
+     * @param clazz the type of the node
+     * @see HierarchicalStreamWriter#startNode(String, Class)
+     * @since upcoming
+     */
+    void startNode(NameToken name, Class<?> clazz);
+
+    /**
+     * Add an attribute with a pre-encoded name.
+     *
+     * @param name the token from the {@link NameTokens} of this writer
+     * @param value the value of the attribute
+     * @see HierarchicalStreamWriter#addAttribute(String, String)
+     * @since upcoming
+     */
+    void addAttribute(NameToken name, String value);
+}
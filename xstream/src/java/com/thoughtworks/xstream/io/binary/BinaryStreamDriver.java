@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2011, 2014 XStream Committers.
+ * Copyright (C) 2011, 2014, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -14,6 +14,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 
 import com.thoughtworks.xstream.io.AbstractDriver;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
@@ -24,12 +25,37 @@ import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
  * HierarchicalStreamDriver for binary input and output. The driver uses an optimized binary format to store an object
  * graph. The format is not as compact as Java serialization, but a lot more than typical text-based formats like XML.
  * However, due to its nature it cannot use a {@link Reader} for input or a {@link Writer} for output.
+ * <p>
+ * The driver writes by default the initial version of the binary format. Use
+ * {@link BinaryStreamWriter#FORMAT_VERSION_2} for a more compact format without the size limit of 64K for strings,
+ * if the data does not have to be read by XStream 1.4.x or earlier. The reader detects the version on its own.
+ * </p>
  * 
  * @author J&ouml;rg Schaible
  * @since 1.4.2
  */
 public class BinaryStreamDriver extends AbstractDriver {
 
+    private final int version;
+
+    public BinaryStreamDriver() {
+        this(BinaryStreamWriter.FORMAT_VERSION_1);
+    }
+
+    /**
+     * Constructs a BinaryStreamDriver writing a dedicated version of the binary format.
+     *
+     * @param version {@link BinaryStreamWriter#FORMAT_VERSION_1} or {@link BinaryStreamWriter#FORMAT_VERSION_2}
+     * @throws IllegalArgumentException if the version is unknown
+     * @since upcoming
+     */
+    public BinaryStreamDriver(final int version) {
+        if (version != BinaryStreamWriter.FORMAT_VERSION_1 && version != BinaryStreamWriter.FORMAT_VERSION_2) {
+            throw new IllegalArgumentException("Unknown version of binary format: " + version);
+        }
+        this.version = version;
+    }
+
     /**
      * @throws UnsupportedOperationException if called
      */
@@ -43,6 +69,11 @@ public class BinaryStreamDriver extends AbstractDriver {
         return new BinaryStreamReader(in);
     }
 
+    @Override
+    public HierarchicalStreamReader createReader(final ByteBuffer in) {
+        return new BinaryStreamReader(in);
+    }
+
     /**
      * @throws UnsupportedOperationException if called
      */
@@ -53,6 +84,6 @@ public class BinaryStreamDriver extends AbstractDriver {
 
     @Override
     public HierarchicalStreamWriter createWriter(final OutputStream out) {
-        return new BinaryStreamWriter(out);
+        return new BinaryStreamWriter(out, version);
     }
 }
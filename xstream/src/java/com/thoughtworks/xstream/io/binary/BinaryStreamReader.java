@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2011, 2013, 2014, 2015, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2011, 2013, 2014, 2015, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,9 +11,13 @@
  */
 package com.thoughtworks.xstream.io.binary;
 
+import java.io.Closeable;
+import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -26,6 +30,9 @@ import com.thoughtworks.xstream.io.StreamException;
 
 /**
  * A HierarchicalStreamReader that reads from a binary stream created by {@link BinaryStreamWriter}.
+ * <p>
+ * The reader supports any version of the binary format.
+ * </p>
  * 
  * @author Joe Walnes
  * @see BinaryStreamReader
@@ -33,15 +40,33 @@ import com.thoughtworks.xstream.io.StreamException;
  */
 public class BinaryStreamReader implements ExtendedHierarchicalStreamReader {
 
-    private final DataInputStream in;
+    private final DataInput in;
+    private final Closeable closeable;
     private final ReaderDepthState depthState = new ReaderDepthState();
     private final IdRegistry idRegistry = new IdRegistry();
 
     private Token pushback;
-    private final Token.Formatter tokenFormatter = new Token.Formatter();
+    private Token.Formatter tokenFormatter = new Token.Formatter();
 
     public BinaryStreamReader(final InputStream inputStream) {
-        in = new DataInputStream(inputStream);
+        final DataInputStream dataInput = new DataInputStream(inputStream);
+        in = dataInput;
+        closeable = dataInput;
+        moveDown();
+    }
+
+    /**
+     * Constructs a BinaryStreamReader reading the remaining bytes of a buffer.
+     * <p>
+     * The data is read directly from the buffer, its position is not modified.
+     * </p>
+     *
+     * @param buffer the buffer with the binary data
+     * @since upcoming
+     */
+    public BinaryStreamReader(final ByteBuffer buffer) {
+        in = new ByteBufferDataInput(buffer);
+        closeable = null;
         moveDown();
     }
 
@@ -170,6 +195,9 @@ public class BinaryStreamReader implements ExtendedHierarchicalStreamReader {
                 case Token.TYPE_MAP_ID_TO_VALUE:
                     idRegistry.put(token.getId(), token.getValue());
                     return readToken(); // Next one please.
+                case Token.TYPE_VERSION:
+                    switchVersion(token.getId());
+                    return readToken();
                 default:
                     return token;
                 }
@@ -183,6 +211,16 @@ public class BinaryStreamReader implements ExtendedHierarchicalStreamReader {
         }
     }
 
+    private void switchVersion(final long version) {
+        if (version == BinaryStreamWriter.FORMAT_VERSION_1) {
+            tokenFormatter = new Token.Formatter();
+        } else if (version == BinaryStreamWriter.FORMAT_VERSION_2) {
+            tokenFormatter = new Token.CompactFormatter();
+        } else {
+            throw new StreamException("Unsupported version of binary format: " + version);
+        }
+    }
+
     public void pushBack(final Token token) {
         if (pushback == null) {
             pushback = token;
@@ -195,7 +233,9 @@ public class BinaryStreamReader implements ExtendedHierarchicalStreamReader {
     @Override
     public void close() {
         try {
-            in.close();
+            if (closeable != null) {
+                closeable.close();
+            }
         } catch (final IOException e) {
             throw new StreamException(e);
         }
@@ -221,14 +261,36 @@ public class BinaryStreamReader implements ExtendedHierarchicalStreamReader {
 
     private static class IdRegistry {
 
-        private final Map<Long, String> map = new HashMap<>();
+        // IDs are normally a dense sequence, keep the map for arbitrary ones
+        private String[] values = new String[64];
+        private Map<Long, String> map;
+        private int count;
 
         public void put(final long id, final String value) {
-            map.put(Long.valueOf(id), value);
+            if (id >= values.length && id < 2L * count + 64) {
+                // grow only with the number of registered IDs, a crafted ID must not allocate a huge array
+                values = Arrays.copyOf(values, (int)Math.max(id + 1, Math.min(values.length * 2L, 2L * count + 64)));
+            }
+            if (id >= 0 && id < values.length) {
+                if (values[(int)id] == null) {
+                    ++count;
+                }
+                values[(int)id] = value;
+            } else {
+                if (map == null) {
+                    map = new HashMap<>();
+                }
+                if (map.put(Long.valueOf(id), value) == null) {
+                    ++count;
+                }
+            }
         }
 
         public String get(final long id) {
-            final String result = map.get(Long.valueOf(id));
+            String result = id >= 0 && id < values.length ? values[(int)id] : null;
+            if (result == null && map != null) {
+                result = map.get(Long.valueOf(id));
+            }
             if (result == null) {
                 throw new StreamException("Unknown ID : " + id);
             } else {
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2014, 2015 XStream Committers.
+ * Copyright (C) 2006, 2007, 2014, 2015, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -23,21 +23,74 @@ import com.thoughtworks.xstream.io.StreamException;
 
 
 /**
+ * A HierarchicalStreamWriter that writes a binary stream.
+ * <p>
+ * The writer uses by default the initial version of the binary format, that can also be read by XStream 1.4.x or
+ * earlier. Use {@link #FORMAT_VERSION_2} for a more compact format without the size limit of 64K for strings, but
+ * that cannot be read by a {@link BinaryStreamReader} of XStream 1.4.x or earlier.
+ * </p>
+ *
  * @since 1.2
  */
 public class BinaryStreamWriter implements ExtendedHierarchicalStreamWriter {
 
+    /**
+     * Initial version of the binary format.
+     *
+     * @since upcoming
+     */
+    public static final int FORMAT_VERSION_1 = 1;
+    /**
+     * Binary format with variable-length IDs and unlimited UTF-8 strings.
+     *
+     * @since upcoming
+     */
+    public static final int FORMAT_VERSION_2 = 2;
+
     private final IdRegistry idRegistry = new IdRegistry();
     private final DataOutputStream out;
-    private final Token.Formatter tokenFormatter = new Token.Formatter();
+    private final Token.Formatter tokenFormatter;
+    private final int version;
+    private boolean versionWritten;
+    private final Token.StartNode startNode = new Token.StartNode();
+    private final Token.EndNode endNode = new Token.EndNode();
+    private final Token.Attribute attribute = new Token.Attribute();
+    private final Token.Value valueToken = new Token.Value();
+    private final Token.MapIdToValue mapIdToValue = new Token.MapIdToValue();
 
     public BinaryStreamWriter(final OutputStream outputStream) {
+        this(outputStream, FORMAT_VERSION_1);
+    }
+
+    /**
+     * Constructs a BinaryStreamWriter for a dedicated version of the binary format.
+     *
+     * @param outputStream the target stream
+     * @param version {@link #FORMAT_VERSION_1} or {@link #FORMAT_VERSION_2}
+     * @throws IllegalArgumentException if the version is unknown
+     * @since upcoming
+     */
+    public BinaryStreamWriter(final OutputStream outputStream, final int version) {
+        switch (version) {
+        case FORMAT_VERSION_1:
+            tokenFormatter = new Token.Formatter();
+            break;
+        case FORMAT_VERSION_2:
+            tokenFormatter = new Token.CompactFormatter();
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown version of binary format: " + version);
+        }
         out = new DataOutputStream(outputStream);
+        this.version = version;
+        // version 1 is written without version token for compatibility
+        versionWritten = version == FORMAT_VERSION_1;
     }
 
     @Override
     public void startNode(final String name) {
-        write(new Token.StartNode(idRegistry.getId(name)));
+        startNode.id = idRegistry.getId(name);
+        write(startNode);
     }
 
     @Override
@@ -47,17 +100,20 @@ public class BinaryStreamWriter implements ExtendedHierarchicalStreamWriter {
 
     @Override
     public void addAttribute(final String name, final String value) {
-        write(new Token.Attribute(idRegistry.getId(name), value));
+        attribute.id = idRegistry.getId(name);
+        attribute.value = value;
+        write(attribute);
     }
 
     @Override
     public void setValue(final String text) {
-        write(new Token.Value(text));
+        valueToken.value = text;
+        write(valueToken);
     }
 
     @Override
     public void endNode() {
-        write(new Token.EndNode());
+        write(endNode);
     }
 
     @Override
@@ -85,6 +141,10 @@ public class BinaryStreamWriter implements ExtendedHierarchicalStreamWriter {
 
     private void write(final Token token) {
         try {
+            if (!versionWritten) {
+                versionWritten = true;
+                tokenFormatter.write(out, new Token.Version(version));
+            }
             tokenFormatter.write(out, token);
         } catch (final IOException e) {
             throw new StreamException(e);
@@ -101,7 +161,9 @@ public class BinaryStreamWriter implements ExtendedHierarchicalStreamWriter {
             if (id == null) {
                 id = Long.valueOf(++nextId);
                 ids.put(value, id);
-                write(new Token.MapIdToValue(id.longValue(), value));
+                mapIdToValue.id = id.longValue();
+                mapIdToValue.value = value;
+                write(mapIdToValue);
             }
             return id.longValue();
         }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2014, 2015, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2014, 2015, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,14 +11,16 @@
  */
 package com.thoughtworks.xstream.io.binary;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
 
 
 /**
  * Maintains the state of a pull reader at various states in the document depth. Used by the {@link BinaryStreamReader}
+ * <p>
+ * The state of a depth is reused for the next node at the same depth.
+ * </p>
  * 
  * @author Joe Walnes
  * @since 1.2
@@ -26,27 +28,49 @@ import java.util.List;
 class ReaderDepthState {
 
     private static final String EMPTY_STRING = "";
+    private static final String[] NO_ATTRIBUTES = new String[0];
 
     private static class State {
         String name;
         String value;
-        List<Attribute> attributes;
+        String[] attributeNames = NO_ATTRIBUTES;
+        String[] attributeValues = NO_ATTRIBUTES;
+        int attributeCount;
         boolean hasMoreChildren;
-        State parent;
-        int level;
-    }
+        final State parent;
+        State child;
+        final int level;
 
-    private static class Attribute {
-        String name;
-        String value;
+        State(final State parent) {
+            this.parent = parent;
+            level = parent != null ? parent.level + 1 : 1;
+        }
+
+        void reset() {
+            name = null;
+            value = null;
+            Arrays.fill(attributeNames, 0, attributeCount, null);
+            Arrays.fill(attributeValues, 0, attributeCount, null);
+            attributeCount = 0;
+            hasMoreChildren = false;
+        }
     }
 
+    private State root;
     private State current;
 
     public void push() {
-        final State newState = new State();
-        newState.parent = current;
-        newState.level = getLevel() + 1;
+        State newState = current == null ? root : current.child;
+        if (newState == null) {
+            newState = new State(current);
+            if (current == null) {
+                root = newState;
+            } else {
+                current.child = newState;
+            }
+        } else {
+            newState.reset();
+        }
         current = newState;
     }
 
@@ -83,74 +107,81 @@ class ReaderDepthState {
     }
 
     public void addAttribute(final String name, final String value) {
-        final Attribute attribute = new Attribute();
-        attribute.name = name;
-        attribute.value = value;
-        if (current.attributes == null) {
-            current.attributes = new ArrayList<>();
+        final State state = current;
+        final int count = state.attributeCount;
+        if (count == state.attributeNames.length) {
+            final int capacity = Math.max(4, count * 2);
+            state.attributeNames = Arrays.copyOf(state.attributeNames, capacity);
+            state.attributeValues = Arrays.copyOf(state.attributeValues, capacity);
         }
-        current.attributes.add(attribute);
+        state.attributeNames[count] = name;
+        state.attributeValues[count] = value;
+        state.attributeCount = count + 1;
     }
 
     public String getAttribute(final String name) {
-        if (current.attributes == null) {
-            return null;
-        } else {
-            // For short maps, it's faster to iterate then do a hashlookup.
-            for (final Attribute attribute : current.attributes) {
-                if (attribute.name.equals(name)) {
-                    return attribute.value;
-                }
+        // For short maps, it's faster to iterate then do a hashlookup.
+        final State state = current;
+        for (int i = 0; i < state.attributeCount; ++i) {
+            if (state.attributeNames[i].equals(name)) {
+                return state.attributeValues[i];
             }
-            return null;
         }
+        return null;
     }
 
     public String getAttribute(final int index) {
-        if (current.attributes == null) {
+        if (current.attributeCount == 0) {
             return null;
         } else {
-            final Attribute attribute = current.attributes.get(index);
-            return attribute.value;
+            checkIndex(index);
+            return current.attributeValues[index];
         }
     }
 
     public String getAttributeName(final int index) {
-        if (current.attributes == null) {
+        if (current.attributeCount == 0) {
             return null;
         } else {
-            final Attribute attribute = current.attributes.get(index);
-            return attribute.name;
+            checkIndex(index);
+            return current.attributeNames[index];
+        }
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= current.attributeCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + current.attributeCount);
         }
     }
 
     public int getAttributeCount() {
-        return current.attributes == null ? 0 : current.attributes.size();
+        return current.attributeCount;
     }
 
     public Iterator<String> getAttributeNames() {
-        if (current.attributes == null) {
-            return Collections.<String>emptyIterator();
-        } else {
-            final Iterator<Attribute> attributeIterator = current.attributes.iterator();
-            return new Iterator<String>() {
-                @Override
-                public boolean hasNext() {
-                    return attributeIterator.hasNext();
-                }
+        final String[] names = current.attributeNames;
+        final int count = current.attributeCount;
+        return new Iterator<String>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
 
-                @Override
-                public String next() {
-                    final Attribute attribute = attributeIterator.next();
-                    return attribute.name;
+            @Override
+            public String next() {
+                if (index >= count) {
+                    throw new NoSuchElementException();
                 }
+                return names[index++];
+            }
 
-                @Override
-                public void remove() {
-                    throw new UnsupportedOperationException();
-                }
-            };
-        }
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
     }
 
 }
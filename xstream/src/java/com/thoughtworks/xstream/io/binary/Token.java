@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2013, 2014, 2020 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2013, 2014, 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -15,6 +15,7 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import com.thoughtworks.xstream.io.StreamException;
 
@@ -28,6 +29,10 @@ import com.thoughtworks.xstream.io.StreamException;
  * <p>
  * The first byte of the token represents how many subsequent bytes are used by the ID.
  * </p>
+ * <p>
+ * The {@link CompactFormatter} implements a second version of the format, the stream signals this with a
+ * {@link Version} token at its start.
+ * </p>
  * 
  * @author Joe Walnes
  * @see BinaryStreamReader
@@ -211,10 +216,247 @@ public abstract class Token {
                 return new EndNode();
             case Token.TYPE_VALUE:
                 return new Value();
+            case Token.TYPE_VERSION:
+                return new Version();
+            default:
+                throw new StreamException("Unknown token type");
+            }
+        }
+    }
+
+    /**
+     * Formatter for the second version of the binary format.
+     * <p>
+     * IDs and string lengths are written as variable-length quantity, small IDs are even stored in the byte with the
+     * token type. Strings are written in UTF-8 without any size limit. Unpaired surrogates are kept as 3-byte sequence.
+     * The formatter reuses the token instances it returns, i.e. a token is only valid until the next call of
+     * {@link #read(DataInput)}.
+     * </p>
+     *
+     * @since upcoming
+     */
+    public static class CompactFormatter extends Formatter {
+
+        private static final int ID_SHIFT = 3;
+        private static final int MAX_INLINE_ID = 0xff >>> ID_SHIFT;
+
+        private final MapIdToValue mapIdToValue = new MapIdToValue();
+        private final StartNode startNode = new StartNode();
+        private final EndNode endNode = new EndNode();
+        private final Attribute attribute = new Attribute();
+        private final Value valueToken = new Value();
+        private final Version version = new Version();
+        private byte[] bytes = new byte[128];
+        private char[] chars = new char[128];
+
+        @Override
+        public void write(final DataOutput out, final Token token) throws IOException {
+            final byte type = token.getType();
+            switch (type) {
+            case TYPE_START_NODE:
+                writeHeader(out, type, token.getId());
+                break;
+            case TYPE_MAP_ID_TO_VALUE:
+            case TYPE_ATTRIBUTE:
+                writeHeader(out, type, token.getId());
+                writeString(out, token.getValue());
+                break;
+            case TYPE_VALUE:
+                out.write(type);
+                writeString(out, token.getValue());
+                break;
+            case TYPE_END_NODE:
+                out.write(type);
+                break;
+            default:
+                super.write(out, token);
+            }
+        }
+
+        @Override
+        public Token read(final DataInput in) throws IOException {
+            final int header = in.readUnsignedByte();
+            final Token token;
+            switch (header & TYPE_MASK) {
+            case TYPE_START_NODE:
+                token = startNode;
+                token.id = readId(in, header);
+                break;
+            case TYPE_MAP_ID_TO_VALUE:
+                token = mapIdToValue;
+                token.id = readId(in, header);
+                token.value = readString(in);
+                break;
+            case TYPE_ATTRIBUTE:
+                token = attribute;
+                token.id = readId(in, header);
+                token.value = readString(in);
+                break;
+            case TYPE_VALUE:
+                token = valueToken;
+                token.value = readString(in);
+                break;
+            case TYPE_END_NODE:
+                token = endNode;
+                break;
+            case TYPE_VERSION:
+                // written in the format of the first version
+                token = version;
+                token.readFrom(in, (byte)(header & ID_MASK));
+                break;
             default:
                 throw new StreamException("Unknown token type");
             }
+            return token;
         }
+
+        private void writeHeader(final DataOutput out, final byte type, final long id) throws IOException {
+            if (id < 0) {
+                throw new IOException("id must not be negative " + id);
+            }
+            if (id > 0 && id <= MAX_INLINE_ID) {
+                out.write(type | (int)id << ID_SHIFT);
+            } else {
+                out.write(type);
+                writeVarLong(out, id);
+            }
+        }
+
+        private long readId(final DataInput in, final int header) throws IOException {
+            final int id = header >>> ID_SHIFT;
+            return id != 0 ? id : readVarLong(in);
+        }
+
+        private void writeString(final DataOutput out, final String string) throws IOException {
+            final int length = string.length();
+            int size = length;
+            for (int i = 0; i < length; ++i) {
+                final char c = string.charAt(i);
+                if (c >= 0x80) {
+                    // surrogate pairs result in 4 bytes, any other character in 2 or 3 bytes
+                    size += c < 0x800 ? 1 : 2;
+                }
+            }
+            if (bytes.length < size) {
+                bytes = new byte[Math.max(size, bytes.length * 2)];
+            }
+            int pos = 0;
+            for (int i = 0; i < length; ++i) {
+                final char c = string.charAt(i);
+                if (c < 0x80) {
+                    bytes[pos++] = (byte)c;
+                } else if (c < 0x800) {
+                    bytes[pos++] = (byte)(0xc0 | c >> 6);
+                    bytes[pos++] = (byte)(0x80 | c & 0x3f);
+                } else if (Character.isHighSurrogate(c)
+                    && i + 1 < length
+                    && Character.isLowSurrogate(string.charAt(i + 1))) {
+                    final int codePoint = Character.toCodePoint(c, string.charAt(++i));
+                    bytes[pos++] = (byte)(0xf0 | codePoint >> 18);
+                    bytes[pos++] = (byte)(0x80 | codePoint >> 12 & 0x3f);
+                    bytes[pos++] = (byte)(0x80 | codePoint >> 6 & 0x3f);
+                    bytes[pos++] = (byte)(0x80 | codePoint & 0x3f);
+                } else {
+                    bytes[pos++] = (byte)(0xe0 | c >> 12);
+                    bytes[pos++] = (byte)(0x80 | c >> 6 & 0x3f);
+                    bytes[pos++] = (byte)(0x80 | c & 0x3f);
+                }
+            }
+            writeVarLong(out, pos);
+            out.write(bytes, 0, pos);
+        }
+
+        private String readString(final DataInput in) throws IOException {
+            final long size = readVarLong(in);
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IOException("String too long: " + size);
+            }
+            final int length = (int)size;
+            // the length is not trusted, the buffer grows only with the data that has actually been read
+            for (int read = 0; read < length;) {
+                if (read == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, (int)Math.min(length, bytes.length * 2L));
+                }
+                final int chunk = Math.min(length, bytes.length) - read;
+                in.readFully(bytes, read, chunk);
+                read += chunk;
+            }
+            if (chars.length < length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+            }
+            int count = 0;
+            for (int pos = 0; pos < length;) {
+                final int b = bytes[pos++] & 0xff;
+                if (b < 0x80) {
+                    chars[count++] = (char)b;
+                } else if (b >= 0xc0 && b < 0xe0 && pos < length) {
+                    chars[count++] = (char)((b & 0x1f) << 6 | bytes[pos++] & 0x3f);
+                } else if (b >= 0xe0 && b < 0xf0 && pos + 1 < length) {
+                    chars[count++] = (char)((b & 0x0f) << 12 | (bytes[pos++] & 0x3f) << 6 | bytes[pos++] & 0x3f);
+                } else if (b >= 0xf0 && b < 0xf8 && pos + 2 < length) {
+                    final int codePoint = (b & 0x07) << 18
+                        | (bytes[pos++] & 0x3f) << 12
+                        | (bytes[pos++] & 0x3f) << 6
+                        | bytes[pos++] & 0x3f;
+                    chars[count++] = Character.highSurrogate(codePoint);
+                    chars[count++] = Character.lowSurrogate(codePoint);
+                } else {
+                    throw new IOException("Malformed UTF-8 sequence");
+                }
+            }
+            return new String(chars, 0, count);
+        }
+
+        private static void writeVarLong(final DataOutput out, long value) throws IOException {
+            while ((value & ~0x7fL) != 0) {
+                out.write((int)value & 0x7f | 0x80);
+                value >>>= 7;
+            }
+            out.write((int)value);
+        }
+
+        private static long readVarLong(final DataInput in) throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final int b = in.readUnsignedByte();
+                value |= (long)(b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable-length quantity");
+        }
+    }
+
+    /**
+     * Token declaring the version of the binary format for all subsequent tokens.
+     * <p>
+     * The token itself is always written in the format of the first version.
+     * </p>
+     *
+     * @since upcoming
+     */
+    public static class Version extends Token {
+
+        public Version(final int version) {
+            super(TYPE_VERSION);
+            id = version;
+        }
+
+        public Version() {
+            super(TYPE_VERSION);
+        }
+
+        @Override
+        public void writeTo(final DataOutput out, final byte idType) throws IOException {
+            writeId(out, id, idType);
+        }
+
+        @Override
+        public void readFrom(final DataInput in, final byte idType) throws IOException {
+            id = readId(in, idType);
+        }
+
     }
 
     public static class MapIdToValue extends Token {
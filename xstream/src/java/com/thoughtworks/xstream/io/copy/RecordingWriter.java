@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io.copy;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.thoughtworks.xstream.io.AbstractWriter;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.NameTokenWriter;
+import com.thoughtworks.xstream.io.naming.NameTokens;
+
+
+/**
+ * A writer that records all calls to replay them later into another writer.
+ * <p>
+ * The recorded node names, attributes, values and types are passed unchanged to the target. A converter or a
+ * marshaller that asks for the encoded names gets them from the writer that will finally receive the calls.
+ * </p>
+ * <p>
+ * Multiple instances may record concurrently for the same target, while another thread replays into it. The names
+ * are encoded with the thread-safe {@link NameTokens} of the target if it provides them. Otherwise the encoded names
+ * are requested from the target under its lock and the calls are replayed under the same lock, since a NameCoder is
+ * not necessarily thread-safe.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class RecordingWriter extends AbstractWriter {
+
+    private static final byte START_NODE = 0;
+    private static final byte START_TYPED_NODE = 1;
+    private static final byte ADD_ATTRIBUTE = 2;
+    private static final byte SET_VALUE = 3;
+    private static final byte END_NODE = 4;
+
+    private final HierarchicalStreamWriter target;
+    private final NameTokens nameTokens;
+    private Map<String, String> encodedNodes;
+    private Map<String, String> encodedAttributes;
+    private byte[] events = new byte[64];
+    private Object[] arguments = new Object[128];
+    private int eventCount;
+    private int argumentCount;
+
+    /**
+     * Construct a RecordingWriter.
+     *
+     * @param target the writer that will receive the recorded calls, used to encode names
+     * @since upcoming
+     */
+    public RecordingWriter(final HierarchicalStreamWriter target) {
+        this.target = target.underlyingWriter();
+        nameTokens = this.target instanceof NameTokenWriter ? ((NameTokenWriter)this.target).getNameTokens() : null;
+    }
+
+    @Override
+    public void startNode(final String name) {
+        record(START_NODE, name, null);
+    }
+
+    @Override
+    public void startNode(final String name, final Class<?> clazz) {
+        record(START_TYPED_NODE, name, clazz);
+    }
+
+    @Override
+    public void addAttribute(final String name, final String value) {
+        record(ADD_ATTRIBUTE, name, value);
+    }
+
+    @Override
+    public void setValue(final String text) {
+        record(SET_VALUE, text, null);
+    }
+
+    @Override
+    public void endNode() {
+        record(END_NODE, null, null);
+    }
+
+    @Override
+    public void flush() {
+        // nothing to do
+    }
+
+    @Override
+    public void close() {
+        // nothing to do
+    }
+
+    @Override
+    public String encodeNode(final String name) {
+        if (nameTokens != null) {
+            return nameTokens.node(name).getEncodedName();
+        }
+        if (encodedNodes == null) {
+            encodedNodes = new HashMap<>();
+        }
+        return encode(name, encodedNodes, false);
+    }
+
+    @Override
+    public String encodeAttribute(final String name) {
+        if (nameTokens != null) {
+            return nameTokens.attribute(name).getEncodedName();
+        }
+        if (encodedAttributes == null) {
+            encodedAttributes = new HashMap<>();
+        }
+        return encode(name, encodedAttributes, true);
+    }
+
+    private String encode(final String name, final Map<String, String> encodedNames, final boolean attribute) {
+        if (!(target instanceof AbstractWriter)) {
+            return name;
+        }
+        String encodedName = encodedNames.get(name);
+        if (encodedName == null) {
+            final AbstractWriter writer = (AbstractWriter)target;
+            synchronized (target) {
+                encodedName = attribute ? writer.encodeAttribute(name) : writer.encodeNode(name);
+            }
+            encodedNames.put(name, encodedName);
+        }
+        return encodedName;
+    }
+
+    /**
+     * Replay the recorded calls.
+     * <p>
+     * The calls are replayed under the lock of the target of this instance, if it has to be used to encode names.
+     * </p>
+     *
+     * @param writer the target of the calls
+     * @since upcoming
+     */
+    public void replay(final HierarchicalStreamWriter writer) {
+        if (nameTokens == null && target instanceof AbstractWriter) {
+            synchronized (target) {
+                replayCalls(writer);
+            }
+        } else {
+            replayCalls(writer);
+        }
+    }
+
+    private void replayCalls(final HierarchicalStreamWriter writer) {
+        for (int i = 0, j = 0; i < eventCount; ++i, j += 2) {
+            switch (events[i]) {
+            case START_NODE:
+                writer.startNode((String)arguments[j]);
+                break;
+            case START_TYPED_NODE:
+                writer.startNode((String)arguments[j], (Class<?>)arguments[j + 1]);
+                break;
+            case ADD_ATTRIBUTE:
+                writer.addAttribute((String)arguments[j], (String)arguments[j + 1]);
+                break;
+            case SET_VALUE:
+                writer.setValue((String)arguments[j]);
+                break;
+            default:
+                writer.endNode();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Drop all recorded calls.
+     *
+     * @since upcoming
+     */
+    public void clear() {
+        Arrays.fill(arguments, 0, argumentCount, null);
+        eventCount = 0;
+        argumentCount = 0;
+    }
+
+    private void record(final byte event, final Object first, final Object second) {
+        if (eventCount == events.length) {
+            events = Arrays.copyOf(events, eventCount * 2);
+            arguments = Arrays.copyOf(arguments, argumentCount * 2);
+        }
+        events[eventCount++] = event;
+        arguments[argumentCount++] = first;
+        arguments[argumentCount++] = second;
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2011, 2014, 2020 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2011, 2014, 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,34 +11,55 @@
  */
 package com.thoughtworks.xstream.io.json;
 
-import java.io.File;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 
 import com.thoughtworks.xstream.io.AbstractDriver;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import com.thoughtworks.xstream.io.naming.NameCoder;
+import com.thoughtworks.xstream.io.naming.NoNameCoder;
 
 
 /**
- * A driver for JSON that writes optimized JSON format, but is not able to deserialize the result.
+ * A driver for JSON that writes optimized JSON format and reads it with the {@link JsonReader}.
+ * <p>
+ * Note, that only the {@link AbstractJsonWriter#EXPLICIT_MODE} keeps all information to deserialize any object again.
+ * In the default mode the {@link JsonWriter} omits the names of the elements of a JSON array and the {@link JsonReader}
+ * names them after their JSON type (e.g. <em>string</em>, <em>int</em> or <em>object</em>). Therefore the elements of
+ * an array or collection keep their type only if it matches that name, e.g. a list of custom objects is read with
+ * elements named <em>object</em> and small long values are read as <em>int</em>. Create the driver with the explicit
+ * mode, if the JSON is read again:
+ * </p>
+ *
+ * <pre>
+ * new JsonHierarchicalStreamDriver(AbstractJsonWriter.EXPLICIT_MODE)
+ * </pre>
+ * <p>
+ * A driver with {@link AbstractJsonWriter#DROP_ROOT_MODE} cannot create a reader, since the name of the root node is
+ * not part of the JSON document. Use the {@link JsonReader} directly with the name of the root node instead.
+ * </p>
  * 
  * @author Paul Hammant
  * @since 1.2
  */
 public class JsonHierarchicalStreamDriver extends AbstractDriver {
 
+    private final int mode;
+
     /**
      * Construct a JsonHierarchicalStreamDriver.
+     * <p>
+     * The driver uses the default mode, JSON arrays of objects cannot be read again.
+     * </p>
      */
     public JsonHierarchicalStreamDriver() {
-        super();
+        this(0, new NoNameCoder());
     }
 
     /**
@@ -48,27 +69,48 @@ public class JsonHierarchicalStreamDriver extends AbstractDriver {
      * @since 1.4.2
      */
     public JsonHierarchicalStreamDriver(final NameCoder nameCoder) {
-        super(nameCoder);
+        this(0, nameCoder);
     }
 
-    @Override
-    public HierarchicalStreamReader createReader(final Reader in) {
-        throw new UnsupportedOperationException("The JsonHierarchicalStreamDriver can only write JSON");
+    /**
+     * Construct a JsonHierarchicalStreamDriver with a special mode.
+     * 
+     * @param mode a bit mask of the mode constants of the {@link AbstractJsonWriter}
+     * @since upcoming
+     */
+    public JsonHierarchicalStreamDriver(final int mode) {
+        this(mode, new NoNameCoder());
     }
 
-    @Override
-    public HierarchicalStreamReader createReader(final InputStream in) {
-        throw new UnsupportedOperationException("The JsonHierarchicalStreamDriver can only write JSON");
+    /**
+     * Construct a JsonHierarchicalStreamDriver with a special mode and name coding.
+     * 
+     * @param mode a bit mask of the mode constants of the {@link AbstractJsonWriter}
+     * @param nameCoder the coder to encode and decode the JSON labels.
+     * @since upcoming
+     */
+    public JsonHierarchicalStreamDriver(final int mode, final NameCoder nameCoder) {
+        super(nameCoder);
+        this.mode = mode;
     }
 
+    /**
+     * Create a HierarchicalStreamReader that reads JSON.
+     * 
+     * @throws UnsupportedOperationException if the driver uses the {@link AbstractJsonWriter#DROP_ROOT_MODE}
+     */
     @Override
-    public HierarchicalStreamReader createReader(final URL in) {
-        throw new UnsupportedOperationException("The JsonHierarchicalStreamDriver can only write JSON");
+    public HierarchicalStreamReader createReader(final Reader in) {
+        if ((mode & AbstractJsonWriter.EXPLICIT_MODE) == 0 && (mode & AbstractJsonWriter.DROP_ROOT_MODE) != 0) {
+            throw new UnsupportedOperationException("Cannot read JSON without root node");
+        }
+        return new JsonReader(in, mode, getNameCoder());
     }
 
     @Override
-    public HierarchicalStreamReader createReader(final File in) {
-        throw new UnsupportedOperationException("The JsonHierarchicalStreamDriver can only write JSON");
+    public HierarchicalStreamReader createReader(final InputStream in) {
+        // JSON spec requires UTF-8
+        return createReader(new InputStreamReader(in, StandardCharsets.UTF_8));
     }
 
     /**
@@ -76,7 +118,8 @@ public class JsonHierarchicalStreamDriver extends AbstractDriver {
      */
     @Override
     public HierarchicalStreamWriter createWriter(final Writer out) {
-        return new JsonWriter(out);
+        return new JsonWriter(out, mode, new JsonWriter.Format(new char[]{' ', ' '}, new char[]{'\n'},
+            JsonWriter.Format.SPACE_AFTER_LABEL | JsonWriter.Format.COMPACT_EMPTY_ELEMENT, getNameCoder()));
     }
 
     @Override
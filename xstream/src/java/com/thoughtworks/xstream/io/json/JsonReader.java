@@ -0,0 +1,618 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+import com.thoughtworks.xstream.converters.ErrorWriter;
+import com.thoughtworks.xstream.io.AbstractReader;
+import com.thoughtworks.xstream.io.StreamException;
+import com.thoughtworks.xstream.io.naming.NameCoder;
+import com.thoughtworks.xstream.io.naming.NoNameCoder;
+
+
+/**
+ * A reader for the JSON dialect written by the {@link JsonWriter}.
+ * <p>
+ * The reader is a single pass pull parser that works directly on a character buffer and does not build any
+ * intermediate model of the JSON document. It has to be configured with the same mode as the writer:
+ * </p>
+ * <ul>
+ * <li>In {@link AbstractJsonWriter#EXPLICIT_MODE} every node is represented explicitly with its name, its attributes
+ * and its value or children. Such a JSON document can always be read again.</li>
+ * <li>In the default mode the labels of a JSON object are the names of the child nodes, labels with an '@' prefix are
+ * attributes and the label '$' contains the value of a node with attributes. Since the {@link JsonWriter} omits the
+ * names of the elements of a JSON array, the reader names them after the JSON type of the element: <em>string</em>,
+ * <em>int</em>, <em>long</em>, <em>big-int</em>, <em>double</em>, <em>boolean</em>, <em>null</em>, <em>list</em> for
+ * an array and <em>object</em> for an object. Additionally the writer omits the attributes of an array.</li>
+ * <li>With {@link AbstractJsonWriter#DROP_ROOT_MODE} the name of the root node is not part of the JSON document and
+ * must be provided. Together with {@link AbstractJsonWriter#STRICT_MODE} a single value as root is rejected.</li>
+ * </ul>
+ *
+ * @since upcoming
+ */
+public class JsonReader extends AbstractReader {
+
+    private static final int EOF = 0;
+    private static final int BEGIN_OBJECT = 1;
+    private static final int END_OBJECT = 2;
+    private static final int BEGIN_ARRAY = 3;
+    private static final int END_ARRAY = 4;
+    private static final int COLON = 5;
+    private static final int COMMA = 6;
+    private static final int STRING = 7;
+    private static final int NUMBER = 8;
+    private static final int TRUE = 9;
+    private static final int FALSE = 10;
+    private static final int NULL = 11;
+    private static final String[] TOKEN_NAMES = {
+        "end of input", "'{'", "'}'", "'['", "']'", "':'", "','", "string", "number", "true", "false", "null"};
+
+    private static final int NONE = 0;
+    private static final int OBJECT = 1;
+    private static final int ARRAY = 2;
+
+    private final Reader in;
+    private final boolean explicit;
+    private final String valueLabel;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder builder = new StringBuilder();
+    private int pos;
+    private int limit;
+    private int line = 1;
+    private int token = -1;
+    private String text;
+    private Node[] stack = new Node[16];
+    private int depth;
+
+    private static final class Node {
+        String name;
+        String value;
+        String[] attributeNames = new String[4];
+        String[] attributeValues = new String[4];
+        int attributeCount;
+        int container;
+        boolean first;
+        String pendingName;
+    }
+
+    /**
+     * Construct a JsonReader for the default mode.
+     *
+     * @param reader the reader with the JSON document
+     * @since upcoming
+     */
+    public JsonReader(final Reader reader) {
+        this(reader, 0, new NoNameCoder());
+    }
+
+    /**
+     * Construct a JsonReader with a special mode and name coder.
+     *
+     * @param reader the reader with the JSON document
+     * @param mode a bit mask of the mode constants of the {@link AbstractJsonWriter}
+     * @param nameCoder the name coder to use
+     * @throws IllegalArgumentException if the mode contains {@link AbstractJsonWriter#DROP_ROOT_MODE}
+     * @since upcoming
+     */
+    public JsonReader(final Reader reader, final int mode, final NameCoder nameCoder) {
+        this(reader, mode, null, nameCoder);
+    }
+
+    /**
+     * Construct a JsonReader with a special mode, name of the root node and name coder.
+     *
+     * @param reader the reader with the JSON document
+     * @param mode a bit mask of the mode constants of the {@link AbstractJsonWriter}
+     * @param rootName the name of the root node if the mode contains {@link AbstractJsonWriter#DROP_ROOT_MODE}
+     * @param nameCoder the name coder to use
+     * @throws IllegalArgumentException if the root name is missing for {@link AbstractJsonWriter#DROP_ROOT_MODE}
+     * @since upcoming
+     */
+    public JsonReader(final Reader reader, final int mode, final String rootName, final NameCoder nameCoder) {
+        super(nameCoder);
+        in = reader;
+        explicit = (mode & AbstractJsonWriter.EXPLICIT_MODE) != 0;
+        valueLabel = encodeNode("$");
+        final Node root;
+        if (!explicit && (mode & AbstractJsonWriter.DROP_ROOT_MODE) != 0) {
+            if (rootName == null) {
+                throw new IllegalArgumentException("Name of root node required to read JSON without root node");
+            }
+            if ((mode & AbstractJsonWriter.STRICT_MODE) != 0 && peek() >= STRING) {
+                throw new StreamException("Single value cannot be root element");
+            }
+            root = pushNode(rootName);
+        } else {
+            expect(BEGIN_OBJECT);
+            root = pushNode(decodeNode(expect(STRING)));
+            expect(COLON);
+        }
+        readNode(root);
+    }
+
+    @Override
+    public boolean hasMoreChildren() {
+        final Node node = stack[depth - 1];
+        if (node.pendingName != null) {
+            return true;
+        }
+        switch (node.container) {
+        case OBJECT:
+            return peek() == COMMA;
+        case ARRAY:
+            return peek() != END_ARRAY;
+        default:
+            return false;
+        }
+    }
+
+    @Override
+    public String peekNextChild() {
+        final Node node = stack[depth - 1];
+        if (node.pendingName == null) {
+            if (!hasMoreChildren()) {
+                return null;
+            }
+            prepareNextChild(node);
+        }
+        return node.pendingName;
+    }
+
+    @Override
+    public void moveDown() {
+        final Node node = stack[depth - 1];
+        if (node.pendingName == null) {
+            if (!hasMoreChildren()) {
+                throw new StreamException("No more child nodes of " + node.name + " at line " + line);
+            }
+            prepareNextChild(node);
+        }
+        final String name = node.pendingName;
+        node.pendingName = null;
+        readNode(pushNode(name));
+    }
+
+    @Override
+    public void moveUp() {
+        final Node node = stack[depth - 1];
+        while (hasMoreChildren()) {
+            moveDown();
+            moveUp();
+        }
+        if (explicit) {
+            if (node.container == ARRAY) {
+                expect(END_ARRAY);
+            }
+            expect(END_ARRAY);
+            expect(END_OBJECT);
+        } else if (node.container == OBJECT) {
+            expect(END_OBJECT);
+        } else if (node.container == ARRAY) {
+            expect(END_ARRAY);
+        }
+        --depth;
+    }
+
+    @Override
+    public int getLevel() {
+        return depth;
+    }
+
+    @Override
+    public String getNodeName() {
+        return stack[depth - 1].name;
+    }
+
+    @Override
+    public String getValue() {
+        final String value = stack[depth - 1].value;
+        return value == null ? "" : value;
+    }
+
+    @Override
+    public String getAttribute(final String name) {
+        final Node node = stack[depth - 1];
+        for (int i = 0; i < node.attributeCount; ++i) {
+            if (node.attributeNames[i].equals(name)) {
+                return node.attributeValues[i];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String getAttribute(final int index) {
+        final Node node = stack[depth - 1];
+        return index < node.attributeCount ? node.attributeValues[index] : null;
+    }
+
+    @Override
+    public int getAttributeCount() {
+        return stack[depth - 1].attributeCount;
+    }
+
+    @Override
+    public String getAttributeName(final int index) {
+        final Node node = stack[depth - 1];
+        return index < node.attributeCount ? node.attributeNames[index] : null;
+    }
+
+    @Override
+    public void appendErrors(final ErrorWriter errorWriter) {
+        errorWriter.add("line number", String.valueOf(line));
+    }
+
+    @Override
+    public void close() {
+        try {
+            in.close();
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    private Node pushNode(final String name) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        Node node = stack[depth];
+        if (node == null) {
+            node = stack[depth] = new Node();
+        }
+        ++depth;
+        node.name = name;
+        node.value = null;
+        node.attributeCount = 0;
+        node.container = NONE;
+        node.first = true;
+        node.pendingName = null;
+        return node;
+    }
+
+    private void addAttribute(final Node node, final String name, final String value) {
+        final int count = node.attributeCount;
+        if (count == node.attributeNames.length) {
+            node.attributeNames = Arrays.copyOf(node.attributeNames, count * 2);
+            node.attributeValues = Arrays.copyOf(node.attributeValues, count * 2);
+        }
+        node.attributeNames[count] = name;
+        node.attributeValues[count] = value;
+        node.attributeCount = count + 1;
+    }
+
+    private void readNode(final Node node) {
+        if (explicit) {
+            readExplicitNode(node);
+        } else {
+            switch (peek()) {
+            case BEGIN_OBJECT:
+                consume();
+                readObjectHead(node);
+                break;
+            case BEGIN_ARRAY:
+                consume();
+                node.container = ARRAY;
+                break;
+            default:
+                node.value = readScalar();
+            }
+        }
+    }
+
+    private void readExplicitNode(final Node node) {
+        expect(BEGIN_ARRAY);
+        expect(BEGIN_ARRAY);
+        if (peek() == BEGIN_OBJECT) {
+            consume();
+            if (peek() != END_OBJECT) {
+                do {
+                    final String name = decodeAttribute(expect(STRING));
+                    expect(COLON);
+                    addAttribute(node, name, readScalar());
+                } while (skip(COMMA));
+            }
+            expect(END_OBJECT);
+        }
+        expect(END_ARRAY);
+        expect(COMMA);
+        expect(BEGIN_ARRAY);
+        switch (peek()) {
+        case END_ARRAY:
+            consume();
+            break;
+        case BEGIN_OBJECT:
+            node.container = ARRAY;
+            break;
+        default:
+            node.value = readScalar();
+            expect(END_ARRAY);
+        }
+    }
+
+    private void readObjectHead(final Node node) {
+        if (skip(END_OBJECT)) {
+            return;
+        }
+        while (true) {
+            final String label = expect(STRING);
+            expect(COLON);
+            if (label.equals(valueLabel)) {
+                node.value = readScalar();
+                expect(END_OBJECT);
+                return;
+            } else if (label.length() > 0 && label.charAt(0) == '@') {
+                addAttribute(node, decodeAttribute(label).substring(1), readScalar());
+                if (!skip(COMMA)) {
+                    expect(END_OBJECT);
+                    return;
+                }
+            } else {
+                node.container = OBJECT;
+                node.pendingName = decodeNode(label);
+                return;
+            }
+        }
+    }
+
+    private void prepareNextChild(final Node node) {
+        if (explicit) {
+            if (!node.first) {
+                expect(COMMA);
+            }
+            expect(BEGIN_OBJECT);
+            node.pendingName = decodeNode(expect(STRING));
+            expect(COLON);
+        } else if (node.container == OBJECT) {
+            expect(COMMA);
+            node.pendingName = decodeNode(expect(STRING));
+            expect(COLON);
+        } else {
+            if (!node.first) {
+                expect(COMMA);
+            }
+            node.pendingName = getElementName(peek());
+        }
+        node.first = false;
+    }
+
+    private String getElementName(final int type) {
+        switch (type) {
+        case STRING:
+            return "string";
+        case NUMBER:
+            if (text.indexOf('.') >= 0 || text.indexOf('e') >= 0 || text.indexOf('E') >= 0) {
+                return "double";
+            }
+            try {
+                final long value = Long.parseLong(text);
+                return value == (int)value ? "int" : "long";
+            } catch (final NumberFormatException e) {
+                return "big-int";
+            }
+        case TRUE:
+        case FALSE:
+            return "boolean";
+        case NULL:
+            return "null";
+        case BEGIN_ARRAY:
+            return "list";
+        case BEGIN_OBJECT:
+            return "object";
+        default:
+            throw unexpectedToken("a value");
+        }
+    }
+
+    private String readScalar() {
+        switch (peek()) {
+        case STRING:
+        case NUMBER:
+        case TRUE:
+        case FALSE:
+            consume();
+            return text;
+        case NULL:
+            consume();
+            return null;
+        default:
+            throw unexpectedToken("a value");
+        }
+    }
+
+    private String expect(final int type) {
+        if (peek() != type) {
+            throw unexpectedToken(TOKEN_NAMES[type]);
+        }
+        token = -1;
+        return text;
+    }
+
+    private boolean skip(final int type) {
+        if (peek() == type) {
+            token = -1;
+            return true;
+        }
+        return false;
+    }
+
+    private void consume() {
+        token = -1;
+    }
+
+    private StreamException unexpectedToken(final String expected) {
+        return new StreamException("Expected " + expected + " but found " + TOKEN_NAMES[token] + " at line " + line);
+    }
+
+    private int peek() {
+        if (token < 0) {
+            token = nextToken();
+        }
+        return token;
+    }
+
+    private int nextToken() {
+        char c;
+        while (true) {
+            if (pos == limit && !fill()) {
+                return EOF;
+            }
+            c = buffer[pos++];
+            if (c == '\n') {
+                ++line;
+            } else if (c != ' ' && c != '\t' && c != '\r') {
+                break;
+            }
+        }
+        switch (c) {
+        case '{':
+            return BEGIN_OBJECT;
+        case '}':
+            return END_OBJECT;
+        case '[':
+            return BEGIN_ARRAY;
+        case ']':
+            return END_ARRAY;
+        case ':':
+            return COLON;
+        case ',':
+            return COMMA;
+        case '"':
+            text = readString();
+            return STRING;
+        default:
+            --pos;
+            text = readLiteral();
+            switch (c) {
+            case 't':
+                return literal("true", TRUE);
+            case 'f':
+                return literal("false", FALSE);
+            case 'n':
+                return literal("null", NULL);
+            default:
+                if (c == '-' || c >= '0' && c <= '9') {
+                    return NUMBER;
+                }
+                throw new StreamException("Invalid JSON token " + text + " at line " + line);
+            }
+        }
+    }
+
+    private int literal(final String expected, final int type) {
+        if (!expected.equals(text)) {
+            throw new StreamException("Invalid JSON token " + text + " at line " + line);
+        }
+        return type;
+    }
+
+    private String readString() {
+        final int start = pos;
+        while (pos < limit) {
+            final char c = buffer[pos];
+            if (c == '"') {
+                return new String(buffer, start, pos++ - start);
+            } else if (c == '\\') {
+                break;
+            }
+            ++pos;
+        }
+        builder.setLength(0);
+        builder.append(buffer, start, pos - start);
+        while (true) {
+            char c = nextChar();
+            if (c == '"') {
+                return builder.toString();
+            } else if (c == '\\') {
+                c = nextChar();
+                switch (c) {
+                case 'b':
+                    c = '\b';
+                    break;
+                case 'f':
+                    c = '\f';
+                    break;
+                case 'n':
+                    c = '\n';
+                    break;
+                case 'r':
+                    c = '\r';
+                    break;
+                case 't':
+                    c = '\t';
+                    break;
+                case 'u':
+                    int value = 0;
+                    for (int i = 0; i < 4; ++i) {
+                        final int digit = Character.digit(nextChar(), 16);
+                        if (digit < 0) {
+                            throw new StreamException("Invalid unicode escape sequence in JSON string at line "
+                                + line);
+                        }
+                        value = value << 4 | digit;
+                    }
+                    c = (char)value;
+                    break;
+                case '"':
+                case '\\':
+                case '/':
+                    break;
+                default:
+                    throw new StreamException("Invalid escape sequence in JSON string at line " + line);
+                }
+            }
+            builder.append(c);
+        }
+    }
+
+    private String readLiteral() {
+        final int start = pos;
+        while (pos < limit && isLiteralChar(buffer[pos])) {
+            ++pos;
+        }
+        if (pos < limit) {
+            return new String(buffer, start, pos - start);
+        }
+        builder.setLength(0);
+        builder.append(buffer, start, pos - start);
+        while ((pos < limit || fill()) && isLiteralChar(buffer[pos])) {
+            builder.append(buffer[pos++]);
+        }
+        return builder.toString();
+    }
+
+    private static boolean isLiteralChar(final char c) {
+        return c >= '0' && c <= '9' || c >= 'a' && c <= 'z' || c == '-' || c == '+' || c == '.' || c == 'E';
+    }
+
+    private char nextChar() {
+        if (pos == limit && !fill()) {
+            throw new StreamException("Unterminated JSON string at line " + line);
+        }
+        return buffer[pos++];
+    }
+
+    private boolean fill() {
+        try {
+            int count;
+            do {
+                count = in.read(buffer, 0, buffer.length);
+            } while (count == 0);
+            pos = 0;
+            limit = count < 0 ? 0 : count;
+            return count > 0;
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io.naming;
+
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * A name of the object graph together with its encoded form in the target format.
+ * <p>
+ * Tokens are created by {@link NameTokens} and keep the encoded name as characters and as UTF-8 bytes, a writer can
+ * therefore copy the name without encoding it again.
+ * </p>
+ *
+ * @since upcoming
+ */
+public final class NameToken {
+
+    private final String name;
+    private final String encodedName;
+    private final char[] chars;
+    private final byte[] bytes;
+    final NameTokens owner;
+    final boolean attribute;
+
+    NameToken(final String name, final String encodedName, final NameTokens owner, final boolean attribute) {
+        this.name = name;
+        this.encodedName = encodedName;
+        this.owner = owner;
+        this.attribute = attribute;
+        chars = encodedName.toCharArray();
+        bytes = encodedName.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Retrieve the original name.
+     *
+     * @return the name of the object graph
+     * @since upcoming
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieve the encoded name.
+     *
+     * @return the name in the target format
+     * @since upcoming
+     */
+    public String getEncodedName() {
+        return encodedName;
+    }
+
+    /**
+     * Retrieve the characters of the encoded name. The array is shared and must not be modified.
+     *
+     * @return the characters
+     * @since upcoming
+     */
+    public char[] getChars() {
+        return chars;
+    }
+
+    /**
+     * Retrieve the UTF-8 bytes of the encoded name. The array is shared and must not be modified.
+     *
+     * @return the bytes
+     * @since upcoming
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return encodedName;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io.naming;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.thoughtworks.xstream.core.util.Cloneables;
+
+
+/**
+ * A thread-safe cache of the {@link NameToken} instances of a {@link NameCoder}.
+ * <p>
+ * Every name is encoded only once for nodes and once for attributes. The cache uses a private copy of the NameCoder,
+ * names that have not been encoded yet are encoded under a lock, since a NameCoder is not necessarily thread-safe.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class NameTokens {
+
+    private final NameCoder nameCoder;
+    private final ConcurrentMap<String, NameToken> nodes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, NameToken> attributes = new ConcurrentHashMap<>();
+
+    /**
+     * Construct NameTokens.
+     *
+     * @param nameCoder the coder for the names
+     * @since upcoming
+     */
+    public NameTokens(final NameCoder nameCoder) {
+        this.nameCoder = Cloneables.cloneIfPossible(nameCoder);
+    }
+
+    /**
+     * Retrieve the token of a node name.
+     *
+     * @param name the original name
+     * @return the token
+     * @since upcoming
+     */
+    public NameToken node(final String name) {
+        final NameToken token = nodes.get(name);
+        return token != null ? token : createToken(name, false);
+    }
+
+    /**
+     * Retrieve the token of a node name, reusing a previously returned token.
+     *
+     * @param name the original name
+     * @param token a token from a previous call, may be <code>null</code>
+     * @return the given token if it is the node token for the name of this instance, otherwise the token from the
+     *         cache
+     * @since upcoming
+     */
+    public NameToken node(final String name, final NameToken token) {
+        return isToken(token, name, false) ? token : node(name);
+    }
+
+    /**
+     * Retrieve the token of an attribute name.
+     *
+     * @param name the original name
+     * @return the token
+     * @since upcoming
+     */
+    public NameToken attribute(final String name) {
+        final NameToken token = attributes.get(name);
+        return token != null ? token : createToken(name, true);
+    }
+
+    /**
+     * Retrieve the token of an attribute name, reusing a previously returned token.
+     *
+     * @param name the original name
+     * @param token a token from a previous call, may be <code>null</code>
+     * @return the given token if it is the attribute token for the name of this instance, otherwise the token from the
+     *         cache
+     * @since upcoming
+     */
+    public NameToken attribute(final String name, final NameToken token) {
+        return isToken(token, name, true) ? token : attribute(name);
+    }
+
+    private boolean isToken(final NameToken token, final String name, final boolean attribute) {
+        return token != null
+            && token.owner == this
+            && token.attribute == attribute
+            && (token.getName() == name || token.getName().equals(name));
+    }
+
+    private synchronized NameToken createToken(final String name, final boolean attribute) {
+        final ConcurrentMap<String, NameToken> tokens = attribute ? attributes : nodes;
+        NameToken token = tokens.get(name);
+        if (token == null) {
+            final String encodedName = attribute ? nameCoder.encodeAttribute(name) : nameCoder.encodeNode(name);
+            token = new NameToken(name, encodedName, this, attribute);
+            tokens.put(name, token);
+        }
+        return token;
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2011, 2014, 2015, 2020 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2011, 2014, 2015, 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,8 +11,7 @@
  */
 package com.thoughtworks.xstream.io.path;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 
 /**
@@ -48,7 +47,9 @@ public class PathTracker {
     private int pointer;
     private int capacity;
     private String[] pathStack;
-    private Map<String, Integer>[] indexMapStack;
+    private int[] indexStack;
+    private String[] chunkStack;
+    private Siblings[] siblingStack;
 
     private Path currentPath;
 
@@ -64,9 +65,9 @@ public class PathTracker {
     public PathTracker(final int initialCapacity) {
         capacity = Math.max(1, initialCapacity);
         pathStack = new String[capacity];
-        @SuppressWarnings("unchecked")
-        final Map<String, Integer>[] newIndexMapStack = new Map[capacity];
-        indexMapStack = newIndexMapStack;
+        indexStack = new int[capacity];
+        chunkStack = new String[capacity];
+        siblingStack = new Siblings[capacity];
     }
 
     /**
@@ -79,16 +80,12 @@ public class PathTracker {
             resizeStacks(capacity * 2);
         }
         pathStack[pointer] = name;
-        Map<String, Integer> indexMap = indexMapStack[pointer];
-        if (indexMap == null) {
-            indexMap = new HashMap<>();
-            indexMapStack[pointer] = indexMap;
-        }
-        if (indexMap.containsKey(name)) {
-            indexMap.put(name, Integer.valueOf(indexMap.get(name).intValue() + 1));
-        } else {
-            indexMap.put(name, Integer.valueOf(1));
+        Siblings siblings = siblingStack[pointer];
+        if (siblings == null) {
+            siblings = siblingStack[pointer] = new Siblings();
         }
+        indexStack[pointer] = siblings.next(name);
+        chunkStack[pointer] = null;
         pointer++;
         currentPath = null;
     }
@@ -97,12 +94,32 @@ public class PathTracker {
      * Notify the tracker that the stream has moved out of an element.
      */
     public void popElement() {
-        indexMapStack[pointer] = null;
+        if (siblingStack[pointer] != null) {
+            siblingStack[pointer].reset();
+        }
         pathStack[pointer] = null;
+        chunkStack[pointer] = null;
         currentPath = null;
         pointer--;
     }
 
+    /**
+     * Reset the tracker to track a new stream.
+     *
+     * @since upcoming
+     */
+    public void clear() {
+        Arrays.fill(pathStack, 0, pointer, null);
+        Arrays.fill(chunkStack, 0, pointer, null);
+        for (final Siblings siblings : siblingStack) {
+            if (siblings != null) {
+                siblings.reset();
+            }
+        }
+        pointer = 0;
+        currentPath = null;
+    }
+
     /**
      * Get the last path element from the stack.
      * 
@@ -126,15 +143,17 @@ public class PathTracker {
             throw new ArrayIndexOutOfBoundsException(i);
         }
         final int idx = pointer + i - 1;
-        final String name;
-        final Integer integer = indexMapStack[idx].get(pathStack[idx]);
-        final int index = integer.intValue();
-        if (index > 1) {
-            final StringBuffer chunk = new StringBuffer(pathStack[idx].length() + 6);
-            chunk.append(pathStack[idx]).append('[').append(index).append(']');
-            name = chunk.toString();
-        } else {
-            name = pathStack[idx];
+        String name = chunkStack[idx];
+        if (name == null) {
+            final int index = indexStack[idx];
+            if (index > 1) {
+                final StringBuilder chunk = new StringBuilder(pathStack[idx].length() + 6);
+                chunk.append(pathStack[idx]).append('[').append(index).append(']');
+                name = chunk.toString();
+            } else {
+                name = pathStack[idx];
+            }
+            chunkStack[idx] = name;
         }
         return name;
     }
@@ -150,19 +169,19 @@ public class PathTracker {
     }
 
     private void resizeStacks(final int newCapacity) {
-        final String[] newPathStack = new String[newCapacity];
-        @SuppressWarnings("unchecked")
-        final Map<String, Integer>[] newIndexMapStack = new Map[newCapacity];
-        final int min = Math.min(capacity, newCapacity);
-        System.arraycopy(pathStack, 0, newPathStack, 0, min);
-        System.arraycopy(indexMapStack, 0, newIndexMapStack, 0, min);
-        pathStack = newPathStack;
-        indexMapStack = newIndexMapStack;
+        pathStack = Arrays.copyOf(pathStack, newCapacity);
+        indexStack = Arrays.copyOf(indexStack, newCapacity);
+        chunkStack = Arrays.copyOf(chunkStack, newCapacity);
+        siblingStack = Arrays.copyOf(siblingStack, newCapacity);
         capacity = newCapacity;
     }
 
     /**
      * Current Path in stream.
+     * <p>
+     * The Path is created on demand and kept until the stream moves to another element. Its string representation is
+     * not calculated before it is requested.
+     * </p>
      */
     public Path getPath() {
         if (currentPath == null) {
@@ -176,4 +195,73 @@ public class PathTracker {
         }
         return currentPath;
     }
+
+    /**
+     * Counters for the names of the elements at one depth, kept in an open addressing hash table. An entry is only
+     * valid if its stamp matches the current one, therefore the table is reset without touching its entries.
+     */
+    private static final class Siblings {
+        private String[] names = new String[8];
+        private int[] counts = new int[8];
+        private int[] stamps = new int[8];
+        private int stamp = 1;
+        private int size;
+
+        int next(final String name) {
+            if (2 * (size + 1) > names.length) {
+                resize();
+            }
+            final int mask = names.length - 1;
+            int i = hash(name) & mask;
+            while (stamps[i] == stamp) {
+                final String current = names[i];
+                if (current == name || current.equals(name)) {
+                    return ++counts[i];
+                }
+                i = i + 1 & mask;
+            }
+            names[i] = name;
+            counts[i] = 1;
+            stamps[i] = stamp;
+            ++size;
+            return 1;
+        }
+
+        void reset() {
+            if (size > 0) {
+                size = 0;
+                if (++stamp == 0) {
+                    Arrays.fill(stamps, 0);
+                    stamp = 1;
+                }
+            }
+        }
+
+        private void resize() {
+            final String[] oldNames = names;
+            final int[] oldCounts = counts;
+            final int[] oldStamps = stamps;
+            final int length = oldNames.length * 2;
+            names = new String[length];
+            counts = new int[length];
+            stamps = new int[length];
+            final int mask = length - 1;
+            for (int j = 0; j < oldNames.length; ++j) {
+                if (oldStamps[j] == stamp) {
+                    int i = hash(oldNames[j]) & mask;
+                    while (stamps[i] == stamp) {
+                        i = i + 1 & mask;
+                    }
+                    names[i] = oldNames[j];
+                    counts[i] = oldCounts[j];
+                    stamps[i] = stamp;
+                }
+            }
+        }
+
+        private static int hash(final String name) {
+            final int h = name.hashCode();
+            return h ^ h >>> 16;
+        }
+    }
 }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2011, 2014 XStream Committers.
+ * Copyright (C) 2006, 2007, 2011, 2014, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -13,7 +13,10 @@ package com.thoughtworks.xstream.io.path;
 
 import com.thoughtworks.xstream.io.AbstractWriter;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.NameTokenWriter;
 import com.thoughtworks.xstream.io.WriterWrapper;
+import com.thoughtworks.xstream.io.naming.NameToken;
+import com.thoughtworks.xstream.io.naming.NameTokens;
 
 
 /**
@@ -24,7 +27,7 @@ import com.thoughtworks.xstream.io.WriterWrapper;
  * @see Path
  * @author Joe Walnes
  */
-public class PathTrackingWriter extends WriterWrapper {
+public class PathTrackingWriter extends WriterWrapper implements NameTokenWriter {
 
     private final PathTracker pathTracker;
     private final boolean isNameEncoding;
@@ -47,6 +50,31 @@ public class PathTrackingWriter extends WriterWrapper {
         super.startNode(name, clazz);
     }
 
+    /**
+     * @since upcoming
+     */
+    @Override
+    public NameTokens getNameTokens() {
+        return wrapped instanceof NameTokenWriter ? ((NameTokenWriter)wrapped).getNameTokens() : null;
+    }
+
+    /**
+     * @since upcoming
+     */
+    @Override
+    public void startNode(final NameToken name, final Class<?> clazz) {
+        pathTracker.pushElement(isNameEncoding ? name.getEncodedName() : name.getName());
+        ((NameTokenWriter)wrapped).startNode(name, clazz);
+    }
+
+    /**
+     * @since upcoming
+     */
+    @Override
+    public void addAttribute(final NameToken name, final String value) {
+        ((NameTokenWriter)wrapped).addAttribute(name, value);
+    }
+
     @Override
     public void endNode() {
         super.endNode();
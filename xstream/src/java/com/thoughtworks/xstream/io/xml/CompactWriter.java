@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2014 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2014, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,6 +11,7 @@
  */
 package com.thoughtworks.xstream.io.xml;
 
+import java.io.OutputStream;
 import java.io.Writer;
 
 import com.thoughtworks.xstream.io.naming.NameCoder;
@@ -60,6 +61,28 @@ public class CompactWriter extends PrettyPrintWriter {
         super(writer, mode, replacer);
     }
 
+    /**
+     * Construct a CompactWriter that writes UTF-8 encoded XML into a stream.
+     *
+     * @param out the target stream
+     * @since upcoming
+     */
+    public CompactWriter(final OutputStream out) {
+        super(out);
+    }
+
+    /**
+     * Construct a CompactWriter that writes UTF-8 encoded XML into a stream.
+     *
+     * @param out the target stream
+     * @param mode the XML mode
+     * @param nameCoder the coder for the XML names
+     * @since upcoming
+     */
+    public CompactWriter(final OutputStream out, final int mode, final NameCoder nameCoder) {
+        super(out, mode, nameCoder);
+    }
+
     @Override
     protected void endOfLine() {
         // override parent: don't write anything at end of line
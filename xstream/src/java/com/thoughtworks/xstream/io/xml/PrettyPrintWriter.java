@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2014, 2015 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2014, 2015, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,12 +11,18 @@
  */
 package com.thoughtworks.xstream.io.xml;
 
+import java.io.OutputStream;
 import java.io.Writer;
+import java.lang.reflect.Method;
 
 import com.thoughtworks.xstream.core.util.FastStack;
 import com.thoughtworks.xstream.core.util.QuickWriter;
+import com.thoughtworks.xstream.io.AbstractWriter;
+import com.thoughtworks.xstream.io.NameTokenWriter;
 import com.thoughtworks.xstream.io.StreamException;
 import com.thoughtworks.xstream.io.naming.NameCoder;
+import com.thoughtworks.xstream.io.naming.NameToken;
+import com.thoughtworks.xstream.io.naming.NameTokens;
 
 
 /**
@@ -34,6 +40,10 @@ import com.thoughtworks.xstream.io.naming.NameCoder;
  * different behavior.
  * </p>
  * <p>
+ * A writer created for an {@link OutputStream} encodes the XML directly as UTF-8 into a reused byte buffer instead of
+ * passing the characters to a {@link Writer}. The XML header written by the caller should therefore declare UTF-8.
+ * </p>
+ * <p>
  * Note: Depending on the XML version some characters cannot be written. Especially a 0 character is never valid in XML,
  * neither directly nor as entity nor within CDATA. However, this writer works by default in a quirks mode, where it
  * will write any character at least as character entity (even a null character). You may switch into XML_1_1 mode
@@ -47,14 +57,15 @@ import com.thoughtworks.xstream.io.naming.NameCoder;
  * @author Joe Walnes
  * @author J&ouml;rg Schaible
  */
-public class PrettyPrintWriter extends AbstractXmlWriter {
+public class PrettyPrintWriter extends AbstractXmlWriter implements NameTokenWriter {
 
     public static int XML_QUIRKS = -1;
     public static int XML_1_0 = 0;
     public static int XML_1_1 = 1;
 
     private final QuickWriter writer;
-    private final FastStack<String> elementStack = new FastStack<>(16);
+    private final FastStack<Object> elementStack = new FastStack<>(16);
+    private final NameCoder nameCoder;
     private final char[] lineIndenter;
     private final int mode;
 
@@ -71,13 +82,86 @@ public class PrettyPrintWriter extends AbstractXmlWriter {
     private static final char[] QUOT = "&quot;".toCharArray();
     private static final char[] APOS = "&apos;".toCharArray();
     private static final char[] CLOSE = "</".toCharArray();
+    private static final boolean[] PLAIN_TEXT = new boolean[0x80];
+    private static final boolean[] PLAIN_ATTRIBUTE = new boolean[0x80];
+    private static final ClassValue<Boolean> TOKEN_SUPPORT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            // a derived writer that changes the handling of names must see all of them as strings
+            try {
+                return isPlain(type.getMethod("startNode", String.class))
+                    && isPlain(type.getMethod("startNode", String.class, Class.class))
+                    && isPlain(type.getMethod("addAttribute", String.class, String.class))
+                    && isPlain(type.getMethod("encodeNode", String.class))
+                    && isPlain(type.getMethod("encodeAttribute", String.class));
+            } catch (final NoSuchMethodException e) {
+                return false;
+            }
+        }
+
+        private boolean isPlain(final Method method) {
+            final Class<?> declaringClass = method.getDeclaringClass();
+            return declaringClass == PrettyPrintWriter.class || declaringClass == AbstractWriter.class;
+        }
+    };
+
+    static {
+        for (char c = ' '; c < 0x7f; ++c) {
+            PLAIN_ATTRIBUTE[c] = c != '&' && c != '<' && c != '>' && c != '"' && c != '\'';
+        }
+        System.arraycopy(PLAIN_ATTRIBUTE, 0, PLAIN_TEXT, 0, PLAIN_TEXT.length);
+        PLAIN_TEXT['\t'] = true;
+        PLAIN_TEXT['\n'] = true;
+    }
 
     /**
      * @since 1.4
      */
     public PrettyPrintWriter(final Writer writer, final int mode, final char[] lineIndenter, final NameCoder nameCoder) {
+        this(new QuickWriter(writer), mode, lineIndenter, nameCoder);
+    }
+
+    /**
+     * Construct a PrettyPrintWriter that writes UTF-8 encoded XML into a stream.
+     *
+     * @param out the target stream
+     * @param mode the XML mode
+     * @param lineIndenter the characters used to indent a line
+     * @param nameCoder the coder for the XML names
+     * @since upcoming
+     */
+    public PrettyPrintWriter(
+            final OutputStream out, final int mode, final char[] lineIndenter, final NameCoder nameCoder) {
+        this(new QuickWriter(out), mode, lineIndenter, nameCoder);
+    }
+
+    /**
+     * Construct a PrettyPrintWriter that writes UTF-8 encoded XML into a stream.
+     *
+     * @param out the target stream
+     * @param mode the XML mode
+     * @param nameCoder the coder for the XML names
+     * @since upcoming
+     */
+    public PrettyPrintWriter(final OutputStream out, final int mode, final NameCoder nameCoder) {
+        this(out, mode, new char[]{' ', ' '}, nameCoder);
+    }
+
+    /**
+     * Construct a PrettyPrintWriter that writes UTF-8 encoded XML into a stream.
+     *
+     * @param out the target stream
+     * @since upcoming
+     */
+    public PrettyPrintWriter(final OutputStream out) {
+        this(out, XML_QUIRKS, new XmlFriendlyNameCoder());
+    }
+
+    private PrettyPrintWriter(
+            final QuickWriter writer, final int mode, final char[] lineIndenter, final NameCoder nameCoder) {
         super(nameCoder);
-        this.writer = new QuickWriter(writer);
+        this.nameCoder = nameCoder;
+        this.writer = writer;
         this.lineIndenter = lineIndenter;
         this.mode = mode;
         if (mode < XML_QUIRKS || mode > XML_1_1) {
@@ -162,15 +246,10 @@ public class PrettyPrintWriter extends AbstractXmlWriter {
     @Override
     public void startNode(final String name) {
         final String escapedName = encodeNode(name);
-        tagIsEmpty = false;
-        finishTag();
-        writer.write('<');
+        startTag();
         writer.write(escapedName);
         elementStack.push(escapedName);
-        tagInProgress = true;
-        depth++;
-        readyForNewLine = true;
-        tagIsEmpty = true;
+        tagStarted();
     }
 
     @Override
@@ -178,6 +257,46 @@ public class PrettyPrintWriter extends AbstractXmlWriter {
         startNode(name);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The writer provides tokens if it uses an {@link XmlFriendlyNameCoder} and a derived writer does not change the
+     * handling of names.
+     * </p>
+     *
+     * @since upcoming
+     */
+    @Override
+    public NameTokens getNameTokens() {
+        return nameCoder instanceof XmlFriendlyNameCoder && TOKEN_SUPPORT.get(getClass()).booleanValue()
+            ? ((XmlFriendlyNameCoder)nameCoder).getNameTokens()
+            : null;
+    }
+
+    /**
+     * @since upcoming
+     */
+    @Override
+    public void startNode(final NameToken name, final Class<?> clazz) {
+        startTag();
+        writer.write(name.getChars(), name.getBytes());
+        elementStack.push(name);
+        tagStarted();
+    }
+
+    private void startTag() {
+        tagIsEmpty = false;
+        finishTag();
+        writer.write('<');
+    }
+
+    private void tagStarted() {
+        tagInProgress = true;
+        depth++;
+        readyForNewLine = true;
+        tagIsEmpty = true;
+    }
+
     @Override
     public void setValue(final String text) {
         readyForNewLine = false;
@@ -191,6 +310,20 @@ public class PrettyPrintWriter extends AbstractXmlWriter {
     public void addAttribute(final String key, final String value) {
         writer.write(' ');
         writer.write(encodeAttribute(key));
+        writeAttributeAssignment(value);
+    }
+
+    /**
+     * @since upcoming
+     */
+    @Override
+    public void addAttribute(final NameToken name, final String value) {
+        writer.write(' ');
+        writer.write(name.getChars(), name.getBytes());
+        writeAttributeAssignment(value);
+    }
+
+    private void writeAttributeAssignment(final String value) {
         writer.write('=');
         writer.write('\"');
         writeAttributeValue(writer, value);
@@ -206,71 +339,96 @@ public class PrettyPrintWriter extends AbstractXmlWriter {
     }
 
     private void writeText(final String text, final boolean isAttribute) {
+        final boolean[] plain = isAttribute ? PLAIN_ATTRIBUTE : PLAIN_TEXT;
         final int length = text.length();
+        int start = 0;
         for (int i = 0; i < length; i++) {
             final char c = text.charAt(i);
-            switch (c) {
-            case '\0':
-                if (mode == XML_QUIRKS) {
-                    writer.write(NULL);
-                } else {
-                    throw new StreamException("Invalid character 0x0 in XML stream");
-                }
-                break;
-            case '&':
-                writer.write(AMP);
-                break;
-            case '<':
-                writer.write(LT);
-                break;
-            case '>':
-                writer.write(GT);
-                break;
-            case '"':
-                writer.write(QUOT);
-                break;
-            case '\'':
-                writer.write(APOS);
-                break;
-            case '\r':
-                writer.write(CR);
+            if (c < 0x80 ? plain[c] : isPlain(c)) {
+                continue;
+            }
+            // copy the run of characters that need no escaping at once
+            if (start < i) {
+                writer.write(text, start, i);
+            }
+            start = i + 1;
+            writeCharacter(c, isAttribute);
+        }
+        if (start == 0) {
+            writer.write(text);
+        } else if (start < length) {
+            writer.write(text, start, length);
+        }
+    }
+
+    private boolean isPlain(final char c) {
+        return Character.isDefined(c)
+            && !Character.isISOControl(c)
+            && (mode == XML_QUIRKS || c < '\ud800' || c > '\udfff');
+    }
+
+    private void writeCharacter(final char c, final boolean isAttribute) {
+        switch (c) {
+        case '\0':
+            if (mode == XML_QUIRKS) {
+                writer.write(NULL);
+            } else {
+                throw new StreamException("Invalid character 0x0 in XML stream");
+            }
+            break;
+        case '&':
+            writer.write(AMP);
+            break;
+        case '<':
+            writer.write(LT);
+            break;
+        case '>':
+            writer.write(GT);
+            break;
+        case '"':
+            writer.write(QUOT);
+            break;
+        case '\'':
+            writer.write(APOS);
+            break;
+        case '\r':
+            writer.write(CR);
+            break;
+        case '\t':
+        case '\n':
+            if (!isAttribute) {
+                writer.write(c);
                 break;
-            case '\t':
-            case '\n':
-                if (!isAttribute) {
-                    writer.write(c);
-                    break;
-                }
-                //$FALL-THROUGH$
-            default:
-                if (Character.isDefined(c) && !Character.isISOControl(c)) {
-                    if (mode != XML_QUIRKS) {
-                        if (c > '\ud7ff' && c < '\ue000') {
-                            throw new StreamException("Invalid character 0x"
-                                + Integer.toHexString(c)
-                                + " in XML stream");
-                        }
+            }
+            //$FALL-THROUGH$
+        default:
+            if (Character.isDefined(c) && !Character.isISOControl(c)) {
+                if (mode != XML_QUIRKS) {
+                    if (c > '\ud7ff' && c < '\ue000') {
+                        throw new StreamException("Invalid character 0x"
+                            + Integer.toHexString(c)
+                            + " in XML stream");
                     }
-                    writer.write(c);
-                } else {
-                    if (mode == XML_1_0) {
-                        if (c < 9 || c == '\u000b' || c == '\u000c' || c == '\u000e' || c >= '\u000f' && c <= '\u001f') {
-                            throw new StreamException("Invalid character 0x"
-                                + Integer.toHexString(c)
-                                + " in XML 1.0 stream");
-                        }
+                }
+                writer.write(c);
+            } else {
+                if (mode == XML_1_0) {
+                    if (c < 9 || c == '\u000b' || c == '\u000c' || c == '\u000e' || c >= '\u000f' && c <= '\u001f') {
+                        throw new StreamException("Invalid character 0x"
+                            + Integer.toHexString(c)
+                            + " in XML 1.0 stream");
                     }
-                    if (mode != XML_QUIRKS) {
-                        if (c == '\ufffe' || c == '\uffff') {
-                            throw new StreamException("Invalid character 0x"
-                                + Integer.toHexString(c)
-                                + " in XML stream");
-                        }
+                }
+                if (mode != XML_QUIRKS) {
+                    if (c == '\ufffe' || c == '\uffff') {
+                        throw new StreamException("Invalid character 0x"
+                            + Integer.toHexString(c)
+                            + " in XML stream");
                     }
-                    writer.write("&#x");
-                    writer.write(Integer.toHexString(c));
-                    writer.write(';');
                 }
+                writer.write("&#x");
+                writer.write(Integer.toHexString(c));
+                writer.write(';');
             }
         }
     }
@@ -286,7 +444,13 @@ public class PrettyPrintWriter extends AbstractXmlWriter {
         } else {
             finishTag();
             writer.write(CLOSE);
-            writer.write(elementStack.pop());
+            final Object name = elementStack.pop();
+            if (name instanceof NameToken) {
+                final NameToken token = (NameToken)name;
+                writer.write(token.getChars(), token.getBytes());
+            } else {
+                writer.write((String)name);
+            }
             writer.write('>');
         }
         readyForNewLine = true;
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2014, 2015, 2019, 2020, 2021 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2014, 2015, 2019, 2020, 2021, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -17,6 +17,7 @@ import java.util.Map;
 
 import com.thoughtworks.xstream.converters.reflection.ObjectAccessException;
 import com.thoughtworks.xstream.io.naming.NameCoder;
+import com.thoughtworks.xstream.io.naming.NameTokens;
 
 
 /**
@@ -419,6 +420,7 @@ public class XmlFriendlyNameCoder implements NameCoder, Cloneable {
     private final String escapeCharReplacement;
     private transient Map<String, String> escapeCache;
     private transient Map<String, String> unescapeCache;
+    private transient NameTokens nameTokens;
     private final String hexPrefix;
 
     /**
@@ -586,6 +588,24 @@ public class XmlFriendlyNameCoder implements NameCoder, Cloneable {
         return s;
     }
 
+    /**
+     * Retrieve the tokens of the encoded names.
+     * <p>
+     * The tokens are shared by all clones of this instance and are therefore created only once for all writers using
+     * this NameCoder as prototype.
+     * </p>
+     *
+     * @return the tokens
+     * @since upcoming
+     */
+    public NameTokens getNameTokens() {
+        if (nameTokens == null) {
+            // racy, but the tokens of separate instances are always equivalent
+            nameTokens = new NameTokens(this);
+        }
+        return nameTokens;
+    }
+
     @Override
     public Object clone() {
         try {
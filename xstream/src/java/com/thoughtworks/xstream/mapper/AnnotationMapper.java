@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2007, 2008, 2009, 2011, 2012, 2013, 2014, 2015, 2016 XStream Committers.
+ * Copyright (C) 2007, 2008, 2009, 2011, 2012, 2013, 2014, 2015, 2016, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -22,7 +22,6 @@ import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -30,6 +29,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.thoughtworks.xstream.InitializationException;
 import com.thoughtworks.xstream.annotations.XStreamAlias;
@@ -72,7 +72,7 @@ public class AnnotationMapper extends MapperWrapper implements AnnotationConfigu
     private transient AttributeMapper attributeMapper;
     private transient LocalConversionMapper localConversionMapper;
     private final Map<Class<?>, Map<List<Object>, Converter>> converterCache = new HashMap<>();
-    private final Set<Class<?>> annotatedTypes = Collections.synchronizedSet(new HashSet<Class<?>>());
+    private final Set<Class<?>> annotatedTypes = ConcurrentHashMap.newKeySet();
 
     /**
      * Construct an AnnotationMapper.
@@ -167,13 +167,16 @@ public class AnnotationMapper extends MapperWrapper implements AnnotationConfigu
     }
 
     private void processAnnotation(final Class<?> initialType) {
-        if (initialType == null) {
+        // lock-free check for the common case of an already processed type
+        if (initialType == null || annotatedTypes.contains(initialType)) {
             return;
         }
 
         final Set<Class<?>> types = new UnprocessedTypesSet();
         types.add(initialType);
         processTypes(types);
+        // remember also array and JDK types, that are not processed themselves
+        annotatedTypes.add(initialType);
     }
 
     private void processTypes(final Set<Class<?>> types) {
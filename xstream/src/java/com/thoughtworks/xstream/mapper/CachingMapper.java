@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2014, 2015, 2020 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2013, 2014, 2015, 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -15,19 +15,45 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import com.thoughtworks.xstream.XStreamException;
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.SingleValueConverter;
 import com.thoughtworks.xstream.core.Caching;
 import com.thoughtworks.xstream.security.ForbiddenClassException;
 
 
 /**
- * Mapper that caches which names map to which classes. Prevents repetitive searching and class loading.
+ * Mapper that caches the results of the lookups of the wrapped mappers. Prevents repetitive searching and class
+ * loading.
+ * <p>
+ * The results are kept in concurrent tables per class and member. The member names may be taken from the
+ * unmarshalled input, therefore a table keeps only a limited number of members per class, any further member is
+ * looked up again with every call. The mapper assumes that the wrapped mappers are not reconfigured while in use,
+ * any modification requires a call of {@link #flushCache()}. XStream does this automatically for its configuration
+ * methods, a mapper of the chain that is configured directly requires a call of
+ * {@link com.thoughtworks.xstream.XStream#flushCaches()} after the modification.
+ * </p>
  *
  * @author Joe Walnes
  * @author J&ouml;rg Schaible
  */
 public class CachingMapper extends MapperWrapper implements Caching {
 
+    private static final Object NULL = new Object();
+    // the members of a type are looked up with names taken from the input, unknown names must not grow the tables
+    private static final int MAX_MEMBERS_PER_TYPE = 512;
+
     private transient ConcurrentMap<String, ? super Object> realClassCache;
+    private transient ConcurrentMap<Class<?>, String> serializedClassCache;
+    private transient ConcurrentMap<Object, Object> serializedMemberCache;
+    private transient ConcurrentMap<Object, Object> realMemberCache;
+    private transient ConcurrentMap<Class<?>, Object> defaultImplementationCache;
+    private transient ConcurrentMap<Class<?>, Boolean> immutableValueTypeCache;
+    private transient ConcurrentMap<Class<?>, Boolean> referenceableCache;
+    private transient ConcurrentMap<Object, Object> shouldSerializeMemberCache;
+    private transient ConcurrentMap<Object, Object> implicitCollectionCache;
+    private transient ConcurrentMap<String, Object> systemAttributeCache;
+    private transient ConcurrentMap<Object, Object> localConverterCache;
+    private transient ConcurrentMap<Object, Object> itemTypeConverterCache;
 
     public CachingMapper(final Mapper wrapped) {
         super(wrapped);
@@ -53,13 +79,218 @@ public class CachingMapper extends MapperWrapper implements Caching {
         }
     }
 
+    @Override
+    public String serializedClass(final Class<?> type) {
+        if (type == null) {
+            return super.serializedClass(type);
+        }
+        String name = serializedClassCache.get(type);
+        if (name == null) {
+            name = super.serializedClass(type);
+            if (name != null) {
+                serializedClassCache.putIfAbsent(type, name);
+            }
+        }
+        return name;
+    }
+
+    @Override
+    public String serializedMember(final Class<?> type, final String memberName) {
+        final ConcurrentMap<Object, Object> members = table(serializedMemberCache, type);
+        final Object key = maskNull(memberName);
+        Object cached = members.get(key);
+        if (cached == null) {
+            cached = maskNull(super.serializedMember(type, memberName));
+            cache(members, key, cached);
+        }
+        return (String)unmaskNull(cached);
+    }
+
+    @Override
+    public String realMember(final Class<?> type, final String serialized) {
+        final ConcurrentMap<Object, Object> members = table(realMemberCache, type);
+        final Object key = maskNull(serialized);
+        Object cached = members.get(key);
+        if (cached == null) {
+            cached = maskNull(super.realMember(type, serialized));
+            cache(members, key, cached);
+        }
+        return (String)unmaskNull(cached);
+    }
+
+    @Override
+    public Class<?> defaultImplementationOf(final Class<?> type) {
+        if (type == null) {
+            return super.defaultImplementationOf(type);
+        }
+        Object cached = defaultImplementationCache.get(type);
+        if (cached == null) {
+            cached = maskNull(super.defaultImplementationOf(type));
+            defaultImplementationCache.putIfAbsent(type, cached);
+        }
+        return (Class<?>)unmaskNull(cached);
+    }
+
+    @Override
+    public boolean isImmutableValueType(final Class<?> type) {
+        if (type == null) {
+            return super.isImmutableValueType(type);
+        }
+        Boolean cached = immutableValueTypeCache.get(type);
+        if (cached == null) {
+            cached = Boolean.valueOf(super.isImmutableValueType(type));
+            immutableValueTypeCache.putIfAbsent(type, cached);
+        }
+        return cached.booleanValue();
+    }
+
+    @Override
+    public boolean isReferenceable(final Class<?> type) {
+        if (type == null) {
+            return super.isReferenceable(type);
+        }
+        Boolean cached = referenceableCache.get(type);
+        if (cached == null) {
+            cached = Boolean.valueOf(super.isReferenceable(type));
+            referenceableCache.putIfAbsent(type, cached);
+        }
+        return cached.booleanValue();
+    }
+
+    @Override
+    public boolean shouldSerializeMember(final Class<?> definedIn, final String fieldName) {
+        final ConcurrentMap<Object, Object> members = table(shouldSerializeMemberCache, definedIn);
+        final Object key = maskNull(fieldName);
+        Object cached = members.get(key);
+        if (cached == null) {
+            cached = Boolean.valueOf(super.shouldSerializeMember(definedIn, fieldName));
+            cache(members, key, cached);
+        }
+        return ((Boolean)cached).booleanValue();
+    }
+
+    @Override
+    public ImplicitCollectionMapping getImplicitCollectionDefForFieldName(final Class<?> itemType,
+            final String fieldName) {
+        final ConcurrentMap<Object, Object> members = table(implicitCollectionCache, itemType);
+        final Object key = maskNull(fieldName);
+        Object cached = members.get(key);
+        if (cached == null) {
+            cached = maskNull(super.getImplicitCollectionDefForFieldName(itemType, fieldName));
+            cache(members, key, cached);
+        }
+        return (ImplicitCollectionMapping)unmaskNull(cached);
+    }
+
+    @Override
+    public String aliasForSystemAttribute(final String attribute) {
+        if (attribute == null) {
+            return super.aliasForSystemAttribute(attribute);
+        }
+        Object cached = systemAttributeCache.get(attribute);
+        if (cached == null) {
+            cached = maskNull(super.aliasForSystemAttribute(attribute));
+            systemAttributeCache.putIfAbsent(attribute, cached);
+        }
+        return (String)unmaskNull(cached);
+    }
+
+    @Override
+    public Converter getLocalConverter(final Class<?> definedIn, final String fieldName) {
+        final ConcurrentMap<Object, Object> members = table(localConverterCache, definedIn);
+        final Object key = maskNull(fieldName);
+        Object cached = members.get(key);
+        if (cached == null) {
+            cached = maskNull(super.getLocalConverter(definedIn, fieldName));
+            cache(members, key, cached);
+        }
+        return (Converter)unmaskNull(cached);
+    }
+
+    @Override
+    public SingleValueConverter getConverterFromItemType(final String fieldName, final Class<?> type,
+            final Class<?> definedIn) {
+        final ConcurrentMap<Object, Object> types = memberTable(table(itemTypeConverterCache, definedIn), fieldName);
+        final Object key = maskNull(type);
+        Object cached = types.get(key);
+        if (cached == null) {
+            cached = maskNull(super.getConverterFromItemType(fieldName, type, definedIn));
+            cache(types, key, cached);
+        }
+        return (SingleValueConverter)unmaskNull(cached);
+    }
+
     @Override
     public void flushCache() {
         realClassCache.clear();
+        serializedClassCache.clear();
+        serializedMemberCache.clear();
+        realMemberCache.clear();
+        defaultImplementationCache.clear();
+        immutableValueTypeCache.clear();
+        referenceableCache.clear();
+        shouldSerializeMemberCache.clear();
+        implicitCollectionCache.clear();
+        systemAttributeCache.clear();
+        localConverterCache.clear();
+        itemTypeConverterCache.clear();
+    }
+
+    private static ConcurrentMap<Object, Object> table(final ConcurrentMap<Object, Object> tables, final Object owner) {
+        return table(tables, owner, Integer.MAX_VALUE);
+    }
+
+    private static ConcurrentMap<Object, Object> memberTable(final ConcurrentMap<Object, Object> tables,
+            final String member) {
+        return table(tables, member, MAX_MEMBERS_PER_TYPE);
+    }
+
+    private static ConcurrentMap<Object, Object> table(final ConcurrentMap<Object, Object> tables, final Object owner,
+            final int maxTables) {
+        final Object key = maskNull(owner);
+        @SuppressWarnings("unchecked")
+        ConcurrentMap<Object, Object> table = (ConcurrentMap<Object, Object>)tables.get(key);
+        if (table == null) {
+            table = new ConcurrentHashMap<>();
+            if (tables.size() < maxTables) {
+                @SuppressWarnings("unchecked")
+                final ConcurrentMap<Object, Object> existing = (ConcurrentMap<Object, Object>)tables.putIfAbsent(key,
+                    table);
+                if (existing != null) {
+                    table = existing;
+                }
+            }
+        }
+        return table;
+    }
+
+    private static void cache(final ConcurrentMap<Object, Object> table, final Object key, final Object value) {
+        if (table.size() < MAX_MEMBERS_PER_TYPE) {
+            table.putIfAbsent(key, value);
+        }
+    }
+
+    private static Object maskNull(final Object value) {
+        return value == null ? NULL : value;
+    }
+
+    private static Object unmaskNull(final Object value) {
+        return value == NULL ? null : value;
     }
 
     private Object readResolve() {
         realClassCache = new ConcurrentHashMap<>(128);
+        serializedClassCache = new ConcurrentHashMap<>(128);
+        serializedMemberCache = new ConcurrentHashMap<>(128);
+        realMemberCache = new ConcurrentHashMap<>(128);
+        defaultImplementationCache = new ConcurrentHashMap<>(128);
+        immutableValueTypeCache = new ConcurrentHashMap<>(128);
+        referenceableCache = new ConcurrentHashMap<>(128);
+        shouldSerializeMemberCache = new ConcurrentHashMap<>(128);
+        implicitCollectionCache = new ConcurrentHashMap<>(128);
+        systemAttributeCache = new ConcurrentHashMap<>();
+        localConverterCache = new ConcurrentHashMap<>(128);
+        itemTypeConverterCache = new ConcurrentHashMap<>(128);
         return this;
     }
 }
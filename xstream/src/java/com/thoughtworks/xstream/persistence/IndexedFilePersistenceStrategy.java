@@ -0,0 +1,460 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.StreamException;
+import com.thoughtworks.xstream.io.xml.DomDriver;
+
+
+/**
+ * PersistenceStrategy storing all entries in a single append-only file.
+ * <p>
+ * Every modification appends a record with the key and the value, both serialized as XML in UTF-8. The strategy keeps
+ * an index of the keys and the position of their current record in memory, therefore the keys must implement
+ * {@link Object#equals(Object)} and {@link Object#hashCode()} properly. A value is only deserialized on request.
+ * </p>
+ * <p>
+ * Replaced or removed entries leave garbage in the file that is removed by {@link #compact()}. The index is rebuilt
+ * by scanning the keys of the file, when the strategy is created for an existing file. A truncated last record, e.g.
+ * after a crash, is dropped.
+ * </p>
+ * <p>
+ * The strategy keeps the file open until it is {@link #close() closed}. The implementation is not thread-safe.
+ * </p>
+ *
+ * @since upcoming
+ */
+public class IndexedFilePersistenceStrategy<K, V> implements PersistenceStrategy<K, V>, Closeable {
+
+    private static final byte RECORD_PUT = 1;
+    private static final byte RECORD_REMOVE = 2;
+    private static final int RECORD_HEADER_SIZE = 1 + 4;
+
+    private final File file;
+    private final transient XStream xstream;
+    private final boolean returnOldValues;
+    private Map<K, Location> index;
+    private FileChannel channel;
+    private long garbage;
+
+    /**
+     * Create a new IndexedFilePersistenceStrategy. Use a standard XStream instance with a {@link DomDriver}.
+     *
+     * @param file the data file
+     * @since upcoming
+     */
+    public IndexedFilePersistenceStrategy(final File file) {
+        this(file, new XStream(new DomDriver()));
+    }
+
+    /**
+     * Create a new IndexedFilePersistenceStrategy with a provided XStream instance.
+     *
+     * @param file the data file
+     * @param xstream the XStream instance to use for (de)serialization
+     * @since upcoming
+     */
+    public IndexedFilePersistenceStrategy(final File file, final XStream xstream) {
+        this(file, xstream, true);
+    }
+
+    /**
+     * Create a new IndexedFilePersistenceStrategy with a provided XStream instance.
+     * <p>
+     * The contract of {@link java.util.Map#put(Object, Object)} and {@link java.util.Map#remove(Object)} requires to
+     * return the previous value. If the caller does not need it, the strategy can skip the deserialization of the
+     * previous value and return always <code>null</code> instead.
+     * </p>
+     *
+     * @param file the data file
+     * @param xstream the XStream instance to use for (de)serialization
+     * @param returnOldValues <code>false</code> if put and remove should always return <code>null</code>
+     * @throws StreamException if the file cannot be opened or read
+     * @since upcoming
+     */
+    public IndexedFilePersistenceStrategy(final File file, final XStream xstream, final boolean returnOldValues) {
+        this.file = file;
+        this.xstream = xstream;
+        this.returnOldValues = returnOldValues;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+        try {
+            readIndex();
+        } catch (final IOException | RuntimeException e) {
+            try {
+                channel.close();
+            } catch (final IOException ignored) {
+                // ignore
+            }
+            throw e instanceof IOException ? new StreamException(e) : (RuntimeException)e;
+        }
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        return new IndexIterator();
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    public boolean containsKey(final Object key) {
+        return index.containsKey(key);
+    }
+
+    @Override
+    public V get(final Object key) {
+        final Location location = index.get(key);
+        return location == null ? null : read(location);
+    }
+
+    @Override
+    public V put(final K key, final V value) {
+        final Location oldLocation = index.get(key);
+        final V oldValue = returnOldValues && oldLocation != null ? read(oldLocation) : null;
+        final byte[] keyData = toXML(key);
+        final byte[] valueData = toXML(value);
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + keyData.length + 4 + valueData.length);
+        record.put(RECORD_PUT).putInt(keyData.length).put(keyData).putInt(valueData.length).put(valueData);
+        final long position = append(record);
+        index.put(key, new Location(position, keyData.length, valueData.length));
+        if (oldLocation != null) {
+            garbage += oldLocation.getRecordLength();
+        }
+        return oldValue;
+    }
+
+    @Override
+    public V remove(final Object key) {
+        final Location oldLocation = index.remove(key);
+        if (oldLocation == null) {
+            return null;
+        }
+        final V oldValue = returnOldValues ? read(oldLocation) : null;
+        appendRemoval(key, oldLocation);
+        return oldValue;
+    }
+
+    private void appendRemoval(final Object key, final Location oldLocation) {
+        final byte[] keyData = toXML(key);
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + keyData.length);
+        record.put(RECORD_REMOVE).putInt(keyData.length).put(keyData);
+        append(record);
+        garbage += oldLocation.getRecordLength() + record.capacity();
+    }
+
+    /**
+     * Retrieve the number of bytes in the file occupied by replaced or removed entries.
+     *
+     * @return the number of bytes
+     * @since upcoming
+     */
+    public long getGarbageSize() {
+        return garbage;
+    }
+
+    /**
+     * Rewrite the file with the current entries only.
+     * <p>
+     * The records are copied into a temporary file in the same directory that replaces the original file afterwards.
+     * </p>
+     *
+     * @throws StreamException if the file cannot be written
+     * @since upcoming
+     */
+    public void compact() {
+        final File compacted = new File(file.getPath() + ".compact");
+        final Map<K, Location> compactedIndex = new HashMap<>(Math.max(16, (int)(index.size() / .75f) + 1));
+        try {
+            try (FileChannel target = FileChannel.open(compacted.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long position = 0;
+                for (final Map.Entry<K, Location> entry : index.entrySet()) {
+                    final Location location = entry.getValue();
+                    final long length = location.getRecordLength();
+                    for (long copied = 0; copied < length;) {
+                        copied += channel.transferTo(location.position + copied, length - copied, target);
+                    }
+                    compactedIndex.put(entry.getKey(), new Location(position, location.keyLength,
+                        location.valueLength));
+                    position += length;
+                }
+                target.force(false);
+            }
+            channel.close();
+            Files.move(compacted.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+        index = compactedIndex;
+        garbage = 0;
+    }
+
+    /**
+     * Close the data file. The strategy cannot be used afterwards.
+     *
+     * @since upcoming
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    private void readIndex() throws IOException {
+        index = new HashMap<>();
+        final long size = channel.size();
+        final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        final ByteBuffer length = ByteBuffer.allocate(4);
+        long position = 0;
+        while (position < size) {
+            header.clear();
+            if (!readFully(header, position)) {
+                break;
+            }
+            final byte type = header.get(0);
+            final int keyLength = header.getInt(1);
+            if (type != RECORD_PUT && type != RECORD_REMOVE || keyLength < 0) {
+                throw new StreamException("Corrupt data file " + file + " at position " + position);
+            }
+            if (position + RECORD_HEADER_SIZE + keyLength > size) {
+                break;
+            }
+            final ByteBuffer keyData = ByteBuffer.allocate(keyLength);
+            if (!readFully(keyData, position + RECORD_HEADER_SIZE)) {
+                break;
+            }
+            final K key = fromXML(keyData.array());
+            final Location oldLocation;
+            final long recordLength;
+            if (type == RECORD_PUT) {
+                length.clear();
+                if (!readFully(length, position + RECORD_HEADER_SIZE + keyLength)) {
+                    break;
+                }
+                final int valueLength = length.getInt(0);
+                if (valueLength < 0) {
+                    throw new StreamException("Corrupt data file " + file + " at position " + position);
+                }
+                final Location location = new Location(position, keyLength, valueLength);
+                recordLength = location.getRecordLength();
+                if (position + recordLength > size) {
+                    break;
+                }
+                oldLocation = index.put(key, location);
+            } else {
+                recordLength = RECORD_HEADER_SIZE + keyLength;
+                oldLocation = index.remove(key);
+                garbage += recordLength;
+            }
+            if (oldLocation != null) {
+                garbage += oldLocation.getRecordLength();
+            }
+            position += recordLength;
+        }
+        if (position < size) {
+            // drop incomplete record
+            channel.truncate(position);
+        }
+    }
+
+    private boolean readFully(final ByteBuffer buffer, final long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            final int n = channel.read(buffer, offset);
+            if (n < 0) {
+                return false;
+            }
+            offset += n;
+        }
+        return true;
+    }
+
+    private long append(final ByteBuffer record) {
+        record.flip();
+        try {
+            long position = channel.size();
+            final long start = position;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            return start;
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+    }
+
+    private V read(final Location location) {
+        final ByteBuffer data = ByteBuffer.allocate(location.valueLength);
+        try {
+            if (!readFully(data, location.getValuePosition())) {
+                throw new StreamException(new EOFException("Unexpected end of data file " + file));
+            }
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+        return fromXML(data.array());
+    }
+
+    private byte[] toXML(final Object object) {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8)) {
+            xstream.toXML(object, writer);
+        } catch (final IOException e) {
+            throw new StreamException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private <T> T fromXML(final byte[] data) {
+        return xstream.fromXML(new StringReader(new String(data, StandardCharsets.UTF_8)));
+    }
+
+    private static class Location {
+        private final long position;
+        private final int keyLength;
+        private final int valueLength;
+
+        Location(final long position, final int keyLength, final int valueLength) {
+            this.position = position;
+            this.keyLength = keyLength;
+            this.valueLength = valueLength;
+        }
+
+        long getValuePosition() {
+            return position + RECORD_HEADER_SIZE + keyLength + 4;
+        }
+
+        long getRecordLength() {
+            return RECORD_HEADER_SIZE + keyLength + 4L + valueLength;
+        }
+    }
+
+    private class IndexIterator implements Iterator<Map.Entry<K, V>> {
+
+        private final Map<K, Location> iteratedIndex = index;
+        private final Iterator<Map.Entry<K, Location>> iterator = iteratedIndex.entrySet().iterator();
+        private Map.Entry<K, Location> current;
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            checkIndex();
+            current = iterator.next();
+            return new LazyEntry(current.getKey());
+        }
+
+        @Override
+        public void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+            checkIndex();
+            iterator.remove();
+            // removes without loading
+            appendRemoval(current.getKey(), current.getValue());
+            current = null;
+        }
+
+        private void checkIndex() {
+            if (iteratedIndex != index) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    private class LazyEntry implements Map.Entry<K, V> {
+        private final K key;
+        private V value;
+        private boolean loaded;
+
+        LazyEntry(final K key) {
+            this.key = key;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            if (!loaded) {
+                value = get(key);
+                loaded = true;
+            }
+            return value;
+        }
+
+        @Override
+        public V setValue(final V value) {
+            final V oldValue = getValue();
+            put(key, value);
+            this.value = value;
+            return oldValue;
+        }
+
+        @Override
+        public int hashCode() {
+            final V value = getValue();
+            return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Map.Entry<?, ?>)) {
+                return false;
+            }
+            final Map.Entry<?, ?> e2 = (Map.Entry<?, ?>)obj;
+            final Object key2 = e2.getKey();
+            if (key == null ? key2 == null : key.equals(key2)) {
+                final V value = getValue();
+                final Object value2 = e2.getValue();
+                return value == null ? value2 == null : value.equals(value2);
+            }
+            return false;
+        }
+    }
+}
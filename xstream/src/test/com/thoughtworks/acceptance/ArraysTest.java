@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,7 +11,12 @@
  */
 package com.thoughtworks.acceptance;
 
+import java.util.Arrays;
+
 import com.thoughtworks.acceptance.objects.StandardObject;
+import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.basic.BooleanConverter;
+import com.thoughtworks.xstream.converters.collections.ArrayConverter;
 
 
 public class ArraysTest extends AbstractAcceptanceTest {
@@ -41,6 +46,86 @@ public class ArraysTest extends AbstractAcceptanceTest {
         assertBothWays(array, expected);
     }
 
+    public void testPrimitiveArrayGrowingBeyondInitialBuffer() {
+        final double[] array = new double[100];
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = i / 4.0;
+        }
+        final double[] result = xstream.fromXML(xstream.toXML(array));
+        assertTrue(Arrays.equals(array, result));
+    }
+
+    public void testPrimitiveArrayInCompactForm() {
+        xstream.registerConverter(new ArrayConverter(xstream.getMapper(), xstream.getConverterLookup(), true));
+        long[] array = new long[]{1, -2, Long.MAX_VALUE};
+
+        String expected = "<long-array>1 -2 9223372036854775807</long-array>";
+
+        assertBothWays(array, expected);
+    }
+
+    public void testCompactPrimitiveArrayIsAlwaysAccepted() {
+        String xml = "<short-array>  1\n  2 3 </short-array>";
+
+        short[] result = xstream.fromXML(xml);
+        assertEquals(3, result.length);
+        assertEquals(1, result[0]);
+        assertEquals(3, result[2]);
+    }
+
+    public void testBooleanArrayIsNotWrittenInCompactForm() {
+        xstream.registerConverter(new ArrayConverter(xstream.getMapper(), xstream.getConverterLookup(), true));
+        boolean[] array = new boolean[]{true, false};
+
+        String expected = "" //
+            + "<boolean-array>\n"
+            + "  <boolean>true</boolean>\n"
+            + "  <boolean>false</boolean>\n"
+            + "</boolean-array>";
+
+        assertBothWays(array, expected);
+    }
+
+    public void testPrimitiveArrayWithValuesInAlternativeForm() {
+        String xml = "" //
+            + "<int-array>\n"
+            + "  <int>0x10</int>\n"
+            + "  <int>4294967295</int>\n"
+            + "  <int>-7</int>\n"
+            + "</int-array>";
+
+        int[] result = xstream.fromXML(xml);
+        assertTrue(Arrays.equals(new int[]{16, -1, -7}, result));
+    }
+
+    public void testPrimitiveArrayUsesCustomElementConverter() {
+        xstream.registerConverter(BooleanConverter.BINARY);
+        boolean[] array = new boolean[]{true, false};
+
+        String expected = "" //
+            + "<boolean-array>\n"
+            + "  <boolean>1</boolean>\n"
+            + "  <boolean>0</boolean>\n"
+            + "</boolean-array>";
+
+        assertBothWays(array, expected);
+    }
+
+    public void testPrimitiveArrayRejectsNullElement() {
+        String xml = "" //
+            + "<int-array>\n"
+            + "  <int>1</int>\n"
+            + "  <null/>\n"
+            + "</int-array>";
+
+        try {
+            xstream.fromXML(xml);
+            fail("Thrown " + ConversionException.class.getName() + " expected");
+        } catch (final ConversionException e) {
+            assertEquals("null", e.get("element-type"));
+        }
+    }
+
     public void testBoxedTypeArray() {
         Integer[] array = new Integer[]{new Integer(1), new Integer(2)};
 
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.acceptance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.thoughtworks.acceptance.objects.StandardObject;
+import com.thoughtworks.xstream.converters.basic.StringConverter;
+
+
+/**
+ * Tests that the configuration of XStream is honoured after it has already been used.
+ */
+public class ConfigurationAfterUseTest extends AbstractAcceptanceTest {
+
+    public static class Box extends StandardObject {
+        private static final long serialVersionUID = 202610L;
+        String label;
+        int size;
+        List<String> items = new ArrayList<>();
+
+        public Box() {
+        }
+
+        Box(final String label, final int size, final String... items) {
+            this.label = label;
+            this.size = size;
+            this.items.addAll(Arrays.asList(items));
+        }
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        xstream.allowTypes(Box.class);
+        xstream.alias("box", Box.class);
+    }
+
+    public void testAliasFieldAfterUse() {
+        final Box box = new Box("fruits", 2, "apple");
+        assertBothWays(box, ""
+            + "<box>\n"
+            + "  <label>fruits</label>\n"
+            + "  <size>2</size>\n"
+            + "  <items>\n"
+            + "    <string>apple</string>\n"
+            + "  </items>\n"
+            + "</box>");
+
+        xstream.aliasField("name", Box.class, "label");
+
+        assertBothWays(box, ""
+            + "<box>\n"
+            + "  <name>fruits</name>\n"
+            + "  <size>2</size>\n"
+            + "  <items>\n"
+            + "    <string>apple</string>\n"
+            + "  </items>\n"
+            + "</box>");
+    }
+
+    public void testUseAttributeForAndOmitFieldAfterUse() {
+        final Box box = new Box("fruits", 2, "apple");
+        assertBothWays(box, ""
+            + "<box>\n"
+            + "  <label>fruits</label>\n"
+            + "  <size>2</size>\n"
+            + "  <items>\n"
+            + "    <string>apple</string>\n"
+            + "  </items>\n"
+            + "</box>");
+
+        xstream.useAttributeFor(Box.class, "label");
+        xstream.omitField(Box.class, "size");
+
+        assertEquals(""
+            + "<box label=\"fruits\">\n"
+            + "  <items>\n"
+            + "    <string>apple</string>\n"
+            + "  </items>\n"
+            + "</box>", xstream.toXML(box));
+        final Box out = xstream.fromXML("<box label='vegetables'><size>42</size></box>");
+        assertEquals("vegetables", out.label);
+        assertEquals(0, out.size);
+    }
+
+    public void testImplicitCollectionAfterUse() {
+        final Box box = new Box("fruits", 2, "apple", "pear");
+        assertBothWays(box, ""
+            + "<box>\n"
+            + "  <label>fruits</label>\n"
+            + "  <size>2</size>\n"
+            + "  <items>\n"
+            + "    <string>apple</string>\n"
+            + "    <string>pear</string>\n"
+            + "  </items>\n"
+            + "</box>");
+
+        xstream.addImplicitCollection(Box.class, "items", "item", String.class);
+
+        assertBothWays(box, ""
+            + "<box>\n"
+            + "  <label>fruits</label>\n"
+            + "  <size>2</size>\n"
+            + "  <item>apple</item>\n"
+            + "  <item>pear</item>\n"
+            + "</box>");
+    }
+
+    public void testLocalConverterAfterUse() {
+        final Box box = new Box("fruits", 2);
+        assertBothWays(box, ""
+            + "<box>\n"
+            + "  <label>fruits</label>\n"
+            + "  <size>2</size>\n"
+            + "  <items/>\n"
+            + "</box>");
+
+        xstream.registerLocalConverter(Box.class, "label", new StringConverter() {
+            @Override
+            public String toString(final Object obj) {
+                return ((String)obj).toUpperCase();
+            }
+
+            @Override
+            public Object fromString(final String str) {
+                return str.toLowerCase();
+            }
+        });
+
+        assertBothWays(box, ""
+            + "<box>\n"
+            + "  <label>FRUITS</label>\n"
+            + "  <size>2</size>\n"
+            + "  <items/>\n"
+            + "</box>");
+    }
+}
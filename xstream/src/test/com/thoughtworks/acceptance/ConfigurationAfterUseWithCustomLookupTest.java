@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.acceptance;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.core.ClassLoaderReference;
+import com.thoughtworks.xstream.core.DefaultConverterLookup;
+
+
+public class ConfigurationAfterUseWithCustomLookupTest extends ConfigurationAfterUseTest {
+
+    // tests inherited from superclass
+
+    @Override
+    protected XStream createXStream() {
+        final DefaultConverterLookup converterLookup = new DefaultConverterLookup();
+        final XStream xstream = new XStream(null, createDriver(), new ClassLoaderReference(getClass()
+            .getClassLoader()), null, converterLookup, converterLookup);
+        setupSecurity(xstream);
+        return xstream;
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2018, 2019, 2020 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2018, 2019, 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -23,6 +23,14 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.Inflater;
@@ -40,6 +48,8 @@ import com.thoughtworks.xstream.core.ReferenceByIdUnmarshaller;
 import com.thoughtworks.xstream.core.util.DefaultDriver;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.WriterWrapper;
+import com.thoughtworks.xstream.io.json.JsonHierarchicalStreamDriver;
 import com.thoughtworks.xstream.io.xml.PrettyPrintWriter;
 import com.thoughtworks.xstream.mapper.Mapper;
 import com.thoughtworks.xstream.testutil.CallLog;
@@ -62,6 +72,19 @@ public class MultipleObjectsInOneStreamTest extends AbstractAcceptanceTest {
 
     }
 
+    public static class Named$Item extends StandardObject {
+        private static final long serialVersionUID = 202610L;
+        private final List<String> first_list;
+        @SuppressWarnings("unused")
+        private final List<String> second_list;
+
+        public Named$Item(final String name) {
+            first_list = new ArrayList<>();
+            first_list.add(name);
+            second_list = first_list;
+        }
+    }
+
     public void testReadAndWriteMultipleObjectsInOneStream() {
         xstream.alias("person", Person.class);
         final StringWriter buffer = new StringWriter();
@@ -424,4 +447,194 @@ public class MultipleObjectsInOneStreamTest extends AbstractAcceptanceTest {
 
         ois.close();
     }
+
+    public void testStreamsElementsThroughIterator() {
+        xstream.alias("person", Person.class);
+        final Person bob = new Person("Bob", "Builder");
+        bob.secretary = new Person("Wendy", "Mixer");
+        final List<Person> people = Arrays.asList(new Person("Postman", "Pat"), bob, bob.secretary);
+        final StringWriter writer = new StringWriter();
+
+        xstream.toXMLStream(people.iterator(), writer, "people");
+
+        final String expectedXml = ""
+            + "<people>\n"
+            + "  <person>\n"
+            + "    <firstName>Postman</firstName>\n"
+            + "    <lastName>Pat</lastName>\n"
+            + "  </person>\n"
+            + "  <person>\n"
+            + "    <firstName>Bob</firstName>\n"
+            + "    <lastName>Builder</lastName>\n"
+            + "    <secretary>\n"
+            + "      <firstName>Wendy</firstName>\n"
+            + "      <lastName>Mixer</lastName>\n"
+            + "    </secretary>\n"
+            + "  </person>\n"
+            + "  <person>\n"
+            + "    <firstName>Wendy</firstName>\n"
+            + "    <lastName>Mixer</lastName>\n"
+            + "  </person>\n"
+            + "</people>";
+        assertEquals(expectedXml, writer.toString());
+
+        try (Stream<Person> stream = xstream.fromXMLStream(new StringReader(writer.toString()))) {
+            final List<Person> result = stream.collect(Collectors.toList());
+            assertEquals(people, result);
+            assertNotSame(result.get(1).secretary, result.get(2));
+        }
+    }
+
+    public void testRequestsElementsLazily() {
+        final int[] written = new int[1];
+        final StringWriter buffer = new StringWriter();
+        final HierarchicalStreamWriter writer = new WriterWrapper(new PrettyPrintWriter(buffer)) {
+            private int depth;
+
+            @Override
+            public void startNode(final String name) {
+                ++depth;
+                super.startNode(name);
+            }
+
+            @Override
+            public void startNode(final String name, final Class<?> clazz) {
+                ++depth;
+                super.startNode(name, clazz);
+            }
+
+            @Override
+            public void endNode() {
+                if (--depth == 1) {
+                    ++written[0];
+                }
+                super.endNode();
+            }
+        };
+        final Iterator<Integer> iterator = IntStream.range(0, 1000).boxed().iterator();
+        xstream.marshalStream(new Iterator<Integer>() {
+            private int requested;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+                assertEquals(requested++, written[0]);
+                return iterator.next();
+            }
+        }, writer, "numbers", null);
+        writer.close();
+        assertEquals(1000, written[0]);
+
+        try (Stream<Integer> stream = xstream.fromXMLStream(new StringReader(buffer.toString()))) {
+            assertEquals(Arrays.asList(0, 1, 2), stream.limit(3).collect(Collectors.toList()));
+        }
+        try (Stream<Integer> stream = xstream.fromXMLStream(new StringReader(buffer.toString()))) {
+            assertEquals(499500, stream.mapToInt(Integer::intValue).sum());
+        }
+    }
+
+    public void testStreamsElementsThroughOutputStream() throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        xstream.toXMLStream(Stream.of("a", null, "c").iterator(), out, "strings");
+        final ObjectInputStream ois = xstream.createObjectInputStream(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("a", ois.readObject());
+        assertNull(ois.readObject());
+        assertEquals("c", ois.readObject());
+        ois.close();
+    }
+
+    public void testMarshalsAndUnmarshalsElementsInParallel() {
+        xstream.alias("person", Person.class);
+        xstream.setMode(XStream.ID_REFERENCES);
+        final List<Object> items = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            final Person person = new Person("Bob" + i, "Builder");
+            person.secretary = person;
+            items.add(i % 10 == 0 ? null : i % 3 == 0 ? "String " + i : person);
+        }
+        final StringWriter expected = new StringWriter();
+        xstream.toXMLStream(items.iterator(), expected, "items");
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final StringWriter writer = new StringWriter();
+            xstream.toXMLParallel(items.iterator(), writer, "items", pool, 7);
+            assertEquals(expected.toString(), writer.toString());
+
+            try (Stream<Object> stream = xstream.fromXMLParallel(new StringReader(writer.toString()), pool, 11)) {
+                final List<Object> result = stream.collect(Collectors.toList());
+                assertEquals(items, result);
+                assertSame(result.get(1), ((Person)result.get(1)).secretary);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public void testEncodesNamesForParallelMarshalling() {
+        final List<Object> items = new ArrayList<>();
+        for (int i = 0; i < 500; ++i) {
+            items.add(new Named$Item("item_" + i));
+        }
+        final StringWriter expected = new StringWriter();
+        xstream.toXMLStream(items.iterator(), expected, "items");
+        assertTrue(expected.toString().indexOf("<second__list reference=\"../first__list\"/>") > 0);
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final StringWriter writer = new StringWriter();
+            xstream.toXMLParallel(items.iterator(), writer, "items", pool, 3);
+            assertEquals(expected.toString(), writer.toString());
+
+            // a derived writer has no name tokens, the names are encoded by the writer itself
+            final StringWriter derived = new StringWriter();
+            final PrettyPrintWriter derivedWriter = new PrettyPrintWriter(derived) {
+                @Override
+                public String encodeNode(final String name) {
+                    return super.encodeNode(name);
+                }
+            };
+            assertNull(derivedWriter.getNameTokens());
+            xstream.marshalParallel(items.iterator(), derivedWriter, "items", null, pool, 3);
+            derivedWriter.flush();
+            assertEquals(expected.toString(), derived.toString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public void testKeepsTypeInformationForParallelMarshalling() {
+        final XStream json = new XStream(new JsonHierarchicalStreamDriver());
+        final List<Object> items = Arrays.asList(Integer.valueOf(1), "2", Boolean.TRUE, new int[]{3, 4}, null);
+        final StringWriter expected = new StringWriter();
+        json.toXMLStream(items.iterator(), expected, "items");
+
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final StringWriter writer = new StringWriter();
+            json.toXMLParallel(items.iterator(), writer, "items", pool, 2);
+            assertEquals(expected.toString(), writer.toString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public void testPropagatesExceptionsOfParallelTasks() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final String xml = "<items><int>1</int><int>2</int><int>three</int><int>4</int></items>";
+            try (Stream<Object> stream = xstream.fromXMLParallel(new StringReader(xml), pool, 1)) {
+                stream.forEach(o -> {});
+                fail("Thrown " + ConversionException.class.getName() + " expected");
+            } catch (final ConversionException e) {
+                assertTrue(e.getMessage().indexOf("three") >= 0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
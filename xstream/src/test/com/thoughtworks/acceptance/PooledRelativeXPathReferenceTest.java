@@ -0,0 +1,26 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.acceptance;
+
+import com.thoughtworks.xstream.core.ReferenceByXPathMarshallingStrategy;
+
+
+public class PooledRelativeXPathReferenceTest extends RelativeXPathReferenceTest {
+
+    // tests inherited from superclass
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        xstream.setMarshallingStrategy(new ReferenceByXPathMarshallingStrategy(ReferenceByXPathMarshallingStrategy.RELATIVE,
+            2));
+    }
+}
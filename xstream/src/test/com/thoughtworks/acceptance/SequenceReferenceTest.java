@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.acceptance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.MarshallingContext;
+import com.thoughtworks.xstream.converters.UnmarshallingContext;
+import com.thoughtworks.xstream.core.ReferencingMarshallingContext;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.path.Path;
+
+
+public class SequenceReferenceTest extends IDReferenceTest {
+
+    // tests inherited from superclass, the format is the same as with ID references
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        xstream.setMode(XStream.SEQUENCE_REFERENCES);
+    }
+
+    public void testReadsDocumentWrittenWithIdReferences() {
+        final Thing sameThing = new Thing("hello");
+        final List<Thing> list = new ArrayList<>();
+        list.add(sameThing);
+        list.add(sameThing);
+
+        xstream.setMode(XStream.ID_REFERENCES);
+        final String xml = xstream.toXML(list);
+        xstream.setMode(XStream.SEQUENCE_REFERENCES);
+
+        final List<Thing> result = xstream.fromXML(xml);
+        assertEquals(2, result.size());
+        assertSame(result.get(0), result.get(1));
+        assertEquals("hello", result.get(0).field);
+    }
+
+    public void testRejectsIdsThatAreNoPositiveIntegers() {
+        final String xml = ""
+            + "<list id=\"a\">\n"
+            + "  <thing id=\"2\">\n"
+            + "    <field>hello</field>\n"
+            + "  </thing>\n"
+            + "</list>";
+
+        try {
+            xstream.fromXML(xml);
+            fail("Thrown " + ConversionException.class.getName() + " expected");
+        } catch (final ConversionException e) {
+            assertEquals("a", e.get("id"));
+        }
+    }
+
+    public void testRejectsUnknownReference() {
+        final String xml = ""
+            + "<list id=\"1\">\n"
+            + "  <thing reference=\"2\"/>\n"
+            + "</list>";
+
+        try {
+            xstream.fromXML(xml);
+            fail("Thrown " + ConversionException.class.getName() + " expected");
+        } catch (final ConversionException e) {
+            assertEquals("2", e.get("reference"));
+        }
+    }
+
+    public void testAcceptsSparseIds() {
+        final String xml = ""
+            + "<list id=\"1\">\n"
+            + "  <thing id=\"2000000000\">\n"
+            + "    <field>hello</field>\n"
+            + "  </thing>\n"
+            + "  <thing reference=\"2000000000\"/>\n"
+            + "</list>";
+
+        final List<Thing> result = xstream.fromXML(xml);
+        assertEquals(2, result.size());
+        assertSame(result.get(0), result.get(1));
+        assertEquals("hello", result.get(0).field);
+    }
+
+    public void testReportsPathOfOpenNodes() {
+        final List<Path> paths = new ArrayList<>();
+        xstream.registerConverter(new Converter() {
+
+            @Override
+            public boolean canConvert(final Class<?> type) {
+                return type == Thing.class;
+            }
+
+            @SuppressWarnings("deprecation")
+            @Override
+            public void marshal(final Object source, final HierarchicalStreamWriter writer,
+                    final MarshallingContext context) {
+                paths.add(((ReferencingMarshallingContext<?>)context).currentPath());
+            }
+
+            @Override
+            public Object unmarshal(final HierarchicalStreamReader reader, final UnmarshallingContext context) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        final List<Thing> list = new ArrayList<>();
+        list.add(new Thing("hello"));
+        list.add(new Thing("world"));
+
+        xstream.toXML(list);
+        assertEquals(2, paths.size());
+        assertEquals(new Path("/list/thing"), paths.get(0));
+        assertEquals(new Path("/list/thing"), paths.get(1));
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2014, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2014, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -15,6 +15,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import com.thoughtworks.acceptance.AbstractAcceptanceTest;
@@ -169,6 +170,39 @@ public class AnnotationsTest extends AbstractAcceptanceTest {
         assertBothWays(list, xml);
     }
 
+    public void testAreDetectedConcurrently() throws InterruptedException {
+        final String xml = ""
+            + "<param>\n"
+            + "  <type>\n"
+            + "    <fieldAlias class=\"second\">\n"
+            + "      <aliased>value</aliased>\n"
+            + "    </fieldAlias>\n"
+            + "  </type>\n"
+            + "</param>";
+        final List<String> results = Collections.synchronizedList(new ArrayList<String>());
+        final Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10; ++j) {
+                        results.add(xstream.toXML(new ParameterizedContainer()));
+                    }
+                }
+            };
+        }
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(80, results.size());
+        for (final String result : results) {
+            assertEquals(xml, result);
+        }
+    }
+
     public void testForClassIsDetectedAtDeserialization() {
         // must preprocess annotations here
         xstream.processAnnotations(InternalType.class);
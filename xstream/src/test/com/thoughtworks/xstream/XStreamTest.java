@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2003, 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2011, 2014, 2017, 2018, 2020 XStream Committers.
+ * Copyright (C) 2006, 2007, 2011, 2014, 2017, 2018, 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,6 +11,8 @@
  */
 package com.thoughtworks.xstream;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -19,6 +21,9 @@ import java.io.ObjectOutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
 
 import org.dom4j.Element;
 
@@ -141,6 +146,40 @@ public class XStreamTest extends TestCase {
         assertEquals(xstream.fromXML(expected), x);
     }
 
+    public void testMarshalsObjectToChannelAndUnmarshalsFromChannelAndBuffer() {
+        final X x = new X();
+        x.anInt = 9;
+        x.aStr = "zzz";
+        x.innerObj = new Y();
+        x.innerObj.yField = "ooo";
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        xstream.toXML(x, Channels.newChannel(out));
+        final byte[] data = out.toByteArray();
+
+        assertEquals(x, xstream.fromXML(Channels.newChannel(new ByteArrayInputStream(data))));
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data).flip();
+        assertEquals(x, xstream.fromXML(buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    public void testRejectsNonBlockingChannel() throws IOException {
+        final Pipe pipe = Pipe.open();
+        try {
+            pipe.source().configureBlocking(false);
+            try {
+                xstream.fromXML(pipe.source());
+                fail("Thrown " + IllegalArgumentException.class.getName() + " expected");
+            } catch (final IllegalArgumentException e) {
+                // expected
+            }
+        } finally {
+            pipe.source().close();
+            pipe.sink().close();
+        }
+    }
+
     public void testUnmarshalsClassWithoutDefaultConstructor() {
         final String xml = ""//
             + "<funny>"
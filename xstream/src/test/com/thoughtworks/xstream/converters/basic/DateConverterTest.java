@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2012, 2014, 2015, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2012, 2014, 2015, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -248,4 +248,55 @@ public class DateConverterTest extends TestCase {
         assertEquals("Samstag, 01 Januar 2000 UTC", converter.toString(date));
         assertEquals(date, converter.fromString("Samstag, 01 Januar 2000 UTC"));
     }
+
+    public void testDefaultFormatIsCompatibleToSimpleDateFormat() throws ParseException {
+        final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.S z", Locale.ENGLISH);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        format.setLenient(false);
+        final String[] dates = {
+            "1500-03-01 12:00:00.0 UTC", "1582-10-15 00:00:00.0 UTC", "1583-01-01 00:00:00.0 UTC",
+            "1899-12-31 23:59:59.999 UTC", "1970-01-01 00:00:00.0 UTC", "2000-02-29 01:02:03.5 UTC",
+            "2004-02-22 15:16:04.50 UTC", "9999-12-31 23:59:59.999 UTC", "10000-01-01 00:00:00.0 UTC"};
+        for (final String date : dates) {
+            final Date expected = format.parse(date);
+            assertEquals(date, expected, converter.fromString(date));
+            assertEquals(format.format(expected), converter.toString(expected));
+        }
+    }
+
+    public void testRejectsInvalidDatesInDefaultFormat() {
+        final String[] dates = {"2001-02-29 00:00:00.0 UTC", "2004-02-22 24:00:00.0 UTC", "2004-02-22 15:16:04.1234 UTC"};
+        for (final String date : dates) {
+            try {
+                converter.fromString(date);
+                fail("Thrown " + ConversionException.class.getName() + " expected for " + date);
+            } catch (final ConversionException e) {
+                assertEquals(date, e.get("date"));
+            }
+        }
+    }
+
+    public void testSelectsAlternativeFormatByLiterals() {
+        converter = new DateConverter("yyyy-MM-dd'T'HH:mm:ss.S'Z'", new String[]{
+            "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd'T'HH:mm:ss'Z'", "dd.MM.yyyy"});
+        final Date expected = (Date)converter.fromString("2004-02-22T15:16:04.0Z");
+        assertEquals(expected, converter.fromString("2004-02-22T15:16:04Z"));
+        assertEquals(expected, converter.fromString("2004-02-22 15:16:04"));
+        assertEquals(converter.fromString("2004-02-22T00:00:00Z"), converter.fromString("22.02.2004"));
+    }
+
+    public void testRejectsInvalidPatternsAtConstruction() {
+        try {
+            new DateConverter("yyyy-MM-dd qq", new String[0]);
+            fail("Thrown " + IllegalArgumentException.class.getName() + " expected");
+        } catch (final IllegalArgumentException e) {
+            // OK
+        }
+        try {
+            new DateConverter("yyyy-MM-dd", new String[]{"dd.MM.yyyy", "yyyy-MM-dd qq"}, TimeZone.getDefault());
+            fail("Thrown " + IllegalArgumentException.class.getName() + " expected");
+        } catch (final IllegalArgumentException e) {
+            // OK
+        }
+    }
 }
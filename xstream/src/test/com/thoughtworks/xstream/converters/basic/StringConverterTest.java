@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2020 XStream Committers.
+ * Copyright (C) 2020, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -14,6 +14,8 @@ package com.thoughtworks.xstream.converters.basic;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.thoughtworks.xstream.core.util.StringDeduplicationCache;
+
 import junit.framework.TestCase;
 
 
@@ -62,4 +64,38 @@ public class StringConverterTest extends TestCase {
         assertNotSame(converter.fromString("JUnit"), converter.fromString(new String("JUnit"))); // non-cached value
         assertEquals(1, map.size());
     }
+
+    /**
+     * Tests the deduplication cache.
+     */
+    public void testDeduplicationCache() {
+        final StringDeduplicationCache cache = new StringDeduplicationCache(16);
+        final StringConverter converter = new StringConverter(cache, 4);
+        assertSame(converter.fromString("Test"), converter.fromString(new String("Test"))); // cached value
+        assertNotSame(converter.fromString("JUnit"), converter.fromString(new String("JUnit"))); // non-cached value
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 0.0);
+        assertEquals(1, cache.size());
+        assertEquals("Test", cache.get("Test"));
+    }
+
+    /**
+     * Tests the bounds of the deduplication cache.
+     */
+    public void testDeduplicationCacheIsBounded() {
+        final StringDeduplicationCache cache = new StringDeduplicationCache(10);
+        final StringConverter converter = new StringConverter(cache, -1);
+        for (int i = 0; i < 1000; ++i) {
+            final String s = String.valueOf(i);
+            assertEquals(s, converter.fromString(s));
+            assertSame(s, converter.fromString(new String(s)));
+        }
+        assertTrue(cache.size() <= 16);
+        assertEquals(1000, cache.getHitCount());
+        assertEquals(1000, cache.getMissCount());
+        assertEquals(cache.size(), cache.entrySet().size());
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2007, 2019 XStream Committers.
+ * Copyright (C) 2007, 2019, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -34,4 +34,12 @@ public class DurationConverterTest extends TestCase {
 	}
     }
 
+    public void testClaimsDurationOnlyWithFactory() throws Exception {
+        final Class<?> type = DatatypeFactory.newInstance().newDuration("P1Y").getClass();
+        assertTrue(new DurationConverter().canConvert(type));
+        assertTrue(new DurationConverter(DatatypeFactory.newInstance()).canConvert(type));
+        assertFalse(new DurationConverter(null).canConvert(type));
+        assertFalse(new DurationConverter().canConvert(String.class));
+    }
+
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.converters.javabean;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.ConversionException;
+import com.thoughtworks.xstream.converters.basic.BooleanConverter;
+import com.thoughtworks.xstream.converters.javabean.JavaBeanConverterTest.World;
+import com.thoughtworks.xstream.converters.reflection.MissingFieldException;
+import com.thoughtworks.xstream.converters.reflection.ObjectAccessException;
+
+import junit.framework.TestCase;
+
+
+public class MethodHandleBeanProviderTest extends TestCase {
+
+    public static class FailingBean {
+        private int value;
+
+        public int getValue() {
+            return value;
+        }
+
+        public void setValue(final int value) {
+            if (value < 0) {
+                throw new IllegalStateException("negative");
+            }
+            this.value = value;
+        }
+    }
+
+    private MethodHandleBeanProvider provider;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        provider = new MethodHandleBeanProvider(new JavaBeanConverterTest.StringComparator());
+    }
+
+    public void testWritesSameDocumentAsBeanProvider() {
+        final World world = new World();
+        world.setAString("MethodHandle");
+
+        final XStream xstream = new XStream();
+        xstream.alias("world", World.class);
+        xstream.allowTypes(World.class);
+        xstream.registerConverter(new JavaBeanConverter(xstream.getMapper(), new BeanProvider(
+            new JavaBeanConverterTest.StringComparator())), XStream.PRIORITY_LOW);
+        final String expected = xstream.toXML(world);
+
+        xstream.registerConverter(new JavaBeanConverter(xstream.getMapper(), provider), XStream.PRIORITY_LOW + 1);
+        assertEquals(expected, xstream.toXML(world));
+        assertEquals(expected, xstream.toXML(xstream.fromXML(expected)));
+    }
+
+    public void testConverterWritesPrimitivesWithTypedAccess() {
+        final World world = new World();
+        world.setAnInt(-42);
+        world.setALong(Long.MIN_VALUE);
+        world.setAFloat(0.25f);
+        world.setABool(false);
+
+        final XStream xstream = new XStream();
+        xstream.alias("world", World.class);
+        xstream.allowTypes(World.class);
+        xstream.registerConverter(new JavaBeanConverter(xstream.getMapper(), new BeanProvider(
+            new JavaBeanConverterTest.StringComparator())), XStream.PRIORITY_LOW);
+        final String expected = xstream.toXML(world);
+
+        xstream.registerConverter(new JavaBeanConverter(xstream.getMapper(), provider, null, xstream
+            .getConverterLookup()), XStream.PRIORITY_LOW + 1);
+        assertEquals(expected, xstream.toXML(world));
+        final World result = xstream.fromXML(expected);
+        assertEquals(-42, result.getAnInt());
+        assertEquals(Long.MIN_VALUE, result.getALong());
+        assertEquals(0.25f, result.getAFloat(), 0.0f);
+        assertFalse(result.isABool());
+        assertEquals(expected, xstream.toXML(result));
+    }
+
+    public void testConverterReadsOtherNumberFormatsWithDefaultConverter() {
+        final XStream xstream = new XStream();
+        xstream.alias("world", World.class);
+        xstream.allowTypes(World.class);
+        xstream.registerConverter(new JavaBeanConverter(xstream.getMapper(), provider, null, xstream
+            .getConverterLookup()), XStream.PRIORITY_LOW);
+
+        final World world = xstream.fromXML(""
+            + "<world>\n"
+            + "  <anInt>0x10</anInt>\n"
+            + "  <AShort>010</AShort>\n"
+            + "  <AByte>255</AByte>\n"
+            + "  <ALong>#20</ALong>\n"
+            + "</world>");
+        assertEquals(16, world.getAnInt());
+        assertEquals(8, world.getAShort());
+        assertEquals(-1, world.getAByte());
+        assertEquals(32, world.getALong());
+    }
+
+    public void testConverterUsesCustomConverterForPrimitives() {
+        final World world = new World();
+
+        final XStream xstream = new XStream();
+        xstream.alias("world", World.class);
+        xstream.allowTypes(World.class);
+        xstream.registerConverter(BooleanConverter.BINARY);
+        xstream.registerConverter(new JavaBeanConverter(xstream.getMapper(), provider, null, xstream
+            .getConverterLookup()), XStream.PRIORITY_LOW);
+
+        final String xml = xstream.toXML(world);
+        assertTrue(xml, xml.contains("<ABool>1</ABool>"));
+        final World result = xstream.fromXML(xml.replace("<ABool>1</ABool>", "<ABool>0</ABool>"));
+        assertFalse(result.isABool());
+    }
+
+    public void testCanAccessPrimitivePropertiesWithoutBoxing() {
+        final World world = new World();
+        final MethodHandleBeanProvider.PropertyAccessor accessor = provider.getPropertyAccessor(World.class, "anInt");
+        accessor.setInt(world, 42);
+        assertEquals(42, world.getAnInt());
+        assertEquals(42, accessor.getInt(world));
+        assertEquals(Integer.valueOf(42), accessor.get(world));
+
+        final MethodHandleBeanProvider.PropertyAccessor floatAccessor = provider.getPropertyAccessor(World.class,
+            "AFloat");
+        floatAccessor.setFloat(world, 0.5f);
+        assertEquals(0.5f, floatAccessor.getFloat(world), 0.0f);
+    }
+
+    public void testRejectsTypedAccessWithWrongType() {
+        try {
+            provider.getPropertyAccessor(World.class, "ALong").getInt(new World());
+            fail("Thrown " + ObjectAccessException.class.getName() + " expected");
+        } catch (final ObjectAccessException e) {
+            assertTrue(e.get("property").endsWith(".ALong"));
+        }
+    }
+
+    public void testReportsExceptionOfSetter() {
+        try {
+            provider.writeProperty(new FailingBean(), "value", Integer.valueOf(-1));
+            fail("Thrown " + ConversionException.class.getName() + " expected");
+        } catch (final ConversionException e) {
+            assertEquals("Cannot set property", e.getMessage().substring(0, 19));
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertTrue(e.get("property").endsWith(".value"));
+        }
+        try {
+            provider.writeProperty(new FailingBean(), "value", "1");
+            fail("Thrown " + ConversionException.class.getName() + " expected");
+        } catch (final ConversionException e) {
+            assertTrue(e.get("property").endsWith(".value"));
+        }
+    }
+
+    public void testFailsForUnknownProperty() {
+        try {
+            provider.writeProperty(new FailingBean(), "unknown", null);
+            fail("Thrown " + MissingFieldException.class.getName() + " expected");
+        } catch (final MissingFieldException e) {
+            assertEquals("unknown", e.getFieldName());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.converters.reflection;
+
+public class MethodHandleReflectionProviderTest extends SunLimitedUnsafeReflectionProviderTest {
+
+    // inherits tests from superclass
+
+    @Override
+    public ReflectionProvider createReflectionProvider() {
+        return new MethodHandleReflectionProvider();
+    }
+
+    public void testCanAccessPrimitiveFieldsWithoutBoxing() {
+        final MethodHandleReflectionProvider provider = (MethodHandleReflectionProvider)reflectionProvider;
+        final WithFinalFields thingy = (WithFinalFields)provider.newInstance(WithFinalFields.class);
+
+        final MethodHandleReflectionProvider.FieldAccessor intAccessor = provider.getFieldAccessor(
+            WithFinalFields.class, "finalInt", null);
+        intAccessor.setInt(thingy, 42);
+        assertEquals(42, thingy.finalInt);
+        assertEquals(42, intAccessor.getInt(thingy));
+        assertEquals(Integer.valueOf(42), intAccessor.get(thingy));
+
+        final MethodHandleReflectionProvider.FieldAccessor doubleAccessor = provider.getFieldAccessor(
+            WithFinalFields.class, "finalDouble", null);
+        doubleAccessor.setDouble(thingy, 0.5);
+        assertEquals(0.5, doubleAccessor.getDouble(thingy), 0.0);
+    }
+
+    public void testRejectsTypedAccessWithWrongType() {
+        final MethodHandleReflectionProvider provider = (MethodHandleReflectionProvider)reflectionProvider;
+        final WithFinalFields thingy = (WithFinalFields)provider.newInstance(WithFinalFields.class);
+        try {
+            provider.getFieldAccessor(WithFinalFields.class, "finalLong", null).getInt(thingy);
+            fail("Thrown " + ObjectAccessException.class.getName() + " expected");
+        } catch (final ObjectAccessException e) {
+            assertEquals("finalLong", e.get("field").substring(e.get("field").lastIndexOf('.') + 1));
+        }
+    }
+}
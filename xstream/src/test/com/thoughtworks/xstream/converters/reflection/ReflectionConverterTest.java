@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005, 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2010, 2013, 2014, 2018, 2019 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2010, 2013, 2014, 2018, 2019, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,9 +11,15 @@
  */
 package com.thoughtworks.xstream.converters.reflection;
 
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import com.thoughtworks.acceptance.objects.StandardObject;
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.UnmarshallingContext;
 import com.thoughtworks.xstream.core.ClassLoaderReference;
 import com.thoughtworks.xstream.core.util.CompositeClassLoader;
 import com.thoughtworks.xstream.core.util.DefaultDriver;
@@ -155,6 +161,101 @@ public class ReflectionConverterTest extends TestCase {
 
     }
 
+    public void testFlushCacheDropsMarshallingPlans() {
+        final XStream xstream = new XStream(DefaultDriver.create());
+        final ReflectionConverter converter = new ReflectionConverter(xstream.getMapper(), xstream
+            .getReflectionProvider());
+        xstream.registerConverter(converter, XStream.PRIORITY_VERY_LOW);
+        xstream.alias("types", TypesOfFields.class);
+
+        assertEquals("<types>\n  <normal>normal</normal>\n</types>", xstream.toXML(new TypesOfFields()));
+        xstream.aliasField("regular", TypesOfFields.class, "normal");
+        converter.flushCache();
+        assertEquals("<types>\n  <regular>normal</regular>\n</types>", xstream.toXML(new TypesOfFields()));
+    }
+
+    public void testFlushCacheDropsUnmarshallingPlans() {
+        final XStream xstream = new XStream(DefaultDriver.create());
+        final ReflectionConverter converter = new ReflectionConverter(xstream.getMapper(), xstream
+            .getReflectionProvider());
+        xstream.registerConverter(converter, XStream.PRIORITY_VERY_LOW);
+        xstream.allowTypes(new Class[]{TypesOfFields.class});
+        xstream.alias("types", TypesOfFields.class);
+
+        TypesOfFields fields = xstream.fromXML("<types><normal>first</normal></types>");
+        assertEquals("first", fields.normal);
+        xstream.aliasField("regular", TypesOfFields.class, "normal");
+        converter.flushCache();
+        fields = xstream.fromXML("<types><regular>second</regular></types>");
+        assertEquals("second", fields.normal);
+        try {
+            xstream.fromXML("<types><regular>third</regular><regular>fourth</regular></types>");
+            fail("Thrown " + AbstractReflectionConverter.DuplicateFieldException.class.getName() + " expected");
+        } catch (final AbstractReflectionConverter.DuplicateFieldException e) {
+            assertEquals("normal", e.get("field"));
+        }
+    }
+
+    public void testOverloadedFieldUnmarshallingIsUsedForEveryElement() {
+        final XStream xstream = new XStream(DefaultDriver.create());
+        final List<String> fieldNames = new ArrayList<>();
+        xstream.registerConverter(new ReflectionConverter(xstream.getMapper(), xstream.getReflectionProvider()) {
+
+            @Override
+            public boolean canConvert(final Class<?> type) {
+                return type == TypesOfFields.class;
+            }
+
+            @Override
+            protected Object unmarshallField(final UnmarshallingContext context, final Object result,
+                    final Class<?> type, final Field field) {
+                fieldNames.add(field.getName());
+                return super.unmarshallField(context, result, type, field);
+            }
+        });
+        xstream.allowTypes(TypesOfFields.class);
+        xstream.alias("types", TypesOfFields.class);
+
+        for (final String value : new String[]{"first", "second"}) {
+            final TypesOfFields fields = xstream.fromXML("<types><normal>" + value + "</normal></types>");
+            assertEquals(value, fields.normal);
+        }
+        assertEquals(Arrays.asList("normal", "normal"), fieldNames);
+    }
+
+    public void testDerivedReflectionProviderWritesEveryField() {
+        final List<String> fieldNames = new ArrayList<>();
+        final ReflectionProvider provider = new PureJavaReflectionProvider() {
+
+            @Override
+            public void writeField(final Object object, final String fieldName, final Object value,
+                    final Class<?> definedIn) {
+                fieldNames.add(fieldName);
+                super.writeField(object, fieldName, value, definedIn);
+            }
+        };
+        final XStream xstream = new XStream(provider, DefaultDriver.create());
+        xstream.allowTypes(TypesOfFields.class);
+        xstream.alias("types", TypesOfFields.class);
+        xstream.useAttributeFor(TypesOfFields.class, "normal");
+
+        for (final String value : new String[]{"first", "second"}) {
+            final TypesOfFields fields = xstream.fromXML("<types normal='" + value + "'/>");
+            assertEquals(value, fields.normal);
+        }
+        assertEquals(Arrays.asList("normal", "normal"), fieldNames);
+
+        fieldNames.clear();
+        final XStream wrapping = new XStream(new ReflectionProviderWrapper(provider), DefaultDriver.create());
+        wrapping.allowTypes(TypesOfFields.class);
+        wrapping.alias("types", TypesOfFields.class);
+        for (final String value : new String[]{"first", "second"}) {
+            final TypesOfFields fields = wrapping.fromXML("<types><normal>" + value + "</normal></types>");
+            assertEquals(value, fields.normal);
+        }
+        assertEquals(Arrays.asList("normal", "normal"), fieldNames);
+    }
+
     static class CustomReflectionConverter extends ReflectionConverter {
 
         public CustomReflectionConverter(final Mapper mapper, final ReflectionProvider reflectionProvider) {
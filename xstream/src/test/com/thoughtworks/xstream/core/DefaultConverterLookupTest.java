@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2006, 2007 XStream Committers.
+ * Copyright (C) 2006, 2007, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -41,4 +41,30 @@ public class DefaultConverterLookupTest extends TestCase {
 		assertEquals(lookup.lookupConverterForType(String.class), newConverter);
 	}
 
+	public void testKeepsCachedConverterIfLaterRegistrationHasLowerPriority() {
+		final DefaultConverterLookup lookup = new DefaultConverterLookup();
+		Converter currentConverter = new SingleValueConverterWrapper(new StringConverter());
+		lookup.registerConverter(currentConverter, XStream.PRIORITY_NORMAL);
+		assertSame(currentConverter, lookup.lookupConverterForType(String.class));
+		lookup.registerConverter(new SingleValueConverterWrapper(new StringConverter()), XStream.PRIORITY_LOW);
+		lookup.registerConverter(new BitSetConverter(), XStream.PRIORITY_VERY_HIGH);
+		assertSame(currentConverter, lookup.lookupConverterForType(String.class));
+		Converter newConverter = new SingleValueConverterWrapper(new StringConverter());
+		lookup.registerConverter(newConverter, XStream.PRIORITY_NORMAL);
+		assertSame(newConverter, lookup.lookupConverterForType(String.class));
+	}
+
+	public void testCountsCacheHitsAndMisses() {
+		final DefaultConverterLookup lookup = new DefaultConverterLookup();
+		lookup.registerConverter(new SingleValueConverterWrapper(new StringConverter()), XStream.PRIORITY_NORMAL);
+		lookup.lookupConverterForType(String.class);
+		lookup.lookupConverterForType(String.class);
+		lookup.lookupConverterForType(String.class);
+		assertEquals(1, lookup.getCacheMisses());
+		assertEquals(2, lookup.getCacheHits());
+		lookup.flushCache();
+		lookup.lookupConverterForType(String.class);
+		assertEquals(2, lookup.getCacheMisses());
+	}
+
 }
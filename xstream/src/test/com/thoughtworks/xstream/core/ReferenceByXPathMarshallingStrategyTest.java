@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004 Joe Walnes.
- * Copyright (C) 2006, 2007, 2015, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2015, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -21,8 +21,9 @@ import java.util.Map;
 import com.thoughtworks.acceptance.AbstractAcceptanceTest;
 import com.thoughtworks.acceptance.objects.StandardObject;
 import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.ConversionException;
 import com.thoughtworks.xstream.converters.ConverterLookup;
-import com.thoughtworks.xstream.core.util.ObjectIdDictionary;
+import com.thoughtworks.xstream.core.util.ObjectIdMap;
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 import com.thoughtworks.xstream.io.path.Path;
@@ -146,7 +147,7 @@ public class ReferenceByXPathMarshallingStrategyTest extends AbstractAcceptanceT
         xstream.toXML(list);
 
         // assert
-        final ObjectIdDictionary<?> trackedPathsOnMarshal = getReferences(marshallingStrategy.requestedMarshaller);
+        final ObjectIdMap<?> trackedPathsOnMarshal = getReferences(marshallingStrategy.requestedMarshaller);
 
         assertTrue(trackedPathsOnMarshal.containsId(list));
         assertEquals(1, trackedPathsOnMarshal.size());
@@ -210,6 +211,68 @@ public class ReferenceByXPathMarshallingStrategyTest extends AbstractAcceptanceT
         assertEquals(3, trackedPathsOnUnmarshal.size());
     }
 
+    public void testReusesPooledContexts() {
+        final List<ReferenceByXPathMarshaller> marshallers = new ArrayList<>();
+        final List<ReferenceByXPathUnmarshaller> unmarshallers = new ArrayList<>();
+        xstream.setMarshallingStrategy(new ReferenceByXPathMarshallingStrategy(ReferenceByXPathMarshallingStrategy.RELATIVE,
+            1) {
+
+            @Override
+            protected TreeUnmarshaller createUnmarshallingContext(final Object root,
+                    final HierarchicalStreamReader reader, final ConverterLookup converterLookup, final Mapper mapper) {
+                final ReferenceByXPathUnmarshaller unmarshaller = (ReferenceByXPathUnmarshaller)super
+                    .createUnmarshallingContext(root, reader, converterLookup, mapper);
+                unmarshallers.add(unmarshaller);
+                return unmarshaller;
+            }
+
+            @Override
+            protected TreeMarshaller createMarshallingContext(final HierarchicalStreamWriter writer,
+                    final ConverterLookup converterLookup, final Mapper mapper) {
+                final ReferenceByXPathMarshaller marshaller = (ReferenceByXPathMarshaller)super
+                    .createMarshallingContext(writer, converterLookup, mapper);
+                marshallers.add(marshaller);
+                return marshaller;
+            }
+        });
+
+        final Thing b = new Thing("b");
+        final List<Thing> list = new ArrayList<>();
+        list.add(new Thing("a"));
+        list.add(b);
+        list.add(b);
+
+        final String expected = ""
+            + "<list>\n"
+            + "  <thing>\n"
+            + "    <name>a</name>\n"
+            + "  </thing>\n"
+            + "  <thing>\n"
+            + "    <name>b</name>\n"
+            + "  </thing>\n"
+            + "  <thing reference=\"../thing[2]\"/>\n"
+            + "</list>";
+
+        for (int i = 0; i < 3; ++i) {
+            assertEquals(expected, xstream.toXML(list));
+            final List<?> result = xstream.fromXML(expected);
+            assertEquals(list, result);
+            assertSame(result.get(1), result.get(2));
+        }
+        try {
+            xstream.fromXML("<list><thing reference=\"../thing[2]\"/></list>");
+            fail("Thrown " + ConversionException.class.getName() + " expected");
+        } catch (final ConversionException e) {
+            // expected
+        }
+        assertEquals(list, xstream.fromXML(expected));
+
+        assertEquals(1, marshallers.size());
+        assertEquals(1, unmarshallers.size());
+        assertEquals(0, getReferences(marshallers.get(0)).size());
+        assertEquals(0, getReferences(unmarshallers.get(0)).size());
+    }
+
     @SuppressWarnings("unchecked")
     private Map<Path, Object> getReferences(final ReferenceByXPathUnmarshaller requestedUnmarshaller) {
         try {
@@ -221,11 +284,11 @@ public class ReferenceByXPathMarshallingStrategyTest extends AbstractAcceptanceT
         }
     }
 
-    private ObjectIdDictionary<?> getReferences(final ReferenceByXPathMarshaller requestedMarshaller) {
+    private ObjectIdMap<?> getReferences(final ReferenceByXPathMarshaller requestedMarshaller) {
         try {
             final Field field = AbstractReferenceMarshaller.class.getDeclaredField("references");
             field.setAccessible(true);
-            return (ObjectIdDictionary<?>)field.get(requestedMarshaller);
+            return (ObjectIdMap<?>)field.get(requestedMarshaller);
         } catch (final Exception e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.io.ObjectInputValidation;
+import java.util.EmptyStackException;
+import java.util.Map;
+
+import com.thoughtworks.xstream.converters.DataHolder;
+import com.thoughtworks.xstream.core.ClassLoaderReference;
+import com.thoughtworks.xstream.core.MapBackedDataHolder;
+
+import junit.framework.TestCase;
+
+
+public class CustomObjectStreamTest extends TestCase {
+
+    private static class InputCallback implements CustomObjectInputStream.StreamCallback {
+        @Override
+        public Object readFromStream() {
+            return this;
+        }
+
+        @Override
+        public Map<String, Object> readFieldsFromStream() {
+            return null;
+        }
+
+        @Override
+        public void defaultReadObject() {
+        }
+
+        @Override
+        public void registerValidation(final ObjectInputValidation validation, final int priority) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class OutputCallback implements CustomObjectOutputStream.StreamCallback {
+        @Override
+        public void writeToStream(final Object object) {
+        }
+
+        @Override
+        public void writeFieldsToStream(final Map<String, Object> fields) {
+        }
+
+        @Override
+        public void defaultWriteObject() {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    public void testInputStreamIsReusedWithNestedCallbacks() throws Exception {
+        final DataHolder context = new MapBackedDataHolder();
+        final ClassLoaderReference classLoaderReference = new ClassLoaderReference(getClass().getClassLoader());
+        final InputCallback[] callbacks = new InputCallback[10];
+        CustomObjectInputStream stream = null;
+        for (int i = 0; i < callbacks.length; ++i) {
+            callbacks[i] = new InputCallback();
+            final CustomObjectInputStream current = CustomObjectInputStream.getInstance(context, callbacks[i],
+                classLoaderReference);
+            if (stream != null) {
+                assertSame(stream, current);
+            }
+            stream = current;
+            assertSame(callbacks[i], stream.readObject());
+        }
+        for (int i = callbacks.length; i-- > 0;) {
+            assertSame(callbacks[i], stream.peekCallback());
+            assertSame(callbacks[i], stream.popCallback());
+        }
+        assertNull(stream.peekCallback());
+        try {
+            stream.popCallback();
+            fail("Thrown " + EmptyStackException.class.getName() + " expected");
+        } catch (final EmptyStackException e) {
+            // expected
+        }
+        final InputCallback callback = new InputCallback();
+        assertSame(stream, CustomObjectInputStream.getInstance(context, callback, classLoaderReference));
+        assertSame(callback, stream.peekCallback());
+    }
+
+    public void testOutputStreamIsReusedWithNestedCallbacks() throws Exception {
+        final DataHolder context = new MapBackedDataHolder();
+        final OutputCallback outer = new OutputCallback();
+        final OutputCallback inner = new OutputCallback();
+        final CustomObjectOutputStream stream = CustomObjectOutputStream.getInstance(context, outer);
+        assertSame(stream, CustomObjectOutputStream.getInstance(context, inner));
+        assertSame(inner, stream.popCallback());
+        assertSame(outer, stream.popCallback());
+        assertNull(stream.peekCallback());
+    }
+
+    public void testStreamIsOnlyReusedByOwningThread() throws Exception {
+        final DataHolder context = new MapBackedDataHolder();
+        final ClassLoaderReference classLoaderReference = new ClassLoaderReference(getClass().getClassLoader());
+        final CustomObjectInputStream input = CustomObjectInputStream.getInstance(context, new InputCallback(),
+            classLoaderReference);
+        final CustomObjectOutputStream output = CustomObjectOutputStream.getInstance(context, new OutputCallback());
+        final Object[] results = new Object[2];
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                results[0] = CustomObjectInputStream.getInstance(context, new InputCallback(), classLoaderReference);
+                results[1] = CustomObjectOutputStream.getInstance(context, new OutputCallback());
+            }
+        });
+        thread.start();
+        thread.join();
+        assertNotNull(results[0]);
+        assertNotSame(input, results[0]);
+        assertNotNull(results[1]);
+        assertNotSame(output, results[1]);
+        assertSame(input, CustomObjectInputStream.getInstance(context, new InputCallback(), classLoaderReference));
+        assertSame(output, CustomObjectOutputStream.getInstance(context, new OutputCallback()));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+
+public class ObjectIdMapTest extends TestCase {
+
+    public void testMapsIdsToObjectReferences() {
+        final ObjectIdMap<String> map = new ObjectIdMap<>();
+        final Object a = new Object();
+        final Object b = new Object();
+        final Object c = new Object();
+        map.associateId(a, "id a");
+        map.associateId(b, "id b");
+        map.associateId(c, "id c");
+        assertEquals("id a", map.lookupId(a));
+        assertEquals("id b", map.lookupId(b));
+        assertEquals("id c", map.lookupId(c));
+        assertNull(map.lookupId(new Object()));
+        assertEquals(3, map.size());
+    }
+
+    public void testTreatsObjectsThatAreEqualButNotSameInstanceAsDifferentReference() {
+        final ObjectIdMap<String> map = new ObjectIdMap<>();
+        final String a = new String("JUnit");
+        final String b = new String("JUnit");
+        map.associateId(a, "id a");
+        map.associateId(b, "id b");
+        assertEquals("id a", map.lookupId(a));
+        assertEquals("id b", map.lookupId(b));
+    }
+
+    public void testSupportsNullReference() {
+        final ObjectIdMap<String> map = new ObjectIdMap<>();
+        assertFalse(map.containsId(null));
+        map.associateId(null, "id null");
+        assertTrue(map.containsId(null));
+        assertEquals("id null", map.lookupId(null));
+        map.removeId(null);
+        assertFalse(map.containsId(null));
+    }
+
+    public void testGrowsAndRemovesEntries() {
+        final ObjectIdMap<Integer> map = new ObjectIdMap<>(2);
+        final List<Object> objects = new ArrayList<>();
+        for (int i = 0; i < 10000; ++i) {
+            final Object o = new Object();
+            objects.add(o);
+            map.associateId(o, Integer.valueOf(i));
+        }
+        assertEquals(10000, map.size());
+        for (int i = 0; i < objects.size(); i += 2) {
+            map.removeId(objects.get(i));
+        }
+        assertEquals(5000, map.size());
+        for (int i = 0; i < objects.size(); ++i) {
+            if (i % 2 == 0) {
+                assertFalse(map.containsId(objects.get(i)));
+            } else {
+                assertEquals(Integer.valueOf(i), map.lookupId(objects.get(i)));
+            }
+        }
+    }
+
+    public void testCanBeReusedAfterClear() {
+        final ObjectIdMap<String> map = new ObjectIdMap<>();
+        final Object a = new Object();
+        map.associateId(a, "id a");
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsId(a));
+        map.associateId(a, "id b");
+        assertEquals("id b", map.lookupId(a));
+    }
+}
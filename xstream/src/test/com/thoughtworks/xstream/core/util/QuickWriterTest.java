@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2009, 2018 XStream Committers.
+ * Copyright (C) 2009, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -10,7 +10,9 @@
  */
 package com.thoughtworks.xstream.core.util;
 
+import java.io.ByteArrayOutputStream;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 
 import junit.framework.TestCase;
 
@@ -31,4 +33,33 @@ public class QuickWriterTest extends TestCase {
             assertEquals(stringWriter.toString(), "Joe Walnes");
         }
     }
+
+    public void testEncodesUtf8IntoStream() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; ++i) {
+            builder.append("Joe Walnes \u00e4\u00df\u20ac\ud83d\ude00 ");
+        }
+        final String text = builder.toString();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (QuickWriter writer = new QuickWriter(out, 17)) {
+            writer.write(text);
+            writer.write(text, 3, 11);
+            writer.write(text.toCharArray());
+            for (int i = 0; i < text.length(); ++i) {
+                writer.write(text.charAt(i));
+            }
+        }
+        assertEquals(text + text.substring(3, 11) + text + text, new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    public void testReplacesUnpairedSurrogatesInStream() {
+        final String text = "a\udc00b\ud800c\ud800";
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (QuickWriter writer = new QuickWriter(out)) {
+            writer.write(text);
+        }
+        assertEquals(new String(text.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8), new String(out
+            .toByteArray(), StandardCharsets.UTF_8));
+        assertEquals("a?b?c?", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
 }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2011, 2015, 2016, 2018, 2019, 2021 XStream Committers.
+ * Copyright (C) 2006, 2007, 2011, 2015, 2016, 2018, 2019, 2021, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -13,7 +13,10 @@ package com.thoughtworks.xstream.io.binary;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 
 import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
@@ -39,7 +42,9 @@ public class BinaryStreamTest extends AbstractReaderTest {
         final HierarchicalStreamReader xmlReader = new MXParserDriver().createReader(new StringReader(xml));
 
         final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-        final HierarchicalStreamWriter binaryWriter = new BinaryStreamWriter(buffer);
+        // the acceptance tests use the default first version
+        final HierarchicalStreamWriter binaryWriter = new BinaryStreamWriter(buffer,
+            BinaryStreamWriter.FORMAT_VERSION_2);
         copier.copy(xmlReader, binaryWriter);
 
         return new BinaryStreamReader(new ByteArrayInputStream(buffer.toByteArray()));
@@ -79,4 +84,122 @@ public class BinaryStreamTest extends AbstractReaderTest {
             }
         }
     }
+
+    public void testReadsLinesFromBuffer() {
+        final ByteBufferDataInput in = new ByteBufferDataInput(ByteBuffer.wrap("one\ntwo\r\nthree\rfour"
+            .getBytes()));
+        assertEquals("one", in.readLine());
+        assertEquals("two", in.readLine());
+        assertEquals("three", in.readLine());
+        assertEquals("four", in.readLine());
+        assertNull(in.readLine());
+    }
+
+    public void testReadsSparseIds() throws Exception {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(buffer);
+        final Token.Formatter formatter = new Token.Formatter();
+        formatter.write(out, new Token.MapIdToValue(1L << 20, "root"));
+        formatter.write(out, new Token.StartNode(1L << 20));
+        formatter.write(out, new Token.MapIdToValue(1L << 40, "child"));
+        formatter.write(out, new Token.StartNode(1L << 40));
+        formatter.write(out, new Token.EndNode());
+        formatter.write(out, new Token.EndNode());
+        out.flush();
+
+        try (final HierarchicalStreamReader binaryReader = new BinaryStreamReader(new ByteArrayInputStream(buffer
+            .toByteArray()))) {
+            assertEquals("root", binaryReader.getNodeName());
+            binaryReader.moveDown();
+            assertEquals("child", binaryReader.getNodeName());
+            binaryReader.moveUp();
+            assertFalse(binaryReader.hasMoreChildren());
+        }
+    }
+
+    public void testWritesFirstVersionOfFormatByDefault() {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (final HierarchicalStreamWriter binaryWriter = new BinaryStreamDriver().createWriter(buffer)) {
+            binaryWriter.startNode("root");
+            binaryWriter.endNode();
+        }
+
+        // first byte of version 1 is always a token of the root node
+        assertEquals(Token.TYPE_MAP_ID_TO_VALUE, buffer.toByteArray()[0] & 0x7);
+    }
+
+    public void testReadsFirstVersionOfFormat() throws Exception {
+        final String xml = "<root a=\"1\"><child>text</child><child b=\"2\"/></root>";
+        final HierarchicalStreamReader xmlReader = new MXParserDriver().createReader(new StringReader(xml));
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        copier.copy(xmlReader, new BinaryStreamWriter(buffer, BinaryStreamWriter.FORMAT_VERSION_1));
+
+        // first byte of version 1 is always a token of the root node
+        assertEquals(Token.TYPE_MAP_ID_TO_VALUE, buffer.toByteArray()[0] & 0x7);
+        try (final HierarchicalStreamReader binaryReader = new BinaryStreamReader(new ByteArrayInputStream(buffer
+            .toByteArray()))) {
+            assertEquals("root", binaryReader.getNodeName());
+            assertEquals("1", binaryReader.getAttribute("a"));
+            binaryReader.moveDown();
+            assertEquals("text", binaryReader.getValue());
+            binaryReader.moveUp();
+            binaryReader.moveDown();
+            assertEquals("child", binaryReader.getNodeName());
+            assertEquals("2", binaryReader.getAttribute(0));
+            assertEquals("b", binaryReader.getAttributeName(0));
+            binaryReader.moveUp();
+            assertFalse(binaryReader.hasMoreChildren());
+        }
+    }
+
+    public void testWritesSecondVersionOfFormatWithoutSizeLimitForStrings() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            builder.append("\u0391\u03b8\u03ae\u03bd\u03b1 \ud83d\ude00 ");
+        }
+        builder.append('\ud800'); // unpaired surrogate
+        final String text = builder.toString();
+
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (final HierarchicalStreamWriter binaryWriter = new BinaryStreamWriter(buffer,
+            BinaryStreamWriter.FORMAT_VERSION_2)) {
+            binaryWriter.startNode("root");
+            binaryWriter.addAttribute("attr", text);
+            binaryWriter.setValue(text);
+            binaryWriter.endNode();
+        }
+
+        assertEquals(Token.TYPE_VERSION, buffer.toByteArray()[0] & 0x7);
+        try (final HierarchicalStreamReader binaryReader = new BinaryStreamReader(new ByteArrayInputStream(buffer
+            .toByteArray()))) {
+            assertEquals("root", binaryReader.getNodeName());
+            assertEquals(text, binaryReader.getAttribute("attr"));
+            assertEquals(text, binaryReader.getValue());
+        }
+    }
+
+    public void testReadsFromBufferAndWritesToChannel() {
+        final BinaryStreamDriver driver = new BinaryStreamDriver();
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (final HierarchicalStreamWriter binaryWriter = driver.createWriter(Channels.newChannel(buffer))) {
+            binaryWriter.startNode("root");
+            binaryWriter.addAttribute("a", "1");
+            binaryWriter.startNode("child");
+            binaryWriter.setValue("text");
+            binaryWriter.endNode();
+            binaryWriter.endNode();
+        }
+
+        final ByteBuffer data = ByteBuffer.wrap(buffer.toByteArray());
+        try (final HierarchicalStreamReader binaryReader = driver.createReader(data)) {
+            assertEquals("root", binaryReader.getNodeName());
+            assertEquals("1", binaryReader.getAttribute("a"));
+            binaryReader.moveDown();
+            assertEquals("child", binaryReader.getNodeName());
+            assertEquals("text", binaryReader.getValue());
+            binaryReader.moveUp();
+            assertFalse(binaryReader.hasMoreChildren());
+        }
+        assertEquals(0, data.position());
+    }
 }
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2009, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2009, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -16,6 +16,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 
 import junit.framework.TestCase;
@@ -100,6 +101,60 @@ public class TokenTest extends TestCase {
         assertEquals(token, readOneToken());
     }
 
+    public void testCompactFormatStoresSmallIdsInTypeByte() throws IOException {
+        tokenFormatter = new Token.CompactFormatter();
+        final Token.StartNode token = new Token.StartNode(31);
+        writeOneToken(token);
+        assertEquals(1, buffer.size());
+        assertEquals(token, readOneToken());
+    }
+
+    public void testCompactFormatUsesVariableLengthIds() throws IOException {
+        tokenFormatter = new Token.CompactFormatter();
+        final Token.StartNode token = new Token.StartNode(300);
+        writeOneToken(token);
+        assertEquals(3, buffer.size()); // One byte for the type and two for the id.
+        assertEquals(token, readOneToken());
+    }
+
+    public void testCompactFormatUsesVariableLengthForStrings() throws IOException {
+        tokenFormatter = new Token.CompactFormatter();
+        final Token.Value token = new Token.Value("\u0391\u03b8\u03ae\u03bd\u03b1"); // Athens
+        writeOneToken(token);
+        assertEquals(12, buffer.size()); // One byte for the type and one for the length.
+        assertEquals(token, readOneToken());
+    }
+
+    public void testCompactFormatDoesNotSupportNegativeIds() {
+        tokenFormatter = new Token.CompactFormatter();
+        try {
+            writeOneToken(new Token.Attribute(-5, "value"));
+            fail("Expected exception");
+        } catch (final IOException expectedException) {
+            // expected exception
+        }
+    }
+
+    public void testCompactFormatReadsVersionToken() throws IOException {
+        tokenFormatter = new Token.CompactFormatter();
+        final Token.Version token = new Token.Version(2);
+        writeOneToken(token);
+        assertEquals(token, readOneToken());
+    }
+
+    public void testCompactFormatDoesNotTrustStringLength() throws IOException {
+        tokenFormatter = new Token.CompactFormatter();
+        out.write(Token.TYPE_VALUE);
+        // variable-length quantity for 0x7ffffff0, followed by a single byte only
+        out.write(new byte[]{(byte)0xf0, (byte)0xff, (byte)0xff, (byte)0xff, 0x07, 'a'});
+        try {
+            readOneToken();
+            fail("Thrown " + EOFException.class.getName() + " expected");
+        } catch (final EOFException e) {
+            // expected
+        }
+    }
+
     private Token readOneToken() throws IOException {
         return tokenFormatter.read(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
     }
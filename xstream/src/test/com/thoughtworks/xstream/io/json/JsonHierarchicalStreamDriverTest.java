@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2006 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2012, 2017, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2009, 2011, 2012, 2017, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -12,8 +12,9 @@
 package com.thoughtworks.xstream.io.json;
 
 import java.awt.Color;
-import java.io.InputStream;
-import java.io.Reader;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.MalformedURLException;
@@ -35,6 +36,7 @@ import com.thoughtworks.acceptance.objects.OwnerOfExternalizable;
 import com.thoughtworks.acceptance.objects.Replaced;
 import com.thoughtworks.acceptance.objects.SomethingExternalizable;
 import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
 
 import junit.framework.TestCase;
 
@@ -62,19 +64,31 @@ public class JsonHierarchicalStreamDriverTest extends TestCase {
         return expected.replace('\'', '"');
     }
 
-    public void testDoesNotSupportReader() {
-        try {
-            new JsonHierarchicalStreamDriver().createReader((Reader)null);
-            fail("should have barfed");
-        } catch (final UnsupportedOperationException uoe) {
-            // expected
-        }
+    public void testSupportsReader() {
+        final HierarchicalStreamReader reader = new JsonHierarchicalStreamDriver().createReader(new StringReader(
+            "{'root': {'@a': '1', 'child': 'value'}}".replace('\'', '"')));
+        assertEquals("root", reader.getNodeName());
+        assertEquals("1", reader.getAttribute("a"));
+        reader.moveDown();
+        assertEquals("child", reader.getNodeName());
+        assertEquals("value", reader.getValue());
+        reader.moveUp();
+        assertFalse(reader.hasMoreChildren());
+        reader.close();
+    }
+
+    public void testSupportsInputStream() throws UnsupportedEncodingException {
+        final HierarchicalStreamReader reader = new JsonHierarchicalStreamDriver().createReader(
+            new ByteArrayInputStream("{\"string\": \"\u03b1\u03b2\u03b3\"}".getBytes("UTF-8")));
+        assertEquals("string", reader.getNodeName());
+        assertEquals("\u03b1\u03b2\u03b3", reader.getValue());
+        reader.close();
     }
 
-    public void testDoesNotSupportInputStream() {
+    public void testCannotReadWithoutRootNode() {
         try {
-            new JsonHierarchicalStreamDriver().createReader((InputStream)null);
-            fail("should have barfed");
+            new JsonHierarchicalStreamDriver(AbstractJsonWriter.DROP_ROOT_MODE).createReader(new StringReader("{}"));
+            fail("Thrown " + UnsupportedOperationException.class.getName() + " expected");
         } catch (final UnsupportedOperationException uoe) {
             // expected
         }
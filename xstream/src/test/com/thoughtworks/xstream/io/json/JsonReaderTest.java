@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.io.json;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.thoughtworks.acceptance.someobjects.X;
+import com.thoughtworks.acceptance.someobjects.Y;
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.StreamException;
+import com.thoughtworks.xstream.io.naming.NoNameCoder;
+
+import junit.framework.TestCase;
+
+
+public class JsonReaderTest extends TestCase {
+
+    private JsonReader createReader(final String json, final int mode) {
+        return new JsonReader(new StringReader(json.replace('\'', '"')), mode, new NoNameCoder());
+    }
+
+    private XStream createXStream(final int mode) {
+        final XStream xstream = new XStream(new JsonHierarchicalStreamDriver(mode));
+        xstream.allowTypesByWildcard("com.thoughtworks.acceptance.**");
+        xstream.alias("X", X.class);
+        xstream.alias("Y", Y.class);
+        return xstream;
+    }
+
+    public void testReadsExplicitModeWithReferences() {
+        final X x = new X(42);
+        x.aStr = "Codehaus";
+        x.innerObj = new Y();
+        x.innerObj.yField = "Y";
+        final Map<String, Object> map = new HashMap<>();
+        map.put("x", x);
+        map.put("empty", "");
+        final List<Object> list = new ArrayList<>(Arrays.asList(new Object[]{
+            new Object[][]{new Object[0]}, null, Integer.valueOf(42), Long.valueOf(Long.MAX_VALUE), new Y(), x.innerObj,
+            new ArrayList<Object>(), new char[]{'a', '"', '\\', '\n'}, x, map, Boolean.TRUE, Double.valueOf(
+                1.5)}));
+
+        final XStream xstream = createXStream(AbstractJsonWriter.EXPLICIT_MODE);
+        xstream.setMode(XStream.ID_REFERENCES);
+        xstream.useAttributeFor(X.class, "anInt");
+        final String json = xstream.toXML(list);
+        final List<?> result = xstream.fromXML(json);
+
+        final XStream xml = new XStream();
+        assertEquals(xml.toXML(list), xml.toXML(result));
+        assertSame(result.get(8), ((Map<?, ?>)result.get(9)).get("x"));
+        assertSame(result.get(5), ((X)result.get(8)).innerObj);
+    }
+
+    public void testReadsDefaultModeWithAttributes() {
+        final X x = new X(42);
+        x.aStr = "Codehaus";
+        x.innerObj = new Y();
+        x.innerObj.yField = "Y";
+
+        final XStream xstream = createXStream(0);
+        xstream.useAttributeFor(X.class, "anInt");
+        final String json = xstream.toXML(x);
+        assertEquals(x, xstream.fromXML(json));
+    }
+
+    public void testReadsValueOfNodeWithAttributes() {
+        final JsonReader reader = createReader("{'name': {'@a': 'A', '@b': 'B', '$': 'text'}}", 0);
+        assertEquals("name", reader.getNodeName());
+        assertEquals(2, reader.getAttributeCount());
+        assertEquals("a", reader.getAttributeName(0));
+        assertEquals("B", reader.getAttribute("b"));
+        assertEquals("B", reader.getAttribute(1));
+        assertNull(reader.getAttribute("c"));
+        assertEquals("text", reader.getValue());
+        assertFalse(reader.hasMoreChildren());
+    }
+
+    public void testNamesArrayElementsAfterTheirJsonType() {
+        final JsonReader reader = createReader(""
+            + "{'array': ['a', 1, 12345678901, 123456789012345678901234567890, 1.5, 1e3, true, null, [1], {'b': 2}]}",
+            0);
+        final List<String> names = new ArrayList<>();
+        final List<String> values = new ArrayList<>();
+        while (reader.hasMoreChildren()) {
+            reader.moveDown();
+            names.add(reader.getNodeName());
+            values.add(reader.getValue());
+            reader.moveUp();
+        }
+        assertEquals(Arrays.asList("string", "int", "long", "big-int", "double", "double", "boolean", "null", "list",
+            "object"), names);
+        assertEquals(Arrays.asList("a", "1", "12345678901", "123456789012345678901234567890", "1.5", "1e3", "true", "",
+            "", ""), values);
+    }
+
+    public void testReadsListOfValuesInDefaultMode() {
+        final List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < 10000; ++i) {
+            list.add(Integer.valueOf(i));
+        }
+        final XStream xstream = createXStream(0);
+        assertEquals(list, xstream.fromXML(xstream.toXML(list)));
+    }
+
+    public void testReadsDocumentWithoutRootNode() {
+        final JsonReader reader = new JsonReader(new StringReader("{\"aStr\": \"Joe\", \"anInt\": 1}"),
+            AbstractJsonWriter.DROP_ROOT_MODE, "X", new NoNameCoder());
+        assertEquals("X", reader.getNodeName());
+        assertEquals(1, reader.getLevel());
+        reader.moveDown();
+        assertEquals("aStr", reader.getNodeName());
+        assertEquals(2, reader.getLevel());
+        reader.moveUp();
+        reader.moveDown();
+        assertEquals("anInt", reader.getNodeName());
+        assertEquals("1", reader.getValue());
+        reader.moveUp();
+        assertFalse(reader.hasMoreChildren());
+
+        final JsonReader single = new JsonReader(new StringReader("\"Joe\""), AbstractJsonWriter.DROP_ROOT_MODE,
+            "string", new NoNameCoder());
+        assertEquals("Joe", single.getValue());
+    }
+
+    public void testRejectsSingleValueAsRootInStrictMode() {
+        try {
+            new JsonReader(new StringReader("\"Joe\""), AbstractJsonWriter.DROP_ROOT_MODE
+                | AbstractJsonWriter.STRICT_MODE, "string", new NoNameCoder());
+            fail("Thrown " + StreamException.class.getName() + " expected");
+        } catch (final StreamException e) {
+            assertEquals("Single value cannot be root element", e.getMessage());
+        }
+    }
+
+    public void testRequiresRootNameWithoutRootNode() {
+        try {
+            createReader("{}", AbstractJsonWriter.DROP_ROOT_MODE);
+            fail("Thrown " + IllegalArgumentException.class.getName() + " expected");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testUnescapesLongStrings() {
+        final StringBuilder expected = new StringBuilder();
+        final StringBuilder json = new StringBuilder("{\"string\": \"");
+        for (int i = 0; i < 5000; ++i) {
+            expected.append("\"\\/\b\f\n\r\t\u00e4\u0001");
+            json.append("\\\"\\\\\\/\\b\\f\\n\\r\\t\\u00E4\\u0001");
+        }
+        json.append("\"}");
+        final JsonReader reader = new JsonReader(new StringReader(json.toString()));
+        assertEquals(expected.toString(), reader.getValue());
+    }
+
+    public void testPeeksNextChild() {
+        final JsonReader reader = createReader("{'a': [[], [{'b': [[], ['x']]}, {'c': [[], []]}]]}",
+            AbstractJsonWriter.EXPLICIT_MODE);
+        assertEquals("b", reader.peekNextChild());
+        reader.moveDown();
+        assertEquals("b", reader.getNodeName());
+        assertEquals("x", reader.getValue());
+        assertNull(reader.peekNextChild());
+        reader.moveUp();
+        assertEquals("c", reader.peekNextChild());
+        assertEquals("c", reader.peekNextChild());
+        assertTrue(reader.hasMoreChildren());
+        reader.moveDown();
+        assertEquals("", reader.getValue());
+        reader.moveUp();
+        assertNull(reader.peekNextChild());
+    }
+
+    public void testSkipsUnreadChildren() {
+        final JsonReader reader = createReader("{'a': {'b': {'c': [1, 2, {'d': 3}]}, 'e': 'f'}}", 0);
+        reader.moveDown();
+        assertEquals("b", reader.getNodeName());
+        reader.moveUp();
+        reader.moveDown();
+        assertEquals("e", reader.getNodeName());
+        assertEquals("f", reader.getValue());
+        reader.moveUp();
+        assertFalse(reader.hasMoreChildren());
+    }
+
+    public void testReportsSyntaxErrors() {
+        try {
+            final JsonReader reader = createReader("{'a': {\n'b': 1\n'c': 2}}", 0);
+            reader.moveDown();
+            reader.moveUp();
+            reader.hasMoreChildren();
+            reader.moveDown();
+            fail("Thrown " + StreamException.class.getName() + " expected");
+        } catch (final StreamException e) {
+            assertEquals("No more child nodes of a at line 3", e.getMessage());
+        }
+        try {
+            createReader("{'a': tru}", 0);
+            fail("Thrown " + StreamException.class.getName() + " expected");
+        } catch (final StreamException e) {
+            assertEquals("Invalid JSON token tru at line 1", e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2011, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2011, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -152,4 +152,37 @@ public class PathTrackerTest extends TestCase {
         // ...
     }
 
+    public void testCountsManyDistinctSiblings() {
+        pathTracker.pushElement("root");
+        for (int i = 0; i < 3; ++i) {
+            for (int j = 0; j < 20; ++j) {
+                pathTracker.pushElement("child" + j);
+                if (i > 0) {
+                    assertEquals("child" + j + "[" + (i + 1) + "]", pathTracker.peekElement());
+                } else {
+                    assertEquals("child" + j, pathTracker.peekElement());
+                }
+                pathTracker.popElement();
+            }
+        }
+        pathTracker.popElement();
+
+        pathTracker.pushElement("root");
+        assertEquals(new Path("/root[2]"), pathTracker.getPath());
+        pathTracker.pushElement("child0");
+        assertEquals(new Path("/root[2]/child0"), pathTracker.getPath());
+    }
+
+    public void testClearResetsSiblingCounters() {
+        pathTracker.pushElement("root");
+        pathTracker.pushElement("child");
+        pathTracker.popElement();
+        pathTracker.pushElement("child");
+        assertEquals(new Path("/root/child[2]"), pathTracker.getPath());
+
+        pathTracker.clear();
+        pathTracker.pushElement("root");
+        pathTracker.pushElement("child");
+        assertEquals(new Path("/root/child"), pathTracker.getPath());
+    }
 }
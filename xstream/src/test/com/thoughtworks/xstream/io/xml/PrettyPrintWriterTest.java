@@ -1,6 +1,6 @@
 /*
  * Copyright (C) 2004, 2005 Joe Walnes.
- * Copyright (C) 2006, 2007, 2008, 2013, 2018 XStream Committers.
+ * Copyright (C) 2006, 2007, 2008, 2013, 2018, 2026 XStream Committers.
  * All rights reserved.
  *
  * The software in this package is published under the terms of the BSD
@@ -11,10 +11,15 @@
  */
 package com.thoughtworks.xstream.io.xml;
 
+import java.io.ByteArrayOutputStream;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 
 import com.thoughtworks.xstream.core.util.QuickWriter;
 import com.thoughtworks.xstream.io.StreamException;
+import com.thoughtworks.xstream.io.naming.NameToken;
+import com.thoughtworks.xstream.io.naming.NameTokens;
+import com.thoughtworks.xstream.io.naming.NoNameCoder;
 
 
 public class PrettyPrintWriterTest extends AbstractXMLWriterTest {
@@ -295,6 +300,67 @@ public class PrettyPrintWriterTest extends AbstractXMLWriterTest {
         assertXmlProducedIs("<tag>&#xd7ff;\ue000\ufffd</tag>");
     }
 
+    public void testWritesUtf8IntoStream() {
+        final String text = "J\u00f6rg <&> \"'\r\t\n\u0000 \u20ac\ud83d\ude00 Walnes";
+        writeDocument(new PrettyPrintWriter(buffer, "  "), text);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeDocument(new PrettyPrintWriter(out), text);
+        assertEquals(buffer.toString(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    public void testWritesNameTokens() {
+        final XmlFriendlyNameCoder nameCoder = new XmlFriendlyNameCoder();
+        final PrettyPrintWriter tokenWriter = new PrettyPrintWriter(buffer, PrettyPrintWriter.XML_QUIRKS, nameCoder);
+        final NameTokens nameTokens = tokenWriter.getNameTokens();
+        assertSame(nameCoder.getNameTokens(), nameTokens);
+        final NameToken token = nameTokens.node("a$b_\u00e4");
+        assertEquals("a_-b__\u00e4", token.getEncodedName());
+        assertSame(token, nameTokens.node("a$b_\u00e4"));
+        assertNotSame(token, nameTokens.attribute("a$b_\u00e4"));
+
+        tokenWriter.startNode(token, null);
+        tokenWriter.addAttribute(nameTokens.attribute("x$"), "1");
+        tokenWriter.startNode(nameTokens.node("y$"), null);
+        tokenWriter.setValue("v");
+        tokenWriter.endNode();
+        tokenWriter.endNode();
+        tokenWriter.flush();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final PrettyPrintWriter stringWriter = new PrettyPrintWriter(out, PrettyPrintWriter.XML_QUIRKS, nameCoder);
+        stringWriter.startNode("a$b_\u00e4");
+        stringWriter.addAttribute("x$", "1");
+        stringWriter.startNode("y$");
+        stringWriter.setValue("v");
+        stringWriter.endNode();
+        stringWriter.endNode();
+        stringWriter.flush();
+        assertEquals(buffer.toString(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    public void testProvidesNoNameTokensIfNamesAreHandledDifferently() {
+        assertNull(new PrettyPrintWriter(buffer, new NoNameCoder()).getNameTokens());
+        assertNotNull(new CompactWriter(buffer).getNameTokens());
+        writer = new PrettyPrintWriter(buffer) {
+            @Override
+            public String encodeNode(final String name) {
+                return name.toUpperCase();
+            }
+        };
+        assertNull(((PrettyPrintWriter)writer).getNameTokens());
+    }
+
+    private void writeDocument(final PrettyPrintWriter writer, final String text) {
+        writer.startNode("root");
+        writer.addAttribute("text", text);
+        for (int i = 0; i < 500; ++i) {
+            writer.startNode("item");
+            writer.setValue(text);
+            writer.endNode();
+        }
+        writer.endNode();
+        writer.close();
+    }
+
     private String replace(final String in, final char what, final String with) {
         final int pos = in.indexOf(what);
         if (pos == -1) {
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.mapper;
+
+import com.thoughtworks.acceptance.AbstractAcceptanceTest;
+import com.thoughtworks.acceptance.objects.Software;
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.converters.basic.StringConverter;
+import com.thoughtworks.xstream.core.ClassLoaderReference;
+import com.thoughtworks.xstream.core.DefaultConverterLookup;
+
+
+public class CachingMapperTest extends AbstractAcceptanceTest {
+
+    static class CountingMapper extends MapperWrapper {
+        int calls;
+
+        CountingMapper(final Mapper wrapped) {
+            super(wrapped);
+        }
+
+        @Override
+        public String serializedClass(final Class<?> type) {
+            ++calls;
+            return super.serializedClass(type);
+        }
+
+        @Override
+        public String serializedMember(final Class<?> type, final String memberName) {
+            ++calls;
+            return super.serializedMember(type, memberName);
+        }
+
+        @Override
+        public String realMember(final Class<?> type, final String serialized) {
+            ++calls;
+            return super.realMember(type, serialized);
+        }
+
+        @Override
+        public Class<?> defaultImplementationOf(final Class<?> type) {
+            ++calls;
+            return super.defaultImplementationOf(type);
+        }
+
+        @Override
+        public String aliasForSystemAttribute(final String attribute) {
+            ++calls;
+            return attribute.equals("class") ? null : super.aliasForSystemAttribute(attribute);
+        }
+
+        @Override
+        public ImplicitCollectionMapping getImplicitCollectionDefForFieldName(final Class<?> itemType,
+                final String fieldName) {
+            ++calls;
+            return super.getImplicitCollectionDefForFieldName(itemType, fieldName);
+        }
+    }
+
+    public void testAnswersRepeatedLookupsFromCache() {
+        final CountingMapper counter = new CountingMapper(new DefaultMapper(new ClassLoaderReference(getClass()
+            .getClassLoader())));
+        final CachingMapper mapper = new CachingMapper(counter);
+
+        for (int i = 0; i < 3; ++i) {
+            assertEquals(Software.class.getName(), mapper.serializedClass(Software.class));
+            assertEquals("vendor", mapper.serializedMember(Software.class, "vendor"));
+            assertEquals(Software.class, mapper.defaultImplementationOf(Software.class));
+            assertNull(mapper.aliasForSystemAttribute("class"));
+            assertNull(mapper.getImplicitCollectionDefForFieldName(Software.class, "name"));
+        }
+        assertEquals(5, counter.calls);
+
+        mapper.flushCache();
+        assertEquals("vendor", mapper.serializedMember(Software.class, "vendor"));
+        assertNull(mapper.aliasForSystemAttribute("class"));
+        assertEquals(7, counter.calls);
+    }
+
+    public void testUnknownMemberNamesDoNotGrowTheCache() {
+        final CountingMapper counter = new CountingMapper(new DefaultMapper(new ClassLoaderReference(getClass()
+            .getClassLoader())));
+        final CachingMapper mapper = new CachingMapper(counter);
+
+        assertEquals("vendor", mapper.realMember(Software.class, "vendor"));
+        for (int i = 0; i < 2000; ++i) {
+            assertEquals("unknown" + i, mapper.realMember(Software.class, "unknown" + i));
+        }
+        assertEquals(2001, counter.calls);
+
+        counter.calls = 0;
+        assertEquals("vendor", mapper.realMember(Software.class, "vendor"));
+        assertEquals(0, counter.calls);
+        for (int i = 0; i < 2000; ++i) {
+            assertEquals("unknown" + i, mapper.realMember(Software.class, "unknown" + i));
+        }
+        assertTrue(counter.calls > 1000);
+        assertTrue(counter.calls < 2000);
+    }
+
+    public void testConfigurationFlushesCache() {
+        final Software in = new Software("ms", "word");
+        assertEquals(""
+            + "<com.thoughtworks.acceptance.objects.Software>\n"
+            + "  <vendor>ms</vendor>\n"
+            + "  <name>word</name>\n"
+            + "</com.thoughtworks.acceptance.objects.Software>", xstream.toXML(in));
+
+        xstream.alias("software", Software.class);
+        xstream.aliasField("company", Software.class, "vendor");
+        xstream.useAttributeFor(Software.class, "name");
+        xstream.omitField(Software.class, "name");
+
+        assertEquals(""
+            + "<software>\n"
+            + "  <company>ms</company>\n"
+            + "</software>", xstream.toXML(in));
+    }
+
+    public void testConfigurationFlushesCachesOfCustomConverterLookup() {
+        final DefaultConverterLookup lookup = new DefaultConverterLookup();
+        xstream = new XStream(null, createDriver(), new ClassLoaderReference(getClass().getClassLoader()), null,
+            lookup, lookup);
+        final Software in = new Software("ms", "word");
+        xstream.alias("software", Software.class);
+        assertEquals(""
+            + "<software>\n"
+            + "  <vendor>ms</vendor>\n"
+            + "  <name>word</name>\n"
+            + "</software>", xstream.toXML(in));
+
+        xstream.aliasField("company", Software.class, "vendor");
+
+        assertEquals(""
+            + "<software>\n"
+            + "  <company>ms</company>\n"
+            + "  <name>word</name>\n"
+            + "</software>", xstream.toXML(in));
+    }
+
+    public void testDirectConfigurationOfMapperRequiresFlush() {
+        final Software in = new Software("ms", "word");
+        xstream.alias("software", Software.class);
+        assertEquals(""
+            + "<software>\n"
+            + "  <vendor>ms</vendor>\n"
+            + "  <name>word</name>\n"
+            + "</software>", xstream.toXML(in));
+
+        xstream.getMapper().lookupMapperOfType(FieldAliasingMapper.class).addFieldAlias("company", Software.class,
+            "vendor");
+        xstream.flushCaches();
+
+        assertEquals(""
+            + "<software>\n"
+            + "  <company>ms</company>\n"
+            + "  <name>word</name>\n"
+            + "</software>", xstream.toXML(in));
+    }
+
+    public void testRegistrationAfterUseIsHonoured() {
+        final Software in = new Software("ms", "word");
+        xstream.alias("software", Software.class);
+        xstream.useAttributeFor(Software.class, "vendor");
+        assertEquals(""
+            + "<software vendor=\"ms\">\n"
+            + "  <name>word</name>\n"
+            + "</software>", xstream.toXML(in));
+
+        xstream.registerConverter(new StringConverter() {
+            @Override
+            public String toString(final Object obj) {
+                return ((String)obj).toUpperCase();
+            }
+        }, XStream.PRIORITY_VERY_HIGH);
+
+        assertEquals(""
+            + "<software vendor=\"MS\">\n"
+            + "  <name>WORD</name>\n"
+            + "</software>", xstream.toXML(in));
+    }
+}
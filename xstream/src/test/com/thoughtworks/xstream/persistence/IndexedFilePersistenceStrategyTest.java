@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2026 XStream Committers.
+ * All rights reserved.
+ *
+ * The software in this package is published under the terms of the BSD
+ * style license a copy of which has been included with this distribution in
+ * the LICENSE.txt file.
+ *
+ * Created on 18. October 2026
+ */
+package com.thoughtworks.xstream.persistence;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.StreamException;
+import com.thoughtworks.xstream.io.xml.DomDriver;
+
+import junit.framework.TestCase;
+
+
+public class IndexedFilePersistenceStrategyTest extends TestCase {
+
+    private final File baseDir = new File("target/tmp");
+    private final File file = new File(baseDir, "indexed.dat");
+    private IndexedFilePersistenceStrategy<String, String> strategy;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        baseDir.mkdirs();
+        file.delete();
+        strategy = new IndexedFilePersistenceStrategy<>(file);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        strategy.close();
+        file.delete();
+        super.tearDown();
+    }
+
+    public void testStoresAndRetrievesValues() {
+        assertNull(strategy.put("guilherme", "aCuteString"));
+        assertNull(strategy.put("silveira", "anotherCuteString"));
+        assertEquals(2, strategy.size());
+        assertEquals("aCuteString", strategy.get("guilherme"));
+        assertEquals("aCuteString", strategy.put("guilherme", "aNewString"));
+        assertEquals("aNewString", strategy.get("guilherme"));
+        assertEquals(2, strategy.size());
+        assertEquals("anotherCuteString", strategy.remove("silveira"));
+        assertNull(strategy.get("silveira"));
+        assertNull(strategy.remove("silveira"));
+        assertEquals(1, strategy.size());
+    }
+
+    public void testRebuildsIndexFromFile() {
+        strategy.put("guilherme", "aCuteString");
+        strategy.put("silveira", "anotherCuteString");
+        strategy.put("guilherme", "aNewString");
+        strategy.remove("silveira");
+        strategy.put(null, "null key");
+        strategy.close();
+
+        strategy = new IndexedFilePersistenceStrategy<>(file);
+        assertEquals(2, strategy.size());
+        assertEquals("aNewString", strategy.get("guilherme"));
+        assertEquals("null key", strategy.get(null));
+        assertFalse(strategy.containsKey("silveira"));
+        assertTrue(strategy.getGarbageSize() > 0);
+    }
+
+    public void testDropsIncompleteRecord() throws Exception {
+        strategy.put("guilherme", "aCuteString");
+        strategy.put("silveira", "anotherCuteString");
+        strategy.close();
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+
+        strategy = new IndexedFilePersistenceStrategy<>(file);
+        assertEquals(1, strategy.size());
+        assertEquals("aCuteString", strategy.get("guilherme"));
+        strategy.put("silveira", "aNewString");
+        assertEquals("aNewString", strategy.get("silveira"));
+    }
+
+    public void testDropsRecordWithKeyBeyondEndOfFile() throws Exception {
+        strategy.put("guilherme", "aCuteString");
+        strategy.close();
+        final long length = file.length();
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(length);
+            raf.writeByte(1);
+            raf.writeInt(Integer.MAX_VALUE);
+            raf.writeBytes("<string>");
+        }
+
+        strategy = new IndexedFilePersistenceStrategy<>(file);
+        assertEquals(1, strategy.size());
+        assertEquals("aCuteString", strategy.get("guilherme"));
+        assertEquals(length, file.length());
+    }
+
+    public void testRejectsNegativeValueLength() throws Exception {
+        strategy.put("guilherme", "aCuteString");
+        strategy.put("silveira", "anotherCuteString");
+        strategy.close();
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            // value length of the first record follows its type, key length and key
+            raf.seek(1);
+            raf.seek(1 + 4 + raf.readInt());
+            raf.writeInt(-1);
+        }
+
+        try {
+            new IndexedFilePersistenceStrategy<String, String>(file);
+            fail("Thrown " + StreamException.class.getName() + " expected");
+        } catch (final StreamException e) {
+            assertTrue(e.getMessage().startsWith("Corrupt data file"));
+        }
+    }
+
+    public void testCompactsFile() {
+        for (int i = 0; i < 10; ++i) {
+            strategy.put("key" + i, "value" + i);
+        }
+        for (int i = 0; i < 10; i += 2) {
+            strategy.remove("key" + i);
+        }
+        strategy.put("key1", "new value");
+        final long length = file.length();
+        strategy.compact();
+        assertEquals(0, strategy.getGarbageSize());
+        assertTrue(file.length() < length);
+        assertEquals(5, strategy.size());
+        assertEquals("new value", strategy.get("key1"));
+        assertEquals("value3", strategy.get("key3"));
+        strategy.close();
+
+        strategy = new IndexedFilePersistenceStrategy<>(file);
+        assertEquals(5, strategy.size());
+        assertEquals(0, strategy.getGarbageSize());
+        assertEquals("value9", strategy.get("key9"));
+    }
+
+    public void testDoesNotLoadOldValuesIfNotRequested() {
+        strategy.close();
+        strategy = new IndexedFilePersistenceStrategy<>(file, new XStream(new DomDriver()), false);
+        strategy.put("guilherme", "aCuteString");
+        assertNull(strategy.put("guilherme", "aNewString"));
+        assertNull(strategy.remove("guilherme"));
+        assertEquals(0, strategy.size());
+    }
+
+    public void testIteratesAndRemovesEntries() {
+        final XmlMap<String, String> map = new XmlMap<>(strategy);
+        map.put("guilherme", "aCuteString");
+        map.put("silveira", "anotherCuteString");
+        int count = 0;
+        for (final Iterator<Map.Entry<String, String>> iter = map.entrySet().iterator(); iter.hasNext();) {
+            final Map.Entry<String, String> entry = iter.next();
+            assertEquals(entry.getKey().equals("guilherme") ? "aCuteString" : "anotherCuteString", entry.getValue());
+            if (entry.getKey().equals("silveira")) {
+                iter.remove();
+            }
+            ++count;
+        }
+        assertEquals(2, count);
+        assertEquals(1, map.size());
+        assertFalse(map.containsKey("silveira"));
+    }
+
+    public void testCanBeUsedForXmlArrayList() {
+        strategy.close();
+        final IndexedFilePersistenceStrategy<Integer, String> listStrategy = new IndexedFilePersistenceStrategy<>(file);
+        try {
+            final List<String> list = new XmlArrayList<>(listStrategy);
+            list.add("one");
+            list.add("two");
+            list.add("three");
+            assertEquals(3, list.size());
+            assertEquals("two", list.set(1, "four"));
+            assertEquals("four", list.remove(1));
+            assertEquals(2, list.size());
+            assertEquals("three", list.get(1));
+        } finally {
+            listStrategy.close();
+            strategy = new IndexedFilePersistenceStrategy<>(file);
+        }
+    }
+}